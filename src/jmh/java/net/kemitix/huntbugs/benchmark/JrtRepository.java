@@ -0,0 +1,129 @@
+package net.kemitix.huntbugs.benchmark;
+
+import com.strobel.assembler.metadata.Buffer;
+import com.strobel.assembler.metadata.ITypeLoader;
+import one.util.huntbugs.repo.Repository;
+import one.util.huntbugs.repo.RepositoryVisitor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * A HuntBugs {@link Repository} over modules of the {@code jrt:/} file system of the running JDK.
+ *
+ * <p>Only the classes of the selected modules are visited, but classes from every module can be loaded so that
+ * references out of the selected modules resolve.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class JrtRepository implements Repository {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private static final String MODULE_INFO = "module-info";
+
+    private final Map<String, Path> allClasses = new HashMap<>();
+
+    private final SortedMap<String, List<String>> selectedPackages = new TreeMap<>();
+
+    private int selectedCount;
+
+    /**
+     * Index the classes of the runtime image.
+     *
+     * @param modules the names of the modules whose classes are to be visited
+     *
+     * @throws IOException if the runtime image can not be read
+     */
+    JrtRepository(final Collection<String> modules) throws IOException {
+        final FileSystem jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+        final Path root = jrt.getPath("/modules");
+        try (Stream<Path> moduleDirs = Files.list(root)) {
+            for (final Path moduleDir : (Iterable<Path>) moduleDirs::iterator) {
+                final boolean selected = modules.contains(moduleDir.getFileName()
+                                                                   .toString());
+                index(moduleDir, selected);
+            }
+        }
+    }
+
+    private void index(final Path moduleDir, final boolean selected) throws IOException {
+        try (Stream<Path> paths = Files.walk(moduleDir)) {
+            paths.filter(path -> path.toString()
+                                     .endsWith(CLASS_SUFFIX))
+                 .forEach(path -> {
+                     final String relative = moduleDir.relativize(path)
+                                                      .toString();
+                     final String internalName = relative.substring(0, relative.length() - CLASS_SUFFIX.length());
+                     if (internalName.equals(MODULE_INFO)) {
+                         return;
+                     }
+                     allClasses.putIfAbsent(internalName, path);
+                     if (selected) {
+                         select(internalName);
+                     }
+                 });
+        }
+    }
+
+    private void select(final String internalName) {
+        final int slash = internalName.lastIndexOf('/');
+        final String packageName = slash < 0 ? "" : internalName.substring(0, slash);
+        selectedPackages.computeIfAbsent(packageName, p -> new ArrayList<>())
+                        .add(internalName);
+        selectedCount++;
+    }
+
+    /**
+     * The number of classes that will be visited.
+     *
+     * @return the number of classes in the selected modules
+     */
+    int size() {
+        return selectedCount;
+    }
+
+    @Override
+    public ITypeLoader createTypeLoader() {
+        return this::tryLoadType;
+    }
+
+    private boolean tryLoadType(final String internalName, final Buffer buffer) {
+        final Path path = allClasses.get(internalName);
+        if (path == null) {
+            return false;
+        }
+        final byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.reset(bytes.length);
+        buffer.putByteArray(bytes, 0, bytes.length);
+        buffer.position(0);
+        return true;
+    }
+
+    @Override
+    public void visit(final String rootPackage, final RepositoryVisitor visitor) {
+        selectedPackages.forEach((packageName, classNames) -> {
+            if (packageName.startsWith(rootPackage) && visitor.visitPackage(packageName)) {
+                classNames.forEach(visitor::visitClass);
+            }
+        });
+    }
+}
@@ -0,0 +1,187 @@
+package net.kemitix.huntbugs.benchmark;
+
+import com.sun.management.ThreadMXBean;
+import net.kemitix.huntbugs.CohesivePlugin;
+import one.util.huntbugs.analysis.AnalysisOptions;
+import one.util.huntbugs.analysis.Context;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * End-to-end benchmark of the cohesive detector within the HuntBugs analysis pipeline, over the classes of the
+ * running JDK's {@code jrt:/} runtime image.
+ *
+ * <p>Usage: {@code JrtThroughputBenchmark [module[,module...]...]}, defaulting to {@code java.base}. The number of
+ * unmeasured warm-up runs is set by the {@value #WARM_UP_PROPERTY} system property, defaulting to one.</p>
+ *
+ * <p>Each run is made twice: with only the cohesive plugin registered and, as the baseline, with no plugin
+ * registered, so that the cost of the plugin is the difference between them. Each reports the classes analysed per
+ * second, the p50 and p99 latency of each class and the bytes allocated per class by the threads of the run.</p>
+ *
+ * <p>HuntBugs has no hook around the detectors of a single class, so the latency of a class is the time between the
+ * start of that class and the start of the next one on the same worker thread, which covers building the class's
+ * AST as well as the detector's {@code init} to {@code analyse}. The last class on each thread is not timed. Likewise,
+ * the allocation of a worker thread is counted per class, so it is counted even after the thread has ended, but not
+ * for its last class.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public final class JrtThroughputBenchmark {
+
+    static final String WARM_UP_PROPERTY = "net.kemitix.huntbugs.benchmark.warmup";
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static final Predicate<String> COHESIVE_PLUGIN = CohesivePlugin.class.getName()::equals;
+
+    private static final Predicate<String> NO_PLUGIN = plugin -> false;
+
+    private final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final JrtRepository repository;
+
+    private JrtThroughputBenchmark(final JrtRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args the modules to analyse
+     *
+     * @throws IOException if the runtime image can not be read
+     */
+    public static void main(final String[] args) throws IOException {
+        final List<String> modules = Arrays.stream(args)
+                                           .flatMap(arg -> Arrays.stream(arg.split(",")))
+                                           .filter(module -> !module.isEmpty())
+                                           .collect(Collectors.toCollection(ArrayList::new));
+        if (modules.isEmpty()) {
+            modules.add("java.base");
+        }
+        final JrtRepository repository = new JrtRepository(modules);
+        System.out.printf("jrt:/ modules %s: %d classes%n", modules, repository.size());
+        final JrtThroughputBenchmark benchmark = new JrtThroughputBenchmark(repository);
+        benchmark.enableAllocationCounting();
+        final int warmUps = Integer.getInteger(WARM_UP_PROPERTY, 1);
+        for (int i = 1; i <= warmUps; i++) {
+            final long start = System.nanoTime();
+            benchmark.run(COHESIVE_PLUGIN);
+            benchmark.run(NO_PLUGIN);
+            System.out.printf("warm-up %d/%d: %.1f s%n", i, warmUps, (System.nanoTime() - start) / NANOS_PER_SECOND);
+        }
+        final Run plugin = benchmark.run(COHESIVE_PLUGIN);
+        final Run baseline = benchmark.run(NO_PLUGIN);
+        benchmark.report("cohesive plugin", plugin);
+        benchmark.report("baseline, no plugin", baseline);
+        benchmark.reportDifference(plugin, baseline);
+    }
+
+    private void enableAllocationCounting() {
+        if (threadMXBean.isThreadAllocatedMemorySupported()) {
+            threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    private Run run(final Predicate<String> plugins) {
+        final Run run = new Run();
+        final ThreadLocal<long[]> previous = new ThreadLocal<>();
+        final Thread thread = Thread.currentThread();
+        final ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(new PluginFilterClassLoader(contextClassLoader, plugins));
+        final long allocatedBefore = allocatedBytes();
+        final long start = System.nanoTime();
+        try {
+            final Context context = new Context(repository, new AnalysisOptions());
+            context.addListener((stepName, className, count, total) -> {
+                if (className != null) {
+                    final long[] now = {System.nanoTime(), allocatedBytes()};
+                    final long[] last = previous.get();
+                    if (last != null) {
+                        // the main thread's allocation is counted once, around the whole run
+                        run.record(stepName, now[0] - last[0], Thread.currentThread() == thread ? 0 : now[1] - last[1]);
+                    }
+                    previous.set(now);
+                }
+                return true;
+            });
+            context.analyzePackage("");
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+        run.finish(System.nanoTime() - start, allocatedBytes() - allocatedBefore);
+        return run;
+    }
+
+    /**
+     * The bytes allocated by the current thread.
+     *
+     * @return the bytes allocated, or -1 if they are not counted
+     */
+    private long allocatedBytes() {
+        if (!threadMXBean.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread()
+                                                          .getId());
+    }
+
+    private void report(final String name, final Run run) {
+        final int classes = repository.size();
+        System.out.printf("%s:%n", name);
+        run.steps.forEach((stepName, latencies) -> System.out.printf(
+                "  step '%s': %d classes, p50 %.3f ms, p99 %.3f ms%n", stepName, latencies.size(),
+                latencies.percentile(50) / NANOS_PER_MILLI, latencies.percentile(99) / NANOS_PER_MILLI));
+        System.out.printf("  throughput: %.1f classes/s%n", classes * NANOS_PER_SECOND / run.elapsed);
+        if (run.allocated >= 0) {
+            System.out.printf("  allocated: %d bytes/class%n", run.allocated / Math.max(1, classes));
+        }
+    }
+
+    private void reportDifference(final Run plugin, final Run baseline) {
+        final int classes = Math.max(1, repository.size());
+        System.out.printf("cohesive plugin cost: %.3f ms/class%n",
+                          (plugin.elapsed - baseline.elapsed) / NANOS_PER_MILLI / classes);
+        if (plugin.allocated >= 0 && baseline.allocated >= 0) {
+            System.out.printf("cohesive plugin cost: %d bytes/class%n",
+                              (plugin.allocated - baseline.allocated) / classes);
+        }
+    }
+
+    /**
+     * The measurements of one run, recorded from every worker thread.
+     */
+    private static final class Run {
+
+        private final Map<String, LatencyRecorder> steps = new ConcurrentHashMap<>();
+
+        private final AtomicLong workerAllocated = new AtomicLong();
+
+        private long elapsed;
+
+        private long allocated;
+
+        private void record(final String stepName, final long latency, final long allocatedBytes) {
+            steps.computeIfAbsent(stepName, s -> new LatencyRecorder())
+                 .record(latency);
+            workerAllocated.addAndGet(allocatedBytes);
+        }
+
+        private void finish(final long elapsedNanos, final long mainAllocated) {
+            elapsed = elapsedNanos;
+            allocated = mainAllocated < 0 ? -1 : mainAllocated + workerAllocated.get();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package net.kemitix.huntbugs.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Records latencies, from any thread, and reports percentiles of them.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+
+    private int size;
+
+    /**
+     * Record a latency.
+     *
+     * @param latency the latency in nanoseconds
+     */
+    synchronized void record(final long latency) {
+        if (size == latencies.length) {
+            latencies = Arrays.copyOf(latencies, size * 2);
+        }
+        latencies[size++] = latency;
+    }
+
+    /**
+     * The number of latencies recorded.
+     *
+     * @return the number of latencies
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * The latency at a percentile, using the nearest-rank method.
+     *
+     * @param percentile the percentile, from 0 to 100
+     *
+     * @return the latency in nanoseconds, or zero if none have been recorded
+     */
+    synchronized long percentile(final double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        final long[] sorted = Arrays.copyOf(latencies, size);
+        Arrays.sort(sorted);
+        final int rank = (int) Math.ceil(percentile / 100 * size);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
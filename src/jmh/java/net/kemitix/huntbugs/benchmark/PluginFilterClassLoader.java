@@ -0,0 +1,71 @@
+package net.kemitix.huntbugs.benchmark;
+
+import one.util.huntbugs.spi.HuntBugsPlugin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A context class loader that hides the HuntBugs plugins that are not selected from the plugin discovery of a run.
+ *
+ * <p>Only the service files registering {@link HuntBugsPlugin}s are filtered, classes are loaded by the parent.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class PluginFilterClassLoader extends ClassLoader {
+
+    private static final String SERVICE = "META-INF/services/" + HuntBugsPlugin.class.getName();
+
+    private final Predicate<String> selected;
+
+    /**
+     * Constructor.
+     *
+     * @param parent   the class loader to delegate to
+     * @param selected selects the plugins to be discovered by their class name
+     */
+    PluginFilterClassLoader(final ClassLoader parent, final Predicate<String> selected) {
+        super(parent);
+        this.selected = selected;
+    }
+
+    @Override
+    public Enumeration<URL> getResources(final String name) throws IOException {
+        final Enumeration<URL> resources = super.getResources(name);
+        if (!SERVICE.equals(name)) {
+            return resources;
+        }
+        final List<URL> kept = new ArrayList<>();
+        for (final URL resource : Collections.list(resources)) {
+            if (pluginNames(resource).stream()
+                                     .anyMatch(selected)) {
+                kept.add(resource);
+            }
+        }
+        return Collections.enumeration(kept);
+    }
+
+    private static List<String> pluginNames(final URL resource) throws IOException {
+        final List<String> names = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final int comment = line.indexOf('#');
+                final String name = (comment < 0 ? line : line.substring(0, comment)).trim();
+                if (!name.isEmpty()) {
+                    names.add(name);
+                }
+            }
+        }
+        return names;
+    }
+}
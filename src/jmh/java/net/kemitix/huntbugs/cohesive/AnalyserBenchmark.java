@@ -0,0 +1,63 @@
+package net.kemitix.huntbugs.cohesive;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link Analyser} implementations.
+ *
+ * <p>{@link UnionFindAnalyser} is measured alongside {@link DefaultAnalyser} from the same class shapes. Only the
+ * components are read, as the detector reads them.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyserBenchmark {
+
+    private static final BeanMethods BEAN_METHODS = BeanMethods.defaultInstance(MethodSignature.defaultInstance());
+
+    private static final Analyser DEFAULT_ANALYSER = Analyser.defaultInstance(BEAN_METHODS);
+
+    private static final Analyser UNION_FIND_ANALYSER = Analyser.unionFindInstance(BEAN_METHODS);
+
+    private static final Analyser PARALLEL_ANALYSER = Analyser.parallelInstance(BEAN_METHODS, 0);
+
+    @Benchmark
+    public Set<Component> defaultAnalyser(final SyntheticClassState state) {
+        final SyntheticClass syntheticClass = state.getSyntheticClass();
+        return DEFAULT_ANALYSER.analyse(syntheticClass.getUsedByMethod(), syntheticClass.getNonPrivateMethods(),
+                                        syntheticClass.getFields()
+                                       )
+                               .getComponents();
+    }
+
+    @Benchmark
+    public Set<Component> unionFindAnalyser(final SyntheticClassState state) {
+        final SyntheticClass syntheticClass = state.getSyntheticClass();
+        return UNION_FIND_ANALYSER.analyse(syntheticClass.toUsageGraph(), syntheticClass.getNonPrivateMethods(),
+                                           syntheticClass.getFields()
+                                          )
+                                  .getComponents();
+    }
+
+    @Benchmark
+    public Set<Component> parallelAnalyser(final SyntheticClassState state) {
+        final SyntheticClass syntheticClass = state.getSyntheticClass();
+        return PARALLEL_ANALYSER.analyse(syntheticClass.toUsageGraph(), syntheticClass.getNonPrivateMethods(),
+                                         syntheticClass.getFields()
+                                        )
+                                .getComponents();
+    }
+}
@@ -0,0 +1,46 @@
+package net.kemitix.huntbugs.cohesive;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link BeanMethodsImpl}, checking every method of a class against its fields.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanMethodsBenchmark {
+
+    private static final BeanMethods BEAN_METHODS = BeanMethods.defaultInstance(MethodSignature.defaultInstance());
+
+    @Benchmark
+    public void isNotBeanMethod(final SyntheticClassState state, final Blackhole blackhole) {
+        final SyntheticClass syntheticClass = state.getSyntheticClass();
+        final Set<String> fields = syntheticClass.getFields();
+        for (final String method : syntheticClass.getMethods()) {
+            blackhole.consume(BEAN_METHODS.isNotBeanMethod(method, fields));
+        }
+    }
+
+    @Benchmark
+    public void index(final SyntheticClassState state, final Blackhole blackhole) {
+        final SyntheticClass syntheticClass = state.getSyntheticClass();
+        final BeanMethodIndex index = BEAN_METHODS.index(syntheticClass.getFields());
+        for (final String method : syntheticClass.getMethods()) {
+            blackhole.consume(index.isNotBeanMethod(method));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package net.kemitix.huntbugs.cohesive;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link HtmlBreakdownFormatter}, formatting the true components of a class.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HtmlBreakdownFormatterBenchmark {
+
+    private static final BreakdownFormatter BREAKDOWN_FORMATTER = BreakdownFormatter.defaultInstance();
+
+    @Benchmark
+    public String apply(final SyntheticClassState state) {
+        return BREAKDOWN_FORMATTER.apply(state.getSyntheticClass()
+                                              .getComponents());
+    }
+}
@@ -0,0 +1,94 @@
+package net.kemitix.huntbugs.cohesive;
+
+import com.strobel.assembler.metadata.ClasspathTypeLoader;
+import com.strobel.assembler.metadata.MemberReference;
+import com.strobel.assembler.metadata.MetadataSystem;
+import com.strobel.assembler.metadata.TypeDefinition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link DefaultMethodSignature} and {@link CachingMethodSignature}.
+ *
+ * <p>Signatures are created for the requested number of methods and fields, taken from classes in the JDK. Edge
+ * density and the number of components do not apply to creating signatures.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodSignatureBenchmark {
+
+    private static final String[] TYPES = {
+            "java/lang/String", "java/lang/Character", "java/lang/Character$UnicodeBlock", "java/lang/Math",
+            "java/util/Arrays", "java/util/Collections", "java/util/concurrent/ConcurrentHashMap"
+    };
+
+    private final List<MemberReference> members = new ArrayList<>();
+
+    private final MethodSignature defaultSignature = MethodSignature.defaultInstance();
+
+    private final MethodSignature cachingSignature = MethodSignature.cachingInstance();
+
+    @Param({"10", "100", "500"})
+    private int methodCount;
+
+    @Param({"5", "50", "250"})
+    private int fieldCount;
+
+    /**
+     * Load the members to create signatures for.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        final MetadataSystem metadataSystem = new MetadataSystem(new ClasspathTypeLoader());
+        final List<MemberReference> methods = new ArrayList<>();
+        final List<MemberReference> fields = new ArrayList<>();
+        for (final String type : TYPES) {
+            final TypeDefinition typeDefinition = metadataSystem.lookupType(type)
+                                                                .resolve();
+            methods.addAll(typeDefinition.getDeclaredMethods());
+            fields.addAll(typeDefinition.getDeclaredFields());
+        }
+        for (int i = 0; i < methodCount; i++) {
+            members.add(methods.get(i % methods.size()));
+        }
+        for (int i = 0; i < fieldCount; i++) {
+            members.add(fields.get(i % fields.size()));
+        }
+    }
+
+    @Benchmark
+    public void defaultSignature(final Blackhole blackhole) {
+        for (final MemberReference member : members) {
+            blackhole.consume(defaultSignature.create(member));
+        }
+    }
+
+    @Benchmark
+    public void cachingSignature(final Blackhole blackhole) {
+        final MethodSignature classSignature = cachingSignature.forClass();
+        for (final MemberReference member : members) {
+            blackhole.consume(classSignature.create(member));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package net.kemitix.huntbugs.cohesive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * A generated class shape to benchmark the analysis against.
+ *
+ * <p>Members are dealt round-robin into a number of true components. The methods of each component are chained
+ * together, each field is used by one method of its component, and any other usage within a component is added with
+ * the probability given by the edge density. Every third method is named as a bean accessor for a field.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class SyntheticClass {
+
+    private static final long SEED = 42L;
+
+    private final List<String> methods = new ArrayList<>();
+
+    private final Set<String> fields = new HashSet<>();
+
+    private final Map<String, Set<String>> usedByMethod = new HashMap<>();
+
+    private final Set<Component> components = new HashSet<>();
+
+    /**
+     * Generate a class.
+     *
+     * @param methodCount    the number of methods
+     * @param fieldCount     the number of fields
+     * @param edgeDensity    the probability of each optional usage within a component, from 0 to 1
+     * @param componentCount the number of true components, at most the number of methods
+     */
+    SyntheticClass(final int methodCount, final int fieldCount, final double edgeDensity, final int componentCount) {
+        final int count = Math.max(1, Math.min(componentCount, methodCount));
+        final List<List<String>> componentMethods = partition(count);
+        final List<List<String>> componentFields = partition(count);
+        for (int i = 0; i < fieldCount; i++) {
+            final String field = "field" + i;
+            fields.add(field);
+            componentFields.get(i % count)
+                           .add(field);
+        }
+        for (int i = 0; i < methodCount; i++) {
+            final String method = methodName(i);
+            methods.add(method);
+            componentMethods.get(i % count)
+                            .add(method);
+        }
+        final Random random = new Random(SEED);
+        for (int c = 0; c < count; c++) {
+            connect(componentMethods.get(c), componentFields.get(c), edgeDensity, random);
+        }
+    }
+
+    private static List<List<String>> partition(final int count) {
+        final List<List<String>> lists = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lists.add(new ArrayList<>());
+        }
+        return lists;
+    }
+
+    private static String methodName(final int i) {
+        if (i % 3 == 0) {
+            return "getField" + i + "()I";
+        }
+        return "method" + i + "()V";
+    }
+
+    private void connect(
+            final List<String> componentMethods, final List<String> componentFields, final double edgeDensity,
+            final Random random
+                        ) {
+        if (componentMethods.isEmpty()) {
+            return;
+        }
+        final List<String> members = new ArrayList<>(componentMethods);
+        members.addAll(componentFields);
+        for (int i = 0; i < componentMethods.size(); i++) {
+            final String method = componentMethods.get(i);
+            final Set<String> used = usedByMethod.computeIfAbsent(method, m -> new HashSet<>());
+            if (i + 1 < componentMethods.size()) {
+                used.add(componentMethods.get(i + 1));
+            }
+            for (final String member : members) {
+                if (!member.equals(method) && random.nextDouble() < edgeDensity) {
+                    used.add(member);
+                }
+            }
+        }
+        for (int i = 0; i < componentFields.size(); i++) {
+            usedByMethod.get(componentMethods.get(i % componentMethods.size()))
+                        .add(componentFields.get(i));
+        }
+        components.add(Component.from(members));
+    }
+
+    List<String> getMethods() {
+        return Collections.unmodifiableList(methods);
+    }
+
+    Set<String> getNonPrivateMethods() {
+        return new HashSet<>(methods);
+    }
+
+    Set<String> getFields() {
+        return Collections.unmodifiableSet(fields);
+    }
+
+    Map<String, Set<String>> getUsedByMethod() {
+        return Collections.unmodifiableMap(usedByMethod);
+    }
+
+    Set<Component> getComponents() {
+        return Collections.unmodifiableSet(components);
+    }
+
+    UsageGraph toUsageGraph() {
+        final UsageGraph usageGraph = new UsageGraph();
+        methods.forEach(usageGraph::addMethod);
+        usedByMethod.forEach((method, used) -> used.forEach(member -> usageGraph.addUsage(method, member)));
+        return usageGraph;
+    }
+}
@@ -0,0 +1,42 @@
+package net.kemitix.huntbugs.cohesive;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark state holding a {@link SyntheticClass} for each combination of the parameters.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@State(Scope.Benchmark)
+public class SyntheticClassState {
+
+    @Param({"10", "100", "500"})
+    private int methodCount;
+
+    @Param({"5", "50", "250"})
+    private int fieldCount;
+
+    @Param({"0.05", "0.5"})
+    private double edgeDensity;
+
+    @Param({"1", "10"})
+    private int componentCount;
+
+    private SyntheticClass syntheticClass;
+
+    /**
+     * Generate the class for the current parameters.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        syntheticClass = new SyntheticClass(methodCount, fieldCount, edgeDensity, componentCount);
+    }
+
+    SyntheticClass getSyntheticClass() {
+        return syntheticClass;
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.bytecode;
+
+import lombok.RequiredArgsConstructor;
+import net.kemitix.huntbugs.cache.CacheKey;
+import net.kemitix.huntbugs.cache.ResultCache;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+
+import java.util.Optional;
+
+/**
+ * Implementation of {@link ClassFileAnalyser} that replays the result for a class file that has been analysed before.
+ *
+ * <p>A result is resolved before it is stored, so the cache holds none of the state of the analysis and a result
+ * replayed to several threads at once has nothing left to compute. Callers must not add to a result they are
+ * given.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@RequiredArgsConstructor
+class CachingClassFileAnalyser implements ClassFileAnalyser {
+
+    private final ClassFileAnalyser classFileAnalyser;
+
+    private final ResultCache resultCache;
+
+    @Override
+    public final AnalysisResult analyse(final byte[] classFile) {
+        final CacheKey key = CacheKey.of(classFile);
+        final Optional<AnalysisResult> cached = resultCache.get(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        final AnalysisResult result = classFileAnalyser.analyse(classFile)
+                                                       .resolved();
+        resultCache.put(key, result);
+        return result;
+    }
+}
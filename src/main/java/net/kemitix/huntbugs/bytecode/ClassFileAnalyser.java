@@ -0,0 +1,86 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.bytecode;
+
+import net.kemitix.huntbugs.cache.ResultCache;
+import net.kemitix.huntbugs.cohesive.Analyser;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.BeanMethods;
+import net.kemitix.huntbugs.cohesive.MethodSignature;
+
+/**
+ * Analyses the cohesion of a class from its class file, without decompiling it.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public interface ClassFileAnalyser {
+
+    /**
+     * Analyse the cohesion of a class.
+     *
+     * @param classFile the contents of the class file
+     *
+     * @return an AnalysisResult object
+     *
+     * @throws IllegalArgumentException if the class file is malformed
+     */
+    AnalysisResult analyse(byte[] classFile);
+
+    /**
+     * Create an instance of the default implementation of {@link ClassFileAnalyser}.
+     *
+     * @return an instance of ClassFileAnalyser
+     */
+    static ClassFileAnalyser defaultInstance() {
+        final BeanMethods beanMethods = BeanMethods.defaultInstance(MethodSignature.defaultInstance());
+        return defaultInstance(ReferenceExtractor.defaultInstance(), beanMethods,
+                               Analyser.unionFindInstance(beanMethods)
+                              );
+    }
+
+    /**
+     * Create an instance of the default implementation of {@link ClassFileAnalyser}.
+     *
+     * @param referenceExtractor the extractor of usages from the class file
+     * @param beanMethods        bean method identifier
+     * @param analyser           the analyser of the usages
+     *
+     * @return an instance of ClassFileAnalyser
+     */
+    static ClassFileAnalyser defaultInstance(
+            final ReferenceExtractor referenceExtractor, final BeanMethods beanMethods, final Analyser analyser
+                                            ) {
+        return new ClassFileAnalyserImpl(referenceExtractor, beanMethods, analyser);
+    }
+
+    /**
+     * Create a {@link ClassFileAnalyser} that replays the results of class files that have been analysed before.
+     *
+     * @param classFileAnalyser the analyser for class files not in the cache
+     * @param resultCache       the cache of results
+     *
+     * @return an instance of ClassFileAnalyser
+     */
+    static ClassFileAnalyser caching(final ClassFileAnalyser classFileAnalyser, final ResultCache resultCache) {
+        return new CachingClassFileAnalyser(classFileAnalyser, resultCache);
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.bytecode;
+
+import lombok.RequiredArgsConstructor;
+import net.kemitix.huntbugs.cohesive.Analyser;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.BeanMethodIndex;
+import net.kemitix.huntbugs.cohesive.BeanMethods;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Default implementation of {@link ClassFileAnalyser}.
+ *
+ * <p>Bean methods are removed from the non-private methods as they are by the detector before the usages are passed
+ * to the {@link Analyser}.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@RequiredArgsConstructor
+class ClassFileAnalyserImpl implements ClassFileAnalyser {
+
+    private final ReferenceExtractor referenceExtractor;
+
+    private final BeanMethods beanMethods;
+
+    private final Analyser analyser;
+
+    @Override
+    public final AnalysisResult analyse(final byte[] classFile) {
+        final ClassUsages classUsages = referenceExtractor.extract(classFile);
+        final Set<String> fields = classUsages.getFields();
+        final BeanMethodIndex beanMethodIndex = beanMethods.index(fields);
+        final Set<String> nonPrivateMethods = classUsages.getNonPrivateMethods()
+                                                         .stream()
+                                                         .filter(beanMethodIndex::isNotBeanMethod)
+                                                         .collect(Collectors.toSet());
+        return analyser.analyse(classUsages.getUsageGraph(), nonPrivateMethods, fields, beanMethodIndex);
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.bytecode;
+
+import lombok.NonNull;
+import net.kemitix.huntbugs.cohesive.SymbolTable;
+import net.kemitix.huntbugs.cohesive.UsageGraph;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Implementation of {@link ReferenceExtractor} that reads the constant pool and the {@code Code} attribute of each
+ * method directly, without decompiling.
+ *
+ * <p>Each {@code getfield}, {@code putfield}, {@code getstatic}, {@code putstatic} and {@code invoke*} instruction
+ * whose owner is the class itself is recorded as a usage by the enclosing method, as the detector records field and
+ * method references whose declaring type is the class. Constructors, static initialisers and bridge methods are not
+ * analysed, nor counted as non-private methods, as the detector does not walk them. Methods are identified by their
+ * name and descriptor.</p>
+ *
+ * <p>An {@code invokedynamic} call site is not followed to the method it is bound to, so the members used by the body
+ * of a lambda are used by the synthetic method that holds it, not by the method that creates the lambda.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+class ClassFileReferenceExtractor implements ReferenceExtractor {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int ACC_PRIVATE = 0x0002;
+
+    private static final int ACC_BRIDGE = 0x0040;
+
+    private static final String CONSTRUCTOR = "<init>";
+
+    private static final String STATIC_INITIALIZER = "<clinit>";
+
+    private static final String CODE = "Code";
+
+    private static final int UNRESOLVED = -2;
+
+    private static final int NOT_OWN_MEMBER = -1;
+
+    @Override
+    public final ClassUsages extract(@NonNull final byte[] classFile) {
+        try {
+            return read(ByteBuffer.wrap(classFile));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated class file", e);
+        }
+    }
+
+    private ClassUsages read(final ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a class file");
+        }
+        skip(buffer, 4);
+        final ConstantPool constantPool = ConstantPool.read(buffer);
+        skip(buffer, 2);
+        final int thisClass = u2(buffer);
+        skip(buffer, 2);
+        skip(buffer, u2(buffer) * 2);
+        final Set<String> fields = readFields(buffer, constantPool);
+        final ClassReader reader = new ClassReader(buffer, constantPool, thisClass);
+        final Set<String> nonPrivateMethods = reader.readMethods();
+        return new ClassUsages(constantPool.className(thisClass), fields, nonPrivateMethods, reader.usageGraph);
+    }
+
+    private static Set<String> readFields(final ByteBuffer buffer, final ConstantPool constantPool) {
+        final int count = u2(buffer);
+        final Set<String> fields = new HashSet<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            skip(buffer, 2);
+            fields.add(constantPool.utf8(u2(buffer)));
+            skip(buffer, 2);
+            skipAttributes(buffer);
+        }
+        return fields;
+    }
+
+    private static void skipAttributes(final ByteBuffer buffer) {
+        final int count = u2(buffer);
+        for (int i = 0; i < count; i++) {
+            skip(buffer, 2);
+            skip(buffer, buffer.getInt());
+        }
+    }
+
+    private static int u2(final ByteBuffer buffer) {
+        return Short.toUnsignedInt(buffer.getShort());
+    }
+
+    private static void skip(final ByteBuffer buffer, final int length) {
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        buffer.position(buffer.position() + length);
+    }
+
+    /**
+     * Reads the methods of one class, recording usages into a new usage graph.
+     */
+    private static final class ClassReader {
+
+        private final ByteBuffer buffer;
+
+        private final ConstantPool constantPool;
+
+        private final int thisClass;
+
+        private final String className;
+
+        private final UsageGraph usageGraph = new UsageGraph();
+
+        private final SymbolTable symbols = usageGraph.getSymbols();
+
+        private final int[] usedSymbols;
+
+        ClassReader(final ByteBuffer buffer, final ConstantPool constantPool, final int thisClass) {
+            this.buffer = buffer;
+            this.constantPool = constantPool;
+            this.thisClass = thisClass;
+            className = constantPool.className(thisClass);
+            usedSymbols = new int[constantPool.size()];
+            Arrays.fill(usedSymbols, UNRESOLVED);
+        }
+
+        Set<String> readMethods() {
+            final int count = u2(buffer);
+            final Set<String> nonPrivateMethods = new HashSet<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                final int access = u2(buffer);
+                final String name = constantPool.utf8(u2(buffer));
+                final String signature = name + constantPool.utf8(u2(buffer));
+                final boolean walked = !CONSTRUCTOR.equals(name) && !STATIC_INITIALIZER.equals(name)
+                        && (access & ACC_BRIDGE) == 0;
+                if (walked && (access & ACC_PRIVATE) == 0) {
+                    nonPrivateMethods.add(signature);
+                }
+                if (walked) {
+                    readMethodAttributes(symbols.intern(signature));
+                } else {
+                    skipAttributes(buffer);
+                }
+            }
+            return nonPrivateMethods;
+        }
+
+        private void readMethodAttributes(final int method) {
+            final int count = u2(buffer);
+            for (int i = 0; i < count; i++) {
+                final String name = constantPool.utf8(u2(buffer));
+                final int length = buffer.getInt();
+                if (CODE.equals(name)) {
+                    scanCode(method, buffer.position());
+                }
+                skip(buffer, length);
+            }
+        }
+
+        private void scanCode(final int method, final int attribute) {
+            final int codeLength = buffer.getInt(attribute + 4);
+            final int start = attribute + 8;
+            if (codeLength < 0 || start + codeLength > buffer.limit()) {
+                throw new BufferUnderflowException();
+            }
+            int pc = 0;
+            while (pc < codeLength) {
+                final int opcode = Byte.toUnsignedInt(buffer.get(start + pc));
+                if (opcode >= Instructions.GETSTATIC && opcode <= Instructions.INVOKEINTERFACE) {
+                    final int used = usedSymbol(Short.toUnsignedInt(buffer.getShort(start + pc + 1)));
+                    if (used != NOT_OWN_MEMBER) {
+                        usageGraph.addUsage(method, used);
+                    }
+                }
+                pc += Instructions.length(buffer, start, pc);
+            }
+        }
+
+        private int usedSymbol(final int reference) {
+            int used = usedSymbols[reference];
+            if (used == UNRESOLVED) {
+                used = resolve(reference);
+                usedSymbols[reference] = used;
+            }
+            return used;
+        }
+
+        private int resolve(final int reference) {
+            final int classIndex = constantPool.referenceClass(reference);
+            if (classIndex != thisClass && !className.equals(constantPool.className(classIndex))) {
+                return NOT_OWN_MEMBER;
+            }
+            final String name = constantPool.referenceName(reference);
+            if (constantPool.tag(reference) == ConstantPool.FIELD_REF) {
+                return symbols.intern(name);
+            }
+            return symbols.intern(name + constantPool.referenceDescriptor(reference));
+        }
+    }
+}
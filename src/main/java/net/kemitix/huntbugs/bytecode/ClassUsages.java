@@ -0,0 +1,97 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.bytecode;
+
+import net.kemitix.huntbugs.cohesive.UsageGraph;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The members of a class and the fields and methods of the class used by each of its methods.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public final class ClassUsages {
+
+    private final String className;
+
+    private final Set<String> fields;
+
+    private final Set<String> nonPrivateMethods;
+
+    private final UsageGraph usageGraph;
+
+    /**
+     * Constructor.
+     *
+     * @param className         the internal name of the class
+     * @param fields            the names of the fields declared by the class
+     * @param nonPrivateMethods the signatures of the non-private methods, excluding constructors
+     * @param usageGraph        the fields and methods used by each method
+     */
+    ClassUsages(
+            final String className, final Set<String> fields, final Set<String> nonPrivateMethods,
+            final UsageGraph usageGraph
+               ) {
+        this.className = className;
+        this.fields = fields;
+        this.nonPrivateMethods = nonPrivateMethods;
+        this.usageGraph = usageGraph;
+    }
+
+    /**
+     * The internal name of the class.
+     *
+     * @return the class name, e.g. {@code net/kemitix/huntbugs/CohesivePlugin}
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * The names of the fields declared by the class.
+     *
+     * @return a set of field names
+     */
+    public Set<String> getFields() {
+        return Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * The signatures of the non-private methods declared by the class, excluding constructors.
+     *
+     * @return a set of method signatures
+     */
+    public Set<String> getNonPrivateMethods() {
+        return Collections.unmodifiableSet(nonPrivateMethods);
+    }
+
+    /**
+     * The fields and methods of the class used by each of its methods.
+     *
+     * @return the usage graph
+     */
+    public UsageGraph getUsageGraph() {
+        return usageGraph;
+    }
+}
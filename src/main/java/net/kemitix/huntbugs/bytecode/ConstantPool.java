@@ -0,0 +1,267 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.bytecode;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The constant pool of a class file.
+ *
+ * <p>Entries are located by their offset in the class file and strings are only decoded when first needed.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class ConstantPool {
+
+    static final int UTF8 = 1;
+
+    static final int CLASS = 7;
+
+    static final int FIELD_REF = 9;
+
+    static final int METHOD_REF = 10;
+
+    static final int INTERFACE_METHOD_REF = 11;
+
+    private static final int INTEGER = 3;
+
+    private static final int FLOAT = 4;
+
+    private static final int LONG = 5;
+
+    private static final int DOUBLE = 6;
+
+    private static final int STRING = 8;
+
+    private static final int NAME_AND_TYPE = 12;
+
+    private static final int METHOD_HANDLE = 15;
+
+    private static final int METHOD_TYPE = 16;
+
+    private static final int DYNAMIC = 17;
+
+    private static final int INVOKE_DYNAMIC = 18;
+
+    private static final int MODULE = 19;
+
+    private static final int PACKAGE = 20;
+
+    private final ByteBuffer buffer;
+
+    private final byte[] tags;
+
+    private final int[] offsets;
+
+    private final String[] strings;
+
+    private ConstantPool(final ByteBuffer buffer, final int count) {
+        this.buffer = buffer;
+        tags = new byte[count];
+        offsets = new int[count];
+        strings = new String[count];
+    }
+
+    /**
+     * Read the constant pool, leaving the buffer positioned after it.
+     *
+     * @param buffer the class file, positioned at the constant pool count
+     *
+     * @return the constant pool
+     */
+    static ConstantPool read(final ByteBuffer buffer) {
+        final ConstantPool constantPool = new ConstantPool(buffer, Short.toUnsignedInt(buffer.getShort()));
+        for (int index = 1; index < constantPool.size(); index++) {
+            final int tag = Byte.toUnsignedInt(buffer.get());
+            constantPool.tags[index] = (byte) tag;
+            constantPool.offsets[index] = buffer.position();
+            final int length = entryLength(buffer, tag);
+            if (length > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            buffer.position(buffer.position() + length);
+            if (tag == LONG || tag == DOUBLE) {
+                index++;
+            }
+        }
+        return constantPool;
+    }
+
+    private static int entryLength(final ByteBuffer buffer, final int tag) {
+        switch (tag) {
+        case UTF8:
+            return 2 + Short.toUnsignedInt(buffer.getShort(buffer.position()));
+        case CLASS:
+        case STRING:
+        case METHOD_TYPE:
+        case MODULE:
+        case PACKAGE:
+            return 2;
+        case METHOD_HANDLE:
+            return 3;
+        case INTEGER:
+        case FLOAT:
+        case FIELD_REF:
+        case METHOD_REF:
+        case INTERFACE_METHOD_REF:
+        case NAME_AND_TYPE:
+        case DYNAMIC:
+        case INVOKE_DYNAMIC:
+            return 4;
+        case LONG:
+        case DOUBLE:
+            return 8;
+        default:
+            throw new IllegalArgumentException("Unknown constant pool tag: " + tag);
+        }
+    }
+
+    /**
+     * The number of slots in the constant pool, including the unused slot zero.
+     *
+     * @return the size of the constant pool
+     */
+    int size() {
+        return tags.length;
+    }
+
+    /**
+     * The tag of an entry.
+     *
+     * @param index the index of the entry
+     *
+     * @return the tag
+     */
+    int tag(final int index) {
+        return tags[index];
+    }
+
+    /**
+     * The string value of a {@code CONSTANT_Utf8} entry.
+     *
+     * @param index the index of the entry
+     *
+     * @return the string
+     */
+    String utf8(final int index) {
+        expect(index, UTF8);
+        String string = strings[index];
+        if (string == null) {
+            string = decode(offsets[index]);
+            strings[index] = string;
+        }
+        return string;
+    }
+
+    /**
+     * The internal name of a {@code CONSTANT_Class} entry.
+     *
+     * @param index the index of the entry
+     *
+     * @return the class name, e.g. {@code java/lang/String}
+     */
+    String className(final int index) {
+        expect(index, CLASS);
+        return utf8(u2(offsets[index]));
+    }
+
+    /**
+     * The index of the class entry of a field or method reference.
+     *
+     * @param index the index of the reference entry
+     *
+     * @return the index of the class entry
+     */
+    int referenceClass(final int index) {
+        return u2(offsets[index]);
+    }
+
+    /**
+     * The name of the member of a field or method reference.
+     *
+     * @param index the index of the reference entry
+     *
+     * @return the member name
+     */
+    String referenceName(final int index) {
+        return utf8(u2(nameAndType(index)));
+    }
+
+    /**
+     * The descriptor of the member of a field or method reference.
+     *
+     * @param index the index of the reference entry
+     *
+     * @return the member descriptor
+     */
+    String referenceDescriptor(final int index) {
+        return utf8(u2(nameAndType(index) + 2));
+    }
+
+    private int nameAndType(final int index) {
+        final int nameAndType = u2(offsets[index] + 2);
+        expect(nameAndType, NAME_AND_TYPE);
+        return offsets[nameAndType];
+    }
+
+    private void expect(final int index, final int tag) {
+        if (index <= 0 || index >= tags.length || tags[index] != tag) {
+            throw new IllegalArgumentException("Expected constant pool tag " + tag + " at " + index);
+        }
+    }
+
+    private int u2(final int offset) {
+        return Short.toUnsignedInt(buffer.getShort(offset));
+    }
+
+    private String decode(final int offset) {
+        final int length = u2(offset);
+        final int start = offset + 2;
+        final byte[] bytes = new byte[length];
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(start + i);
+            ascii &= bytes[i] > 0;
+        }
+        if (ascii) {
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+        return decodeModifiedUtf8(offset, length);
+    }
+
+    private String decodeModifiedUtf8(final int offset, final int length) {
+        final byte[] bytes = new byte[length + 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        try {
+            return new DataInputStream(new ByteArrayInputStream(bytes)).readUTF();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid string in constant pool", e);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.bytecode;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Opcodes and instruction lengths of JVM bytecode.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@SuppressWarnings("magicnumber")
+final class Instructions {
+
+    static final int GETSTATIC = 0xb2;
+
+    static final int PUTSTATIC = 0xb3;
+
+    static final int GETFIELD = 0xb4;
+
+    static final int PUTFIELD = 0xb5;
+
+    static final int INVOKEVIRTUAL = 0xb6;
+
+    static final int INVOKESPECIAL = 0xb7;
+
+    static final int INVOKESTATIC = 0xb8;
+
+    static final int INVOKEINTERFACE = 0xb9;
+
+    private static final int IINC = 0x84;
+
+    private static final int TABLESWITCH = 0xaa;
+
+    private static final int LOOKUPSWITCH = 0xab;
+
+    private static final int WIDE = 0xc4;
+
+    private static final int OPCODE_COUNT = 256;
+
+    /**
+     * The length of each instruction with a fixed length, or zero for variable length and undefined opcodes.
+     */
+    private static final byte[] LENGTHS = new byte[OPCODE_COUNT];
+
+    static {
+        fill(0x00, 0x0f, 1);
+        LENGTHS[0x10] = 2;
+        LENGTHS[0x11] = 3;
+        LENGTHS[0x12] = 2;
+        fill(0x13, 0x14, 3);
+        fill(0x15, 0x19, 2);
+        fill(0x1a, 0x35, 1);
+        fill(0x36, 0x3a, 2);
+        fill(0x3b, 0x83, 1);
+        LENGTHS[IINC] = 3;
+        fill(0x85, 0x98, 1);
+        fill(0x99, 0xa8, 3);
+        LENGTHS[0xa9] = 2;
+        fill(0xac, 0xb1, 1);
+        fill(GETSTATIC, INVOKESTATIC, 3);
+        fill(INVOKEINTERFACE, 0xba, 5);
+        LENGTHS[0xbb] = 3;
+        LENGTHS[0xbc] = 2;
+        LENGTHS[0xbd] = 3;
+        fill(0xbe, 0xbf, 1);
+        fill(0xc0, 0xc1, 3);
+        fill(0xc2, 0xc3, 1);
+        LENGTHS[0xc5] = 4;
+        fill(0xc6, 0xc7, 3);
+        fill(0xc8, 0xc9, 5);
+        LENGTHS[0xca] = 1;
+        fill(0xfe, 0xff, 1);
+    }
+
+    private Instructions() {
+    }
+
+    private static void fill(final int from, final int to, final int length) {
+        for (int opcode = from; opcode <= to; opcode++) {
+            LENGTHS[opcode] = (byte) length;
+        }
+    }
+
+    /**
+     * The length of the instruction at an offset in a method's code.
+     *
+     * @param code  the class file
+     * @param start the offset of the first instruction of the method in the class file
+     * @param pc    the offset of the instruction from the first instruction
+     *
+     * @return the length of the instruction in bytes
+     */
+    static int length(final ByteBuffer code, final int start, final int pc) {
+        final int opcode = Byte.toUnsignedInt(code.get(start + pc));
+        final int length = LENGTHS[opcode];
+        if (length > 0) {
+            return length;
+        }
+        switch (opcode) {
+        case WIDE:
+            if (Byte.toUnsignedInt(code.get(start + pc + 1)) == IINC) {
+                return 6;
+            }
+            return 4;
+        case TABLESWITCH:
+            return tableSwitchLength(code, start, pc);
+        case LOOKUPSWITCH:
+            return lookupSwitchLength(code, start, pc);
+        default:
+            throw new IllegalArgumentException("Unknown opcode: " + opcode);
+        }
+    }
+
+    private static int tableSwitchLength(final ByteBuffer code, final int start, final int pc) {
+        final int operands = operands(pc);
+        final int low = code.getInt(start + operands + 4);
+        final int high = code.getInt(start + operands + 8);
+        if (high < low) {
+            throw new IllegalArgumentException("Invalid tableswitch: low " + low + " is above high " + high);
+        }
+        return checkedLength(operands - pc + 12 + ((long) high - low + 1) * 4);
+    }
+
+    private static int lookupSwitchLength(final ByteBuffer code, final int start, final int pc) {
+        final int operands = operands(pc);
+        final int pairs = code.getInt(start + operands + 4);
+        if (pairs < 0) {
+            throw new IllegalArgumentException("Invalid lookupswitch: " + pairs + " pairs");
+        }
+        return checkedLength(operands - pc + 8 + (long) pairs * 8);
+    }
+
+    /**
+     * Reject a variable instruction length that is not positive or does not fit in an int, which would otherwise stall
+     * or reverse the scan of the code.
+     */
+    private static int checkedLength(final long length) {
+        if (length <= 0 || length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid instruction length: " + length);
+        }
+        return (int) length;
+    }
+
+    /**
+     * The offset of the operands of a switch, which are aligned to four bytes from the first instruction.
+     */
+    private static int operands(final int pc) {
+        return (pc + 4) & ~3;
+    }
+}
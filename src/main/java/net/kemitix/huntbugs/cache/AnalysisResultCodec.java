@@ -0,0 +1,194 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cache;
+
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.CohesionMetrics;
+import net.kemitix.huntbugs.cohesive.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Binary encoding of an {@link AnalysisResult}.
+ *
+ * <p>Each distinct member name is written once, in a sorted string table, and the non-bean methods and the members of
+ * each component are written as variable-length indexes into it, followed by the cohesion metrics.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class AnalysisResultCodec {
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final int VARINT_MASK = 0x7f;
+
+    private static final int VARINT_MORE = 0x80;
+
+    private AnalysisResultCodec() {
+    }
+
+    /**
+     * Encode a result.
+     *
+     * @param result the result
+     *
+     * @return the encoded result
+     */
+    static byte[] encode(final AnalysisResult result) {
+        final Set<String> nonBeanMethods = result.getNonBeanMethods();
+        final List<Set<String>> components = new ArrayList<>();
+        result.getComponents()
+              .forEach(component -> components.add(component.getMembers()));
+        final Set<String> strings = new TreeSet<>(nonBeanMethods);
+        components.forEach(strings::addAll);
+        final Map<String, Integer> indexes = new HashMap<>(strings.size() * 2);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            writeVarint(out, strings.size());
+            for (final String string : strings) {
+                indexes.put(string, indexes.size());
+                out.writeUTF(string);
+            }
+            writeIndexes(out, nonBeanMethods, indexes);
+            writeVarint(out, components.size());
+            for (final Set<String> members : components) {
+                writeIndexes(out, members, indexes);
+            }
+            writeMetrics(out, result.getMetrics());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a result.
+     *
+     * @param encoded the encoded result
+     *
+     * @return the result
+     *
+     * @throws IllegalArgumentException if the encoding is not valid
+     */
+    static AnalysisResult decode(final byte[] encoded) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            if (in.readUnsignedByte() != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unknown cache format");
+            }
+            final String[] strings = new String[readVarint(in)];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readUTF();
+            }
+            final AnalysisResult result = new AnalysisResult();
+            result.addNonBeanMethods(readStrings(in, strings));
+            final int componentCount = readVarint(in);
+            final Set<Component> components = new HashSet<>(componentCount * 2);
+            for (int i = 0; i < componentCount; i++) {
+                components.add(Component.from(readStrings(in, strings)));
+            }
+            result.addComponents(components);
+            result.setMetrics(readMetrics(in));
+            if (in.read() >= 0) {
+                throw new IllegalArgumentException("Trailing bytes in cached result");
+            }
+            return result;
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cached result", e);
+        }
+    }
+
+    private static void writeIndexes(
+            final DataOutput out, final Set<String> members, final Map<String, Integer> indexes
+                                    ) throws IOException {
+        writeVarint(out, members.size());
+        for (final String member : members) {
+            writeVarint(out, indexes.get(member));
+        }
+    }
+
+    private static Set<String> readStrings(final DataInput in, final String[] strings) throws IOException {
+        final int count = readVarint(in);
+        final Set<String> members = new HashSet<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            members.add(strings[readVarint(in)]);
+        }
+        return members;
+    }
+
+    private static void writeMetrics(final DataOutput out, final CohesionMetrics metrics) throws IOException {
+        out.writeLong(metrics.getLcom1());
+        out.writeLong(metrics.getLcom2());
+        writeVarint(out, metrics.getLcom3());
+        writeVarint(out, metrics.getLcom4());
+        out.writeDouble(metrics.getTcc());
+        out.writeDouble(metrics.getLcc());
+    }
+
+    private static CohesionMetrics readMetrics(final DataInput in) throws IOException {
+        final long lcom1 = in.readLong();
+        final long lcom2 = in.readLong();
+        final int lcom3 = readVarint(in);
+        final int lcom4 = readVarint(in);
+        final double tcc = in.readDouble();
+        final double lcc = in.readDouble();
+        return new CohesionMetrics(lcom1, lcom2, lcom3, lcom4, tcc, lcc);
+    }
+
+    private static void writeVarint(final DataOutput out, final int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~VARINT_MASK) != 0) {
+            out.writeByte((remaining & VARINT_MASK) | VARINT_MORE);
+            remaining >>>= 7;
+        }
+        out.writeByte(remaining);
+    }
+
+    private static int readVarint(final DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (b & VARINT_MASK) << shift;
+            if ((b & VARINT_MORE) == 0) {
+                if (value < 0) {
+                    throw new IOException("Negative length");
+                }
+                return value;
+            }
+        }
+        throw new IOException("Varint too long");
+    }
+}
@@ -0,0 +1,248 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cache;
+
+import lombok.NonNull;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * The key of a cached analysis result: a SHA-256 hash of the content analysed and the version and build of the plugin.
+ *
+ * <p>Including the plugin build means a new release, or a new snapshot build, of the plugin never replays results
+ * from an older one.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public final class CacheKey implements Comparable<CacheKey> {
+
+    static final String PLUGIN_VERSION = loadPluginVersion() + "+" + PluginBuild.current();
+
+    /**
+     * The length of a key in bytes.
+     */
+    static final int LENGTH = 32;
+
+    private static final String ALGORITHM = "SHA-256";
+
+    private final byte[] hash;
+
+    private CacheKey(final byte[] hash) {
+        this.hash = hash;
+    }
+
+    private static String loadPluginVersion() {
+        final Properties properties = new Properties();
+        try (InputStream in = CacheKey.class.getResourceAsStream("version.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return properties.getProperty("version", "unknown");
+    }
+
+    /**
+     * Create the key for some content, such as a class file.
+     *
+     * @param content the content
+     *
+     * @return the key
+     */
+    public static CacheKey of(@NonNull final byte[] content) {
+        return hasher().add(content)
+                       .build();
+    }
+
+    /**
+     * Create a hasher to build a key from several parts.
+     *
+     * @return the hasher
+     */
+    public static Hasher hasher() {
+        return new Hasher();
+    }
+
+    /**
+     * The hash as lower-case hexadecimal.
+     *
+     * @return the hash
+     */
+    public String toHex() {
+        return Hex.encode(hash);
+    }
+
+    /**
+     * Compare this key with another, in unsigned lexicographic order of their bytes.
+     *
+     * @param other the other key
+     *
+     * @return negative, zero or positive as this key is less than, equal to or greater than the other
+     */
+    @Override
+    public int compareTo(@NonNull final CacheKey other) {
+        for (int i = 0; i < LENGTH; i++) {
+            final int difference = Byte.toUnsignedInt(hash[i]) - Byte.toUnsignedInt(other.hash[i]);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Compare this key with a key held in a buffer, in unsigned lexicographic order of their bytes.
+     *
+     * @param buffer the buffer
+     * @param offset the offset of the other key in the buffer
+     *
+     * @return negative, zero or positive as this key is less than, equal to or greater than the other
+     */
+    int compareTo(final ByteBuffer buffer, final int offset) {
+        for (int i = 0; i < LENGTH; i++) {
+            final int difference = Byte.toUnsignedInt(hash[i]) - Byte.toUnsignedInt(buffer.get(offset + i));
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Read a key held in a buffer.
+     *
+     * @param buffer the buffer
+     * @param offset the offset of the key in the buffer
+     *
+     * @return the key
+     */
+    static CacheKey read(final ByteBuffer buffer, final int offset) {
+        final byte[] hash = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            hash[i] = buffer.get(offset + i);
+        }
+        return new CacheKey(hash);
+    }
+
+    /**
+     * Write the key.
+     *
+     * @param out the output
+     *
+     * @throws IOException if the key can not be written
+     */
+    void writeTo(final DataOutput out) throws IOException {
+        out.write(hash);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof CacheKey && Arrays.equals(hash, ((CacheKey) other).hash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(hash);
+    }
+
+    @Override
+    public String toString() {
+        return toHex();
+    }
+
+    /**
+     * Builds a {@link CacheKey} from several parts.
+     *
+     * <p>Each part is length-prefixed, so moving bytes from one part to the next gives a different key.</p>
+     */
+    public static final class Hasher {
+
+        private final MessageDigest digest;
+
+        private Hasher() {
+            try {
+                digest = MessageDigest.getInstance(ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            add(PLUGIN_VERSION);
+        }
+
+        /**
+         * Add a part.
+         *
+         * @param part the bytes to add
+         *
+         * @return this hasher
+         */
+        public Hasher add(@NonNull final byte[] part) {
+            add(part.length);
+            digest.update(part);
+            return this;
+        }
+
+        /**
+         * Add a part.
+         *
+         * @param part the string to add
+         *
+         * @return this hasher
+         */
+        public Hasher add(@NonNull final String part) {
+            return add(part.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Add a part.
+         *
+         * @param part the number to add
+         *
+         * @return this hasher
+         */
+        public Hasher add(final int part) {
+            digest.update((byte) (part >>> 24));
+            digest.update((byte) (part >>> 16));
+            digest.update((byte) (part >>> 8));
+            digest.update((byte) part);
+            return this;
+        }
+
+        /**
+         * Create the key from the parts added.
+         *
+         * @return the key
+         */
+        public CacheKey build() {
+            return new CacheKey(digest.digest());
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cache;
+
+import lombok.NonNull;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of {@link ResultCache} with a file for each result in a directory.
+ *
+ * <p>The total size of the files is bounded, and the least recently used files are deleted when a new result takes
+ * the total over the bound. Recency is kept in the modification time of each file, so it survives between runs.
+ * Files are written to a temporary file and moved into place, so several processes may share the directory.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+class DiskResultCache implements ResultCache {
+
+    private static final String SUFFIX = ".result";
+
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private static final Map<Path, ResultCache> SHARED = new ConcurrentHashMap<>();
+
+    private final Path directory;
+
+    private final long maxBytes;
+
+    /**
+     * The size of each file in the cache, in order of least to most recently used.
+     */
+    private final Map<String, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalBytes;
+
+    /**
+     * Constructor.
+     *
+     * @param directory the directory, created if needed
+     * @param maxBytes  the maximum total size of the files
+     */
+    DiskResultCache(@NonNull final Path directory, final long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(directory);
+            loadIndex();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Get the cache for a directory, shared by every caller in the JVM, scanning the directory on first use.
+     *
+     * @param directory the directory, created if needed
+     * @param maxBytes  the maximum total size of the files, of which the first caller's applies
+     *
+     * @return the shared cache
+     */
+    static ResultCache shared(final Path directory, final long maxBytes) {
+        return SHARED.computeIfAbsent(directory.toAbsolutePath()
+                                               .normalize(), path -> new DiskResultCache(path, maxBytes));
+    }
+
+    private void loadIndex() throws IOException {
+        final List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        final Map<Path, BasicFileAttributes> attributes = new LinkedHashMap<>();
+        for (final Path file : files) {
+            attributes.put(file, Files.readAttributes(file, BasicFileAttributes.class));
+        }
+        files.sort(Comparator.comparing(file -> attributes.get(file)
+                                                          .lastModifiedTime()));
+        for (final Path file : files) {
+            final long size = attributes.get(file)
+                                        .size();
+            sizes.put(file.getFileName()
+                          .toString(), size);
+            totalBytes += size;
+        }
+        evict();
+    }
+
+    @Override
+    public final Optional<AnalysisResult> get(@NonNull final CacheKey key) {
+        final String name = fileName(key);
+        final Path file = directory.resolve(name);
+        final byte[] encoded;
+        try {
+            encoded = Files.readAllBytes(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException e) {
+            forget(name);
+            return Optional.empty();
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+        final AnalysisResult result;
+        try {
+            result = AnalysisResultCodec.decode(encoded);
+        } catch (IllegalArgumentException e) {
+            delete(name);
+            return Optional.empty();
+        }
+        touch(name, encoded.length);
+        return Optional.of(result);
+    }
+
+    @Override
+    public final void put(@NonNull final CacheKey key, @NonNull final AnalysisResult result) {
+        final byte[] encoded = AnalysisResultCodec.encode(result);
+        if (encoded.length > maxBytes) {
+            return;
+        }
+        final String name = fileName(key);
+        try {
+            final Path temporary = Files.createTempFile(directory, name, TEMPORARY_SUFFIX);
+            try {
+                Files.write(temporary, encoded);
+                Files.move(temporary, directory.resolve(name), StandardCopyOption.REPLACE_EXISTING,
+                           StandardCopyOption.ATOMIC_MOVE
+                          );
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            return;
+        }
+        touch(name, encoded.length);
+        evict();
+    }
+
+    /**
+     * The total size of the files in the cache that this instance knows of.
+     *
+     * @return the total size in bytes
+     */
+    final synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private static String fileName(final CacheKey key) {
+        return key.toHex() + SUFFIX;
+    }
+
+    private synchronized void touch(final String name, final long size) {
+        final Long previous = sizes.put(name, size);
+        totalBytes += size - (previous == null ? 0 : previous);
+    }
+
+    private synchronized void forget(final String name) {
+        final Long previous = sizes.remove(name);
+        if (previous != null) {
+            totalBytes -= previous;
+        }
+    }
+
+    private void delete(final String name) {
+        forget(name);
+        try {
+            Files.deleteIfExists(directory.resolve(name));
+        } catch (IOException e) {
+            // the next run will try again
+        }
+    }
+
+    private void evict() {
+        final List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            final Iterator<Map.Entry<String, Long>> entries = sizes.entrySet()
+                                                                   .iterator();
+            while (totalBytes > maxBytes && entries.hasNext()) {
+                final Map.Entry<String, Long> eldest = entries.next();
+                totalBytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                entries.remove();
+            }
+        }
+        evicted.forEach(this::delete);
+    }
+}
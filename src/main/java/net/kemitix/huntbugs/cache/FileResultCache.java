@@ -0,0 +1,117 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kemitix.huntbugs.cache;
+
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of {@link ResultCache} that keeps every result in a single {@link MappedResultStore}.
+ *
+ * <p>Each flush rewrites the whole file, so results are flushed once the unflushed results number a quarter of those
+ * already in the file, or {@link #MIN_BATCH}, whichever is more. Any left over are flushed when the JVM exits.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class FileResultCache implements ResultCache {
+
+    static final int MIN_BATCH = 1024;
+
+    private static final Map<Path, ResultCache> SHARED = new ConcurrentHashMap<>();
+
+    private final MappedResultStore store;
+
+    private final AtomicInteger unflushed = new AtomicInteger();
+
+    private FileResultCache(final MappedResultStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Get the cache for a file, shared by every caller in the JVM, opening it on first use.
+     *
+     * <p>A file that is not a store is replaced. If the file can still not be opened, nothing is cached.</p>
+     *
+     * @param file the store file
+     *
+     * @return the shared cache
+     */
+    static ResultCache shared(final Path file) {
+        return SHARED.computeIfAbsent(file.toAbsolutePath()
+                                          .normalize(), FileResultCache::open);
+    }
+
+    private static ResultCache open(final Path file) {
+        final MappedResultStore store;
+        try {
+            store = openOrReplace(file);
+        } catch (IOException e) {
+            return ResultCache.none();
+        }
+        final FileResultCache cache = new FileResultCache(store);
+        Runtime.getRuntime()
+               .addShutdownHook(new Thread(cache::flush, "cohesive-result-store"));
+        return cache;
+    }
+
+    private static MappedResultStore openOrReplace(final Path file) throws IOException {
+        try {
+            return MappedResultStore.open(file);
+        } catch (IOException | IllegalArgumentException e) {
+            Files.deleteIfExists(file);
+            return MappedResultStore.open(file);
+        }
+    }
+
+    @Override
+    public Optional<AnalysisResult> get(final CacheKey key) {
+        return store.get(key);
+    }
+
+    @Override
+    public void put(final CacheKey key, final AnalysisResult result) {
+        store.put(key, result);
+        if (unflushed.incrementAndGet() >= Math.max(MIN_BATCH, store.size() / 4)) {
+            unflushed.set(0);
+            flush();
+        }
+    }
+
+    /**
+     * Write the unflushed results to the file.
+     *
+     * <p>A failure is ignored, leaving the results to be written by a later flush.</p>
+     */
+    void flush() {
+        try {
+            store.flush();
+        } catch (IOException e) {
+            // retried by the next flush
+        }
+    }
+}
@@ -0,0 +1,508 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cache;
+
+import lombok.NonNull;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.CohesionMetrics;
+import net.kemitix.huntbugs.cohesive.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A single-file, memory-mapped store of analysis results.
+ *
+ * <p>The file holds a header, an index of entries sorted by {@link CacheKey}, a table of the member names used by all
+ * results, and a fixed-layout record for each entry:</p>
+ *
+ * <pre>
+ * header:  int magic, int version, int entries, int symbols, int symbolsOffset, int recordsOffset
+ * index:   entries x (byte[32] key, int recordOffset)
+ * symbols: (symbols + 1) x int offset of each name, then the UTF-8 bytes of the names
+ * record:  long lcom1, long lcom2, int lcom3, int lcom4, double tcc, double lcc,
+ *          int nonBeanMethods, nonBeanMethods x int symbol,
+ *          int components, (components + 1) x int start of each component's members, then int symbol of each member
+ * </pre>
+ *
+ * <p>{@link #find(CacheKey)} and the record accessors read the mapped file in place and do not allocate. Results
+ * {@link #put(CacheKey, AnalysisResult) put} into the store are held in memory until {@link #flush()} rewrites the
+ * file with them merged in. The index of an entry is only valid until the next flush.</p>
+ *
+ * <p>The store may be shared by several threads. Each flush publishes the new file as a single snapshot, and
+ * {@link #get(CacheKey)} reads one snapshot throughout, so it never mixes the index of one file with another.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public final class MappedResultStore implements ResultCache, Closeable {
+
+    private static final int MAGIC = 0x48424352;
+
+    private static final int VERSION = 2;
+
+    private static final int HEADER_BYTES = 24;
+
+    private static final int INT_BYTES = 4;
+
+    private static final int ENTRY_BYTES = CacheKey.LENGTH + INT_BYTES;
+
+    private static final int LONG_INTS = 2;
+
+    private static final int METRICS_INTS = 5 * LONG_INTS;
+
+    private static final int METRICS_BYTES = METRICS_INTS * INT_BYTES;
+
+    private final Path file;
+
+    private final Map<CacheKey, AnalysisResult> pending = new ConcurrentHashMap<>();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private MappedResultStore(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Open the store, creating it when the file is flushed if it does not exist.
+     *
+     * @param file the store file
+     *
+     * @return the store
+     *
+     * @throws IOException              if the file exists but can not be read
+     * @throws IllegalArgumentException if the file is not a store
+     */
+    public static MappedResultStore open(@NonNull final Path file) throws IOException {
+        final MappedResultStore store = new MappedResultStore(file);
+        if (Files.exists(file)) {
+            store.snapshot = Snapshot.map(file);
+        }
+        return store;
+    }
+
+    /**
+     * The number of entries in the file, not counting those not yet flushed.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return snapshot.entryCount;
+    }
+
+    /**
+     * Find the entry for a key in the file.
+     *
+     * @param key the key
+     *
+     * @return the index of the entry, or -1 if the file has no entry for the key
+     */
+    public int find(@NonNull final CacheKey key) {
+        return snapshot.find(key);
+    }
+
+    /**
+     * The number of non-bean methods of an entry.
+     *
+     * @param entry the index of the entry
+     *
+     * @return the number of non-bean methods
+     */
+    public int nonBeanMethodCount(final int entry) {
+        return snapshot.nonBeanMethodCount(entry);
+    }
+
+    /**
+     * The symbol of a non-bean method of an entry.
+     *
+     * @param entry the index of the entry
+     * @param index the index of the method, less than {@link #nonBeanMethodCount(int)}
+     *
+     * @return the symbol ID, see {@link #symbol(int)}
+     */
+    public int nonBeanMethod(final int entry, final int index) {
+        return snapshot.nonBeanMethod(entry, index);
+    }
+
+    /**
+     * The cohesion metrics of an entry.
+     *
+     * <p>Unlike the other record accessors, this allocates the metrics it returns.</p>
+     *
+     * @param entry the index of the entry
+     *
+     * @return the metrics
+     */
+    public CohesionMetrics metrics(final int entry) {
+        return snapshot.metrics(entry);
+    }
+
+    /**
+     * The number of components of an entry.
+     *
+     * @param entry the index of the entry
+     *
+     * @return the number of components
+     */
+    public int componentCount(final int entry) {
+        return snapshot.componentCount(entry);
+    }
+
+    /**
+     * The number of members of a component of an entry.
+     *
+     * @param entry     the index of the entry
+     * @param component the index of the component, less than {@link #componentCount(int)}
+     *
+     * @return the number of members
+     */
+    public int memberCount(final int entry, final int component) {
+        return snapshot.memberCount(entry, component);
+    }
+
+    /**
+     * The symbol of a member of a component of an entry.
+     *
+     * @param entry     the index of the entry
+     * @param component the index of the component, less than {@link #componentCount(int)}
+     * @param index     the index of the member, less than {@link #memberCount(int, int)}
+     *
+     * @return the symbol ID, see {@link #symbol(int)}
+     */
+    public int member(final int entry, final int component, final int index) {
+        return snapshot.member(entry, component, index);
+    }
+
+    /**
+     * The member name for a symbol ID.
+     *
+     * @param id the symbol ID
+     *
+     * @return the name of the field or the signature of the method
+     */
+    public String symbol(final int id) {
+        return snapshot.symbol(id);
+    }
+
+    @Override
+    public Optional<AnalysisResult> get(@NonNull final CacheKey key) {
+        final AnalysisResult unflushed = pending.get(key);
+        if (unflushed != null) {
+            return Optional.of(unflushed);
+        }
+        final Snapshot current = snapshot;
+        final int entry = current.find(key);
+        if (entry < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(current.read(entry));
+    }
+
+    @Override
+    public void put(@NonNull final CacheKey key, @NonNull final AnalysisResult result) {
+        pending.put(key, result);
+    }
+
+    /**
+     * Rewrite the file with the results put since it was opened or last flushed.
+     *
+     * <p>The file is written to a temporary file and moved into place.</p>
+     *
+     * @throws IOException if the file can not be written
+     */
+    public synchronized void flush() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        final Map<CacheKey, AnalysisResult> flushing = new HashMap<>(pending);
+        final Snapshot current = snapshot;
+        final TreeMap<CacheKey, AnalysisResult> entries = new TreeMap<>();
+        for (int entry = 0; entry < current.entryCount; entry++) {
+            entries.put(CacheKey.read(current.buffer, HEADER_BYTES + entry * ENTRY_BYTES), current.read(entry));
+        }
+        entries.putAll(flushing);
+        final Path temporary = Files.createTempFile(file.toAbsolutePath()
+                                                        .getParent(), file.getFileName()
+                                                                          .toString(), ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+                write(entries, out);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        snapshot = Snapshot.map(file);
+        // a result put again while flushing is newer than the one written, so is kept for the next flush
+        flushing.forEach((key, result) -> pending.remove(key, result));
+    }
+
+    private static void write(final TreeMap<CacheKey, AnalysisResult> entries, final OutputStream stream)
+            throws IOException {
+        final Set<String> names = new TreeSet<>();
+        entries.values()
+               .forEach(result -> {
+                   names.addAll(result.getNonBeanMethods());
+                   result.getComponents()
+                         .forEach(component -> names.addAll(component.getMembers()));
+               });
+        final Map<String, Integer> ids = new HashMap<>(names.size() * 2);
+        final List<byte[]> encodedNames = new ArrayList<>(names.size());
+        for (final String name : names) {
+            ids.put(name, ids.size());
+            encodedNames.add(name.getBytes(StandardCharsets.UTF_8));
+        }
+        final int symbolsOffset = HEADER_BYTES + entries.size() * ENTRY_BYTES;
+        int nameBytes = 0;
+        for (final byte[] encodedName : encodedNames) {
+            nameBytes += encodedName.length;
+        }
+        final int recordsOffset = symbolsOffset + (names.size() + 1) * INT_BYTES + nameBytes;
+        final DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(entries.size());
+        out.writeInt(names.size());
+        out.writeInt(symbolsOffset);
+        out.writeInt(recordsOffset);
+        final List<int[]> records = new ArrayList<>(entries.size());
+        int recordOffset = recordsOffset;
+        for (final Map.Entry<CacheKey, AnalysisResult> entry : entries.entrySet()) {
+            final int[] record = record(entry.getValue(), ids);
+            records.add(record);
+            entry.getKey()
+                 .writeTo(out);
+            out.writeInt(recordOffset);
+            recordOffset += record.length * INT_BYTES;
+        }
+        int nameOffset = 0;
+        for (final byte[] encodedName : encodedNames) {
+            out.writeInt(nameOffset);
+            nameOffset += encodedName.length;
+        }
+        out.writeInt(nameOffset);
+        for (final byte[] encodedName : encodedNames) {
+            out.write(encodedName);
+        }
+        for (final int[] record : records) {
+            for (final int value : record) {
+                out.writeInt(value);
+            }
+        }
+        out.flush();
+    }
+
+    private static int[] record(final AnalysisResult result, final Map<String, Integer> ids) {
+        final Set<String> nonBeanMethods = result.getNonBeanMethods();
+        final List<Set<String>> components = new ArrayList<>();
+        result.getComponents()
+              .forEach(component -> components.add(component.getMembers()));
+        final int memberCount = components.stream()
+                                          .mapToInt(Set::size)
+                                          .sum();
+        final int[] record =
+                new int[METRICS_INTS + 2 + nonBeanMethods.size() + components.size() + 1 + memberCount];
+        final CohesionMetrics metrics = result.getMetrics();
+        int i = 0;
+        i = putLong(record, i, metrics.getLcom1());
+        i = putLong(record, i, metrics.getLcom2());
+        record[i++] = metrics.getLcom3();
+        record[i++] = metrics.getLcom4();
+        i = putLong(record, i, Double.doubleToLongBits(metrics.getTcc()));
+        i = putLong(record, i, Double.doubleToLongBits(metrics.getLcc()));
+        record[i++] = nonBeanMethods.size();
+        for (final String method : nonBeanMethods) {
+            record[i++] = ids.get(method);
+        }
+        record[i++] = components.size();
+        int start = 0;
+        for (final Set<String> members : components) {
+            record[i++] = start;
+            start += members.size();
+        }
+        record[i++] = start;
+        for (final Set<String> members : components) {
+            for (final String member : members) {
+                record[i++] = ids.get(member);
+            }
+        }
+        return record;
+    }
+
+    private static int putLong(final int[] record, final int index, final long value) {
+        record[index] = (int) (value >>> Integer.SIZE);
+        record[index + 1] = (int) value;
+        return index + LONG_INTS;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    /**
+     * The mapped file and its number of entries, published together so that a reader never sees the count of one
+     * file with the buffer of another.
+     */
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(ByteBuffer.allocate(0), 0);
+
+        private final ByteBuffer buffer;
+
+        private final int entryCount;
+
+        private Snapshot(final ByteBuffer buffer, final int entryCount) {
+            this.buffer = buffer;
+            this.entryCount = entryCount;
+        }
+
+        private static Snapshot map(final Path file) throws IOException {
+            final ByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC
+                    || buffer.getInt(INT_BYTES) != VERSION) {
+                throw new IllegalArgumentException("Not a result store: " + file);
+            }
+            return new Snapshot(buffer, buffer.getInt(2 * INT_BYTES));
+        }
+
+        private int find(final CacheKey key) {
+            int low = 0;
+            int high = entryCount - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final int comparison = key.compareTo(buffer, HEADER_BYTES + middle * ENTRY_BYTES);
+                if (comparison > 0) {
+                    low = middle + 1;
+                } else if (comparison < 0) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -1;
+        }
+
+        private int nonBeanMethodCount(final int entry) {
+            return buffer.getInt(methodsOffset(entry));
+        }
+
+        private int nonBeanMethod(final int entry, final int index) {
+            return buffer.getInt(methodsOffset(entry) + (1 + index) * INT_BYTES);
+        }
+
+        private CohesionMetrics metrics(final int entry) {
+            final int record = recordOffset(entry);
+            final int lcom3 = record + 2 * LONG_INTS * INT_BYTES;
+            final int tcc = lcom3 + 2 * INT_BYTES;
+            return new CohesionMetrics(buffer.getLong(record), buffer.getLong(record + LONG_INTS * INT_BYTES),
+                                       buffer.getInt(lcom3), buffer.getInt(lcom3 + INT_BYTES), buffer.getDouble(tcc),
+                                       buffer.getDouble(tcc + LONG_INTS * INT_BYTES)
+            );
+        }
+
+        private int componentCount(final int entry) {
+            return buffer.getInt(componentsOffset(entry));
+        }
+
+        private int memberCount(final int entry, final int component) {
+            final int starts = componentsOffset(entry) + INT_BYTES;
+            return buffer.getInt(starts + (component + 1) * INT_BYTES) - buffer.getInt(starts + component * INT_BYTES);
+        }
+
+        private int member(final int entry, final int component, final int index) {
+            final int components = componentsOffset(entry);
+            final int starts = components + INT_BYTES;
+            final int members = starts + (buffer.getInt(components) + 1) * INT_BYTES;
+            final int start = buffer.getInt(starts + component * INT_BYTES);
+            return buffer.getInt(members + (start + index) * INT_BYTES);
+        }
+
+        private String symbol(final int id) {
+            final int symbolsOffset = buffer.getInt(4 * INT_BYTES);
+            final int symbolCount = buffer.getInt(3 * INT_BYTES);
+            final int data = symbolsOffset + (symbolCount + 1) * INT_BYTES;
+            final int start = buffer.getInt(symbolsOffset + id * INT_BYTES);
+            final int end = buffer.getInt(symbolsOffset + (id + 1) * INT_BYTES);
+            final byte[] bytes = new byte[end - start];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(data + start + i);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int recordOffset(final int entry) {
+            return buffer.getInt(HEADER_BYTES + entry * ENTRY_BYTES + CacheKey.LENGTH);
+        }
+
+        private int methodsOffset(final int entry) {
+            return recordOffset(entry) + METRICS_BYTES;
+        }
+
+        private int componentsOffset(final int entry) {
+            final int methods = methodsOffset(entry);
+            return methods + (1 + buffer.getInt(methods)) * INT_BYTES;
+        }
+
+        private AnalysisResult read(final int entry) {
+            final AnalysisResult result = new AnalysisResult();
+            final Set<String> nonBeanMethods = new HashSet<>();
+            for (int i = 0; i < nonBeanMethodCount(entry); i++) {
+                nonBeanMethods.add(symbol(nonBeanMethod(entry, i)));
+            }
+            result.addNonBeanMethods(nonBeanMethods);
+            final Set<Component> components = new HashSet<>();
+            for (int c = 0; c < componentCount(entry); c++) {
+                final List<String> members = new ArrayList<>();
+                for (int i = 0; i < memberCount(entry, c); i++) {
+                    members.add(symbol(member(entry, c, i)));
+                }
+                components.add(Component.from(members));
+            }
+            result.addComponents(components);
+            result.setMetrics(metrics(entry));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cache;
+
+import lombok.NonNull;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementation of {@link ResultCache} that holds the results in memory, for a process that analyses the same class
+ * files repeatedly.
+ *
+ * <p>The number of results is bounded, and the least recently used result is dropped when a new result takes the
+ * number over the bound.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+class MemoryResultCache implements ResultCache {
+
+    private final Map<CacheKey, AnalysisResult> results;
+
+    /**
+     * Constructor.
+     *
+     * @param maxEntries the maximum number of results to hold
+     */
+    MemoryResultCache(final int maxEntries) {
+        results = new LinkedHashMap<CacheKey, AnalysisResult>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<CacheKey, AnalysisResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public final Optional<AnalysisResult> get(@NonNull final CacheKey key) {
+        synchronized (results) {
+            return Optional.ofNullable(results.get(key));
+        }
+    }
+
+    @Override
+    public final void put(@NonNull final CacheKey key, @NonNull final AnalysisResult result) {
+        synchronized (results) {
+            results.put(key, result);
+        }
+    }
+}
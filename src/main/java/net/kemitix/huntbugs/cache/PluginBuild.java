@@ -0,0 +1,128 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Identifies the build of the plugin, so that cached results are only replayed by the code that produced them.
+ *
+ * <p>The version alone does not change between the commits of a snapshot, so the build is identified by a SHA-256
+ * hash of the plugin's jar or, when the plugin is run from a directory of class files, of every file in the
+ * directory.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class PluginBuild {
+
+    private static final String ALGORITHM = "SHA-256";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private PluginBuild() {
+    }
+
+    /**
+     * Identify the build of the plugin that contains this class.
+     *
+     * <p>If the plugin's code can not be found or read, a value unique to this process is used instead, so results
+     * are still cached within a run but never replayed by another.</p>
+     *
+     * @return the identity of the build
+     */
+    static String current() {
+        final CodeSource codeSource = PluginBuild.class.getProtectionDomain()
+                                                       .getCodeSource();
+        try {
+            if (codeSource != null && codeSource.getLocation() != null) {
+                return of(Paths.get(codeSource.getLocation()
+                                              .toURI()));
+            }
+        } catch (IOException | UncheckedIOException | URISyntaxException | IllegalArgumentException e) {
+            // identified below
+        }
+        return UUID.randomUUID()
+                   .toString();
+    }
+
+    /**
+     * Identify the build of the plugin at a location.
+     *
+     * @param location the plugin's jar, or its directory of class files
+     *
+     * @return the hash of the jar, or of the names and contents of the files in the directory
+     *
+     * @throws IOException if the location can not be read
+     */
+    static String of(final Path location) throws IOException {
+        final MessageDigest digest = digest();
+        if (Files.isDirectory(location)) {
+            final List<Path> files;
+            try (Stream<Path> walk = Files.walk(location)) {
+                files = walk.filter(Files::isRegularFile)
+                            .sorted()
+                            .collect(Collectors.toList());
+            }
+            for (final Path file : files) {
+                digest.update(location.relativize(file)
+                                      .toString()
+                                      .getBytes(StandardCharsets.UTF_8));
+                update(digest, file);
+            }
+        } else {
+            update(digest, location);
+        }
+        return Hex.encode(digest.digest());
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(final MessageDigest digest, final Path file) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+    }
+}
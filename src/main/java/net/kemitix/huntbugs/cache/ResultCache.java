@@ -0,0 +1,108 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cache;
+
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * A store of analysis results for content that has already been analysed.
+ *
+ * <p>Caches are best-effort: a result that can not be stored or read is treated as a miss rather than failing the
+ * analysis.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public interface ResultCache {
+
+    /**
+     * Look up the result for a key.
+     *
+     * @param key the key
+     *
+     * @return the result, or empty on a miss
+     */
+    Optional<AnalysisResult> get(CacheKey key);
+
+    /**
+     * Store the result for a key.
+     *
+     * @param key    the key
+     * @param result the result
+     */
+    void put(CacheKey key, AnalysisResult result);
+
+    /**
+     * Create a cache that stores nothing.
+     *
+     * @return an instance of ResultCache that always misses
+     */
+    static ResultCache none() {
+        return NoResultCache.INSTANCE;
+    }
+
+    /**
+     * Create a cache that holds the results in memory, dropping the least recently used results when there are more
+     * than a number of them.
+     *
+     * <p>Results are shared between the callers that look them up, rather than copied.</p>
+     *
+     * @param maxEntries the maximum number of results
+     *
+     * @return an instance of ResultCache
+     */
+    static ResultCache inMemory(final int maxEntries) {
+        return new MemoryResultCache(maxEntries);
+    }
+
+    /**
+     * Create a cache that stores a file for each result in a directory, evicting the least recently used results when
+     * the files exceed a total size.
+     *
+     * <p>The cache is shared by every caller for the same directory in the JVM, so the directory is scanned once. The
+     * total size given by the first caller applies.</p>
+     *
+     * @param directory the directory, created if needed
+     * @param maxBytes  the maximum total size of the files
+     *
+     * @return an instance of ResultCache
+     */
+    static ResultCache onDisk(final Path directory, final long maxBytes) {
+        return DiskResultCache.shared(directory, maxBytes);
+    }
+
+    /**
+     * Create a cache that keeps every result in a single memory-mapped file.
+     *
+     * <p>The cache is shared by every caller for the same file in the JVM. Results are written to the file in
+     * batches, and the rest when the JVM exits.</p>
+     *
+     * @param file the file, created if needed and replaced if it is not a store
+     *
+     * @return an instance of ResultCache
+     */
+    static ResultCache inFile(final Path file) {
+        return FileResultCache.shared(file);
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import lombok.NonNull;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.report.ResultSink;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of {@link ResultSink} that records the number of components of each class of a baseline.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class BaselineCounts implements ResultSink {
+
+    /**
+     * The count of a class that is not in the baseline.
+     */
+    static final int ABSENT = -1;
+
+    private final Map<String, Integer> counts = new ConcurrentHashMap<>();
+
+    @Override
+    public void accept(@NonNull final String className, @NonNull final AnalysisResult result) {
+        counts.put(className, result.getComponents()
+                                    .size());
+    }
+
+    /**
+     * The number of components the class has in the baseline.
+     *
+     * @param className the fully qualified name of the class
+     *
+     * @return the number of components, or {@link #ABSENT} if the class was not analysed in the baseline
+     */
+    int get(final String className) {
+        return counts.getOrDefault(className, ABSENT);
+    }
+
+    @Override
+    public void close() {
+        // nothing to release
+    }
+}
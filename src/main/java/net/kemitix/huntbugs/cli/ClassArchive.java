@@ -0,0 +1,187 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * The class files in a jar or a directory.
+ *
+ * <p>Only the names, sizes and, for a jar, the CRC-32 of the class files are read when the archive is opened: for a
+ * jar these come from its central directory, so no entry is inflated until it is read. The jar is kept open until the
+ * archive is closed.</p>
+ *
+ * <p>Descriptors such as {@code module-info.class} and anything under {@code META-INF} are ignored.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class ClassArchive implements AutoCloseable {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private static final String DESCRIPTOR_SUFFIX = "-info.class";
+
+    private static final String META_INF = "META-INF/";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ZipFile zipFile;
+
+    private final List<ClassEntry> entries;
+
+    private ClassArchive(final ZipFile zipFile, final List<ClassEntry> entries) {
+        this.zipFile = zipFile;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Open a jar, or a directory of class files.
+     *
+     * @param path the jar or directory
+     *
+     * @return the archive
+     *
+     * @throws IOException if the jar or directory can not be read
+     */
+    static ClassArchive open(final Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            return directory(path);
+        }
+        return jar(path);
+    }
+
+    private static ClassArchive directory(final Path root) throws IOException {
+        final List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile)
+                        .collect(Collectors.toList());
+        }
+        final List<ClassEntry> entries = new ArrayList<>();
+        for (final Path file : files) {
+            final String name = entryName(root.relativize(file));
+            if (isClassFile(name)) {
+                entries.add(new ClassEntry(className(name), Files.size(file), -1, () -> Files.readAllBytes(file)));
+            }
+        }
+        return new ClassArchive(null, entries);
+    }
+
+    private static String entryName(final Path relative) {
+        return relative.toString()
+                       .replace(relative.getFileSystem()
+                                        .getSeparator(), "/");
+    }
+
+    /**
+     * The name of the class in a class file under a directory.
+     *
+     * @param root the directory
+     * @param file the class file
+     *
+     * @return the fully qualified name of the class, or empty if the file is not a class file that would be analysed
+     */
+    static Optional<String> classNameOf(final Path root, final Path file) {
+        final String name = entryName(root.relativize(file));
+        if (isClassFile(name)) {
+            return Optional.of(className(name));
+        }
+        return Optional.empty();
+    }
+
+    private static ClassArchive jar(final Path path) throws IOException {
+        final ZipFile zipFile = new ZipFile(path.toFile());
+        final List<ClassEntry> entries = new ArrayList<>();
+        final Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+        while (zipEntries.hasMoreElements()) {
+            final ZipEntry zipEntry = zipEntries.nextElement();
+            if (!zipEntry.isDirectory() && isClassFile(zipEntry.getName())) {
+                entries.add(new ClassEntry(className(zipEntry.getName()), zipEntry.getSize(), zipEntry.getCrc(),
+                                           () -> read(zipFile, zipEntry)
+                ));
+            }
+        }
+        return new ClassArchive(zipFile, entries);
+    }
+
+    private static boolean isClassFile(final String name) {
+        return name.endsWith(CLASS_SUFFIX) && !name.endsWith(DESCRIPTOR_SUFFIX) && !name.startsWith(META_INF);
+    }
+
+    private static String className(final String name) {
+        return name.substring(0, name.length() - CLASS_SUFFIX.length())
+                   .replace('/', '.');
+    }
+
+    private static byte[] read(final ZipFile zipFile, final ZipEntry zipEntry) throws IOException {
+        try (InputStream in = zipFile.getInputStream(zipEntry)) {
+            return readFully(in, zipEntry.getSize());
+        }
+    }
+
+    private static byte[] readFully(final InputStream in, final long size) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(size < 0 ? BUFFER_SIZE : (int) size);
+        final byte[] chunk = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(chunk)) > 0) {
+            out.write(chunk, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * The class files in the archive.
+     *
+     * @return the class files
+     */
+    List<ClassEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Close the jar, after which its class files can not be read.
+     */
+    @Override
+    public void close() {
+        if (zipFile == null) {
+            return;
+        }
+        try {
+            zipFile.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
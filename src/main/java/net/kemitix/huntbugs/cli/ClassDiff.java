@@ -0,0 +1,111 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The class files of a candidate that were added or changed since a baseline.
+ *
+ * <p>The class files of jars are compared by the size and CRC-32 recorded in their central directories, so no
+ * class file that is the same in both is read. Class files in directories are compared by their contents.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class ClassDiff {
+
+    private final List<ClassEntry> changed;
+
+    private final List<ClassEntry> previous;
+
+    private final int unchanged;
+
+    private ClassDiff(final List<ClassEntry> changed, final List<ClassEntry> previous, final int unchanged) {
+        this.changed = Collections.unmodifiableList(changed);
+        this.previous = Collections.unmodifiableList(previous);
+        this.unchanged = unchanged;
+    }
+
+    /**
+     * Compare the class files of a candidate with those of a baseline.
+     *
+     * <p>Where a class appears more than once in the baseline, the first is used.</p>
+     *
+     * @param baseline  the class files of the baseline
+     * @param candidate the class files of the candidate
+     *
+     * @return the differences
+     *
+     * @throws IOException if class files that must be compared by their contents can not be read
+     */
+    static ClassDiff between(final List<ClassEntry> baseline, final List<ClassEntry> candidate) throws IOException {
+        final Map<String, ClassEntry> byName = new HashMap<>();
+        baseline.forEach(entry -> byName.putIfAbsent(entry.getClassName(), entry));
+        final List<ClassEntry> changed = new ArrayList<>();
+        final List<ClassEntry> previous = new ArrayList<>();
+        int unchanged = 0;
+        for (final ClassEntry entry : candidate) {
+            final ClassEntry before = byName.get(entry.getClassName());
+            if (before == null) {
+                changed.add(entry);
+            } else if (before.hasSameContents(entry)) {
+                unchanged++;
+            } else {
+                changed.add(entry);
+                previous.add(before);
+            }
+        }
+        return new ClassDiff(changed, previous, unchanged);
+    }
+
+    /**
+     * The class files of the candidate that are not in the baseline, or that are different in the baseline.
+     *
+     * @return the class files of the candidate
+     */
+    List<ClassEntry> getChanged() {
+        return changed;
+    }
+
+    /**
+     * The class files of the baseline that are different in the candidate.
+     *
+     * @return the class files of the baseline
+     */
+    List<ClassEntry> getPrevious() {
+        return previous;
+    }
+
+    /**
+     * The number of class files of the candidate that are the same in the baseline.
+     *
+     * @return the number of class files
+     */
+    int getUnchanged() {
+        return unchanged;
+    }
+}
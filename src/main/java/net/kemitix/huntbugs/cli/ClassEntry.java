@@ -0,0 +1,132 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A class file found in a jar or directory, read only when it is analysed.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class ClassEntry {
+
+    private final String className;
+
+    private final long size;
+
+    private final long crc;
+
+    private final ClassFileReader reader;
+
+    /**
+     * Constructor.
+     *
+     * @param className the fully qualified name of the class
+     * @param size      the uncompressed size of the class file in bytes, or -1 if it is not known
+     * @param crc       the CRC-32 of the uncompressed class file, or -1 if it is not known
+     * @param reader    reads the contents of the class file
+     */
+    ClassEntry(final String className, final long size, final long crc, final ClassFileReader reader) {
+        this.className = className;
+        this.size = size;
+        this.crc = crc;
+        this.reader = reader;
+    }
+
+    /**
+     * The fully qualified name of the class, with nested classes separated by {@code $}.
+     *
+     * @return the class name
+     */
+    String getClassName() {
+        return className;
+    }
+
+    /**
+     * The uncompressed size of the class file.
+     *
+     * @return the size in bytes, or -1 if it is not known
+     */
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * The CRC-32 of the uncompressed class file.
+     *
+     * @return the CRC-32, or -1 if it is not known
+     */
+    long getCrc() {
+        return crc;
+    }
+
+    /**
+     * Whether this and another class file have the same contents.
+     *
+     * <p>When the size and CRC-32 of both are known, as they are for the entries of a jar, they are compared without
+     * reading either class file. Otherwise both class files are read and compared.</p>
+     *
+     * @param other the other class file
+     *
+     * @return true if the contents are the same
+     *
+     * @throws IOException if a class file can not be read
+     */
+    boolean hasSameContents(final ClassEntry other) throws IOException {
+        if (size >= 0 && other.size >= 0 && size != other.size) {
+            return false;
+        }
+        if (crc >= 0 && other.crc >= 0) {
+            return crc == other.crc;
+        }
+        return Arrays.equals(read(), other.read());
+    }
+
+    /**
+     * Read the contents of the class file.
+     *
+     * @return the class file
+     *
+     * @throws IOException if the class file can not be read
+     */
+    byte[] read() throws IOException {
+        return reader.read();
+    }
+
+    /**
+     * Reads the contents of a class file.
+     */
+    @FunctionalInterface
+    interface ClassFileReader {
+
+        /**
+         * Read the contents of the class file.
+         *
+         * @return the class file
+         *
+         * @throws IOException if the class file can not be read
+         */
+        byte[] read() throws IOException;
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import net.kemitix.huntbugs.cache.CacheKey;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.report.ResultSink;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * An in-memory index of the classes being watched, with the contents of each class file and the number of components
+ * in its latest result.
+ *
+ * <p>Results are counted as they are passed on to the delegate sink, and are not themselves held, so the index does
+ * not keep the state of their analysis for the rest of the session. The contents are held as a {@link CacheKey}, so a
+ * class file that is written again without changing is recognised and not analysed again.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@RequiredArgsConstructor
+final class ClassIndex implements ResultSink {
+
+    @NonNull
+    private final ResultSink delegate;
+
+    private final Map<String, CacheKey> keys = new ConcurrentHashMap<>();
+
+    private final Map<String, Integer> componentCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Record the contents of a class file, forgetting its result if the contents have changed.
+     *
+     * @param className the fully qualified name of the class
+     * @param key       the key of the contents of the class file
+     *
+     * @return true if the class is new or its contents have changed, so it needs to be analysed
+     */
+    boolean update(@NonNull final String className, @NonNull final CacheKey key) {
+        if (key.equals(keys.put(className, key))) {
+            return false;
+        }
+        componentCounts.remove(className);
+        return true;
+    }
+
+    /**
+     * Forget a class whose class file has been deleted.
+     *
+     * @param className the fully qualified name of the class
+     *
+     * @return true if the class was in the index
+     */
+    boolean remove(@NonNull final String className) {
+        componentCounts.remove(className);
+        return keys.remove(className) != null;
+    }
+
+    /**
+     * Forget every class that matches, as when the directory containing their class files has been deleted.
+     *
+     * @param classNames the test of the fully qualified name of each class
+     *
+     * @return the names of the classes removed, in order
+     */
+    List<String> removeAll(@NonNull final Predicate<String> classNames) {
+        final List<String> removed = keys.keySet()
+                                         .stream()
+                                         .filter(classNames)
+                                         .sorted()
+                                         .collect(Collectors.toList());
+        removed.forEach(this::remove);
+        return removed;
+    }
+
+    /**
+     * The number of components in the latest result of a class.
+     *
+     * @param className the fully qualified name of the class
+     *
+     * @return the number of components, or empty if the class is not in the index or could not be analysed
+     */
+    Optional<Integer> componentCount(final String className) {
+        return Optional.ofNullable(componentCounts.get(className));
+    }
+
+    /**
+     * The number of classes in the index.
+     *
+     * @return the number of classes
+     */
+    int size() {
+        return keys.size();
+    }
+
+    /**
+     * The number of classes in the index whose latest result has more than one component.
+     *
+     * @return the number of classes
+     */
+    int multipleComponents() {
+        return (int) componentCounts.values()
+                                    .stream()
+                                    .filter(count -> count > 1)
+                                    .count();
+    }
+
+    @Override
+    public void accept(@NonNull final String className, @NonNull final AnalysisResult result) {
+        componentCounts.put(className, result.getComponents()
+                                             .size());
+        delegate.accept(className, result);
+    }
+
+    @Override
+    public void close() {
+        // the delegate is closed by its owner
+    }
+}
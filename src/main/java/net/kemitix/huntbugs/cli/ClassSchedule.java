@@ -0,0 +1,74 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Orders class files so that the largest are analysed first.
+ *
+ * <p>The cost of analysing a class grows with its methods and the length of their code, which make up most of a
+ * class file, so the uncompressed size of the class file is used as the estimate of its cost. For a jar the size is
+ * read from the central directory, so nothing is inflated to schedule the run.</p>
+ *
+ * <p>When each free thread takes the next class in this order, the classes are scheduled longest-processing-time
+ * first: the large classes are spread across the threads at the start of the run, and the small classes that are left
+ * fill in the gaps at the end, so no thread is left with a large class once the others have finished.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class ClassSchedule {
+
+    private static final Comparator<ClassEntry> LARGEST_FIRST =
+            Comparator.comparingLong(ClassSchedule::estimatedCost)
+                      .reversed()
+                      .thenComparing(ClassEntry::getClassName);
+
+    private ClassSchedule() {
+    }
+
+    /**
+     * Order the class files by their estimated cost, the largest first.
+     *
+     * <p>A class file whose size is not known is placed before the rest, as it may be the largest.</p>
+     *
+     * @param entries the class files
+     *
+     * @return the class files in the order to analyse them
+     */
+    static List<ClassEntry> largestFirst(final Collection<ClassEntry> entries) {
+        final List<ClassEntry> ordered = new ArrayList<>(entries);
+        ordered.sort(LARGEST_FIRST);
+        return ordered;
+    }
+
+    private static long estimatedCost(final ClassEntry entry) {
+        final long size = entry.getSize();
+        if (size < 0) {
+            return Long.MAX_VALUE;
+        }
+        return size;
+    }
+}
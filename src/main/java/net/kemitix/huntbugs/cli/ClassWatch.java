@@ -0,0 +1,245 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Watches a directory tree of class files for files that are created, changed or deleted.
+ *
+ * <p>Each directory in the tree is registered with a {@link WatchService}, including directories created while it is
+ * being watched. Events are gathered into batches: a batch is complete once no event has arrived for a quiet period,
+ * so the many files written by a single compilation arrive together.</p>
+ *
+ * <p>When the root directory is deleted, as by {@code mvn clean}, the watch waits for it to be created again and then
+ * watches the new tree.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class ClassWatch implements AutoCloseable {
+
+    private final Path root;
+
+    private final WatchService watchService;
+
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+    private final Set<Path> initialFiles = new LinkedHashSet<>();
+
+    private ClassWatch(final Path root, final WatchService watchService) {
+        this.root = root;
+        this.watchService = watchService;
+    }
+
+    /**
+     * Start watching a directory tree.
+     *
+     * @param root the directory
+     *
+     * @return the watch
+     *
+     * @throws IOException if the directory can not be watched
+     */
+    static ClassWatch open(final Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            throw new NotDirectoryException(root.toString());
+        }
+        final ClassWatch watch = new ClassWatch(root, root.getFileSystem()
+                                                          .newWatchService());
+        watch.register(root, watch.initialFiles);
+        return watch;
+    }
+
+    private void register(final Path directory, final Set<Path> files) throws IOException {
+        final List<Path> paths;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            paths = walk.collect(Collectors.toList());
+        }
+        for (final Path path : paths) {
+            if (Files.isDirectory(path)) {
+                directories.put(path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                                              StandardWatchEventKinds.ENTRY_MODIFY,
+                                              StandardWatchEventKinds.ENTRY_DELETE
+                                             ), path);
+            } else {
+                files.add(path);
+            }
+        }
+    }
+
+    /**
+     * The files in the tree when the watch started.
+     *
+     * <p>The directories are registered as they are found, so a file written while the watch starts is either found
+     * here or reported as a change.</p>
+     *
+     * @return the files
+     */
+    Set<Path> getInitialFiles() {
+        return Collections.unmodifiableSet(initialFiles);
+    }
+
+    /**
+     * Wait for the next batch of changes.
+     *
+     * <p>Blocks until a change is seen, then gathers changes until none has arrived for the quiet period. When events
+     * have been lost, or the root directory has been deleted or created again, every file now in the tree is reported
+     * as a complete batch. While the root directory does not exist, it is checked for once every quiet period.</p>
+     *
+     * @param quietMillis the quiet period in milliseconds
+     *
+     * @return the files created, changed or deleted, including the files in any new directories
+     *
+     * @throws IOException          if a new directory can not be watched
+     * @throws InterruptedException if interrupted while waiting
+     */
+    Changes awaitChanges(final long quietMillis) throws IOException, InterruptedException {
+        final Set<Path> changed = new LinkedHashSet<>();
+        boolean complete = false;
+        WatchKey key;
+        if (isWatchingRoot()) {
+            key = watchService.take();
+        } else {
+            awaitRoot(quietMillis);
+            rescan(changed);
+            complete = true;
+            key = watchService.poll(quietMillis, TimeUnit.MILLISECONDS);
+        }
+        while (key != null) {
+            complete |= collect(key, changed);
+            key = watchService.poll(quietMillis, TimeUnit.MILLISECONDS);
+        }
+        if (!isWatchingRoot()) {
+            rescan(changed);
+            complete = true;
+        }
+        return new Changes(changed, complete);
+    }
+
+    private boolean isWatchingRoot() {
+        return directories.containsValue(root);
+    }
+
+    private void awaitRoot(final long quietMillis) throws InterruptedException {
+        while (!Files.isDirectory(root)) {
+            Thread.sleep(quietMillis);
+        }
+    }
+
+    private void rescan(final Set<Path> changed) throws IOException {
+        changed.clear();
+        try {
+            register(root, changed);
+        } catch (NoSuchFileException e) {
+            // the root has gone, so nothing is in the tree
+            changed.clear();
+        }
+    }
+
+    private boolean collect(final WatchKey key, final Set<Path> changed) throws IOException {
+        final Path directory = directories.get(key);
+        boolean complete = false;
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                rescan(changed);
+                complete = true;
+            } else {
+                final Path path = directory.resolve((Path) event.context());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                    register(path, changed);
+                } else {
+                    changed.add(path);
+                }
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+        return complete;
+    }
+
+    /**
+     * Stop watching the tree.
+     *
+     * @throws IOException if the watch service can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    /**
+     * A batch of changes to the tree.
+     */
+    static final class Changes {
+
+        private final Set<Path> files;
+
+        private final boolean complete;
+
+        /**
+         * Constructor.
+         *
+         * @param files    the files that have changed
+         * @param complete whether the files are every file in the tree
+         */
+        Changes(final Set<Path> files, final boolean complete) {
+            this.files = Collections.unmodifiableSet(files);
+            this.complete = complete;
+        }
+
+        /**
+         * The files created, changed or deleted.
+         *
+         * @return the files, which include every file in the tree when the batch is complete
+         */
+        Set<Path> getFiles() {
+            return files;
+        }
+
+        /**
+         * Whether the batch lists every file in the tree, so any file not in it has been deleted.
+         *
+         * @return true after events were lost, or the root directory was deleted or created again
+         */
+        boolean isComplete() {
+            return complete;
+        }
+    }
+}
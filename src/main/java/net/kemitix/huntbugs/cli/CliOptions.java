@@ -0,0 +1,230 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The options given on the command line.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class CliOptions {
+
+    static final String USAGE = "Usage: CohesionCli [--format text|jsonl|sarif] [--output FILE] [--threads N] "
+            + "[--baseline JAR|DIRECTORY | --watch] JAR|DIRECTORY...";
+
+    private final Format format;
+
+    private final Path output;
+
+    private final int threads;
+
+    private final Path baseline;
+
+    private final boolean watch;
+
+    private final List<Path> paths;
+
+    private CliOptions(
+            final Format format, final Path output, final int threads, final Path baseline, final boolean watch,
+            final List<Path> paths
+                      ) {
+        this.format = format;
+        this.output = output;
+        this.threads = threads;
+        this.baseline = baseline;
+        this.watch = watch;
+        this.paths = Collections.unmodifiableList(paths);
+    }
+
+    /**
+     * Parse the command line.
+     *
+     * @param args the arguments
+     *
+     * @return the options
+     *
+     * @throws IllegalArgumentException if the arguments are not valid
+     */
+    static CliOptions parse(final String... args) {
+        return parse(Paths.get(""), args);
+    }
+
+    /**
+     * Parse a command line given in another working directory.
+     *
+     * @param workingDirectory the directory that relative paths are resolved against
+     * @param args             the arguments
+     *
+     * @return the options
+     *
+     * @throws IllegalArgumentException if the arguments are not valid
+     */
+    static CliOptions parse(final Path workingDirectory, final String... args) {
+        Format format = Format.TEXT;
+        Path output = null;
+        int threads = Runtime.getRuntime()
+                             .availableProcessors();
+        Path baseline = null;
+        boolean watch = false;
+        final List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--format":
+                format = Format.parse(value(args, ++i));
+                break;
+            case "--output":
+                output = workingDirectory.resolve(value(args, ++i));
+                break;
+            case "--threads":
+                threads = threads(value(args, ++i));
+                break;
+            case "--baseline":
+                baseline = workingDirectory.resolve(value(args, ++i));
+                break;
+            case "--watch":
+                watch = true;
+                break;
+            default:
+                if (args[i].startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+                paths.add(workingDirectory.resolve(args[i]));
+            }
+        }
+        if (paths.isEmpty()) {
+            throw new IllegalArgumentException("No jar or directory given");
+        }
+        if (watch) {
+            checkWatch(format, baseline, paths);
+        }
+        return new CliOptions(format, output, threads, baseline, watch, paths);
+    }
+
+    private static void checkWatch(final Format format, final Path baseline, final List<Path> paths) {
+        if (baseline != null) {
+            throw new IllegalArgumentException("--watch can not be used with --baseline");
+        }
+        if (format == Format.SARIF) {
+            throw new IllegalArgumentException("--watch can not write sarif");
+        }
+        if (paths.size() > 1) {
+            throw new IllegalArgumentException("--watch takes a single directory");
+        }
+    }
+
+    private static String value(final String[] args, final int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private static int threads(final String value) {
+        try {
+            final int threads = Integer.parseInt(value);
+            if (threads > 0) {
+                return threads;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Not a number of threads: " + value);
+    }
+
+    /**
+     * The format of the output.
+     *
+     * @return the format
+     */
+    Format getFormat() {
+        return format;
+    }
+
+    /**
+     * The file to write the output to.
+     *
+     * @return the file, or null to write to the standard output
+     */
+    Path getOutput() {
+        return output;
+    }
+
+    /**
+     * The number of threads to analyse classes on.
+     *
+     * @return the number of threads, by default the number of available processors
+     */
+    int getThreads() {
+        return threads;
+    }
+
+    /**
+     * The jar or directory of class files to compare the classes to analyse with.
+     *
+     * @return the baseline, or null to analyse every class
+     */
+    Path getBaseline() {
+        return baseline;
+    }
+
+    /**
+     * Whether to keep watching the directory of class files, analysing each class file again when it changes.
+     *
+     * @return true to watch the directory
+     */
+    boolean isWatch() {
+        return watch;
+    }
+
+    /**
+     * The jars and directories of class files to analyse.
+     *
+     * @return the paths
+     */
+    List<Path> getPaths() {
+        return paths;
+    }
+
+    /**
+     * The formats the results may be written in.
+     */
+    enum Format {
+        TEXT,
+        JSONL,
+        SARIF;
+
+        static Format parse(final String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown format: " + value, e);
+            }
+        }
+    }
+}
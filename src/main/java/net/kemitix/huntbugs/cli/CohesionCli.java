@@ -0,0 +1,240 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import net.kemitix.huntbugs.bytecode.ClassFileAnalyser;
+import net.kemitix.huntbugs.bytecode.ReferenceExtractor;
+import net.kemitix.huntbugs.cohesive.Analyser;
+import net.kemitix.huntbugs.cohesive.BeanMethods;
+import net.kemitix.huntbugs.cohesive.BreakdownFormatter;
+import net.kemitix.huntbugs.cohesive.MethodSignature;
+import net.kemitix.huntbugs.detect.CohesiveDetector;
+import net.kemitix.huntbugs.report.ResultSink;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Analyses the cohesion of the classes in jars and directories, without running HuntBugs.
+ *
+ * <p>Usage: {@code CohesionCli [--format text|jsonl|sarif] [--output FILE] [--threads N]
+ * [--baseline JAR|DIRECTORY | --watch] JAR|DIRECTORY...}</p>
+ *
+ * <p>Only the class files are read, and only the cohesion of each class is analysed, so none of the cost of
+ * decompiling the classes or of the other HuntBugs detectors is paid. The classes are analysed on a work-stealing
+ * pool of one thread per available processor, unless {@code --threads} is given, and each result is written as soon
+ * as it is ready: as a line of text for each class with multiple components, the default, or as JSON Lines or
+ * SARIF. A summary of the run is written to the standard error.</p>
+ *
+ * <p>The largest classes are analysed first, and a class with at least as many usages as the
+ * {@link CohesiveDetector#PARALLEL_THRESHOLD_PROPERTY} system property is itself analysed across the threads of the
+ * pool, so one large class does not hold up the end of the run.</p>
+ *
+ * <p>Given a {@code --baseline}, only the classes that were added or changed since the baseline are analysed, along
+ * with the baseline's own copies of those that changed, and only the classes that are new with multiple components
+ * or that have more components than in the baseline are written. The class files of jars are compared by the size
+ * and CRC-32 in their central directories, so a class that is the same in both jars is never read.</p>
+ *
+ * <p>Given {@code --watch} and a directory, such as {@code target/classes}, every class is analysed and then the
+ * directory is watched until the process is stopped: each time class files are written, once the writing has paused,
+ * only the classes whose class files changed are analysed again and their results written.</p>
+ *
+ * <p>Exits with status 0 when every class was analysed, 1 when any could not be read or analysed, 2 when the command
+ * line is not valid, and 3 when, compared with a baseline, any class is new with multiple components or has more
+ * components than before.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public final class CohesionCli {
+
+    static final int SUCCESS = 0;
+
+    static final int FAILURE = 1;
+
+    static final int USAGE_ERROR = 2;
+
+    static final int REGRESSION = 3;
+
+    private CohesionCli() {
+    }
+
+    /**
+     * Run the analysis.
+     *
+     * @param args the command line
+     */
+    public static void main(final String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Run the analysis.
+     *
+     * @param args the command line
+     * @param out  the output, when no output file is given
+     * @param err  the output for errors and the summary
+     *
+     * @return the exit status
+     */
+    static int run(final String[] args, final PrintStream out, final PrintStream err) {
+        return run(args, Paths.get(""), out, err,
+                   classFileAnalyser(BeanMethods.defaultInstance(MethodSignature.defaultInstance())));
+    }
+
+    /**
+     * Run the analysis with an analyser that may be shared with other runs.
+     *
+     * @param args              the command line
+     * @param workingDirectory  the directory that relative paths on the command line are resolved against
+     * @param out               the output, when no output file is given
+     * @param err               the output for errors and the summary
+     * @param classFileAnalyser the analyser of each class file
+     *
+     * @return the exit status
+     */
+    static int run(
+            final String[] args, final Path workingDirectory, final PrintStream out, final PrintStream err,
+            final ClassFileAnalyser classFileAnalyser
+                  ) {
+        final CliOptions options;
+        try {
+            options = CliOptions.parse(workingDirectory, args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(CliOptions.USAGE);
+            return USAGE_ERROR;
+        }
+        final List<ClassArchive> archives = new ArrayList<>();
+        final ForkJoinPool pool = new ForkJoinPool(options.getThreads());
+        final BaselineCounts baselineCounts = new BaselineCounts();
+        try (ResultSink resultSink = resultSink(options, out, baselineCounts)) {
+            if (options.isWatch()) {
+                final Path directory = options.getPaths()
+                                              .get(0);
+                return watch(directory, new WatchSession(directory, classFileAnalyser, resultSink, err, pool));
+            }
+            final List<ClassEntry> entries = entries(options.getPaths(), archives);
+            if (options.getBaseline() == null) {
+                final RunSummary summary = new CohesionRun(classFileAnalyser, resultSink, err).run(
+                        ClassSchedule.largestFirst(entries), pool);
+                err.println(summary);
+                return summary.getFailed() == 0 ? SUCCESS : FAILURE;
+            }
+            final ClassDiff diff = ClassDiff.between(
+                    entries(Collections.singletonList(options.getBaseline()), archives), entries);
+            err.println("Changed since baseline: " + diff.getChanged()
+                                                          .size() + " of " + entries.size() + " classes");
+            final RunSummary previous = new CohesionRun(classFileAnalyser, baselineCounts, err).run(
+                    ClassSchedule.largestFirst(diff.getPrevious()), pool);
+            final DiffSink diffSink = new DiffSink(resultSink, baselineCounts);
+            final RunSummary summary = new CohesionRun(classFileAnalyser, diffSink, err).run(
+                    ClassSchedule.largestFirst(diff.getChanged()), pool);
+            err.println("Baseline: " + previous);
+            err.println(summary);
+            err.println(diffSink.getRegressions() + " classes new with multiple components or with more components than"
+                        + " in the baseline");
+            if (previous.getFailed() > 0 || summary.getFailed() > 0) {
+                return FAILURE;
+            }
+            return diffSink.getRegressions() == 0 ? SUCCESS : REGRESSION;
+        } catch (IOException | UncheckedIOException e) {
+            err.println("Could not read or write: " + e.getMessage());
+            return FAILURE;
+        } finally {
+            pool.shutdown();
+            archives.forEach(ClassArchive::close);
+        }
+    }
+
+    private static int watch(final Path directory, final WatchSession session) throws IOException {
+        try (ClassWatch watch = ClassWatch.open(directory)) {
+            session.watch(watch, WatchSession.QUIET_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+        return SUCCESS;
+    }
+
+    private static List<ClassEntry> entries(final List<Path> paths, final List<ClassArchive> archives)
+            throws IOException {
+        final List<ClassEntry> entries = new ArrayList<>();
+        for (final Path path : paths) {
+            final ClassArchive archive = ClassArchive.open(path);
+            archives.add(archive);
+            entries.addAll(archive.getEntries());
+        }
+        return entries;
+    }
+
+    /**
+     * Create the analyser of class files, which analyses a class with at least as many usages as the
+     * {@link CohesiveDetector#PARALLEL_THRESHOLD_PROPERTY} system property across the threads of the pool.
+     *
+     * @param beanMethods bean method identifier
+     *
+     * @return an instance of ClassFileAnalyser
+     */
+    static ClassFileAnalyser classFileAnalyser(final BeanMethods beanMethods) {
+        final int threshold = Integer.getInteger(CohesiveDetector.PARALLEL_THRESHOLD_PROPERTY,
+                                                 Analyser.DEFAULT_PARALLEL_THRESHOLD
+                                                );
+        return ClassFileAnalyser.defaultInstance(ReferenceExtractor.defaultInstance(), beanMethods,
+                                                 Analyser.parallelInstance(beanMethods, threshold)
+                                                );
+    }
+
+    private static ResultSink resultSink(
+            final CliOptions options, final PrintStream out, final BaselineCounts baselineCounts
+                                        ) throws IOException {
+        final Writer writer = writer(options.getOutput(), out);
+        switch (options.getFormat()) {
+        case JSONL:
+            return ResultSink.jsonLines(writer);
+        case SARIF:
+            return ResultSink.sarif(writer);
+        default:
+            if (options.getBaseline() != null) {
+                return new TextSink(writer, BreakdownFormatter.textInstance(), baselineCounts);
+            }
+            return new TextSink(writer, BreakdownFormatter.textInstance());
+        }
+    }
+
+    private static Writer writer(final Path output, final PrintStream out) throws IOException {
+        if (output == null) {
+            return new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        }
+        return Files.newBufferedWriter(output, StandardCharsets.UTF_8);
+    }
+}
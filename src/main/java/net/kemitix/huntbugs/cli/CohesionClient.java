@@ -0,0 +1,138 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Submits a command line to a running {@link CohesionDaemon} and writes out the results as they arrive.
+ *
+ * <p>Usage: {@code CohesionClient [--stop | CohesionCli arguments...]}</p>
+ *
+ * <p>The arguments are those of {@link CohesionCli}, and relative paths are resolved against the client's working
+ * directory. The results and summary are written to the standard output and error, and the client exits with the
+ * status of the analysis, as if {@link CohesionCli} had been run. With {@code --stop} the daemon is asked to stop
+ * instead.</p>
+ *
+ * <p>The client connects to the loopback port given by the {@link DaemonProtocol#PORT_PROPERTY} system property,
+ * proving it is run by the daemon's user with the secret the daemon wrote under that user's home directory, and exits
+ * with status 1 when no daemon of the user is listening there.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public final class CohesionClient {
+
+    private CohesionClient() {
+    }
+
+    /**
+     * Submit the command line to the daemon.
+     *
+     * @param args the command line
+     */
+    public static void main(final String[] args) {
+        final Path workingDirectory = Paths.get("")
+                                           .toAbsolutePath();
+        System.exit(run(args, DaemonProtocol.port(), DaemonProtocol.secretDirectory(), workingDirectory, System.out,
+                        System.err
+                       ));
+    }
+
+    /**
+     * Submit the command line to the daemon.
+     *
+     * @param args             the command line
+     * @param port             the loopback port the daemon is listening on
+     * @param secretDirectory  the directory the daemon wrote its secret to
+     * @param workingDirectory the directory that relative paths on the command line are resolved against
+     * @param out              the output for the results
+     * @param err              the output for errors and the summary
+     *
+     * @return the exit status
+     */
+    static int run(
+            final String[] args, final int port, final Path secretDirectory, final Path workingDirectory,
+            final PrintStream out, final PrintStream err
+                  ) {
+        final String secret;
+        try {
+            secret = DaemonSecret.read(DaemonProtocol.secretFile(secretDirectory, port));
+        } catch (IOException e) {
+            err.println("Could not read the secret of the daemon on port " + port + ": " + e.getMessage());
+            return CohesionCli.FAILURE;
+        }
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            final Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            writer.write(secret + "\n");
+            if (args.length == 1 && "--stop".equals(args[0])) {
+                writer.write(DaemonProtocol.STOP + "\n");
+            } else {
+                writer.write(DaemonProtocol.ANALYSE + "\n");
+                writer.write(workingDirectory + "\n");
+                for (final String arg : args) {
+                    writer.write(arg + "\n");
+                }
+                writer.write("\n");
+            }
+            writer.flush();
+            return response(new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)), out, err);
+        } catch (IOException e) {
+            err.println("Could not reach the daemon on port " + port + ": " + e.getMessage());
+            return CohesionCli.FAILURE;
+        }
+    }
+
+    private static int response(final BufferedReader reader, final PrintStream out, final PrintStream err)
+            throws IOException {
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            final String text = line.substring(Math.min(2, line.length()));
+            switch (line.charAt(0)) {
+            case DaemonProtocol.OUT:
+                out.println(text);
+                break;
+            case DaemonProtocol.EXIT:
+                out.flush();
+                return Integer.parseInt(text);
+            default:
+                err.println(text);
+            }
+        }
+        err.println("The daemon closed the connection before the analysis was complete");
+        return CohesionCli.FAILURE;
+    }
+}
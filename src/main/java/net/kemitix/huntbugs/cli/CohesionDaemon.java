@@ -0,0 +1,336 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import net.kemitix.huntbugs.bytecode.ClassFileAnalyser;
+import net.kemitix.huntbugs.cache.ResultCache;
+import net.kemitix.huntbugs.cohesive.BeanMethods;
+import net.kemitix.huntbugs.cohesive.MethodSignature;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps an analyser running between builds, serving the requests of {@link CohesionClient} on a loopback port.
+ *
+ * <p>Usage: {@code CohesionDaemon [--port N] [--cache N]}</p>
+ *
+ * <p>Each request is run as {@link CohesionCli} would run its command line, but on an analyser that is shared by every
+ * request, so the start-up, class loading and compilation of the analyser are paid once rather than on every build.
+ * The analyser pools the signatures of members across classes and holds the results of the class files it has
+ * analysed in memory, up to {@code --cache} results, so a class file that is unchanged since an earlier request is
+ * not analysed again. The results are streamed back to the client as each class is analysed.</p>
+ *
+ * <p>The daemon listens on the port given by {@code --port}, or by the {@link DaemonProtocol#PORT_PROPERTY} system
+ * property, and accepts connections only from the loopback address. Every request must start with a secret that the
+ * daemon writes, when it starts, to a file under the user's home directory that only the user can read, so no other
+ * user can make requests of it. A request may not {@code --watch}, which would never complete. The daemon runs until
+ * a client asks it to stop.</p>
+ *
+ * <p>So that a local process without the secret can not tie up the daemon, only a few requests are served at once and
+ * a few more wait to be served, a connection that sends nothing for ten seconds is dropped, and no more of the first
+ * line of a request is read than the secret could fill.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public final class CohesionDaemon implements AutoCloseable {
+
+    static final int DEFAULT_CACHE_SIZE = 1 << 16;
+
+    static final String USAGE = "Usage: CohesionDaemon [--port N] [--cache N]";
+
+    private static final int BACKLOG = 50;
+
+    private static final int MAX_REQUESTS = 8;
+
+    private static final int READ_TIMEOUT_MILLIS = 10_000;
+
+    private static final long IDLE_THREAD_SECONDS = 60;
+
+    private static final String WATCH = "--watch";
+
+    private final ServerSocket serverSocket;
+
+    private final ClassFileAnalyser classFileAnalyser;
+
+    private final PrintStream log;
+
+    private final DaemonSecret secret;
+
+    private final ThreadPoolExecutor requests;
+
+    private CohesionDaemon(
+            final ServerSocket serverSocket, final ClassFileAnalyser classFileAnalyser, final PrintStream log,
+            final DaemonSecret secret
+                          ) {
+        this.serverSocket = serverSocket;
+        this.classFileAnalyser = classFileAnalyser;
+        this.log = log;
+        this.secret = secret;
+        requests = new ThreadPoolExecutor(MAX_REQUESTS, MAX_REQUESTS, IDLE_THREAD_SECONDS, TimeUnit.SECONDS,
+                                          new ArrayBlockingQueue<>(BACKLOG)
+        );
+        requests.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Run the daemon until it is stopped.
+     *
+     * @param args the command line
+     */
+    public static void main(final String[] args) {
+        int port = DaemonProtocol.port();
+        int cacheSize = DEFAULT_CACHE_SIZE;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                final int value = number(args, i + 1);
+                switch (args[i]) {
+                case "--port":
+                    port = value;
+                    break;
+                case "--cache":
+                    cacheSize = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(CohesionCli.USAGE_ERROR);
+        }
+        try (CohesionDaemon daemon = start(port, warmAnalyser(cacheSize), System.err,
+                                              DaemonProtocol.secretDirectory()
+                                             )) {
+            System.err.println("Listening on " + InetAddress.getLoopbackAddress()
+                                                            .getHostAddress() + ":" + daemon.getPort());
+            daemon.serve();
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Could not listen on port " + port + ": " + e.getMessage());
+            System.exit(CohesionCli.FAILURE);
+        }
+    }
+
+    private static int number(final String[] args, final int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+        }
+        try {
+            final int value = Integer.parseInt(args[index]);
+            if (value >= 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Not a number: " + args[index]);
+    }
+
+    /**
+     * Create the analyser shared by the requests to a daemon.
+     *
+     * @param cacheSize the maximum number of results to hold in memory
+     *
+     * @return an instance of ClassFileAnalyser
+     */
+    static ClassFileAnalyser warmAnalyser(final int cacheSize) {
+        final BeanMethods beanMethods = BeanMethods.defaultInstance(MethodSignature.cachingInstance());
+        return ClassFileAnalyser.caching(CohesionCli.classFileAnalyser(beanMethods), ResultCache.inMemory(cacheSize));
+    }
+
+    /**
+     * Start listening on a loopback port.
+     *
+     * @param port              the port, or 0 for any free port
+     * @param classFileAnalyser the analyser shared by every request
+     * @param log               the output for problems serving requests
+     * @param secretDirectory   the directory to write the secret to, in a file named for the port
+     *
+     * @return the daemon, which serves no requests until {@link #serve()} is called
+     *
+     * @throws IOException if the port can not be listened on or the secret can not be written
+     */
+    static CohesionDaemon start(
+            final int port, final ClassFileAnalyser classFileAnalyser, final PrintStream log,
+            final Path secretDirectory
+                               ) throws IOException {
+        final ServerSocket serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        try {
+            final DaemonSecret secret = DaemonSecret.create(
+                    DaemonProtocol.secretFile(secretDirectory, serverSocket.getLocalPort()));
+            return new CohesionDaemon(serverSocket, classFileAnalyser, log, secret);
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The port the daemon is listening on.
+     *
+     * @return the port
+     */
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Serve requests, each on its own thread, until the daemon is closed or asked to stop.
+     *
+     * <p>A connection is closed unserved when as many requests as the daemon will serve at once are being served and
+     * as many again as it lets wait are waiting.</p>
+     *
+     * @throws IOException if a connection can not be accepted
+     */
+    void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            final Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            try {
+                requests.execute(() -> handle(socket));
+            } catch (RejectedExecutionException e) {
+                log.println("Refused a connection while busy");
+                socket.close();
+            }
+        }
+    }
+
+    private void handle(final Socket socket) {
+        try (Socket connection = socket) {
+            connection.setSoTimeout(READ_TIMEOUT_MILLIS);
+            final BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+            final Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8));
+            if (!secret.matches(readLine(reader, secret.length()))) {
+                log.println("Refused a request without the secret");
+                writer.write(DaemonProtocol.tagged(DaemonProtocol.ERR, "Not authorised"));
+                writer.write(DaemonProtocol.tagged(DaemonProtocol.EXIT, Integer.toString(CohesionCli.FAILURE)));
+                writer.flush();
+                return;
+            }
+            final String verb = reader.readLine();
+            final int status;
+            if (DaemonProtocol.STOP.equals(verb)) {
+                status = CohesionCli.SUCCESS;
+                close();
+            } else if (DaemonProtocol.ANALYSE.equals(verb)) {
+                status = analyse(reader, writer);
+            } else {
+                writer.write(DaemonProtocol.tagged(DaemonProtocol.ERR, "Unknown request: " + verb));
+                status = CohesionCli.USAGE_ERROR;
+            }
+            writer.write(DaemonProtocol.tagged(DaemonProtocol.EXIT, Integer.toString(status)));
+            writer.flush();
+        } catch (IOException | UncheckedIOException e) {
+            log.println("Could not serve request: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Read a line of no more than the given length.
+     *
+     * @param reader the request
+     * @param limit  the most characters the line may have
+     *
+     * @return the line, or null if the request ends or is longer than the limit before the end of the line
+     *
+     * @throws IOException if the request can not be read
+     */
+    private static String readLine(final BufferedReader reader, final int limit) throws IOException {
+        final StringBuilder line = new StringBuilder(limit);
+        int c = reader.read();
+        while (c != '\n') {
+            if (c < 0 || line.length() == limit) {
+                return null;
+            }
+            line.append((char) c);
+            c = reader.read();
+        }
+        return line.toString();
+    }
+
+    private int analyse(final BufferedReader reader, final Writer writer) throws IOException {
+        final String workingDirectory = reader.readLine();
+        final List<String> args = new ArrayList<>();
+        String line = reader.readLine();
+        while (line != null && !line.isEmpty()) {
+            args.add(line);
+            line = reader.readLine();
+        }
+        if (line == null) {
+            writer.write(DaemonProtocol.tagged(DaemonProtocol.ERR, "Incomplete request"));
+            return CohesionCli.USAGE_ERROR;
+        }
+        if (args.contains(WATCH)) {
+            writer.write(DaemonProtocol.tagged(DaemonProtocol.ERR, "The daemon can not " + WATCH));
+            return CohesionCli.USAGE_ERROR;
+        }
+        try (PrintStream out = new PrintStream(new TaggedLineStream(writer, DaemonProtocol.OUT), true, "UTF-8");
+             PrintStream err = new PrintStream(new TaggedLineStream(writer, DaemonProtocol.ERR), true, "UTF-8")) {
+            return CohesionCli.run(args.toArray(new String[0]), Paths.get(workingDirectory), out, err,
+                                   classFileAnalyser
+                                  );
+        }
+    }
+
+    /**
+     * Stop listening and delete the secret, letting any requests being served run to completion.
+     */
+    @Override
+    public void close() {
+        requests.shutdown();
+        try {
+            secret.delete();
+            serverSocket.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import lombok.RequiredArgsConstructor;
+import net.kemitix.huntbugs.bytecode.ClassFileAnalyser;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.report.ResultSink;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Analyses class files on a work-stealing pool, passing each result to a {@link ResultSink} as soon as it is ready.
+ *
+ * <p>A class that can not be read or analysed, whatever the exception, is reported and counted, and the run carries
+ * on with the others. Each instance counts the classes of a single run.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@RequiredArgsConstructor
+final class CohesionRun {
+
+    private final ClassFileAnalyser classFileAnalyser;
+
+    private final ResultSink resultSink;
+
+    private final PrintStream err;
+
+    private final AtomicInteger analysed = new AtomicInteger();
+
+    private final AtomicInteger multipleComponents = new AtomicInteger();
+
+    private final AtomicInteger failed = new AtomicInteger();
+
+    /**
+     * Analyse the class files, returning once all have been analysed.
+     *
+     * <p>Each thread of the pool takes the next class file in the order given as soon as it is free, so the class
+     * files are started in that order. A class large enough to be analysed in parallel shares its work with any
+     * thread of the pool that has run out of class files.</p>
+     *
+     * @param entries the class files
+     * @param pool    the pool to analyse the class files on
+     *
+     * @return the summary of the run
+     */
+    RunSummary run(final List<ClassEntry> entries, final ForkJoinPool pool) {
+        final long start = System.nanoTime();
+        final AtomicInteger next = new AtomicInteger();
+        final List<ForkJoinTask<?>> workers = new ArrayList<>(pool.getParallelism());
+        for (int i = 0; i < pool.getParallelism(); i++) {
+            workers.add(pool.submit(() -> {
+                for (int index = next.getAndIncrement(); index < entries.size(); index = next.getAndIncrement()) {
+                    analyse(entries.get(index));
+                }
+            }));
+        }
+        workers.forEach(ForkJoinTask::join);
+        return new RunSummary(analysed.get(), multipleComponents.get(), failed.get(), System.nanoTime() - start);
+    }
+
+    private void analyse(final ClassEntry entry) {
+        final AnalysisResult result;
+        try {
+            result = classFileAnalyser.analyse(entry.read());
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            err.println("Could not analyse " + entry.getClassName() + ": " + e);
+            return;
+        }
+        resultSink.accept(entry.getClassName(), result);
+        analysed.incrementAndGet();
+        if (result.getComponents()
+                  .size() > 1) {
+            multipleComponents.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The line-based protocol between {@link CohesionClient} and {@link CohesionDaemon}.
+ *
+ * <p>A request starts with the daemon's secret on its own line, which the daemon writes to a file that only its user
+ * can read, so only that user's processes can make requests. Then comes a verb on its own line. An {@link #ANALYSE}
+ * request follows it with the client's working directory and then each argument of the command line on its own line,
+ * ending with an empty line. A {@link #STOP} request has nothing after it.</p>
+ *
+ * <p>The response is a line for each line the analysis writes, tagged with {@link #OUT} or {@link #ERR} for where it
+ * is to be written, and ends with a line tagged {@link #EXIT} giving the exit status. Lines are written as soon as
+ * they are complete, so the client sees each result while the analysis is still running.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class DaemonProtocol {
+
+    /**
+     * System property for the loopback port the daemon listens on and the client connects to.
+     */
+    static final String PORT_PROPERTY = "net.kemitix.huntbugs.cohesive.daemon.port";
+
+    static final int DEFAULT_PORT = 7373;
+
+    static final String ANALYSE = "ANALYSE";
+
+    private static final String SECRET_DIRECTORY = ".kemitix-huntbugs";
+
+    static final String STOP = "STOP";
+
+    static final char OUT = 'O';
+
+    static final char ERR = 'E';
+
+    static final char EXIT = 'X';
+
+    private DaemonProtocol() {
+    }
+
+    /**
+     * The port to listen on or connect to.
+     *
+     * @return the port given by the {@link #PORT_PROPERTY} system property, or the {@link #DEFAULT_PORT}
+     */
+    static int port() {
+        return Integer.getInteger(PORT_PROPERTY, DEFAULT_PORT);
+    }
+
+    /**
+     * The directory the daemons of the current user write their secrets to.
+     *
+     * @return the directory, under the user's home directory
+     */
+    static Path secretDirectory() {
+        return Paths.get(System.getProperty("user.home"), SECRET_DIRECTORY);
+    }
+
+    /**
+     * The file holding the secret of the daemon listening on a port.
+     *
+     * @param directory the directory of secrets
+     * @param port      the port
+     *
+     * @return the file
+     */
+    static Path secretFile(final Path directory, final int port) {
+        return directory.resolve("cohesion-daemon-" + port + ".secret");
+    }
+
+    /**
+     * Tag a line of the response.
+     *
+     * @param tag  the tag
+     * @param text the line, without its line separator
+     *
+     * @return the line to send
+     */
+    static String tagged(final char tag, final String text) {
+        return tag + " " + text + "\n";
+    }
+}
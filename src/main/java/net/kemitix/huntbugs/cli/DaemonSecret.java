@@ -0,0 +1,136 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import net.kemitix.huntbugs.cache.Hex;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.List;
+
+/**
+ * The secret a daemon requires at the start of every request, kept in a file that only its user can read.
+ *
+ * <p>The daemon listens on a loopback port that any local user can connect to, so the secret keeps other users from
+ * stopping the daemon, or from having it read or write files as its user.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class DaemonSecret {
+
+    private static final int SECRET_BYTES = 32;
+
+    private static final String POSIX = "posix";
+
+    private final Path file;
+
+    private final byte[] secret;
+
+    private DaemonSecret(final Path file, final byte[] secret) {
+        this.file = file;
+        this.secret = secret;
+    }
+
+    /**
+     * Create a new secret and write it to a file that only the current user can read.
+     *
+     * <p>On a file system without POSIX permissions the file takes the default permissions of its directory.</p>
+     *
+     * @param file the file, which is replaced if it exists
+     *
+     * @return the secret
+     *
+     * @throws IOException if the file can not be written
+     */
+    static DaemonSecret create(final Path file) throws IOException {
+        final byte[] random = new byte[SECRET_BYTES];
+        new SecureRandom().nextBytes(random);
+        final String text = Hex.encode(random);
+        Files.createDirectories(file.getParent(), permissions(file, "rwx------"));
+        Files.deleteIfExists(file);
+        Files.createFile(file, permissions(file, "rw-------"));
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return new DaemonSecret(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static FileAttribute<?>[] permissions(final Path file, final String permissions) {
+        if (file.getFileSystem()
+                .supportedFileAttributeViews()
+                .contains(POSIX)) {
+            return new FileAttribute<?>[]{
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(permissions))};
+        }
+        return new FileAttribute<?>[0];
+    }
+
+    /**
+     * Read the secret of a daemon.
+     *
+     * @param file the file the daemon wrote its secret to
+     *
+     * @return the secret
+     *
+     * @throws IOException if the file can not be read
+     */
+    static String read(final Path file) throws IOException {
+        final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.isEmpty()) {
+            return "";
+        }
+        return lines.get(0);
+    }
+
+    /**
+     * The length of the secret, the longest first line of a request that can match it.
+     *
+     * @return the number of characters in the secret
+     */
+    int length() {
+        return secret.length;
+    }
+
+    /**
+     * Whether a request gave the secret, compared in a time that does not depend on how much of it matches.
+     *
+     * @param given the first line of the request
+     *
+     * @return true if it is the secret
+     */
+    boolean matches(final String given) {
+        return given != null && MessageDigest.isEqual(secret, given.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Delete the file, once the daemon has stopped.
+     *
+     * @throws IOException if the file can not be deleted
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.report.ResultSink;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of {@link ResultSink} that passes on only the classes that have more components than in a baseline.
+ *
+ * <p>A class that is not in the baseline is passed on when it has multiple components. Each instance counts the
+ * classes it passes on. The delegate is left open when this sink is closed.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@RequiredArgsConstructor
+final class DiffSink implements ResultSink {
+
+    @NonNull
+    private final ResultSink delegate;
+
+    @NonNull
+    private final BaselineCounts baseline;
+
+    private final AtomicInteger regressions = new AtomicInteger();
+
+    @Override
+    public void accept(@NonNull final String className, @NonNull final AnalysisResult result) {
+        final int count = result.getComponents()
+                                .size();
+        if (count > 1 && count > baseline.get(className)) {
+            regressions.incrementAndGet();
+            delegate.accept(className, result);
+        }
+    }
+
+    /**
+     * The number of classes that are new with multiple components, or that have more components than in the baseline.
+     *
+     * @return the number of classes
+     */
+    int getRegressions() {
+        return regressions.get();
+    }
+
+    @Override
+    public void close() {
+        // the delegate is closed by its owner
+    }
+}
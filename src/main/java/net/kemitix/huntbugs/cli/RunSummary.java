@@ -0,0 +1,91 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The number of classes analysed in a run, and how long it took.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class RunSummary {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final int analysed;
+
+    private final int multipleComponents;
+
+    private final int failed;
+
+    private final long elapsedNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param analysed           the number of classes analysed
+     * @param multipleComponents the number of classes analysed that have more than one component
+     * @param failed             the number of classes that could not be read or analysed
+     * @param elapsedNanos       the duration of the run
+     */
+    RunSummary(final int analysed, final int multipleComponents, final int failed, final long elapsedNanos) {
+        this.analysed = analysed;
+        this.multipleComponents = multipleComponents;
+        this.failed = failed;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * The number of classes analysed.
+     *
+     * @return the number of classes
+     */
+    int getAnalysed() {
+        return analysed;
+    }
+
+    /**
+     * The number of classes analysed that have more than one component.
+     *
+     * @return the number of classes
+     */
+    int getMultipleComponents() {
+        return multipleComponents;
+    }
+
+    /**
+     * The number of classes that could not be read or analysed.
+     *
+     * @return the number of classes
+     */
+    int getFailed() {
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Analysed %d classes in %.2f s: %d with multiple components, %d failed", analysed,
+                             elapsedNanos / NANOS_PER_SECOND, multipleComponents, failed
+                            );
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import lombok.RequiredArgsConstructor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An output stream that sends each complete line written to it as a tagged line of a daemon response.
+ *
+ * <p>Several streams may share the writer, each with its own tag: a line is written and flushed whole while holding
+ * the writer's lock. Closing the stream sends any incomplete last line but leaves the writer open.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@RequiredArgsConstructor
+final class TaggedLineStream extends OutputStream {
+
+    private final Writer writer;
+
+    private final char tag;
+
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+    @Override
+    public synchronized void write(final int b) throws IOException {
+        if (b == '\n') {
+            send();
+        } else {
+            line.write(b);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (line.size() > 0) {
+            send();
+        }
+    }
+
+    private void send() throws IOException {
+        final String text = new String(line.toByteArray(), StandardCharsets.UTF_8);
+        line.reset();
+        synchronized (writer) {
+            writer.write(DaemonProtocol.tagged(tag, stripReturn(text)));
+            writer.flush();
+        }
+    }
+
+    private static String stripReturn(final String text) {
+        if (text.endsWith("\r")) {
+            return text.substring(0, text.length() - 1);
+        }
+        return text;
+    }
+}
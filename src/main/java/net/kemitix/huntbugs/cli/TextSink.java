@@ -0,0 +1,120 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import lombok.NonNull;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.BreakdownFormatter;
+import net.kemitix.huntbugs.cohesive.Component;
+import net.kemitix.huntbugs.report.ResultSink;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Set;
+
+/**
+ * Implementation of {@link ResultSink} that writes a line of plain text for each class with multiple components.
+ *
+ * <p>e.g. {@code a.B: 2 components: #1: c()V; #2: e()V}</p>
+ *
+ * <p>The output is flushed after each line, so it can be read while the analysis is still running.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class TextSink implements ResultSink {
+
+    private final Writer writer;
+
+    private final BreakdownFormatter breakdownFormatter;
+
+    private final BaselineCounts baseline;
+
+    /**
+     * Constructor.
+     *
+     * @param writer             the output
+     * @param breakdownFormatter formats the components of each class
+     */
+    TextSink(@NonNull final Writer writer, @NonNull final BreakdownFormatter breakdownFormatter) {
+        this.writer = writer;
+        this.breakdownFormatter = breakdownFormatter;
+        this.baseline = null;
+    }
+
+    /**
+     * Constructor for the output of a comparison, noting how many components each class had in the baseline.
+     *
+     * <p>e.g. {@code a.B: 2 components (1 in baseline): #1: c()V; #2: e()V}</p>
+     *
+     * @param writer             the output
+     * @param breakdownFormatter formats the components of each class
+     * @param baseline           the number of components of each class in the baseline
+     */
+    TextSink(
+            @NonNull final Writer writer, @NonNull final BreakdownFormatter breakdownFormatter,
+            @NonNull final BaselineCounts baseline
+            ) {
+        this.writer = writer;
+        this.breakdownFormatter = breakdownFormatter;
+        this.baseline = baseline;
+    }
+
+    @Override
+    public void accept(@NonNull final String className, @NonNull final AnalysisResult result) {
+        final Set<Component> components = result.getComponents();
+        if (components.size() <= 1) {
+            return;
+        }
+        write(className + ": " + components.size() + " components" + baselineNote(className) + ": "
+              + breakdownFormatter.apply(components) + "\n");
+    }
+
+    private String baselineNote(final String className) {
+        if (baseline == null) {
+            return "";
+        }
+        final int count = baseline.get(className);
+        if (count == BaselineCounts.ABSENT) {
+            return " (new)";
+        }
+        return " (" + count + " in baseline)";
+    }
+
+    private synchronized void write(final String line) {
+        try {
+            writer.write(line);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cli;
+
+import net.kemitix.huntbugs.bytecode.ClassFileAnalyser;
+import net.kemitix.huntbugs.cache.CacheKey;
+import net.kemitix.huntbugs.report.ResultSink;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the results of a directory of class files up to date as the class files change.
+ *
+ * <p>Every class file is analysed when the session starts. After that only the class files in each batch of changes
+ * are read, and only those whose contents differ from the {@link ClassIndex} are analysed again, so unchanged classes
+ * are never revisited. The result of each class analysed is passed on to the sink as soon as it is ready, and a
+ * summary of the index is written after each batch.</p>
+ *
+ * <p>Classes are removed from the index when their class file, or a directory above it, is deleted, and when a
+ * complete batch no longer lists them, as after the whole tree is deleted by {@code mvn clean}.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class WatchSession {
+
+    /**
+     * The time in milliseconds without changes after which a batch of changes is analysed.
+     */
+    static final long QUIET_MILLIS = 200;
+
+    private final Path root;
+
+    private final ClassFileAnalyser classFileAnalyser;
+
+    private final PrintStream err;
+
+    private final ForkJoinPool pool;
+
+    private final ClassIndex index;
+
+    /**
+     * Constructor.
+     *
+     * @param root              the directory of class files
+     * @param classFileAnalyser the analyser of each class file
+     * @param resultSink        the sink for the result of each class analysed
+     * @param err               the output for errors and the summaries
+     * @param pool              the pool to analyse the class files on
+     */
+    WatchSession(
+            final Path root, final ClassFileAnalyser classFileAnalyser, final ResultSink resultSink,
+            final PrintStream err, final ForkJoinPool pool
+                ) {
+        this.root = root;
+        this.classFileAnalyser = classFileAnalyser;
+        this.err = err;
+        this.pool = pool;
+        this.index = new ClassIndex(resultSink);
+    }
+
+    /**
+     * Analyse every class file in the watch, then each batch of changes, until interrupted.
+     *
+     * @param watch       the watch of the directory
+     * @param quietMillis the time without changes after which a batch is analysed
+     *
+     * @throws IOException          if a new directory can not be watched
+     * @throws InterruptedException when interrupted
+     */
+    void watch(final ClassWatch watch, final long quietMillis) throws IOException, InterruptedException {
+        analyse(watch.getInitialFiles());
+        while (!Thread.currentThread()
+                      .isInterrupted()) {
+            analyse(watch.awaitChanges(quietMillis));
+        }
+        throw new InterruptedException();
+    }
+
+    /**
+     * Bring the index up to date with a batch of changes.
+     *
+     * <p>When the batch is complete, every class not in it is removed from the index first.</p>
+     *
+     * @param changes the batch of changes
+     *
+     * @return the summary of the class files analysed
+     */
+    RunSummary analyse(final ClassWatch.Changes changes) {
+        if (changes.isComplete()) {
+            final Set<String> present = new HashSet<>();
+            changes.getFiles()
+                   .forEach(file -> ClassArchive.classNameOf(root, file)
+                                                .ifPresent(present::add));
+            removed(index.removeAll(className -> !present.contains(className)));
+        }
+        return analyse(changes.getFiles());
+    }
+
+    /**
+     * Bring the index up to date with the files, analysing the class files that are new or have changed.
+     *
+     * @param files the files, of which any that no longer exist are removed from the index, along with every class
+     *              under any of them that was a directory
+     *
+     * @return the summary of the class files analysed
+     */
+    RunSummary analyse(final Collection<Path> files) {
+        final List<ClassEntry> entries = new ArrayList<>();
+        for (final Path file : files) {
+            final Optional<String> className = ClassArchive.classNameOf(root, file);
+            if (className.isPresent()) {
+                stage(className.get(), file).ifPresent(entries::add);
+            } else if (!Files.exists(file)) {
+                removed(index.removeAll(inDirectory(file)));
+            }
+        }
+        final RunSummary summary = new CohesionRun(classFileAnalyser, index, err).run(
+                ClassSchedule.largestFirst(entries), pool);
+        err.println(summary);
+        err.println("Watching " + index.size() + " classes: " + index.multipleComponents()
+                    + " with multiple components");
+        return summary;
+    }
+
+    private Optional<ClassEntry> stage(final String className, final Path file) {
+        final byte[] classFile;
+        try {
+            classFile = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            if (index.remove(className)) {
+                removed(Collections.singletonList(className));
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            err.println("Could not read " + className + ": " + e.getMessage());
+            return Optional.empty();
+        }
+        if (index.update(className, CacheKey.of(classFile))) {
+            return Optional.of(new ClassEntry(className, classFile.length, -1, () -> classFile));
+        }
+        return Optional.empty();
+    }
+
+    private Predicate<String> inDirectory(final Path directory) {
+        if (directory.equals(root)) {
+            return className -> true;
+        }
+        final String prefix = root.relativize(directory)
+                                  .toString()
+                                  .replace(directory.getFileSystem()
+                                                    .getSeparator(), ".") + ".";
+        return className -> className.startsWith(prefix);
+    }
+
+    private void removed(final List<String> classNames) {
+        classNames.forEach(className -> err.println("Removed " + className));
+    }
+
+    /**
+     * The index of the classes being watched.
+     *
+     * @return the index
+     */
+    ClassIndex getIndex() {
+        return index;
+    }
+}
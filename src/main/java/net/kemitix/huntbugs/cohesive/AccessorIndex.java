@@ -0,0 +1,60 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of {@link BeanMethodIndex} that looks up the expected accessor names of the fields.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class AccessorIndex implements BeanMethodIndex {
+
+    private final Map<String, AccessorKind> accessors = new HashMap<>();
+
+    /**
+     * Create an index of the getters, is-getters and setters for the fields.
+     *
+     * @param fields the data fields of the class
+     */
+    AccessorIndex(final Set<String> fields) {
+        for (final String field : fields) {
+            for (final AccessorKind kind : AccessorKind.values()) {
+                accessors.put(kind.getPrefix() + field, kind);
+            }
+        }
+    }
+
+    @Override
+    public boolean isNotBeanMethod(final String methodName) {
+        final int parens = methodName.indexOf('(');
+        if (parens < 0) {
+            return true;
+        }
+        final AccessorKind kind = accessors.get(methodName.substring(0, parens)
+                                                          .toLowerCase());
+        return kind == null || !kind.matches(methodName, parens);
+    }
+}
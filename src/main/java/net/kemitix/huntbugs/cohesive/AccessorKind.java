@@ -0,0 +1,100 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+/**
+ * The kinds of bean accessor method.
+ *
+ * <p>Method names are compared in lower case and descriptors without regard to case.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+enum AccessorKind {
+
+    GETTER("get") {
+        @Override
+        boolean matches(final String method, final int parens) {
+            return method.startsWith("()", parens);
+        }
+    },
+
+    IS_GETTER("is") {
+        @Override
+        boolean matches(final String method, final int parens) {
+            return endsWithIgnoreCase(method, parens, "()Ljava/lang/Boolean;") || endsWithIgnoreCase(
+                    method, parens, "()Z");
+        }
+    },
+
+    SETTER("set") {
+        @Override
+        boolean matches(final String method, final int parens) {
+            return endsWithIgnoreCase(method, method.length() - 2, ")V") && method.indexOf("()", parens) < 0;
+        }
+    };
+
+    private final String prefix;
+
+    AccessorKind(final String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * The prefix of the method name for this kind of accessor.
+     *
+     * @return the prefix
+     */
+    String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Checks that the descriptor of the method has the shape of this kind of accessor.
+     *
+     * @param method the method signature
+     * @param parens the index of the opening parenthesis of the descriptor
+     *
+     * @return true if the descriptor matches
+     */
+    abstract boolean matches(String method, int parens);
+
+    /**
+     * Find the kind of accessor that a lower case method name would be.
+     *
+     * @param name the lower case method name
+     *
+     * @return the kind of accessor, or null if the name has none of the prefixes
+     */
+    static AccessorKind forName(final String name) {
+        for (final AccessorKind kind : values()) {
+            if (name.startsWith(kind.prefix)) {
+                return kind;
+            }
+        }
+        return null;
+    }
+
+    private static boolean endsWithIgnoreCase(final String method, final int from, final String suffix) {
+        return from >= 0 && method.length() - from == suffix.length() && method.regionMatches(
+                true, from, suffix, 0, suffix.length());
+    }
+}
@@ -31,6 +31,12 @@ import java.util.Set;
  */
 public interface Analyser {
 
+    /**
+     * The fewest usages in a class for {@link #parallelInstance(BeanMethods, int)} to analyse it in parallel, unless
+     * another threshold is configured.
+     */
+    int DEFAULT_PARALLEL_THRESHOLD = 1 << 16;
+
     /**
      * Analyse the cohesion of a class from the items used by each method.
      *
@@ -44,6 +50,44 @@ public interface Analyser {
             Map<String, Set<String>> usedByMethod, Set<String> nonPrivateMethods, Set<String> fields
                           );
 
+    /**
+     * Analyse the cohesion of a class from the usage graph of its members.
+     *
+     * <p>The default implementation converts the graph back into a map of signatures. Other implementations may read
+     * the graph when the result is first read, so the graph must not be changed until then.</p>
+     *
+     * @param usageGraph        the fields and methods used by each method
+     * @param nonPrivateMethods a list of methods
+     * @param fields            the fields in the class
+     *
+     * @return an AnalysisResult object
+     */
+    default AnalysisResult analyse(
+            final UsageGraph usageGraph, final Set<String> nonPrivateMethods, final Set<String> fields
+                                  ) {
+        return analyse(usageGraph.toMap(), nonPrivateMethods, fields);
+    }
+
+    /**
+     * Analyse the cohesion of a class from the usage graph of its members, identifying its bean methods with the
+     * index the caller has already built for the class.
+     *
+     * <p>The default implementation ignores the index.</p>
+     *
+     * @param usageGraph        the fields and methods used by each method
+     * @param nonPrivateMethods a list of methods
+     * @param fields            the fields in the class
+     * @param beanMethodIndex   the bean methods of the class, from {@link BeanMethods#index(Set)} of its fields
+     *
+     * @return an AnalysisResult object
+     */
+    default AnalysisResult analyse(
+            final UsageGraph usageGraph, final Set<String> nonPrivateMethods, final Set<String> fields,
+            final BeanMethodIndex beanMethodIndex
+                                  ) {
+        return analyse(usageGraph, nonPrivateMethods, fields);
+    }
+
     /**
      * Create an instance of the default implementation of {@link Analyser}.
      *
@@ -54,4 +98,32 @@ public interface Analyser {
     static Analyser defaultInstance(final BeanMethods beanMethods) {
         return new DefaultAnalyser(beanMethods);
     }
+
+    /**
+     * Create an instance of the union-find implementation of {@link Analyser}.
+     *
+     * <p>Components are found in near-linear time in the number of usages and are merged transitively.</p>
+     *
+     * @param beanMethods bean method identifier
+     *
+     * @return an instance of Analyser
+     */
+    static Analyser unionFindInstance(final BeanMethods beanMethods) {
+        return new UnionFindAnalyser(beanMethods);
+    }
+
+    /**
+     * Create an instance of the union-find implementation of {@link Analyser} that unions the usages of large
+     * classes in parallel on the common fork-join pool.
+     *
+     * <p>The components found are the same as those of {@link #unionFindInstance(BeanMethods)}.</p>
+     *
+     * @param beanMethods bean method identifier
+     * @param threshold   the fewest usages in a class for it to be analysed in parallel
+     *
+     * @return an instance of Analyser
+     */
+    static Analyser parallelInstance(final BeanMethods beanMethods, final int threshold) {
+        return new ParallelUnionFindAnalyser(beanMethods, threshold);
+    }
 }
@@ -21,13 +21,19 @@
 
 package net.kemitix.huntbugs.cohesive;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Represents the results of performing a Cohesive Analysis on a class.
  *
+ * <p>Any part of the result may be deferred, in which case it is only computed when it is first read or added to.
+ * A result is not thread-safe.</p>
+ *
  * @author Paul Campbell (pcampbell@kemitix.net)
  */
 public final class AnalysisResult {
@@ -38,12 +44,21 @@ public final class AnalysisResult {
 
     private Set<Component> components = new HashSet<>();
 
+    private final List<Supplier<Set<String>>> deferredNonBeanMethods = new ArrayList<>();
+
+    private final List<Supplier<Set<Component>>> deferredComponents = new ArrayList<>();
+
+    private CohesionMetrics metrics = CohesionMetrics.NONE;
+
+    private Supplier<CohesionMetrics> deferredMetrics;
+
     /**
      * Gets the components found within a class.
      *
      * @return a set of components
      */
     public Set<Component> getComponents() {
+        resolve(deferredComponents, components);
         return Collections.unmodifiableSet(components);
     }
 
@@ -53,6 +68,7 @@ public final class AnalysisResult {
      * @return a set of method signatures
      */
     public Set<String> getNonBeanMethods() {
+        resolve(deferredNonBeanMethods, nonBeanMethods);
         return Collections.unmodifiableSet(nonBeanMethods);
     }
 
@@ -62,15 +78,90 @@ public final class AnalysisResult {
      * @param methods the methods to add
      */
     public void addNonBeanMethods(final Set<String> methods) {
+        resolve(deferredNonBeanMethods, nonBeanMethods);
         nonBeanMethods.addAll(methods);
     }
 
+    /**
+     * Add the methods when they are first needed.
+     *
+     * @param methods the supplier of the methods to add, which is called at most once
+     */
+    public void deferNonBeanMethods(final Supplier<Set<String>> methods) {
+        deferredNonBeanMethods.add(methods);
+    }
+
     /**
      * Add the components.
      *
      * @param items the components to add
      */
     public void addComponents(final Set<Component> items) {
+        resolve(deferredComponents, components);
         components.addAll(items);
     }
+
+    /**
+     * Add the components when they are first needed.
+     *
+     * @param items the supplier of the components to add, which is called at most once
+     */
+    public void deferComponents(final Supplier<Set<Component>> items) {
+        deferredComponents.add(items);
+    }
+
+    /**
+     * Gets the cohesion metrics of the class.
+     *
+     * @return the metrics, or {@link CohesionMetrics#NONE} if none have been set
+     */
+    public CohesionMetrics getMetrics() {
+        if (deferredMetrics != null) {
+            metrics = deferredMetrics.get();
+            deferredMetrics = null;
+        }
+        return metrics;
+    }
+
+    /**
+     * Set the cohesion metrics.
+     *
+     * @param value the metrics
+     */
+    public void setMetrics(final CohesionMetrics value) {
+        deferredMetrics = null;
+        metrics = value;
+    }
+
+    /**
+     * Set the cohesion metrics when they are first needed.
+     *
+     * @param value the supplier of the metrics, which is called at most once
+     */
+    public void deferMetrics(final Supplier<CohesionMetrics> value) {
+        deferredMetrics = value;
+    }
+
+    /**
+     * An eager copy of the result, with every deferred part computed.
+     *
+     * <p>The copy holds no reference to the suppliers, nor to anything they hold, and has nothing left to compute, so
+     * it may be read from several threads at once provided none of them adds to it.</p>
+     *
+     * @return the copy
+     */
+    public AnalysisResult resolved() {
+        final AnalysisResult copy = new AnalysisResult();
+        copy.nonBeanMethods.addAll(getNonBeanMethods());
+        copy.components.addAll(getComponents());
+        copy.metrics = getMetrics();
+        return copy;
+    }
+
+    private static <T> void resolve(final List<Supplier<Set<T>>> deferred, final Set<T> target) {
+        if (!deferred.isEmpty()) {
+            deferred.forEach(supplier -> target.addAll(supplier.get()));
+            deferred.clear();
+        }
+    }
 }
@@ -56,6 +56,34 @@ public interface BeanMethods {
      */
     boolean isNotBeanMethod(String methodName, Set<String> fields);
 
+    /**
+     * Create an index of the bean methods for the fields of a class.
+     *
+     * <p>The index is built once and can then identify bean methods without scanning the fields. The default
+     * implementation delegates to {@link #isNotBeanMethod(String, Set)}.</p>
+     *
+     * @param fields the data fields of the class
+     *
+     * @return the index
+     */
+    default BeanMethodIndex index(final Set<String> fields) {
+        return methodName -> isNotBeanMethod(methodName, fields);
+    }
+
+    /**
+     * Identify if the method could be a bean method for any set of fields.
+     *
+     * <p>When this returns false, {@link #isNotBeanMethod(String, Set)} will return true whatever fields are given.
+     * The default implementation is conservative and always returns true.</p>
+     *
+     * @param methodName the method to examine
+     *
+     * @return true if the method has the name of a getter or setter
+     */
+    default boolean mayBeBeanMethod(final String methodName) {
+        return true;
+    }
+
     /**
      * Create an instance of the default implementation of {@link BeanMethods}.
      *
@@ -49,31 +49,37 @@ class BeanMethodsImpl implements BeanMethods {
         return !isBeanMethod(methodName, fields);
     }
 
-    private boolean isBeanMethod(final MethodDefinition methodDefinition, final Set<String> fields) {
-        return isBeanMethod(methodSignature.create(methodDefinition), fields);
+    @Override
+    public final BeanMethodIndex index(@NonNull final Set<String> fields) {
+        return new AccessorIndex(fields);
     }
 
-    private boolean isBeanMethod(final String method, final Set<String> fields) {
-        final String methodName = method.toLowerCase();
-        return fields.stream()
-                     .anyMatch(field -> isBeanMethod(methodName, field));
+    @Override
+    public final boolean mayBeBeanMethod(@NonNull final String methodName) {
+        return hasPrefix(methodName, "get") || hasPrefix(methodName, "is") || hasPrefix(methodName, "set");
     }
 
-    private boolean isBeanMethod(final String method, final String field) {
-        return isSetter(method, field) || isGetter(method, field);
+    private static boolean hasPrefix(final String methodName, final String prefix) {
+        return methodName.regionMatches(true, 0, prefix, 0, prefix.length());
     }
 
-    private boolean isGetter(final String method, final String field) {
-        final boolean isPlainGetter = method.startsWith(String.format("get%s()", field));
-        final boolean isBooleanGetter = String.format("is%s()ljava/lang/boolean;", field)
-                                              .equals(method);
-        final boolean isPrimitiveBooleanGetter = String.format("is%s()z", field)
-                                                       .equals(method);
-        return isPlainGetter || isBooleanGetter || isPrimitiveBooleanGetter;
+    private boolean isBeanMethod(final MethodDefinition methodDefinition, final Set<String> fields) {
+        return isBeanMethod(methodSignature.create(methodDefinition), fields);
     }
 
-    private boolean isSetter(final String method, final String field) {
-        return method.startsWith(("set" + field) + "(") && method.endsWith(")v") && !method.contains("()");
+    private boolean isBeanMethod(final String method, final Set<String> fields) {
+        final int parens = method.indexOf('(');
+        if (parens < 0) {
+            return false;
+        }
+        final String name = method.substring(0, parens)
+                                  .toLowerCase();
+        final AccessorKind kind = AccessorKind.forName(name);
+        if (kind == null || !kind.matches(method, parens)) {
+            return false;
+        }
+        return fields.contains(name.substring(kind.getPrefix()
+                                                  .length()));
     }
 
 }
@@ -39,4 +39,13 @@ public interface BreakdownFormatter extends Function<Set<Component>, String> {
     static BreakdownFormatter defaultInstance() {
         return new HtmlBreakdownFormatter();
     }
+
+    /**
+     * Create an instance of {@link BreakdownFormatter} that lists the methods of each component as plain text.
+     *
+     * @return an instance of BreakdownFormatter
+     */
+    static BreakdownFormatter textInstance() {
+        return new TextBreakdownFormatter();
+    }
 }
@@ -0,0 +1,93 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import com.strobel.assembler.metadata.MemberReference;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Implementation of {@link MethodSignature} that shares signature strings between classes through a
+ * {@link SignaturePool} and, within a class, remembers the signature of each member reference.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+class CachingMethodSignature implements MethodSignature {
+
+    private static final int GLOBAL_POOL_SIZE = 1 << 16;
+
+    private static final SignaturePool GLOBAL_POOL = new SignaturePool(GLOBAL_POOL_SIZE);
+
+    private final SignaturePool pool;
+
+    /**
+     * Create an instance that uses the global signature pool.
+     */
+    CachingMethodSignature() {
+        this(GLOBAL_POOL);
+    }
+
+    /**
+     * Create an instance that uses the signature pool.
+     *
+     * @param pool the signature pool
+     */
+    CachingMethodSignature(final SignaturePool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public String create(final MemberReference memberReference) {
+        return pool.intern(memberReference.getName() + memberReference.getSignature());
+    }
+
+    @Override
+    public MethodSignature forClass() {
+        return new ClassMethodSignature(pool);
+    }
+
+    /**
+     * The signatures for a single class, remembered for each member reference.
+     *
+     * <p>Not thread-safe, it is only used while a single class is analysed.</p>
+     */
+    private static final class ClassMethodSignature extends CachingMethodSignature {
+
+        private final Map<MemberReference, String> signatures = new IdentityHashMap<>();
+
+        ClassMethodSignature(final SignaturePool pool) {
+            super(pool);
+        }
+
+        @Override
+        public String create(final MemberReference memberReference) {
+            final String existing = signatures.get(memberReference);
+            if (existing != null) {
+                return existing;
+            }
+            final String signature = super.create(memberReference);
+            signatures.put(memberReference, signature);
+            return signature;
+        }
+    }
+}
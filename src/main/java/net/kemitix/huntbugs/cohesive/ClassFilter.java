@@ -0,0 +1,50 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import com.strobel.assembler.metadata.TypeDefinition;
+
+/**
+ * Decides from the metadata of a class, before any of its code is visited, whether it can be analysed at all.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public interface ClassFilter {
+
+    /**
+     * Creates an instance of the default implementation.
+     *
+     * @return an instance of ClassFilter
+     */
+    static ClassFilter defaultInstance() {
+        return new ClassFilterImpl();
+    }
+
+    /**
+     * Checks if the class can never have more than one component, so need not be visited.
+     *
+     * @param typeDefinition the class
+     *
+     * @return true if the class is trivially cohesive
+     */
+    boolean isTriviallyCohesive(TypeDefinition typeDefinition);
+}
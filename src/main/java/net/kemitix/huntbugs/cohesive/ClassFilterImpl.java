@@ -0,0 +1,70 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import com.strobel.assembler.metadata.MethodDefinition;
+import com.strobel.assembler.metadata.TypeDefinition;
+
+/**
+ * Default implementation of {@link ClassFilter}.
+ *
+ * <p>Every component holds at least one method whose body uses another member of the class, so a class with no more
+ * than one such body has at most one component. Constructors, static initialisers and bridge methods are never walked.
+ * The {@code valueOf(String)} method the compiler adds to an enum uses nothing of the enum, so it is not counted.
+ * Annotations have no code, and synthetic classes are generated code that the developer can't restructure.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+class ClassFilterImpl implements ClassFilter {
+
+    private static final String VALUE_OF = "valueOf";
+
+    private static final String VALUE_OF_PARAMETERS = "(Ljava/lang/String;)";
+
+    @Override
+    public final boolean isTriviallyCohesive(final TypeDefinition typeDefinition) {
+        if (typeDefinition.isAnnotation() || typeDefinition.isSynthetic()) {
+            return true;
+        }
+        final boolean isEnum = typeDefinition.isEnum();
+        int bodies = 0;
+        for (final MethodDefinition method : typeDefinition.getDeclaredMethods()) {
+            if (isWalked(method) && !(isEnum && isValueOf(method))) {
+                bodies++;
+                if (bodies > 1) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWalked(final MethodDefinition method) {
+        return !method.isAbstract() && !method.isNative() && !method.isConstructor() && !method.isTypeInitializer()
+                && !method.isBridgeMethod();
+    }
+
+    private static boolean isValueOf(final MethodDefinition method) {
+        return method.isStatic() && VALUE_OF.equals(method.getName()) && method.getErasedSignature()
+                                                                               .startsWith(VALUE_OF_PARAMETERS);
+    }
+}
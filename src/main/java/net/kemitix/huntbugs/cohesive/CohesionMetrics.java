@@ -0,0 +1,162 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import java.util.Objects;
+
+/**
+ * The cohesion metrics of a class, measured from a single usage graph.
+ *
+ * <ul>
+ * <li>LCOM1 - the number of pairs of methods that use no field in common.</li>
+ * <li>LCOM2 - LCOM1 less the number of pairs of methods that do use a field in common, or zero if that is
+ * negative.</li>
+ * <li>LCOM3 - the number of groups of methods connected only by the fields they use (Li and Henry).</li>
+ * <li>LCOM4 - the number of components, where methods are also connected by the methods they call.</li>
+ * <li>TCC - Tight Class Cohesion, the proportion of pairs of methods that use a field in common, directly or through
+ * the methods they call (Bieman and Kang).</li>
+ * <li>LCC - Loose Class Cohesion, the proportion of pairs of methods connected by a chain of such pairs.</li>
+ * </ul>
+ *
+ * <p>A class with fewer than two methods has a TCC and LCC of one.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public final class CohesionMetrics {
+
+    /**
+     * The metrics of a class with no methods.
+     */
+    public static final CohesionMetrics NONE = new CohesionMetrics(0, 0, 0, 0, 1, 1);
+
+    private final long lcom1;
+
+    private final long lcom2;
+
+    private final int lcom3;
+
+    private final int lcom4;
+
+    private final double tcc;
+
+    private final double lcc;
+
+    /**
+     * Constructor.
+     *
+     * @param lcom1 the number of pairs of methods that share no field
+     * @param lcom2 the excess of pairs that share no field over pairs that do
+     * @param lcom3 the number of groups of methods connected by shared fields
+     * @param lcom4 the number of components
+     * @param tcc   the tight class cohesion
+     * @param lcc   the loose class cohesion
+     */
+    public CohesionMetrics(
+            final long lcom1, final long lcom2, final int lcom3, final int lcom4, final double tcc, final double lcc
+                          ) {
+        this.lcom1 = lcom1;
+        this.lcom2 = lcom2;
+        this.lcom3 = lcom3;
+        this.lcom4 = lcom4;
+        this.tcc = tcc;
+        this.lcc = lcc;
+    }
+
+    /**
+     * The number of pairs of methods that use no field in common.
+     *
+     * @return LCOM1
+     */
+    public long getLcom1() {
+        return lcom1;
+    }
+
+    /**
+     * The number of pairs of methods that use no field in common, less the number that do.
+     *
+     * @return LCOM2, never negative
+     */
+    public long getLcom2() {
+        return lcom2;
+    }
+
+    /**
+     * The number of groups of methods connected by the fields they use.
+     *
+     * @return LCOM3
+     */
+    public int getLcom3() {
+        return lcom3;
+    }
+
+    /**
+     * The number of components.
+     *
+     * @return LCOM4
+     */
+    public int getLcom4() {
+        return lcom4;
+    }
+
+    /**
+     * The proportion of pairs of methods that use a field in common, directly or through the methods they call.
+     *
+     * @return TCC, from zero to one
+     */
+    public double getTcc() {
+        return tcc;
+    }
+
+    /**
+     * The proportion of pairs of methods that are connected, directly or indirectly, by the fields they use.
+     *
+     * @return LCC, from zero to one
+     */
+    public double getLcc() {
+        return lcc;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CohesionMetrics)) {
+            return false;
+        }
+        final CohesionMetrics that = (CohesionMetrics) other;
+        return lcom1 == that.lcom1 && lcom2 == that.lcom2 && lcom3 == that.lcom3 && lcom4 == that.lcom4
+                && Double.compare(tcc, that.tcc) == 0 && Double.compare(lcc, that.lcc) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lcom1, lcom2, lcom3, lcom4, tcc, lcc);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LCOM1=%d, LCOM2=%d, LCOM3=%d, LCOM4=%d, TCC=%.3f, LCC=%.3f", lcom1, lcom2, lcom3, lcom4,
+                             tcc, lcc
+                            );
+    }
+}
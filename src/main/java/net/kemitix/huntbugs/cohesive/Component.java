@@ -21,19 +21,42 @@
 
 package net.kemitix.huntbugs.cohesive;
 
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Prepresents a collections of cohesive methods and fields within a class.
  *
+ * <p>Components are immutable. The members are held once, in a sorted array with the methods before the fields, so
+ * the methods and fields are read-only views over the two halves of the array and two components are united with a
+ * single linear merge. Components with the same members are equal, and their hash code is computed only once.</p>
+ *
  * @author Paul Campbell (pcampbell@kemitix.net).
  */
 public final class Component {
 
-    private Set<String> members = new HashSet<>();
+    private static final String PARENS_OPEN = "(";
+
+    private static final Comparator<String> MEMBER_ORDER =
+            Comparator.comparing(Component::isAField)
+                      .thenComparing(Comparator.naturalOrder());
+
+    private final String[] members;
+
+    private final int methodCount;
+
+    private final int hash;
+
+    private Component(final String[] members) {
+        this.members = members;
+        this.methodCount = countMethods(members);
+        this.hash = Arrays.hashCode(members);
+    }
 
     /**
      * Create a new component consisting of the members.
@@ -43,37 +66,180 @@ public final class Component {
      * @return the new component
      */
     public static Component from(final Collection<String> members) {
-        final Component component = new Component();
-        component.members.addAll(members);
-        return component;
+        final String[] sorted = members.toArray(new String[0]);
+        Arrays.sort(sorted, MEMBER_ORDER);
+        int size = 0;
+        for (final String member : sorted) {
+            if (size == 0 || !sorted[size - 1].equals(member)) {
+                sorted[size++] = member;
+            }
+        }
+        return new Component(Arrays.copyOf(sorted, size));
+    }
+
+    private static boolean isAField(final String member) {
+        return !member.contains(PARENS_OPEN);
+    }
+
+    private static int countMethods(final String[] members) {
+        int count = 0;
+        while (count < members.length && !isAField(members[count])) {
+            count++;
+        }
+        return count;
     }
 
     /**
      * Get the existing members of the component.
      *
-     * @return a set of members
+     * @return a read-only set of members
      */
-    Set<String> getMembers() {
-        return new HashSet<>(members);
+    public Set<String> getMembers() {
+        return new Members(0, members.length);
     }
 
     /**
-     * Merge the component into this.
+     * Create a component with the members of this and another component.
      *
-     * @param component the component to merge
+     * @param component the component to unite with
+     *
+     * @return the united component
+     */
+    Component union(final Component component) {
+        final String[] other = component.members;
+        final String[] united = new String[members.length + other.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < members.length && j < other.length) {
+            final int order = MEMBER_ORDER.compare(members[i], other[j]);
+            if (order <= 0) {
+                united[size++] = members[i++];
+                if (order == 0) {
+                    j++;
+                }
+            } else {
+                united[size++] = other[j++];
+            }
+        }
+        while (i < members.length) {
+            united[size++] = members[i++];
+        }
+        while (j < other.length) {
+            united[size++] = other[j++];
+        }
+        return new Component(Arrays.copyOf(united, size));
+    }
+
+    /**
+     * Whether this and another component have any members in common.
+     *
+     * @param component the other component
+     *
+     * @return true if any member is in both components
      */
-    void merge(final Component component) {
-        members.addAll(component.getMembers());
+    boolean overlaps(final Component component) {
+        final String[] other = component.members;
+        int i = 0;
+        int j = 0;
+        while (i < members.length && j < other.length) {
+            final int order = MEMBER_ORDER.compare(members[i], other[j]);
+            if (order == 0) {
+                return true;
+            }
+            if (order < 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return false;
     }
 
     /**
      * Gets all the methods in the component.
      *
-     * @return a set of strings of method signatures
+     * @return a read-only set of method signatures, iterated in order
      */
     public Set<String> methods() {
-        return members.stream()
-                      .filter(member -> member.contains("("))
-                      .collect(Collectors.toSet());
+        return new Members(0, methodCount);
+    }
+
+    /**
+     * Gets all the fields in the component.
+     *
+     * @return a read-only set of field names, iterated in order
+     */
+    public Set<String> fields() {
+        return new Members(methodCount, members.length);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Component)) {
+            return false;
+        }
+        final Component component = (Component) other;
+        return hash == component.hash && Arrays.equals(members, component.members);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(members);
+    }
+
+    /**
+     * A read-only view of a range of the members.
+     */
+    private final class Members extends AbstractSet<String> {
+
+        private final int from;
+
+        private final int to;
+
+        Members(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean contains(final Object member) {
+            return member instanceof String
+                   && Arrays.binarySearch(members, from, to, (String) member, MEMBER_ORDER) >= 0;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>() {
+
+                private int next = from;
+
+                @Override
+                public boolean hasNext() {
+                    return next < to;
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return members[next++];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
     }
 }
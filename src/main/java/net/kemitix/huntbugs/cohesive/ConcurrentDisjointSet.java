@@ -0,0 +1,101 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A disjoint-set (union-find) over dense integer member IDs that may be unioned from several threads at once.
+ *
+ * <p>Roots are linked with compare-and-set, always linking the higher member ID beneath the lower, so no cycle can
+ * form however the unions interleave. Finds halve the path as they go. Once every union has completed, the sets are
+ * the same as a {@link DisjointSet} given the same unions in any order.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class ConcurrentDisjointSet {
+
+    private final AtomicIntegerArray parent;
+
+    /**
+     * Create a disjoint-set where each of the members is in its own set.
+     *
+     * @param size the number of members
+     */
+    ConcurrentDisjointSet(final int size) {
+        parent = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    /**
+     * Find the representative member of the set containing the member.
+     *
+     * @param member the member
+     *
+     * @return the representative member
+     */
+    int find(final int member) {
+        int current = member;
+        int next = parent.get(current);
+        while (next != current) {
+            final int grandparent = parent.get(next);
+            parent.compareAndSet(current, next, grandparent);
+            current = next;
+            next = grandparent;
+        }
+        return current;
+    }
+
+    /**
+     * Merge the sets containing the two members.
+     *
+     * @param a the first member
+     * @param b the second member
+     *
+     * @return true if the members were in different sets before the merge
+     */
+    boolean union(final int a, final int b) {
+        while (true) {
+            final int rootA = find(a);
+            final int rootB = find(b);
+            if (rootA == rootB) {
+                return false;
+            }
+            final int low = Math.min(rootA, rootB);
+            final int high = Math.max(rootA, rootB);
+            if (parent.compareAndSet(high, high, low)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The number of members.
+     *
+     * @return the number of members
+     */
+    int size() {
+        return parent.length();
+    }
+}
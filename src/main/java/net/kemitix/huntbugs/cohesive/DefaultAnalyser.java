@@ -21,17 +21,19 @@
 
 package net.kemitix.huntbugs.cohesive;
 
-import com.google.common.collect.Sets;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -51,12 +53,39 @@ class DefaultAnalyser implements Analyser {
             @NonNull final Map<String, Set<String>> usedByMethod, @NonNull final Set<String> nonPrivateMethods,
             @NonNull final Set<String> fields
                                        ) {
+        return analyse(usedByMethod, nonPrivateMethods, fields, () -> beanMethods.index(fields));
+    }
+
+    @Override
+    public final AnalysisResult analyse(
+            @NonNull final UsageGraph usageGraph, @NonNull final Set<String> nonPrivateMethods,
+            @NonNull final Set<String> fields, @NonNull final BeanMethodIndex beanMethodIndex
+                                       ) {
+        return analyse(usageGraph.toMap(), nonPrivateMethods, fields, () -> beanMethodIndex);
+    }
+
+    private AnalysisResult analyse(
+            final Map<String, Set<String>> usedByMethod, final Set<String> nonPrivateMethods, final Set<String> fields,
+            final Supplier<BeanMethodIndex> beanMethodIndex
+                                  ) {
         final AnalysisResult result = new AnalysisResult();
-        result.addNonBeanMethods(getNonBeanNonPrivateMethods(usedByMethod, nonPrivateMethods));
-        result.addComponents(findComponents(usedByMethod, fields));
+        result.deferNonBeanMethods(() -> getNonBeanNonPrivateMethods(usedByMethod, nonPrivateMethods));
+        result.deferComponents(() -> findComponents(usedByMethod, fields));
+        result.deferMetrics(() -> measure(usedByMethod, nonPrivateMethods, fields, beanMethodIndex.get(), result));
         return result;
     }
 
+    private CohesionMetrics measure(
+            final Map<String, Set<String>> usedByMethod, final Set<String> nonPrivateMethods, final Set<String> fields,
+            final BeanMethodIndex beanMethodIndex, final AnalysisResult result
+                                   ) {
+        final int componentCount = result.getComponents()
+                                         .size();
+        return MetricsCalculator.measure(UsageGraph.from(usedByMethod), nonPrivateMethods, fields, beanMethodIndex,
+                                         componentCount
+                                        );
+    }
+
     private Set<String> getNonBeanNonPrivateMethods(
             final Map<String, Set<String>> usedByMethod, final Set<String> nonPrivateMethods
                                                    ) {
@@ -126,27 +155,27 @@ class DefaultAnalyser implements Analyser {
     }
 
     private Set<Component> mergeComponents(final Set<Component> components) {
-        final Set<Component> merged = new HashSet<>();
+        final List<Component> merged = new ArrayList<>();
         components.forEach(component -> {
-            final Optional<Component> existing = merged.stream()
-                                                       .filter(target -> overlap(component, target))
-                                                       .findFirst();
-            if (existing.isPresent()) {
-                existing.get()
-                        .merge(component);
+            final int existing = firstOverlapping(merged, component);
+            if (existing >= 0) {
+                merged.set(existing, merged.get(existing)
+                                           .union(component));
             } else {
                 merged.add(component);
             }
         });
-        return merged;
+        return new HashSet<>(merged);
     }
 
-    private boolean overlap(final Component a, final Component b) {
-        final Set<String> aMembers = a.getMembers();
-        final Set<String> bMembers = b.getMembers();
-        final boolean hasCommonMembers = Sets.intersection(aMembers, bMembers)
-                                             .isEmpty();
-        return !hasCommonMembers;
+    private int firstOverlapping(final List<Component> components, final Component component) {
+        for (int i = 0; i < components.size(); i++) {
+            if (components.get(i)
+                          .overlaps(component)) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     private Component componentFromEntry(final Map.Entry<String, Set<String>> entry) {
@@ -0,0 +1,134 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import java.util.Arrays;
+
+/**
+ * A disjoint-set (union-find) over dense integer member IDs.
+ *
+ * <p>Uses path compression and union by rank, so a sequence of operations runs in near-linear time.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class DisjointSet {
+
+    private int[] parent;
+
+    private int[] rank;
+
+    private int size;
+
+    /**
+     * Create a disjoint-set where each of the members is in its own set.
+     *
+     * @param initialSize the number of members
+     */
+    DisjointSet(final int initialSize) {
+        parent = new int[Math.max(initialSize, 1)];
+        rank = new int[parent.length];
+        ensureSize(initialSize);
+    }
+
+    /**
+     * Grow the disjoint-set to hold at least the number of members, each new member in its own set.
+     *
+     * @param required the number of members required
+     */
+    void ensureSize(final int required) {
+        if (required <= size) {
+            return;
+        }
+        if (required > parent.length) {
+            final int capacity = Math.max(required, parent.length * 2);
+            parent = Arrays.copyOf(parent, capacity);
+            rank = Arrays.copyOf(rank, capacity);
+        }
+        for (int i = size; i < required; i++) {
+            parent[i] = i;
+            rank[i] = 0;
+        }
+        size = required;
+    }
+
+    /**
+     * Find the representative member of the set containing the member.
+     *
+     * @param member the member
+     *
+     * @return the representative member
+     */
+    int find(final int member) {
+        int root = member;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        int current = member;
+        while (parent[current] != root) {
+            final int next = parent[current];
+            parent[current] = root;
+            current = next;
+        }
+        return root;
+    }
+
+    /**
+     * Merge the sets containing the two members.
+     *
+     * @param a the first member
+     * @param b the second member
+     *
+     * @return true if the members were in different sets before the merge
+     */
+    boolean union(final int a, final int b) {
+        final int rootA = find(a);
+        final int rootB = find(b);
+        if (rootA == rootB) {
+            return false;
+        }
+        if (rank[rootA] < rank[rootB]) {
+            parent[rootA] = rootB;
+        } else if (rank[rootA] > rank[rootB]) {
+            parent[rootB] = rootA;
+        } else {
+            parent[rootB] = rootA;
+            rank[rootA]++;
+        }
+        return true;
+    }
+
+    /**
+     * The number of members.
+     *
+     * @return the number of members
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Remove all members.
+     */
+    void clear() {
+        size = 0;
+    }
+}
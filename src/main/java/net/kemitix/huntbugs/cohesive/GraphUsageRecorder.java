@@ -0,0 +1,63 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Implementation of {@link UsageRecorder} that defers all analysis until the class has been visited.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@RequiredArgsConstructor
+class GraphUsageRecorder implements UsageRecorder {
+
+    private final UsageGraph usageGraph;
+
+    private final Analyser analyser;
+
+    @Override
+    public final int intern(final String method) {
+        return usageGraph.getSymbols()
+                         .intern(method);
+    }
+
+    @Override
+    public final void addUsage(final int method, final String used) {
+        usageGraph.addUsage(method, usageGraph.getSymbols()
+                                              .intern(used));
+    }
+
+    @Override
+    public final AnalysisResult analyse(
+            final Set<String> nonPrivateMethods, final Set<String> fields, final BeanMethodIndex beanMethodIndex
+                                       ) {
+        return analyser.analyse(usageGraph, nonPrivateMethods, fields, beanMethodIndex);
+    }
+
+    @Override
+    public final void clear() {
+        usageGraph.clear();
+    }
+}
@@ -22,6 +22,7 @@
 package net.kemitix.huntbugs.cohesive;
 
 import com.strobel.assembler.metadata.MethodDefinition;
+import com.strobel.assembler.metadata.TypeDefinition;
 
 /**
  * Wrapper for accessing {@link com.strobel.assembler.metadata.MethodDefinition} data.
@@ -50,6 +51,33 @@ public interface MethodDefinitionWrapper {
      */
     boolean isPrivate(MethodDefinition methodDefinition);
 
+    /**
+     * Checks if the method definition is for a static initialiser.
+     *
+     * @param methodDefinition the method definition
+     *
+     * @return true if the method definition is for a static initialiser
+     */
+    boolean isTypeInitializer(MethodDefinition methodDefinition);
+
+    /**
+     * Checks if the method definition is for a bridge method generated by the compiler.
+     *
+     * @param methodDefinition the method definition
+     *
+     * @return true if the method definition is for a bridge method
+     */
+    boolean isBridgeMethod(MethodDefinition methodDefinition);
+
+    /**
+     * Gets the type that declares the method.
+     *
+     * @param methodDefinition the method definition
+     *
+     * @return the declaring type
+     */
+    TypeDefinition getDeclaringType(MethodDefinition methodDefinition);
+
     /**
      * Create an instance of the default implementation of {@link MethodDefinitionWrapper}.
      *
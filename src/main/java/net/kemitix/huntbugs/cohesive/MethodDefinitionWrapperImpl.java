@@ -22,6 +22,7 @@
 package net.kemitix.huntbugs.cohesive;
 
 import com.strobel.assembler.metadata.MethodDefinition;
+import com.strobel.assembler.metadata.TypeDefinition;
 
 /**
  * Implementation of {@link MethodDefinitionWrapper}.
@@ -39,4 +40,19 @@ class MethodDefinitionWrapperImpl implements MethodDefinitionWrapper {
     public boolean isPrivate(final MethodDefinition methodDefinition) {
         return methodDefinition.isPrivate();
     }
+
+    @Override
+    public boolean isTypeInitializer(final MethodDefinition methodDefinition) {
+        return methodDefinition.isTypeInitializer();
+    }
+
+    @Override
+    public boolean isBridgeMethod(final MethodDefinition methodDefinition) {
+        return methodDefinition.isBridgeMethod();
+    }
+
+    @Override
+    public TypeDefinition getDeclaringType(final MethodDefinition methodDefinition) {
+        return methodDefinition.getDeclaringType();
+    }
 }
@@ -66,4 +66,15 @@ public interface MethodFilter {
      * definition is not private and the value is {@code false}.
      */
     Predicate<MethodDefinition> isPrivate(boolean value);
+
+    /**
+     * Creates a predicate to select the {@link MethodDefinition}s whose bodies contribute usages to the analysis.
+     *
+     * <p>Constructors, static initialisers and bridge methods are not selected, so their bodies need not be walked.
+     * A method named like an accessor of a field is selected, as whether it is a bean method depends on the members
+     * its body uses, which is left to the {@link Analyser}.</p>
+     *
+     * @return {@code true} only when the body of the method definition contributes usages
+     */
+    Predicate<MethodDefinition> contributesUsages();
 }
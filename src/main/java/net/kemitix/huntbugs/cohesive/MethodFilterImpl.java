@@ -45,4 +45,11 @@ class MethodFilterImpl implements MethodFilter {
     public Predicate<MethodDefinition> isPrivate(final boolean value) {
         return methodDefinition -> value == methodDefinitionWrapper.isPrivate(methodDefinition);
     }
+
+    @Override
+    public Predicate<MethodDefinition> contributesUsages() {
+        return methodDefinition -> !methodDefinitionWrapper.isConstructor(methodDefinition)
+                && !methodDefinitionWrapper.isTypeInitializer(methodDefinition)
+                && !methodDefinitionWrapper.isBridgeMethod(methodDefinition);
+    }
 }
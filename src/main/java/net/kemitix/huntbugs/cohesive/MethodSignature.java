@@ -39,6 +39,17 @@ public interface MethodSignature {
      */
     String create(MemberReference memberReference);
 
+    /**
+     * Get the method signature builder to use while analysing a single class.
+     *
+     * <p>The default implementation returns this instance.</p>
+     *
+     * @return a method signature builder for one class
+     */
+    default MethodSignature forClass() {
+        return this;
+    }
+
     /**
      * Create an instance of the default implementation of {@link MethodSignature}.
      *
@@ -47,4 +58,16 @@ public interface MethodSignature {
     static MethodSignature defaultInstance() {
         return new DefaultMethodSignature();
     }
+
+    /**
+     * Create an instance of the caching implementation of {@link MethodSignature}.
+     *
+     * <p>Signatures are pooled across classes, and remembered for each member reference by the builder returned from
+     * {@link #forClass()}.</p>
+     *
+     * @return an instance of MethodSignature
+     */
+    static MethodSignature cachingInstance() {
+        return new CachingMethodSignature();
+    }
 }
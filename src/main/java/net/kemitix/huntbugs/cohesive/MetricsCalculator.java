@@ -0,0 +1,255 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Measures the {@link CohesionMetrics} of a class from its {@link UsageGraph}.
+ *
+ * <p>The methods measured are the non-bean methods with usages in the graph, and any non-private methods that use
+ * nothing. Each method's fields are held as a {@link BitSet}, as are the methods that use each field, so the pairs of
+ * methods sharing a field are counted by or-ing the method sets of each of a method's fields rather than by
+ * intersecting the fields of every pair. Calls to bean methods still carry the fields those methods use.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class MetricsCalculator {
+
+    private static final String PARENS_OPEN = "(";
+
+    private final UsageGraph usageGraph;
+
+    private final SymbolTable symbols;
+
+    private final int[] fieldOf;
+
+    private final int[] methodOf;
+
+    private final List<BitSet> direct = new ArrayList<>();
+
+    private final List<BitSet> calls = new ArrayList<>();
+
+    private final BitSet measured = new BitSet();
+
+    private int fieldCount;
+
+    private MetricsCalculator(final UsageGraph usageGraph) {
+        this.usageGraph = usageGraph;
+        this.symbols = usageGraph.getSymbols();
+        fieldOf = new int[symbols.size()];
+        methodOf = new int[symbols.size()];
+        Arrays.fill(fieldOf, -1);
+        Arrays.fill(methodOf, -1);
+    }
+
+    /**
+     * Measure the cohesion of a class.
+     *
+     * @param usageGraph        the members used by each method
+     * @param nonPrivateMethods the non-private methods
+     * @param fields            the fields of the class
+     * @param beanMethodIndex   the bean methods of the class
+     * @param componentCount    the number of components found in the graph
+     *
+     * @return the metrics
+     */
+    static CohesionMetrics measure(
+            final UsageGraph usageGraph, final Set<String> nonPrivateMethods, final Set<String> fields,
+            final BeanMethodIndex beanMethodIndex, final int componentCount
+                                  ) {
+        final MetricsCalculator calculator = new MetricsCalculator(usageGraph);
+        calculator.indexFields(fields);
+        calculator.indexMethods(nonPrivateMethods, beanMethodIndex);
+        return calculator.metrics(componentCount);
+    }
+
+    private void indexFields(final Set<String> fields) {
+        for (final String field : fields) {
+            final int id = symbols.idOf(field);
+            if (id >= 0) {
+                fieldOf[id] = fieldCount++;
+            }
+        }
+    }
+
+    private void indexMethods(final Set<String> nonPrivateMethods, final BeanMethodIndex beanMethodIndex) {
+        for (int method = usageGraph.nextMethod(0); method >= 0; method = usageGraph.nextMethod(method + 1)) {
+            addMethod(method, beanMethodIndex.isNotBeanMethod(symbols.symbol(method)));
+        }
+        for (final String method : nonPrivateMethods) {
+            final int id = symbols.idOf(method);
+            if (id < 0 || !usageGraph.isMethod(id)) {
+                addMethod(-1, true);
+            }
+        }
+        for (int method = usageGraph.nextMethod(0); method >= 0; method = usageGraph.nextMethod(method + 1)) {
+            final BitSet fields = direct.get(methodOf[method]);
+            final BitSet called = calls.get(methodOf[method]);
+            final int count = usageGraph.usedByCount(method);
+            for (int i = 0; i < count; i++) {
+                final int used = usageGraph.usedBy(method, i);
+                if (fieldOf[used] >= 0) {
+                    fields.set(fieldOf[used]);
+                } else if (methodOf[used] >= 0) {
+                    called.set(methodOf[used]);
+                }
+            }
+        }
+    }
+
+    private void addMethod(final int id, final boolean isMeasured) {
+        final int local = direct.size();
+        if (id >= 0) {
+            methodOf[id] = local;
+        }
+        direct.add(new BitSet());
+        calls.add(new BitSet());
+        if (isMeasured && (id < 0 || !symbols.symbol(id)
+                                          .startsWith(PARENS_OPEN))) {
+            measured.set(local);
+        }
+    }
+
+    private CohesionMetrics metrics(final int componentCount) {
+        final List<BitSet> directFields = new ArrayList<>();
+        final List<BitSet> reachedFields = new ArrayList<>();
+        for (int method = measured.nextSetBit(0); method >= 0; method = measured.nextSetBit(method + 1)) {
+            directFields.add(direct.get(method));
+            reachedFields.add(reach(method));
+        }
+        final long pairs = pairs(directFields.size());
+        final long sharing = sharingPairs(directFields);
+        final long lcom1 = pairs - sharing;
+        if (pairs == 0) {
+            return new CohesionMetrics(lcom1, 0, directFields.size(), componentCount, 1, 1);
+        }
+        final long tight = sharingPairs(reachedFields);
+        final long loose = connectedPairs(reachedFields);
+        return new CohesionMetrics(lcom1, Math.max(lcom1 - sharing, 0), groups(directFields), componentCount,
+                                   (double) tight / pairs, (double) loose / pairs
+        );
+    }
+
+    private static long pairs(final int count) {
+        return (long) count * (count - 1) / 2;
+    }
+
+    /**
+     * The fields a method uses directly, or through the methods it calls.
+     *
+     * @param method the method
+     *
+     * @return the fields
+     */
+    private BitSet reach(final int method) {
+        final BitSet fields = new BitSet();
+        final BitSet visited = new BitSet();
+        final BitSet pending = new BitSet();
+        pending.set(method);
+        for (int next = pending.nextSetBit(0); next >= 0; next = pending.nextSetBit(0)) {
+            pending.clear(next);
+            visited.set(next);
+            fields.or(direct.get(next));
+            pending.or(calls.get(next));
+            pending.andNot(visited);
+        }
+        return fields;
+    }
+
+    /**
+     * The methods that use each field.
+     *
+     * @param fieldsOfMethods the fields of each method
+     *
+     * @return the methods of each field
+     */
+    private List<BitSet> methodsOfFields(final List<BitSet> fieldsOfMethods) {
+        final List<BitSet> methodsOfFields = new ArrayList<>(fieldCount);
+        for (int field = 0; field < fieldCount; field++) {
+            methodsOfFields.add(new BitSet());
+        }
+        for (int method = 0; method < fieldsOfMethods.size(); method++) {
+            final BitSet fields = fieldsOfMethods.get(method);
+            for (int field = fields.nextSetBit(0); field >= 0; field = fields.nextSetBit(field + 1)) {
+                methodsOfFields.get(field)
+                               .set(method);
+            }
+        }
+        return methodsOfFields;
+    }
+
+    private long sharingPairs(final List<BitSet> fieldsOfMethods) {
+        final List<BitSet> methodsOfFields = methodsOfFields(fieldsOfMethods);
+        final BitSet partners = new BitSet();
+        long count = 0;
+        for (int method = 0; method < fieldsOfMethods.size(); method++) {
+            partners.clear();
+            final BitSet fields = fieldsOfMethods.get(method);
+            for (int field = fields.nextSetBit(0); field >= 0; field = fields.nextSetBit(field + 1)) {
+                partners.or(methodsOfFields.get(field));
+            }
+            partners.clear(0, method + 1);
+            count += partners.cardinality();
+        }
+        return count;
+    }
+
+    private DisjointSet partition(final List<BitSet> fieldsOfMethods) {
+        final DisjointSet disjointSet = new DisjointSet(fieldsOfMethods.size());
+        for (final BitSet methods : methodsOfFields(fieldsOfMethods)) {
+            final int first = methods.nextSetBit(0);
+            for (int method = methods.nextSetBit(first + 1); method >= 0; method = methods.nextSetBit(method + 1)) {
+                disjointSet.union(first, method);
+            }
+        }
+        return disjointSet;
+    }
+
+    private int groups(final List<BitSet> fieldsOfMethods) {
+        final DisjointSet disjointSet = partition(fieldsOfMethods);
+        int count = 0;
+        for (int method = 0; method < fieldsOfMethods.size(); method++) {
+            if (disjointSet.find(method) == method) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long connectedPairs(final List<BitSet> fieldsOfMethods) {
+        final DisjointSet disjointSet = partition(fieldsOfMethods);
+        final int[] sizes = new int[fieldsOfMethods.size()];
+        for (int method = 0; method < sizes.length; method++) {
+            sizes[disjointSet.find(method)]++;
+        }
+        long count = 0;
+        for (final int size : sizes) {
+            count += pairs(size);
+        }
+        return count;
+    }
+}
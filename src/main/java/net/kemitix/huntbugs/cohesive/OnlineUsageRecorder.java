@@ -0,0 +1,130 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import lombok.NonNull;
+
+import java.util.BitSet;
+import java.util.Set;
+
+/**
+ * Implementation of {@link UsageRecorder} that maintains the components as each usage is recorded.
+ *
+ * <p>A method that can not be a bean method is unioned with the members it uses straight away. The usages of methods
+ * that may be bean methods are held back until analysis, when it is known whether they are bean methods for the
+ * members they use.</p>
+ *
+ * <p>When the {@link CohesionMetrics} are to be measured every usage is also kept, so the recorder holds as much as a
+ * {@link GraphUsageRecorder} and has no memory benefit over it. Otherwise the metrics are
+ * {@link CohesionMetrics#NONE}.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+class OnlineUsageRecorder implements UsageRecorder {
+
+    private final UnionFindAnalyser analyser;
+
+    private final BeanMethods beanMethods;
+
+    private final boolean measured;
+
+    private final SymbolTable symbols = new SymbolTable();
+
+    private final UsageGraph deferred = new UsageGraph(symbols);
+
+    private final UsageGraph usages = new UsageGraph(symbols);
+
+    private final DisjointSet disjointSet = new DisjointSet(0);
+
+    private final BitSet included = new BitSet();
+
+    private final BitSet classified = new BitSet();
+
+    private final BitSet possibleBeanMethods = new BitSet();
+
+    /**
+     * Constructor.
+     *
+     * @param analyser    the analyser used to read off the final components
+     * @param beanMethods bean method identifier
+     * @param measured    whether to keep every usage for measuring the metrics
+     */
+    OnlineUsageRecorder(final UnionFindAnalyser analyser, final BeanMethods beanMethods, final boolean measured) {
+        this.analyser = analyser;
+        this.beanMethods = beanMethods;
+        this.measured = measured;
+    }
+
+    @Override
+    public final int intern(@NonNull final String method) {
+        return symbols.intern(method);
+    }
+
+    @Override
+    public final void addUsage(final int methodId, @NonNull final String used) {
+        final int usedId = symbols.intern(used);
+        disjointSet.ensureSize(symbols.size());
+        if (!classified.get(methodId)) {
+            classified.set(methodId);
+            if (beanMethods.mayBeBeanMethod(symbols.symbol(methodId))) {
+                possibleBeanMethods.set(methodId);
+            }
+        }
+        if (measured) {
+            usages.addUsage(methodId, usedId);
+        }
+        if (possibleBeanMethods.get(methodId)) {
+            deferred.addUsage(methodId, usedId);
+        } else {
+            included.set(methodId);
+            included.set(usedId);
+            disjointSet.union(methodId, usedId);
+        }
+    }
+
+    @Override
+    public final AnalysisResult analyse(
+            @NonNull final Set<String> nonPrivateMethods, @NonNull final Set<String> fields,
+            @NonNull final BeanMethodIndex beanMethodIndex
+                                       ) {
+        for (int method = deferred.nextMethod(0); method >= 0; method = deferred.nextMethod(method + 1)) {
+            analyser.unionUsages(deferred, method, disjointSet, included);
+        }
+        final AnalysisResult result = new AnalysisResult();
+        result.deferNonBeanMethods(() -> analyser.getNonBeanNonPrivateMethods(deferred, nonPrivateMethods));
+        result.deferComponents(() -> analyser.collectComponents(disjointSet, included, symbols, beanMethodIndex));
+        if (measured) {
+            result.deferMetrics(() -> analyser.measure(usages, nonPrivateMethods, fields, beanMethodIndex, result));
+        }
+        return result;
+    }
+
+    @Override
+    public final void clear() {
+        deferred.clear();
+        usages.clear();
+        disjointSet.clear();
+        included.clear();
+        classified.clear();
+        possibleBeanMethods.clear();
+    }
+}
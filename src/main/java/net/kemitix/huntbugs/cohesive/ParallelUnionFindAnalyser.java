@@ -0,0 +1,105 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import java.util.BitSet;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Implementation of {@link Analyser} that unions the usages of large classes in parallel.
+ *
+ * <p>A class with fewer usages than the threshold is analysed as by the {@link UnionFindAnalyser}. For larger
+ * classes the methods, and so the usage edges from each, are split across the common
+ * {@link java.util.concurrent.ForkJoinPool}, or across the pool of the calling thread when it is already a worker of a
+ * pool, and unioned in a {@link ConcurrentDisjointSet}. The partition found is
+ * the same whatever order the unions run in, so the components are the same as the sequential analysis.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+class ParallelUnionFindAnalyser extends UnionFindAnalyser {
+
+    private final int threshold;
+
+    /**
+     * Create an analyser that works in parallel on classes with at least the threshold number of usages.
+     *
+     * @param beanMethods bean method identifier
+     * @param threshold   the fewest usages for which to work in parallel
+     */
+    ParallelUnionFindAnalyser(final BeanMethods beanMethods, final int threshold) {
+        super(beanMethods);
+        this.threshold = threshold;
+    }
+
+    @Override
+    final Set<Component> findComponents(final UsageGraph usageGraph, final BeanMethodIndex beanMethodIndex) {
+        if (usageGraph.getEdgeCount() < threshold) {
+            return super.findComponents(usageGraph, beanMethodIndex);
+        }
+        usageGraph.index();
+        final SymbolTable symbols = usageGraph.getSymbols();
+        final ConcurrentDisjointSet disjointSet = new ConcurrentDisjointSet(symbols.size());
+        final int[] methods = methods(usageGraph);
+        final boolean[] contributes = new boolean[methods.length];
+        IntStream.range(0, methods.length)
+                 .parallel()
+                 .forEach(i -> contributes[i] = unionUsages(usageGraph, methods[i], disjointSet));
+        final BitSet included = new BitSet(symbols.size());
+        for (int i = 0; i < methods.length; i++) {
+            if (contributes[i]) {
+                include(usageGraph, methods[i], included);
+            }
+        }
+        return collectComponents(disjointSet::find, disjointSet.size(), included, symbols, beanMethodIndex);
+    }
+
+    private static int[] methods(final UsageGraph usageGraph) {
+        final IntStream.Builder methods = IntStream.builder();
+        for (int method = usageGraph.nextMethod(0); method >= 0; method = usageGraph.nextMethod(method + 1)) {
+            methods.add(method);
+        }
+        return methods.build()
+                      .toArray();
+    }
+
+    private boolean unionUsages(
+            final UsageGraph usageGraph, final int method, final ConcurrentDisjointSet disjointSet
+                               ) {
+        if (!contributesUsages(usageGraph, method)) {
+            return false;
+        }
+        final int count = usageGraph.usedByCount(method);
+        for (int i = 0; i < count; i++) {
+            disjointSet.union(method, usageGraph.usedBy(method, i));
+        }
+        return true;
+    }
+
+    private static void include(final UsageGraph usageGraph, final int method, final BitSet included) {
+        included.set(method);
+        final int count = usageGraph.usedByCount(method);
+        for (int i = 0; i < count; i++) {
+            included.set(usageGraph.usedBy(method, i));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bounded, thread-safe pool of signature strings, so that equal signatures from different classes share a single
+ * instance.
+ *
+ * <p>When the pool reaches its maximum size it is emptied and starts filling again.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class SignaturePool {
+
+    private final int maxSize;
+
+    private final ConcurrentMap<String, String> pool = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize the maximum number of signatures to hold
+     */
+    SignaturePool(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the pooled instance of the signature.
+     *
+     * @param signature the signature
+     *
+     * @return an equal signature, which is the same instance for all equal signatures while they remain pooled
+     */
+    String intern(final String signature) {
+        final String existing = pool.get(signature);
+        if (existing != null) {
+            return existing;
+        }
+        if (pool.size() >= maxSize) {
+            pool.clear();
+        }
+        final String previous = pool.putIfAbsent(signature, signature);
+        if (previous == null) {
+            return signature;
+        }
+        return previous;
+    }
+
+    /**
+     * The number of signatures in the pool.
+     *
+     * @return the number of signatures
+     */
+    int size() {
+        return pool.size();
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Maps the member signatures of a class to dense integer IDs.
+ *
+ * <p>IDs are allocated from zero in the order members are first interned. The table uses open addressing over
+ * primitive arrays so no boxed values are created.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public final class SymbolTable {
+
+    private static final int ABSENT = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final int MAX_RETAINED_CAPACITY = 1024;
+
+    private String[] symbols;
+
+    private int[] slots;
+
+    private int size;
+
+    /**
+     * Create an empty symbol table.
+     */
+    public SymbolTable() {
+        allocate();
+    }
+
+    private void allocate() {
+        symbols = new String[INITIAL_CAPACITY];
+        slots = emptySlots(INITIAL_CAPACITY * 2);
+        size = 0;
+    }
+
+    private static int[] emptySlots(final int capacity) {
+        final int[] result = new int[capacity];
+        Arrays.fill(result, ABSENT);
+        return result;
+    }
+
+    /**
+     * Get the ID of the symbol, allocating a new one if it has not been seen before.
+     *
+     * @param symbol the member signature
+     *
+     * @return the ID of the symbol
+     */
+    public int intern(@NonNull final String symbol) {
+        final int slot = slotOf(symbol);
+        if (slots[slot] != ABSENT) {
+            return slots[slot];
+        }
+        if (size == symbols.length) {
+            symbols = Arrays.copyOf(symbols, size * 2);
+        }
+        final int id = size++;
+        symbols[id] = symbol;
+        slots[slot] = id;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    /**
+     * Get the ID of the symbol without allocating a new one.
+     *
+     * @param symbol the member signature
+     *
+     * @return the ID of the symbol, or -1 if the symbol has not been interned
+     */
+    public int idOf(@NonNull final String symbol) {
+        return slots[slotOf(symbol)];
+    }
+
+    /**
+     * Get the symbol for the ID.
+     *
+     * @param id the ID of the symbol
+     *
+     * @return the member signature
+     */
+    public String symbol(final int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException(String.valueOf(id));
+        }
+        return symbols[id];
+    }
+
+    /**
+     * The number of symbols in the table.
+     *
+     * @return the number of symbols
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove all the symbols, ready for the next class.
+     */
+    public void clear() {
+        if (slots.length > MAX_RETAINED_CAPACITY) {
+            allocate();
+        } else {
+            Arrays.fill(symbols, 0, size, null);
+            Arrays.fill(slots, ABSENT);
+            size = 0;
+        }
+    }
+
+    private int slotOf(final String symbol) {
+        final int mask = slots.length - 1;
+        int slot = hash(symbol) & mask;
+        while (slots[slot] != ABSENT && !symbols[slots[slot]].equals(symbol)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        slots = emptySlots(slots.length * 2);
+        final int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hash(symbols[id]) & mask;
+            while (slots[slot] != ABSENT) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id;
+        }
+    }
+
+    private static int hash(final String symbol) {
+        final int h = symbol.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
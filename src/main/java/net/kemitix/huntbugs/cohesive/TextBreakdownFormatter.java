@@ -0,0 +1,68 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plain text implementation of {@link BreakdownFormatter}.
+ *
+ * <p>e.g. {@code #1: a()V, b()V; #2: c()V}</p>
+ *
+ * <p>Components are numbered in the order of their first method, so the breakdown does not depend on hashing.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net).
+ */
+class TextBreakdownFormatter implements BreakdownFormatter {
+
+    private static final String COMPONENT_SEPARATOR = "; ";
+
+    private static final String METHOD_SEPARATOR = ", ";
+
+    @Override
+    public String apply(final Set<Component> components) {
+        final List<Component> sorted = new ArrayList<>(components);
+        sorted.sort(Comparator.comparing(TextBreakdownFormatter::firstMethod));
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < sorted.size(); i++) {
+            if (i > 0) {
+                text.append(COMPONENT_SEPARATOR);
+            }
+            text.append('#')
+                .append(i + 1)
+                .append(": ")
+                .append(String.join(METHOD_SEPARATOR, sorted.get(i)
+                                                            .methods()));
+        }
+        return text.toString();
+    }
+
+    private static String firstMethod(final Component component) {
+        return component.methods()
+                        .stream()
+                        .findFirst()
+                        .orElse("");
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of {@link Analyser} that finds components using a {@link DisjointSet}.
+ *
+ * <p>Works on the integer IDs of a {@link UsageGraph}. Every method is unioned with the members it uses, so
+ * components are merged transitively in a single pass over the usages.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@RequiredArgsConstructor
+class UnionFindAnalyser implements Analyser {
+
+    private static final String PARENS_OPEN = "(";
+
+    private final BeanMethods beanMethods;
+
+    @Override
+    public final AnalysisResult analyse(
+            @NonNull final Map<String, Set<String>> usedByMethod, @NonNull final Set<String> nonPrivateMethods,
+            @NonNull final Set<String> fields
+                                       ) {
+        return analyse(UsageGraph.from(usedByMethod), nonPrivateMethods, fields);
+    }
+
+    @Override
+    public final AnalysisResult analyse(
+            @NonNull final UsageGraph usageGraph, @NonNull final Set<String> nonPrivateMethods,
+            @NonNull final Set<String> fields
+                                       ) {
+        return analyse(usageGraph, nonPrivateMethods, fields, beanMethods.index(fields));
+    }
+
+    @Override
+    public final AnalysisResult analyse(
+            @NonNull final UsageGraph usageGraph, @NonNull final Set<String> nonPrivateMethods,
+            @NonNull final Set<String> fields, @NonNull final BeanMethodIndex beanMethodIndex
+                                       ) {
+        final AnalysisResult result = new AnalysisResult();
+        result.deferNonBeanMethods(() -> getNonBeanNonPrivateMethods(usageGraph, nonPrivateMethods));
+        result.deferComponents(() -> findComponents(usageGraph, beanMethodIndex));
+        result.deferMetrics(() -> measure(usageGraph, nonPrivateMethods, fields, beanMethodIndex, result));
+        return result;
+    }
+
+    /**
+     * Measure the cohesion metrics of the class once its components are known.
+     *
+     * @param usageGraph        the members used by each method
+     * @param nonPrivateMethods the non-private methods
+     * @param fields            the fields of the class
+     * @param beanMethodIndex   the bean methods of the class
+     * @param result            the result holding the components
+     *
+     * @return the metrics
+     */
+    final CohesionMetrics measure(
+            final UsageGraph usageGraph, final Set<String> nonPrivateMethods, final Set<String> fields,
+            final BeanMethodIndex beanMethodIndex, final AnalysisResult result
+                                   ) {
+        final int componentCount = result.getComponents()
+                                         .size();
+        return MetricsCalculator.measure(usageGraph, nonPrivateMethods, fields, beanMethodIndex, componentCount);
+    }
+
+    /**
+     * Select the non-private methods that are not bean methods.
+     *
+     * @param usageGraph        the members used by each method
+     * @param nonPrivateMethods the non-private methods
+     *
+     * @return the non-private, non-bean methods
+     */
+    final Set<String> getNonBeanNonPrivateMethods(
+            final UsageGraph usageGraph, final Set<String> nonPrivateMethods
+                                                   ) {
+        return nonPrivateMethods.stream()
+                                .filter(m -> isNotABeanMethod(m, membersUsedByMethod(usageGraph, m)))
+                                .collect(Collectors.toSet());
+    }
+
+    private Set<String> membersUsedByMethod(final UsageGraph usageGraph, final String methodName) {
+        final int method = usageGraph.getSymbols()
+                                     .idOf(methodName);
+        if (method < 0 || !usageGraph.isMethod(method)) {
+            return Collections.emptySet();
+        }
+        return usageGraph.membersUsedBy(method);
+    }
+
+    private boolean isNotABeanMethod(final String m, final Set<String> fields) {
+        return isAField(m) || beanMethods.isNotBeanMethod(m, fields);
+    }
+
+    private boolean isAField(final String m) {
+        return !m.contains(PARENS_OPEN);
+    }
+
+    private boolean isAConstructor(final String m) {
+        return m.startsWith(PARENS_OPEN);
+    }
+
+    /**
+     * Find the components of the class.
+     *
+     * @param usageGraph      the members used by each method
+     * @param beanMethodIndex the bean methods of the class
+     *
+     * @return the components
+     */
+    Set<Component> findComponents(final UsageGraph usageGraph, final BeanMethodIndex beanMethodIndex) {
+        final SymbolTable symbols = usageGraph.getSymbols();
+        final DisjointSet disjointSet = new DisjointSet(symbols.size());
+        final BitSet included = new BitSet(symbols.size());
+        for (int method = usageGraph.nextMethod(0); method >= 0; method = usageGraph.nextMethod(method + 1)) {
+            unionUsages(usageGraph, method, disjointSet, included);
+        }
+        return collectComponents(disjointSet, included, symbols, beanMethodIndex);
+    }
+
+    /**
+     * Whether the method is unioned with the members it uses, which it is unless it is a bean method.
+     *
+     * @param usageGraph the members used by each method
+     * @param method     the ID of the method
+     *
+     * @return true if the method's usages join its component
+     */
+    final boolean contributesUsages(final UsageGraph usageGraph, final int method) {
+        return isNotABeanMethod(usageGraph.getSymbols()
+                                          .symbol(method), usageGraph.membersUsedBy(method));
+    }
+
+    /**
+     * Union the method with the members it uses, unless it is a bean method.
+     *
+     * @param usageGraph  the members used by each method
+     * @param method      the ID of the method
+     * @param disjointSet the disjoint-set to union in to
+     * @param included    the members that belong to a component
+     */
+    final void unionUsages(
+            final UsageGraph usageGraph, final int method, final DisjointSet disjointSet, final BitSet included
+                          ) {
+        if (contributesUsages(usageGraph, method)) {
+            included.set(method);
+            final int count = usageGraph.usedByCount(method);
+            for (int i = 0; i < count; i++) {
+                final int used = usageGraph.usedBy(method, i);
+                included.set(used);
+                disjointSet.union(method, used);
+            }
+        }
+    }
+
+    /**
+     * Read the components off the partition, removing any constructors and bean methods.
+     *
+     * @param disjointSet     the partition of the members
+     * @param included        the members that belong to a component
+     * @param symbols         the symbol table for the member IDs
+     * @param beanMethodIndex the bean methods of the class
+     *
+     * @return the components
+     */
+    final Set<Component> collectComponents(
+            final DisjointSet disjointSet, final BitSet included, final SymbolTable symbols,
+            final BeanMethodIndex beanMethodIndex
+                                            ) {
+        return collectComponents(disjointSet::find, disjointSet.size(), included, symbols, beanMethodIndex);
+    }
+
+    /**
+     * Read the components off a partition given by the root of each member, removing any constructors and bean
+     * methods.
+     *
+     * @param rootOf          the representative member of the set containing each member
+     * @param size            the number of members in the partition
+     * @param included        the members that belong to a component
+     * @param symbols         the symbol table for the member IDs
+     * @param beanMethodIndex the bean methods of the class
+     *
+     * @return the components
+     */
+    final Set<Component> collectComponents(
+            final IntUnaryOperator rootOf, final int size, final BitSet included, final SymbolTable symbols,
+            final BeanMethodIndex beanMethodIndex
+                                            ) {
+        final int[] componentOfRoot = new int[size];
+        Arrays.fill(componentOfRoot, -1);
+        final List<Set<String>> componentMembers = new ArrayList<>();
+        for (int id = included.nextSetBit(0); id >= 0; id = included.nextSetBit(id + 1)) {
+            final int root = rootOf.applyAsInt(id);
+            if (componentOfRoot[root] < 0) {
+                componentOfRoot[root] = componentMembers.size();
+                componentMembers.add(new HashSet<>());
+            }
+            final String member = symbols.symbol(id);
+            if (!isAConstructor(member) && (isAField(member) || beanMethodIndex.isNotBeanMethod(member))) {
+                componentMembers.get(componentOfRoot[root])
+                                .add(member);
+            }
+        }
+        final Set<Component> components = new HashSet<>();
+        componentMembers.forEach(m -> components.add(Component.from(m)));
+        return components;
+    }
+}
@@ -0,0 +1,365 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import lombok.NonNull;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The fields and methods used by each method of a class, held as integer IDs from a {@link SymbolTable}.
+ *
+ * <p>Usages are recorded as an edge list in primitive arrays. Repeated usages by the method most recently recorded
+ * are dropped straight away, so visiting a method's body does not grow the list once each of its usages has been
+ * seen. When the usages of a method are first queried they are indexed into a compressed adjacency array, with any
+ * remaining duplicates removed.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public final class UsageGraph {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final SymbolTable symbols;
+
+    private final BitSet methods = new BitSet();
+
+    private int[] sources = new int[INITIAL_CAPACITY];
+
+    private int[] targets = new int[INITIAL_CAPACITY];
+
+    private int edgeCount;
+
+    private int[] offsets;
+
+    private int[] adjacency;
+
+    private int recentMethod = -1;
+
+    private final BitSet recentlyUsed = new BitSet();
+
+    /**
+     * Create an empty usage graph.
+     */
+    public UsageGraph() {
+        this(new SymbolTable());
+    }
+
+    /**
+     * Create an empty usage graph that shares a symbol table.
+     *
+     * @param symbols the symbol table
+     */
+    UsageGraph(final SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
+    /**
+     * Create a usage graph from a map of the fields and methods used by each method.
+     *
+     * @param usedByMethod a map of fields and methods used grouped by each method
+     *
+     * @return the usage graph
+     */
+    public static UsageGraph from(@NonNull final Map<String, Set<String>> usedByMethod) {
+        final UsageGraph usageGraph = new UsageGraph();
+        usedByMethod.forEach((method, used) -> {
+            final int methodId = usageGraph.addMethod(method);
+            used.forEach(member -> usageGraph.addUsage(methodId, usageGraph.symbols.intern(member)));
+        });
+        return usageGraph;
+    }
+
+    /**
+     * The symbol table for the IDs used in the graph.
+     *
+     * @return the symbol table
+     */
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Record a method as having usages, even if it has none yet.
+     *
+     * @param method the method signature
+     *
+     * @return the ID of the method
+     */
+    public int addMethod(@NonNull final String method) {
+        final int methodId = symbols.intern(method);
+        methods.set(methodId);
+        return methodId;
+    }
+
+    /**
+     * Record that the method uses the field or method.
+     *
+     * @param method the method signature
+     * @param used   the field name or method signature that is used
+     */
+    public void addUsage(@NonNull final String method, @NonNull final String used) {
+        addUsage(symbols.intern(method), symbols.intern(used));
+    }
+
+    /**
+     * Record that the method uses the field or method.
+     *
+     * @param method the ID of the method
+     * @param used   the ID of the field or method that is used
+     */
+    public void addUsage(final int method, final int used) {
+        methods.set(method);
+        if (method != recentMethod) {
+            recentlyUsed.clear();
+            recentMethod = method;
+        }
+        if (recentlyUsed.get(used)) {
+            return;
+        }
+        recentlyUsed.set(used);
+        if (edgeCount == sources.length) {
+            sources = Arrays.copyOf(sources, edgeCount * 2);
+            targets = Arrays.copyOf(targets, edgeCount * 2);
+        }
+        sources[edgeCount] = method;
+        targets[edgeCount] = used;
+        edgeCount++;
+        offsets = null;
+    }
+
+    /**
+     * Checks if the member has been recorded as a method with usages.
+     *
+     * @param id the ID of the member
+     *
+     * @return true if the member is a method with usages
+     */
+    public boolean isMethod(final int id) {
+        return methods.get(id);
+    }
+
+    /**
+     * Finds the next method with usages, for iterating over all methods.
+     *
+     * @param fromId the ID to start searching from (inclusive)
+     *
+     * @return the ID of the next method, or -1 if there are no more
+     */
+    public int nextMethod(final int fromId) {
+        return methods.nextSetBit(fromId);
+    }
+
+    /**
+     * The number of distinct members used by the method.
+     *
+     * @param method the ID of the method
+     *
+     * @return the number of members used
+     */
+    public int usedByCount(final int method) {
+        index();
+        if (method >= offsets.length - 1) {
+            return 0;
+        }
+        return offsets[method + 1] - offsets[method];
+    }
+
+    /**
+     * The ID of a member used by the method.
+     *
+     * @param method the ID of the method
+     * @param index  the index of the usage, from zero to {@link #usedByCount(int)}
+     *
+     * @return the ID of the member used
+     */
+    public int usedBy(final int method, final int index) {
+        index();
+        return adjacency[offsets[method] + index];
+    }
+
+    /**
+     * The members used by the method as a set of signatures, backed by the graph.
+     *
+     * @param method the ID of the method
+     *
+     * @return a set view of the members used
+     */
+    public Set<String> membersUsedBy(final int method) {
+        return new UsedBySet(method);
+    }
+
+    /**
+     * The number of recorded usages, including any duplicates.
+     *
+     * @return the number of usages
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * The ID of the method of a recorded usage.
+     *
+     * @param edge the index of the usage
+     *
+     * @return the ID of the method
+     */
+    public int edgeSource(final int edge) {
+        return sources[edge];
+    }
+
+    /**
+     * The ID of the member used by a recorded usage.
+     *
+     * @param edge the index of the usage
+     *
+     * @return the ID of the member used
+     */
+    public int edgeTarget(final int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Converts the graph into a map of the fields and methods used grouped by each method.
+     *
+     * @return a map of members used by each method
+     */
+    public Map<String, Set<String>> toMap() {
+        final Map<String, Set<String>> result = new HashMap<>();
+        for (int method = nextMethod(0); method >= 0; method = nextMethod(method + 1)) {
+            result.put(symbols.symbol(method), new HashSet<>(membersUsedBy(method)));
+        }
+        return result;
+    }
+
+    /**
+     * Remove all usages and symbols, ready for the next class.
+     */
+    public void clear() {
+        symbols.clear();
+        methods.clear();
+        if (sources.length > INITIAL_CAPACITY) {
+            sources = new int[INITIAL_CAPACITY];
+            targets = new int[INITIAL_CAPACITY];
+        }
+        edgeCount = 0;
+        recentMethod = -1;
+        recentlyUsed.clear();
+        offsets = null;
+        adjacency = null;
+    }
+
+    /**
+     * Build the index of the members used by each method, if it is not already built.
+     *
+     * <p>The index is otherwise built by the first read of it, so it must be built before the graph is read from
+     * several threads at once.</p>
+     */
+    void index() {
+        if (offsets != null) {
+            return;
+        }
+        final int size = symbols.size();
+        final int[] starts = new int[size + 1];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            starts[sources[edge] + 1]++;
+        }
+        for (int id = 0; id < size; id++) {
+            starts[id + 1] += starts[id];
+        }
+        final int[] position = Arrays.copyOf(starts, size);
+        final int[] rows = new int[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            rows[position[sources[edge]]++] = targets[edge];
+        }
+        offsets = removeDuplicates(starts, rows, size);
+        adjacency = rows;
+    }
+
+    private static int[] removeDuplicates(final int[] starts, final int[] rows, final int size) {
+        final int[] result = new int[size + 1];
+        final BitSet seen = new BitSet(size);
+        int write = 0;
+        for (int id = 0; id < size; id++) {
+            result[id] = write;
+            for (int read = starts[id]; read < starts[id + 1]; read++) {
+                final int target = rows[read];
+                if (!seen.get(target)) {
+                    seen.set(target);
+                    rows[write++] = target;
+                }
+            }
+            for (int i = result[id]; i < write; i++) {
+                seen.clear(rows[i]);
+            }
+        }
+        result[size] = write;
+        return result;
+    }
+
+    /**
+     * A read-only view of the members used by a method.
+     */
+    private final class UsedBySet extends AbstractSet<String> {
+
+        private final int method;
+
+        UsedBySet(final int method) {
+            this.method = method;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>() {
+
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size();
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return symbols.symbol(usedBy(method, index++));
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return usedByCount(method);
+        }
+    }
+}
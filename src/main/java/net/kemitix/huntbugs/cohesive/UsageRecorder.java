@@ -0,0 +1,109 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.cohesive;
+
+import java.util.Set;
+
+/**
+ * Records the fields and methods used by each method of a class and analyses them once the class has been visited.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public interface UsageRecorder {
+
+    /**
+     * Record that the method uses the field or method.
+     *
+     * @param method the method signature
+     * @param used   the field name or method signature that is used
+     */
+    default void addUsage(final String method, final String used) {
+        addUsage(intern(method), used);
+    }
+
+    /**
+     * Get the ID of a method, for recording its usages.
+     *
+     * <p>This does not record the method as having any usages.</p>
+     *
+     * @param method the method signature
+     *
+     * @return the ID of the method
+     */
+    int intern(String method);
+
+    /**
+     * Record that the method uses the field or method.
+     *
+     * @param method the ID of the method, from {@link #intern(String)}
+     * @param used   the field name or method signature that is used
+     */
+    void addUsage(int method, String used);
+
+    /**
+     * Analyse the cohesion of the class from the recorded usages.
+     *
+     * @param nonPrivateMethods a list of methods
+     * @param fields            the fields in the class
+     * @param beanMethodIndex   the bean methods of the class, from {@link BeanMethods#index(Set)} of its fields
+     *
+     * @return an AnalysisResult object
+     */
+    AnalysisResult analyse(Set<String> nonPrivateMethods, Set<String> fields, BeanMethodIndex beanMethodIndex);
+
+    /**
+     * Remove all recorded usages, ready for the next class.
+     *
+     * <p>The result of {@link #analyse(Set, Set, BeanMethodIndex)} may be computed when it is first read, so it must be
+     * read before the usages are cleared.</p>
+     */
+    void clear();
+
+    /**
+     * Create a recorder that keeps every usage in a {@link UsageGraph} and analyses it when requested.
+     *
+     * @param usageGraph the graph to record usages in
+     * @param analyser   the analyser
+     *
+     * @return an instance of UsageRecorder
+     */
+    static UsageRecorder deferred(final UsageGraph usageGraph, final Analyser analyser) {
+        return new GraphUsageRecorder(usageGraph, analyser);
+    }
+
+    /**
+     * Create a recorder that merges components as each usage is recorded.
+     *
+     * <p>Unless the metrics are measured, only the usages of methods that may be bean methods are kept until
+     * analysis, all others are discarded once they have been merged. Measuring the metrics needs every usage, so a
+     * measured recorder uses no less memory than a {@link #deferred(UsageGraph, Analyser) deferred} one.</p>
+     *
+     * @param beanMethods bean method identifier
+     * @param measured    whether to measure the {@link CohesionMetrics}, which are otherwise
+     *                    {@link CohesionMetrics#NONE}
+     *
+     * @return an instance of UsageRecorder
+     */
+    static UsageRecorder online(final BeanMethods beanMethods, final boolean measured) {
+        return new OnlineUsageRecorder(new UnionFindAnalyser(beanMethods), beanMethods, measured);
+    }
+}
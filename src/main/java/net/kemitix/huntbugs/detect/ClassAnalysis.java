@@ -0,0 +1,164 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.detect;
+
+import com.strobel.assembler.metadata.MemberReference;
+import com.strobel.assembler.metadata.MethodDefinition;
+import com.strobel.assembler.metadata.TypeDefinition;
+import com.strobel.assembler.metadata.TypeReference;
+import lombok.RequiredArgsConstructor;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.BeanMethodIndex;
+import net.kemitix.huntbugs.cohesive.MethodSignature;
+import net.kemitix.huntbugs.cohesive.UsageRecorder;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The state of the analysis of a single class.
+ *
+ * <p>Created when the class is first visited and discarded once it has been analysed, so that classes analysed
+ * concurrently by the same detector do not share any state. It is not thread-safe, as each class is visited by a
+ * single thread.</p>
+ *
+ * <p>The method being visited is remembered, so that whether its body contributes usages, and its signature and ID,
+ * are only computed when the visitor moves on to a new method, and whether a type is the class is remembered for each
+ * type reference. Once these have been seen, recording a usage does not allocate.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@RequiredArgsConstructor
+final class ClassAnalysis {
+
+    private final TypeDefinition type;
+
+    private final Set<String> fields;
+
+    private final Set<String> nonPrivateMethodNames;
+
+    private final BeanMethodIndex beanMethodIndex;
+
+    private final UsageRecorder usageRecorder;
+
+    private final MethodSignature methodSignature;
+
+    private final Predicate<MethodDefinition> contributesUsages;
+
+    private final Map<TypeReference, Boolean> sameType = new IdentityHashMap<>();
+
+    private MethodDefinition currentMethod;
+
+    private int currentMethodId;
+
+    private boolean currentMethodContributes;
+
+    /**
+     * The names of the fields declared by the class.
+     *
+     * @return the field names
+     */
+    Set<String> getFields() {
+        return Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * The signatures of the non-private, non-bean methods declared by the class, other than constructors, static
+     * initialisers and bridge methods.
+     *
+     * @return the method signatures
+     */
+    Set<String> getNonPrivateMethodNames() {
+        return Collections.unmodifiableSet(nonPrivateMethodNames);
+    }
+
+    /**
+     * Create the signature of a member of the class.
+     *
+     * @param memberReference the member
+     *
+     * @return the signature
+     */
+    String signature(final MemberReference memberReference) {
+        return methodSignature.create(memberReference);
+    }
+
+    /**
+     * Make the method the one that subsequent usages are recorded against.
+     *
+     * @param methodDefinition the method being visited
+     *
+     * @return false if the body of the method does not contribute usages and need not be walked any further
+     */
+    boolean enter(final MethodDefinition methodDefinition) {
+        if (methodDefinition != currentMethod) {
+            currentMethod = methodDefinition;
+            currentMethodContributes = contributesUsages.test(methodDefinition);
+            if (currentMethodContributes) {
+                currentMethodId = usageRecorder.intern(signature(methodDefinition));
+            }
+        }
+        return currentMethodContributes;
+    }
+
+    /**
+     * Checks if the member is declared by the class.
+     *
+     * @param memberReference the member
+     *
+     * @return true if the declaring type of the member is equivalent to the class
+     */
+    boolean declares(final MemberReference memberReference) {
+        final TypeReference declaringType = memberReference.getDeclaringType();
+        if (declaringType == type) {
+            return true;
+        }
+        final Boolean existing = sameType.get(declaringType);
+        if (existing != null) {
+            return existing;
+        }
+        final boolean equivalent = declaringType.isEquivalentTo(type);
+        sameType.put(declaringType, equivalent);
+        return equivalent;
+    }
+
+    /**
+     * Record that the current method uses the field or method.
+     *
+     * @param used the field name or method signature that is used
+     */
+    void addUsage(final String used) {
+        usageRecorder.addUsage(currentMethodId, used);
+    }
+
+    /**
+     * Analyse the cohesion of the class from the recorded usages.
+     *
+     * @return the result of the analysis
+     */
+    AnalysisResult analyse() {
+        return usageRecorder.analyse(nonPrivateMethodNames, fields, beanMethodIndex);
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.detect;
+
+import com.strobel.assembler.ir.Instruction;
+import com.strobel.assembler.metadata.FieldDefinition;
+import com.strobel.assembler.metadata.MemberReference;
+import com.strobel.assembler.metadata.MethodBody;
+import com.strobel.assembler.metadata.MethodDefinition;
+import com.strobel.assembler.metadata.TypeDefinition;
+import com.strobel.assembler.metadata.TypeReference;
+import net.kemitix.huntbugs.cache.CacheKey;
+
+import java.util.function.Function;
+
+/**
+ * Creates the cache key of a class from the parts of its bytecode that the analysis depends on.
+ *
+ * <p>HuntBugs does not give detectors the class file itself, so the key is built from the class name, the names of
+ * its fields, and the name, signature, flags and instructions of each method. Member references in the instructions
+ * are included by declaring type, name and signature; other operands are not. Signatures are the generic signatures
+ * the analysis keys members by, rather than the erased ones, so a change to the type arguments alone of a member
+ * changes the key.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class ClassFingerprint implements Function<TypeDefinition, CacheKey> {
+
+    @Override
+    public CacheKey apply(final TypeDefinition typeDefinition) {
+        final CacheKey.Hasher hasher = CacheKey.hasher()
+                                               .add(typeDefinition.getInternalName());
+        for (final FieldDefinition field : typeDefinition.getDeclaredFields()) {
+            hasher.add(field.getName());
+        }
+        for (final MethodDefinition method : typeDefinition.getDeclaredMethods()) {
+            hasher.add(method.getName())
+                  .add(method.getSignature())
+                  .add((int) method.getFlags());
+            addBody(hasher, method);
+        }
+        return hasher.build();
+    }
+
+    private static void addBody(final CacheKey.Hasher hasher, final MethodDefinition method) {
+        final MethodBody body = method.getBody();
+        if (body == null) {
+            return;
+        }
+        for (final Instruction instruction : body.getInstructions()) {
+            hasher.add(instruction.getOpCode()
+                                  .ordinal());
+            for (int i = 0; i < instruction.getOperandCount(); i++) {
+                final Object operand = instruction.getOperand(i);
+                if (operand instanceof MemberReference) {
+                    addMember(hasher, (MemberReference) operand);
+                }
+            }
+        }
+    }
+
+    private static void addMember(final CacheKey.Hasher hasher, final MemberReference member) {
+        final TypeReference declaringType = member.getDeclaringType();
+        if (declaringType != null) {
+            hasher.add(declaringType.getInternalName());
+        }
+        hasher.add(member.getName())
+              .add(String.valueOf(member.getSignature()));
+    }
+}
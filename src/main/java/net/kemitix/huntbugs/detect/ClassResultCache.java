@@ -0,0 +1,117 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.detect;
+
+import com.strobel.assembler.metadata.TypeDefinition;
+import lombok.RequiredArgsConstructor;
+import net.kemitix.huntbugs.cache.CacheKey;
+import net.kemitix.huntbugs.cache.ResultCache;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Finds the cached results of classes the detector has analysed before, and stores the results of new classes.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@RequiredArgsConstructor
+final class ClassResultCache {
+
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private final ResultCache resultCache;
+
+    /**
+     * The cache key of each class, or null for a class that is not to be cached.
+     */
+    private final Function<TypeDefinition, CacheKey> cacheKeys;
+
+    private final Map<TypeDefinition, CacheKey> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Create the cache configured by the {@link CohesiveDetector#CACHE_FILE_PROPERTY},
+     * {@link CohesiveDetector#CACHE_DIRECTORY_PROPERTY} and {@link CohesiveDetector#CACHE_MAX_BYTES_PROPERTY} system
+     * properties.
+     *
+     * @return the cache, which caches nothing when neither a cache file nor a cache directory is set
+     */
+    static ClassResultCache fromSystemProperties() {
+        final String file = System.getProperty(CohesiveDetector.CACHE_FILE_PROPERTY);
+        if (file != null && !file.isEmpty()) {
+            return new ClassResultCache(ResultCache.inFile(Paths.get(file)), new ClassFingerprint());
+        }
+        final String directory = System.getProperty(CohesiveDetector.CACHE_DIRECTORY_PROPERTY);
+        if (directory == null || directory.isEmpty()) {
+            return new ClassResultCache(ResultCache.none(), typeDefinition -> null);
+        }
+        final long maxBytes = Long.getLong(CohesiveDetector.CACHE_MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES);
+        return new ClassResultCache(ResultCache.onDisk(Paths.get(directory), maxBytes), new ClassFingerprint());
+    }
+
+    /**
+     * Whether results are stored, in which case their metrics are needed to store them.
+     *
+     * @return true unless neither a cache file nor a cache directory is set
+     */
+    boolean isEnabled() {
+        return resultCache != ResultCache.none();
+    }
+
+    /**
+     * Look up the result of a class before it is visited.
+     *
+     * @param typeDefinition the class
+     *
+     * @return the result, or empty if it was not found and the class is to be visited
+     */
+    Optional<AnalysisResult> lookup(final TypeDefinition typeDefinition) {
+        final CacheKey key = cacheKeys.apply(typeDefinition);
+        if (key == null) {
+            return Optional.empty();
+        }
+        final Optional<AnalysisResult> cached = resultCache.get(key);
+        if (!cached.isPresent()) {
+            pending.put(typeDefinition, key);
+        }
+        return cached;
+    }
+
+    /**
+     * Store the result of a class that was not found by {@link #lookup(TypeDefinition)}.
+     *
+     * <p>The result is resolved before it is stored, so the cache holds none of the state of the analysis.</p>
+     *
+     * @param typeDefinition the class
+     * @param result         the result of analysing the class
+     */
+    void store(final TypeDefinition typeDefinition, final AnalysisResult result) {
+        final CacheKey key = pending.remove(typeDefinition);
+        if (key != null) {
+            resultCache.put(key, result.resolved());
+        }
+    }
+}
@@ -23,21 +23,26 @@ package net.kemitix.huntbugs.detect;
 
 import com.strobel.assembler.metadata.FieldDefinition;
 import com.strobel.assembler.metadata.FieldReference;
-import com.strobel.assembler.metadata.MemberReference;
 import com.strobel.assembler.metadata.MethodDefinition;
 import com.strobel.assembler.metadata.MethodReference;
 import com.strobel.assembler.metadata.TypeDefinition;
+import com.strobel.decompiler.ast.AstCode;
 import com.strobel.decompiler.ast.Expression;
 import lombok.RequiredArgsConstructor;
 import net.kemitix.huntbugs.cohesive.Analyser;
 import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.BeanMethodIndex;
 import net.kemitix.huntbugs.cohesive.BeanMethods;
 import net.kemitix.huntbugs.cohesive.BreakdownFormatter;
+import net.kemitix.huntbugs.cohesive.ClassFilter;
 import net.kemitix.huntbugs.cohesive.Component;
 import net.kemitix.huntbugs.cohesive.MethodDefinitionWrapper;
 import net.kemitix.huntbugs.cohesive.MethodFilter;
 import net.kemitix.huntbugs.cohesive.MethodSignature;
 import net.kemitix.huntbugs.cohesive.TypeDefinitionWrapper;
+import net.kemitix.huntbugs.cohesive.UsageGraph;
+import net.kemitix.huntbugs.cohesive.UsageRecorder;
+import net.kemitix.huntbugs.report.ResultSink;
 import one.util.huntbugs.registry.ClassContext;
 import one.util.huntbugs.registry.anno.AstNodes;
 import one.util.huntbugs.registry.anno.AstVisitor;
@@ -47,30 +52,115 @@ import one.util.huntbugs.registry.anno.WarningDefinition;
 import one.util.huntbugs.warning.Role;
 import one.util.huntbugs.warning.Roles;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Predicate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Detects classes that are not cohesive.
  *
+ * <p>The state of each class being analysed is held separately, so a single instance may analyse several classes
+ * concurrently.</p>
+ *
  * @author Paul Campbell (pcampbell@kemitix.net)
  */
 @SuppressWarnings("classfanoutcomplexity")
 @RequiredArgsConstructor
 @WarningDefinition(category = "BadPractice", name = CohesiveDetector.MULTIPLE_COMPONENTS,
                    maxScore = CohesiveDetector.MAX_SCORE)
+@WarningDefinition(category = "BadPractice", name = CohesiveDetector.HIGH_LCOM1, maxScore = CohesiveDetector.MAX_SCORE)
+@WarningDefinition(category = "BadPractice", name = CohesiveDetector.HIGH_LCOM2, maxScore = CohesiveDetector.MAX_SCORE)
+@WarningDefinition(category = "BadPractice", name = CohesiveDetector.HIGH_LCOM3, maxScore = CohesiveDetector.MAX_SCORE)
+@WarningDefinition(category = "BadPractice", name = CohesiveDetector.LOW_TCC, maxScore = CohesiveDetector.MAX_SCORE)
+@WarningDefinition(category = "BadPractice", name = CohesiveDetector.LOW_LCC, maxScore = CohesiveDetector.MAX_SCORE)
 public class CohesiveDetector {
 
     public static final String MULTIPLE_COMPONENTS = "CohesiveDetectorMultipleComponents";
 
+    public static final String HIGH_LCOM1 = "CohesiveDetectorHighLcom1";
+
+    public static final String HIGH_LCOM2 = "CohesiveDetectorHighLcom2";
+
+    public static final String HIGH_LCOM3 = "CohesiveDetectorHighLcom3";
+
+    public static final String LOW_TCC = "CohesiveDetectorLowTightClassCohesion";
+
+    public static final String LOW_LCC = "CohesiveDetectorLowLooseClassCohesion";
+
     public static final int MAX_SCORE = 50;
 
+    /**
+     * System property that, when {@code true}, merges components as each usage is visited rather than after the
+     * whole class has been visited.
+     *
+     * <p>Measuring the cohesion metrics needs every usage, so this only saves memory when no metric threshold, JSON
+     * Lines output or cache directory is set.</p>
+     */
+    public static final String ONLINE_PROPERTY = "net.kemitix.huntbugs.cohesive.online";
+
+    /**
+     * System property naming a directory in which to cache the result of each class, so that an unchanged class is
+     * not visited again by a later run.
+     */
+    public static final String CACHE_DIRECTORY_PROPERTY = "net.kemitix.huntbugs.cohesive.cache.dir";
+
+    /**
+     * System property naming a single file in which to cache the result of each class, as an alternative to
+     * {@link #CACHE_DIRECTORY_PROPERTY} that is memory-mapped rather than read a file at a time. When both are set,
+     * this is used.
+     */
+    public static final String CACHE_FILE_PROPERTY = "net.kemitix.huntbugs.cohesive.cache.file";
+
+    /**
+     * System property giving the maximum size in bytes of the cache directory, after which the least recently used
+     * results are evicted.
+     */
+    public static final String CACHE_MAX_BYTES_PROPERTY = "net.kemitix.huntbugs.cohesive.cache.maxBytes";
+
+    /**
+     * System property giving the fewest usages in a class for its components to be found in parallel.
+     */
+    public static final String PARALLEL_THRESHOLD_PROPERTY = "net.kemitix.huntbugs.cohesive.parallel.threshold";
+
+    /**
+     * System property giving the highest LCOM1 that is not reported. LCOM1 is not reported when this is not set.
+     */
+    public static final String MAX_LCOM1_PROPERTY = "net.kemitix.huntbugs.cohesive.lcom1.max";
+
+    /**
+     * System property giving the highest LCOM2 that is not reported. LCOM2 is not reported when this is not set.
+     */
+    public static final String MAX_LCOM2_PROPERTY = "net.kemitix.huntbugs.cohesive.lcom2.max";
+
+    /**
+     * System property giving the highest LCOM3 that is not reported. LCOM3 is not reported when this is not set.
+     */
+    public static final String MAX_LCOM3_PROPERTY = "net.kemitix.huntbugs.cohesive.lcom3.max";
+
+    /**
+     * System property giving the lowest Tight Class Cohesion that is not reported. TCC is not reported when this is
+     * not set.
+     */
+    public static final String MIN_TCC_PROPERTY = "net.kemitix.huntbugs.cohesive.tcc.min";
+
+    /**
+     * System property giving the lowest Loose Class Cohesion that is not reported. LCC is not reported when this is
+     * not set.
+     */
+    public static final String MIN_LCC_PROPERTY = "net.kemitix.huntbugs.cohesive.lcc.min";
+
+    /**
+     * The codes of the expressions whose operand may be a field or method of the class.
+     */
+    private static final Set<AstCode> MEMBER_ACCESS = EnumSet.of(
+            AstCode.GetField, AstCode.PutField, AstCode.GetStatic, AstCode.PutStatic, AstCode.InvokeVirtual,
+            AstCode.InvokeSpecial, AstCode.InvokeStatic, AstCode.InvokeInterface, AstCode.InitObject);
+
     private static final Role.NumberRole COUNT = Role.NumberRole.forName("COUNT");
 
     private static final Role.StringRole BREAKDOWN = Role.StringRole.forName("BREAKDOWN");
@@ -85,52 +175,90 @@ public class CohesiveDetector {
 
     private final BreakdownFormatter breakdownFormatter;
 
-    private final Analyser analyser;
+    private final Supplier<UsageRecorder> usageRecorders;
 
-    private final Set<String> nonPrivateMethodNames;
+    private final MethodFilter methodFilter;
 
-    private final Map<String, Set<String>> usedByMethod;
+    private final ClassFilter classFilter;
 
-    private final Set<String> fields = new HashSet<>();
+    private final Map<TypeDefinition, ClassAnalysis> classAnalyses = new ConcurrentHashMap<>();
 
-    private final MethodFilter methodFilter;
+    private final ClassResultCache classResultCache = ClassResultCache.fromSystemProperties();
+
+    private final ResultSink resultSink = ResultSink.fromSystemProperties();
+
+    private final MetricWarnings metricWarnings = MetricWarnings.fromSystemProperties();
 
     /**
      * Default constructor.
      */
     public CohesiveDetector() {
-        methodSignature = MethodSignature.defaultInstance();
+        methodSignature = MethodSignature.cachingInstance();
         beanMethods = BeanMethods.defaultInstance(methodSignature);
         typeDefinitionWrapper = TypeDefinitionWrapper.defaultInstance();
         methodDefinitionWrapper = MethodDefinitionWrapper.defaultInstance();
-        nonPrivateMethodNames = new HashSet<>();
-        usedByMethod = new HashMap<>();
-        analyser = Analyser.defaultInstance(beanMethods);
+        usageRecorders = usageRecorderFactory(beanMethods, isMeasured());
         breakdownFormatter = BreakdownFormatter.defaultInstance();
         methodFilter = MethodFilter.defaultInstance(methodDefinitionWrapper);
+        classFilter = ClassFilter.defaultInstance();
+    }
+
+    private static Supplier<UsageRecorder> usageRecorderFactory(final BeanMethods beanMethods, final boolean measured) {
+        if (Boolean.getBoolean(ONLINE_PROPERTY)) {
+            return () -> UsageRecorder.online(beanMethods, measured);
+        }
+        final Analyser analyser = Analyser.parallelInstance(beanMethods, Integer.getInteger(
+                PARALLEL_THRESHOLD_PROPERTY, Analyser.DEFAULT_PARALLEL_THRESHOLD));
+        return () -> UsageRecorder.deferred(new UsageGraph(), analyser);
+    }
+
+    /**
+     * Whether the cohesion metrics of each class are needed, to be reported, passed to the {@link ResultSink} or
+     * cached.
+     *
+     * @return true if the metrics are to be measured
+     */
+    private boolean isMeasured() {
+        return metricWarnings.isEnabled() || resultSink.readsMetrics() || classResultCache.isEnabled();
     }
 
     /**
      * Prepare to analyse the class.
      *
+     * <p>A class that is trivially cohesive is opted out before any of its expressions are visited, so it is neither
+     * analysed nor passed to the {@link ResultSink}. A class whose result is found in the cache is reported, and
+     * passed to the {@link ResultSink}, immediately and is also not visited.</p>
+     *
      * @param td the class
+     * @param cc the context for reporting errors
+     *
+     * @return false if the class is trivially cohesive or cached and should not be visited, true for other classes
      */
     @ClassVisitor(order = VisitOrder.BEFORE)
-    public void init(final TypeDefinition td) {
-        fields.clear();
-        fields.addAll(getDeclaredFieldNames(td));
-        usedByMethod.clear();
-        nonPrivateMethodNames.clear();
-        nonPrivateMethodNames.addAll(getDeclaredMethods(td).stream()
-                                                           .filter(methodFilter.isConstructor(false))
-                                                           .filter(methodFilter.isPrivate(false))
-                                                           .filter(isNotBeanMethod())
-                                                           .map(this::createSignature)
-                                                           .collect(Collectors.toSet()));
-    }
-
-    private Predicate<MethodDefinition> isNotBeanMethod() {
-        return methodDefinition -> beanMethods.isNotBeanMethod(methodDefinition, fields);
+    public boolean init(final TypeDefinition td, final ClassContext cc) {
+        if (classFilter.isTriviallyCohesive(td)) {
+            return false;
+        }
+        final Optional<AnalysisResult> cached = classResultCache.lookup(td);
+        if (cached.isPresent()) {
+            report(td, cached.get(), cc);
+            return false;
+        }
+        final Set<String> fields = getDeclaredFieldNames(td);
+        final BeanMethodIndex beanMethodIndex = beanMethods.index(fields);
+        final MethodSignature classMethodSignature = methodSignature.forClass();
+        final Set<String> nonPrivateMethodNames = getDeclaredMethods(td).stream()
+                                                                         .filter(methodFilter.contributesUsages())
+                                                                         .filter(methodFilter.isPrivate(false))
+                                                                         .map(classMethodSignature::create)
+                                                                         .filter(beanMethodIndex::isNotBeanMethod)
+                                                                         .collect(Collectors.toSet());
+        final ClassAnalysis classAnalysis =
+                new ClassAnalysis(td, fields, nonPrivateMethodNames, beanMethodIndex, usageRecorders.get(),
+                                  classMethodSignature, methodFilter.contributesUsages()
+                );
+        classAnalyses.put(td, classAnalysis);
+        return true;
     }
 
     private List<MethodDefinition> getDeclaredMethods(final TypeDefinition td) {
@@ -147,13 +275,20 @@ public class CohesiveDetector {
     /**
      * Analyse the results of scanning the class.
      *
+     * <p>Besides the number of components, each cohesion metric beyond its threshold is reported. The result is then
+     * passed to the {@link ResultSink} configured by system properties, for the HuntBugs run that loaded the class, so
+     * a failure to write it does not lose the warnings.</p>
+     *
      * @param td the class
      * @param cc the context for reporting errors
      */
     @ClassVisitor(order = VisitOrder.AFTER)
     public void analyse(final TypeDefinition td, final ClassContext cc) {
-        final AnalysisResult analysisResult = analyser.analyse(usedByMethod, nonPrivateMethodNames, fields);
-        final Set<Component> components = analysisResult.getComponents();
+        report(td, finish(td), cc);
+    }
+
+    private void report(final TypeDefinition td, final AnalysisResult result, final ClassContext cc) {
+        final Set<Component> components = result.getComponents();
         final int size = components.size();
         if (size > 1) {
             cc.report(
@@ -161,68 +296,94 @@ public class CohesiveDetector {
                     BREAKDOWN.create(breakdownFormatter.apply(components))
                      );
         }
+        if (metricWarnings.isEnabled()) {
+            metricWarnings.report(td, result.getMetrics(), cc);
+        }
+        resultSink.forRun(td.getResolver())
+                  .accept(td.getFullName(), result);
+    }
+
+    /**
+     * Complete the analysis of the class, store its result in the cache and discard its state.
+     *
+     * @param td the class
+     *
+     * @return the result of the analysis, empty if the class was not prepared with
+     * {@link #init(TypeDefinition, ClassContext)}
+     */
+    AnalysisResult finish(final TypeDefinition td) {
+        final ClassAnalysis classAnalysis = classAnalyses.remove(td);
+        if (classAnalysis == null) {
+            return new AnalysisResult();
+        }
+        final AnalysisResult result = classAnalysis.analyse();
+        classResultCache.store(td, result);
+        return result;
+    }
+
+    /**
+     * The state of the analysis of a class that has been prepared but not yet analysed.
+     *
+     * @param td the class
+     *
+     * @return the state of the analysis, or null if there is none
+     */
+    ClassAnalysis classAnalysis(final TypeDefinition td) {
+        return classAnalyses.get(td);
     }
 
     /**
      * Visitor for each expression within each method that records each field and method used.
      *
-     * <p>n.b. excludes constructors</p>
+     * <p>n.b. excludes constructors, static initialisers and bridge methods, which are identified once
+     * for each method rather than for every expression</p>
+     *
+     * <p>Expressions that can't access a member, such as constants and arithmetic, are passed over before the class
+     * or the method is looked up.</p>
      *
      * @param expression       the expression with
      * @param methodDefinition the method containing the expression
      *
-     * @return false if the method is a constructor and should not be processed any further, true for other methods
+     * @return false if the method does not contribute usages and should not be processed any further, true for other
+     * methods
      */
     @AstVisitor(nodes = AstNodes.EXPRESSIONS)
     public final boolean visit(final Expression expression, final MethodDefinition methodDefinition) {
-        if (methodDefinitionWrapper.isConstructor(methodDefinition)) {
+        if (!MEMBER_ACCESS.contains(expression.getCode())) {
+            return true;
+        }
+        final ClassAnalysis classAnalysis =
+                classAnalyses.get(methodDefinitionWrapper.getDeclaringType(methodDefinition));
+        if (classAnalysis == null || !classAnalysis.enter(methodDefinition)) {
             return false;
         }
         final Object operand = expression.getOperand();
-        handleMethodReference(operand, methodDefinition);
-        handleFieldReference(operand, methodDefinition);
+        handleMethodReference(operand, classAnalysis);
+        handleFieldReference(operand, classAnalysis);
         return true;
     }
 
-    private void handleFieldReference(final Object operand, final MethodDefinition methodDefinition) {
+    private void handleFieldReference(final Object operand, final ClassAnalysis classAnalysis) {
         if (operand instanceof FieldReference) {
-            visitFieldReference((FieldReference) operand, methodDefinition);
+            visitFieldReference((FieldReference) operand, classAnalysis);
         }
     }
 
-    private void visitFieldReference(final FieldReference fieldReference, final MethodDefinition methodDefinition) {
-        if (areEquivalent(fieldReference, methodDefinition)) {
-            addUsedByMethod(createSignature(methodDefinition), fieldReference.getName());
+    private void visitFieldReference(final FieldReference fieldReference, final ClassAnalysis classAnalysis) {
+        if (classAnalysis.declares(fieldReference)) {
+            classAnalysis.addUsage(fieldReference.getName());
         }
     }
 
-    private void handleMethodReference(final Object operand, final MethodDefinition methodDefinition) {
+    private void handleMethodReference(final Object operand, final ClassAnalysis classAnalysis) {
         if (operand instanceof MethodReference) {
-            visitMethodReference((MethodReference) operand, methodDefinition);
+            visitMethodReference((MethodReference) operand, classAnalysis);
         }
     }
 
-    private void visitMethodReference(final MethodReference methodReference, final MethodDefinition methodDefinition) {
-        if (areEquivalent(methodReference, methodDefinition)) {
-            addUsedByMethod(createSignature(methodDefinition), createSignature(methodReference));
+    private void visitMethodReference(final MethodReference methodReference, final ClassAnalysis classAnalysis) {
+        if (classAnalysis.declares(methodReference)) {
+            classAnalysis.addUsage(classAnalysis.signature(methodReference));
         }
     }
-
-    private boolean areEquivalent(final MemberReference memberReference, final MethodDefinition methodDefinition) {
-        return memberReference.getDeclaringType()
-                              .isEquivalentTo(methodDefinition.getDeclaringType());
-    }
-
-    private String createSignature(final MemberReference memberReference) {
-        return methodSignature.create(memberReference);
-    }
-
-    private void addUsedByMethod(final String method, final String used) {
-        Optional.ofNullable(usedByMethod.get(method))
-                .orElseGet(() -> {
-                    usedByMethod.put(method, new HashSet<>());
-                    return usedByMethod.get(method);
-                })
-                .add(used);
-    }
 }
@@ -0,0 +1,131 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.detect;
+
+import com.strobel.assembler.metadata.TypeDefinition;
+import lombok.RequiredArgsConstructor;
+import net.kemitix.huntbugs.cohesive.CohesionMetrics;
+import one.util.huntbugs.registry.ClassContext;
+import one.util.huntbugs.warning.Role;
+import one.util.huntbugs.warning.Roles;
+
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+
+/**
+ * Reports the cohesion metrics of a class that are beyond their thresholds.
+ *
+ * <p>Each metric is only reported when its threshold is set, so no metric is reported by default.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@RequiredArgsConstructor
+final class MetricWarnings {
+
+    private static final Role.NumberRole VALUE = Role.NumberRole.forName("VALUE");
+
+    private static final Role.NumberRole THRESHOLD = Role.NumberRole.forName("THRESHOLD");
+
+    private final OptionalLong maxLcom1;
+
+    private final OptionalLong maxLcom2;
+
+    private final OptionalLong maxLcom3;
+
+    private final OptionalDouble minTcc;
+
+    private final OptionalDouble minLcc;
+
+    /**
+     * Create the thresholds configured by the {@link CohesiveDetector#MAX_LCOM1_PROPERTY},
+     * {@link CohesiveDetector#MAX_LCOM2_PROPERTY}, {@link CohesiveDetector#MAX_LCOM3_PROPERTY},
+     * {@link CohesiveDetector#MIN_TCC_PROPERTY} and {@link CohesiveDetector#MIN_LCC_PROPERTY} system properties.
+     *
+     * @return the warnings, which report nothing when none of the properties is set
+     */
+    static MetricWarnings fromSystemProperties() {
+        return new MetricWarnings(longProperty(CohesiveDetector.MAX_LCOM1_PROPERTY),
+                                  longProperty(CohesiveDetector.MAX_LCOM2_PROPERTY),
+                                  longProperty(CohesiveDetector.MAX_LCOM3_PROPERTY),
+                                  doubleProperty(CohesiveDetector.MIN_TCC_PROPERTY),
+                                  doubleProperty(CohesiveDetector.MIN_LCC_PROPERTY)
+        );
+    }
+
+    private static OptionalLong longProperty(final String name) {
+        final String value = System.getProperty(name);
+        if (value == null || value.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(Long.parseLong(value));
+    }
+
+    private static OptionalDouble doubleProperty(final String name) {
+        final String value = System.getProperty(name);
+        if (value == null || value.isEmpty()) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of(Double.parseDouble(value));
+    }
+
+    /**
+     * Whether any metric is to be reported.
+     *
+     * @return true if any threshold is set
+     */
+    boolean isEnabled() {
+        return maxLcom1.isPresent() || maxLcom2.isPresent() || maxLcom3.isPresent() || minTcc.isPresent()
+                || minLcc.isPresent();
+    }
+
+    /**
+     * Report each metric of the class that is beyond its threshold.
+     *
+     * @param td      the class
+     * @param metrics the metrics of the class
+     * @param cc      the context for reporting warnings
+     */
+    void report(final TypeDefinition td, final CohesionMetrics metrics, final ClassContext cc) {
+        if (maxLcom1.isPresent() && metrics.getLcom1() > maxLcom1.getAsLong()) {
+            report(cc, CohesiveDetector.HIGH_LCOM1, td, metrics.getLcom1(), maxLcom1.getAsLong());
+        }
+        if (maxLcom2.isPresent() && metrics.getLcom2() > maxLcom2.getAsLong()) {
+            report(cc, CohesiveDetector.HIGH_LCOM2, td, metrics.getLcom2(), maxLcom2.getAsLong());
+        }
+        if (maxLcom3.isPresent() && metrics.getLcom3() > maxLcom3.getAsLong()) {
+            report(cc, CohesiveDetector.HIGH_LCOM3, td, metrics.getLcom3(), maxLcom3.getAsLong());
+        }
+        if (minTcc.isPresent() && metrics.getTcc() < minTcc.getAsDouble()) {
+            report(cc, CohesiveDetector.LOW_TCC, td, metrics.getTcc(), minTcc.getAsDouble());
+        }
+        if (minLcc.isPresent() && metrics.getLcc() < minLcc.getAsDouble()) {
+            report(cc, CohesiveDetector.LOW_LCC, td, metrics.getLcc(), minLcc.getAsDouble());
+        }
+    }
+
+    private static void report(
+            final ClassContext cc, final String warning, final TypeDefinition td, final Number value,
+            final Number threshold
+                              ) {
+        cc.report(warning, 0, Roles.TYPE.create(td), VALUE.create(value), THRESHOLD.create(threshold));
+    }
+}
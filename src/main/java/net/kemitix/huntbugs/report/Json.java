@@ -0,0 +1,171 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.report;
+
+import net.kemitix.huntbugs.cohesive.CohesionMetrics;
+import net.kemitix.huntbugs.cohesive.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Helpers for writing JSON.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class Json {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final int CONTROL_LIMIT = 0x20;
+
+    private Json() {
+    }
+
+    /**
+     * Append a string as a quoted JSON string.
+     *
+     * @param out   the output
+     * @param value the string
+     *
+     * @return the output
+     */
+    static StringBuilder string(final StringBuilder out, final String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                out.append("\\\"");
+                break;
+            case '\\':
+                out.append("\\\\");
+                break;
+            case '\n':
+                out.append("\\n");
+                break;
+            case '\r':
+                out.append("\\r");
+                break;
+            case '\t':
+                out.append("\\t");
+                break;
+            default:
+                if (c < CONTROL_LIMIT) {
+                    out.append("\\u00")
+                       .append(HEX[c >> 4])
+                       .append(HEX[c & 0xf]);
+                } else {
+                    out.append(c);
+                }
+            }
+        }
+        return out.append('"');
+    }
+
+    /**
+     * Append strings as a JSON array, in sorted order.
+     *
+     * @param out    the output
+     * @param values the strings
+     *
+     * @return the output
+     */
+    static StringBuilder strings(final StringBuilder out, final Collection<String> values) {
+        return ordered(out, new TreeSet<>(values));
+    }
+
+    /**
+     * Append strings as a JSON array, in the order given.
+     *
+     * @param out    the output
+     * @param values the strings, already in order
+     *
+     * @return the output
+     */
+    private static StringBuilder ordered(final StringBuilder out, final Iterable<String> values) {
+        out.append('[');
+        String separator = "";
+        for (final String value : values) {
+            string(out.append(separator), value);
+            separator = ",";
+        }
+        return out.append(']');
+    }
+
+    /**
+     * Append components as a JSON array of objects with their methods and fields.
+     *
+     * <p>Components are ordered by their first method, so the output does not depend on hashing.</p>
+     *
+     * @param out        the output
+     * @param components the components
+     *
+     * @return the output
+     */
+    static StringBuilder components(final StringBuilder out, final Set<Component> components) {
+        final List<Component> sorted = new ArrayList<>(components);
+        sorted.sort(Comparator.comparing(Json::sortKey));
+        out.append('[');
+        String separator = "";
+        for (final Component component : sorted) {
+            out.append(separator)
+               .append("{\"methods\":");
+            ordered(out, component.methods()).append(",\"fields\":");
+            ordered(out, component.fields()).append('}');
+            separator = ",";
+        }
+        return out.append(']');
+    }
+
+    /**
+     * Append cohesion metrics as a JSON object.
+     *
+     * @param out     the output
+     * @param metrics the metrics
+     *
+     * @return the output
+     */
+    static StringBuilder metrics(final StringBuilder out, final CohesionMetrics metrics) {
+        return out.append("{\"lcom1\":")
+                  .append(metrics.getLcom1())
+                  .append(",\"lcom2\":")
+                  .append(metrics.getLcom2())
+                  .append(",\"lcom3\":")
+                  .append(metrics.getLcom3())
+                  .append(",\"lcom4\":")
+                  .append(metrics.getLcom4())
+                  .append(",\"tcc\":")
+                  .append(metrics.getTcc())
+                  .append(",\"lcc\":")
+                  .append(metrics.getLcc())
+                  .append('}');
+    }
+
+    private static String sortKey(final Component component) {
+        return new TreeSet<>(component.getMembers()).toString();
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.report;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Implementation of {@link ResultSink} that writes a JSON object on its own line for each class.
+ *
+ * <p>e.g. {@code {"class":"a.B","componentCount":2,"nonBeanMethods":["c()V"],"components":[{"methods":["c()V"],
+ * "fields":["d"]},{"methods":["e()V"],"fields":[]}],"metrics":{"lcom1":1,"lcom2":1,"lcom3":2,"lcom4":2,"tcc":0.0,
+ * "lcc":0.0}}}</p>
+ *
+ * <p>The output is flushed after each line, so it can be read while the analysis is still running.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@RequiredArgsConstructor
+class JsonLinesSink implements ResultSink {
+
+    @NonNull
+    private final Writer writer;
+
+    @Override
+    public final void accept(@NonNull final String className, @NonNull final AnalysisResult result) {
+        final StringBuilder line = new StringBuilder("{\"class\":");
+        Json.string(line, className)
+            .append(",\"componentCount\":")
+            .append(result.getComponents()
+                          .size())
+            .append(",\"nonBeanMethods\":");
+        Json.strings(line, result.getNonBeanMethods())
+            .append(",\"components\":");
+        Json.components(line, result.getComponents())
+            .append(",\"metrics\":");
+        Json.metrics(line, result.getMetrics())
+            .append("}\n");
+        write(line);
+    }
+
+    private synchronized void write(final CharSequence text) {
+        try {
+            writer.append(text);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public final boolean readsMetrics() {
+        return true;
+    }
+
+    @Override
+    public final synchronized void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.report;
+
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+
+import java.io.Writer;
+
+/**
+ * Receives the result of each class as soon as its analysis is complete.
+ *
+ * <p>Sinks write each result straight out rather than holding them until the end of the run.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public interface ResultSink extends AutoCloseable {
+
+    /**
+     * System property naming a file to write a JSON Lines record to for each class analysed.
+     *
+     * <p>Each later HuntBugs run in the same JVM, such as the next module of a Maven reactor build, writes to a
+     * sibling file numbered for the run, see {@link #fromSystemProperties()}.</p>
+     */
+    String JSON_LINES_PROPERTY = "net.kemitix.huntbugs.cohesive.output.jsonl";
+
+    /**
+     * System property naming a file to write a SARIF log to, with a result for each class with multiple components.
+     *
+     * <p>Each later HuntBugs run in the same JVM, such as the next module of a Maven reactor build, writes its own
+     * log to a sibling file numbered for the run, see {@link #fromSystemProperties()}.</p>
+     */
+    String SARIF_PROPERTY = "net.kemitix.huntbugs.cohesive.output.sarif";
+
+    /**
+     * Accept the result of a class.
+     *
+     * @param className the fully qualified name of the class
+     * @param result    the result of analysing the class
+     */
+    void accept(String className, AnalysisResult result);
+
+    /**
+     * The sink to receive the results of a HuntBugs run.
+     *
+     * <p>Sinks that write a single output for every run return themselves.</p>
+     *
+     * @param run the object identifying the run, the same for every class of the run
+     *
+     * @return the sink for the run
+     */
+    default ResultSink forRun(final Object run) {
+        return this;
+    }
+
+    /**
+     * Whether the sink reads the {@link AnalysisResult#getMetrics() metrics} of each result.
+     *
+     * @return true if the metrics must be measured for this sink
+     */
+    default boolean readsMetrics() {
+        return false;
+    }
+
+    /**
+     * Complete the output.
+     */
+    @Override
+    void close();
+
+    /**
+     * Create a sink that discards every result.
+     *
+     * @return an instance of ResultSink
+     */
+    static ResultSink none() {
+        return NoResultSink.INSTANCE;
+    }
+
+    /**
+     * Create a sink that writes a JSON object on its own line for each class.
+     *
+     * @param writer the output
+     *
+     * @return an instance of ResultSink
+     */
+    static ResultSink jsonLines(final Writer writer) {
+        return new JsonLinesSink(writer);
+    }
+
+    /**
+     * Create a sink that writes a SARIF log with a result for each class with multiple components.
+     *
+     * @param writer the output
+     *
+     * @return an instance of ResultSink
+     */
+    static ResultSink sarif(final Writer writer) {
+        return new SarifSink(writer);
+    }
+
+    /**
+     * The sink configured by the {@link #JSON_LINES_PROPERTY} and {@link #SARIF_PROPERTY} system properties.
+     *
+     * <p>The sink is shared by every caller. Each HuntBugs run, given by {@link #forRun(Object)}, writes its own
+     * files: the first run writes to the files named by the properties and each later run, such as the next module of
+     * a Maven reactor build, to a sibling file with the number of the run before the extension, e.g.
+     * {@code cohesion-2.sarif}. Runs may overlap, and the files of a run are completed once the run has finished and
+     * been garbage collected and another run starts, or when the JVM shuts down.</p>
+     *
+     * @return the shared sink, which discards every result if neither property is set
+     */
+    static ResultSink fromSystemProperties() {
+        return SystemPropertySinks.get();
+    }
+}
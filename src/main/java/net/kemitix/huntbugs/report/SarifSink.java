@@ -0,0 +1,126 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.report;
+
+import lombok.NonNull;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Implementation of {@link ResultSink} that writes a SARIF 2.1.0 log.
+ *
+ * <p>The log is written as results arrive: the tool description when the sink is created, a result for each class
+ * with multiple components, with the components as a property of the result, and the end of the log on
+ * {@link #close()}.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+class SarifSink implements ResultSink {
+
+    /**
+     * The SARIF rule ID of a class with multiple components, the same as the HuntBugs warning type.
+     */
+    static final String RULE_ID = "CohesiveDetectorMultipleComponents";
+
+    private static final String HEADER = "{\"version\":\"2.1.0\","
+            + "\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\","
+            + "\"runs\":[{\"tool\":{\"driver\":{\"name\":\"kemitix-huntbugs-plugin\","
+            + "\"informationUri\":\"https://github.com/kemitix/kemitix-huntbugs-plugin\","
+            + "\"rules\":[{\"id\":\"" + RULE_ID + "\","
+            + "\"shortDescription\":{\"text\":\"Class is not cohesive\"}}]}},"
+            + "\"results\":[\n";
+
+    private static final String FOOTER = "\n]}]}\n";
+
+    private final Writer writer;
+
+    private boolean empty = true;
+
+    private boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param writer the output
+     */
+    SarifSink(@NonNull final Writer writer) {
+        this.writer = writer;
+        write(HEADER);
+    }
+
+    @Override
+    public final void accept(@NonNull final String className, @NonNull final AnalysisResult result) {
+        final int size = result.getComponents()
+                               .size();
+        if (size <= 1) {
+            return;
+        }
+        final StringBuilder text = new StringBuilder("{\"ruleId\":\"" + RULE_ID + "\",\"level\":\"warning\","
+                                                             + "\"message\":{\"text\":");
+        Json.string(text, className + " has " + size + " components")
+            .append("},\"locations\":[{\"logicalLocations\":[{\"fullyQualifiedName\":");
+        Json.string(text, className)
+            .append(",\"kind\":\"type\"}]}],\"properties\":{\"componentCount\":")
+            .append(size)
+            .append(",\"components\":");
+        Json.components(text, result.getComponents())
+            .append("}}");
+        writeResult(text);
+    }
+
+    private synchronized void writeResult(final CharSequence text) {
+        if (closed) {
+            throw new IllegalStateException("SARIF log is closed");
+        }
+        if (!empty) {
+            write(",\n");
+        }
+        write(text);
+        empty = false;
+    }
+
+    private void write(final CharSequence text) {
+        try {
+            writer.append(text);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public final synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        write(FOOTER);
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.report;
+
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Holds the {@link ResultSink} configured by system properties, shared by every detector in the JVM.
+ *
+ * <p>Each HuntBugs run, such as each module of a Maven reactor build, writes its own files. The first run writes to
+ * the files named by the properties and each later run to a sibling file with the number of the run added to the
+ * name, e.g. {@code cohesion.sarif}, then {@code cohesion-2.sarif}. Runs may overlap, as in a parallel reactor build,
+ * and each keeps its own files open until it has finished: the files of a run are completed when a later run starts
+ * after the run's identity has been garbage collected, and those of the runs still open when the JVM shuts
+ * down.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+final class SystemPropertySinks implements ResultSink {
+
+    private static ResultSink instance;
+
+    private final Map<Path, Function<Writer, ResultSink>> outputs;
+
+    /**
+     * The sinks of each run, keyed weakly by the object identifying the run.
+     */
+    private final Map<Object, Run> runs = new WeakHashMap<>();
+
+    /**
+     * The sinks of every run that has not been completed, in the order the runs started.
+     */
+    private final List<Run> open = new ArrayList<>();
+
+    private int runsStarted = 1;
+
+    /**
+     * The files of the first run, until they are claimed by the first call to {@link #forRun(Object)}.
+     */
+    private Run unclaimed;
+
+    private Run latest;
+
+    /**
+     * Constructor, opening the files of the first run.
+     *
+     * @param outputs the factory of the sink to write each file
+     */
+    SystemPropertySinks(final Map<Path, Function<Writer, ResultSink>> outputs) {
+        this.outputs = outputs;
+        unclaimed = open();
+        latest = unclaimed;
+    }
+
+    /**
+     * Get the shared sink, creating it on first use.
+     *
+     * @return the sink
+     */
+    static synchronized ResultSink get() {
+        if (instance == null) {
+            instance = create();
+        }
+        return instance;
+    }
+
+    private static ResultSink create() {
+        final Map<Path, Function<Writer, ResultSink>> outputs = new LinkedHashMap<>();
+        configure(ResultSink.JSON_LINES_PROPERTY, ResultSink::jsonLines, outputs);
+        configure(ResultSink.SARIF_PROPERTY, ResultSink::sarif, outputs);
+        if (outputs.isEmpty()) {
+            return ResultSink.none();
+        }
+        final ResultSink shared = new SystemPropertySinks(outputs);
+        Runtime.getRuntime()
+               .addShutdownHook(new Thread(shared::close, "cohesive-result-sink"));
+        return shared;
+    }
+
+    private static void configure(
+            final String property, final Function<Writer, ResultSink> factory,
+            final Map<Path, Function<Writer, ResultSink>> outputs
+                                 ) {
+        final String file = System.getProperty(property);
+        if (file == null || file.isEmpty()) {
+            return;
+        }
+        outputs.put(Paths.get(file), factory);
+    }
+
+    /**
+     * The file written by a run.
+     *
+     * @param file the file named by the system property
+     * @param run  the number of the run, starting at 1
+     *
+     * @return the file itself for the first run, otherwise a sibling with the number of the run before the extension
+     */
+    static Path fileForRun(final Path file, final int run) {
+        if (run == 1) {
+            return file;
+        }
+        final String name = file.getFileName()
+                                .toString();
+        final int extension = name.lastIndexOf('.');
+        if (extension > 0) {
+            return file.resolveSibling(name.substring(0, extension) + "-" + run + name.substring(extension));
+        }
+        return file.resolveSibling(name + "-" + run);
+    }
+
+    private Run open() {
+        final List<ResultSink> sinks = new ArrayList<>();
+        outputs.forEach((file, factory) -> {
+            try {
+                final Path path = fileForRun(file, runsStarted);
+                sinks.add(factory.apply(Files.newBufferedWriter(path, StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return new Run(sinks);
+    }
+
+    /**
+     * The sinks of the run, opening new files when this is a new run.
+     *
+     * <p>The run is only weakly held, so the analysis of a finished run is not kept alive by the sink. When a new run
+     * starts, the files of every run whose identity has since been garbage collected are completed.</p>
+     *
+     * @param run the object identifying the run
+     *
+     * @return the sink for the run
+     */
+    @Override
+    public synchronized ResultSink forRun(final Object run) {
+        final Run existing = runs.get(run);
+        if (existing != null) {
+            return existing;
+        }
+        final Run started;
+        if (unclaimed == null) {
+            completeFinishedRuns();
+            runsStarted++;
+            started = open();
+        } else {
+            started = unclaimed;
+            unclaimed = null;
+        }
+        runs.put(run, started);
+        open.add(started);
+        latest = started;
+        return started;
+    }
+
+    private void completeFinishedRuns() {
+        final Set<Run> running = Collections.newSetFromMap(new IdentityHashMap<>());
+        running.addAll(runs.values());
+        open.removeIf(run -> {
+            if (running.contains(run)) {
+                return false;
+            }
+            run.close();
+            return true;
+        });
+    }
+
+    /**
+     * Accept the result of a class into the files of the run that started last.
+     *
+     * @param className the fully qualified name of the class
+     * @param result    the result of analysing the class
+     */
+    @Override
+    public void accept(final String className, final AnalysisResult result) {
+        latest().accept(className, result);
+    }
+
+    private synchronized Run latest() {
+        return latest;
+    }
+
+    @Override
+    public boolean readsMetrics() {
+        return latest().readsMetrics();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (unclaimed != null) {
+            unclaimed.close();
+        }
+        open.forEach(Run::close);
+    }
+
+    /**
+     * The sinks writing the files of one run.
+     */
+    private static final class Run implements ResultSink {
+
+        private final List<ResultSink> sinks;
+
+        private Run(final List<ResultSink> sinks) {
+            this.sinks = sinks;
+        }
+
+        @Override
+        public void accept(final String className, final AnalysisResult result) {
+            sinks.forEach(sink -> sink.accept(className, result));
+        }
+
+        @Override
+        public boolean readsMetrics() {
+            return sinks.stream()
+                        .anyMatch(ResultSink::readsMetrics);
+        }
+
+        @Override
+        public void close() {
+            sinks.forEach(ResultSink::close);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package net.kemitix.huntbugs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads class files from the test classpath, shared by the tests of every engine that analyses class files.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public final class ClassFiles {
+
+    private ClassFiles() {
+    }
+
+    /**
+     * The class file of a class.
+     *
+     * @param type the class
+     *
+     * @return the bytes of the class file
+     *
+     * @throws IOException if the class file can not be read
+     */
+    public static byte[] of(final Class<?> type) throws IOException {
+        final String resource = "/" + type.getName()
+                                          .replace('.', '/') + ".class";
+        try (InputStream in = type.getResourceAsStream(resource)) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] chunk = new byte[4096];
+            int read;
+            while ((read = in.read(chunk)) > 0) {
+                out.write(chunk, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * The path of the class file of a class within a directory or archive.
+     *
+     * @param type the class
+     *
+     * @return the path of the class file, separated by {@code /}
+     */
+    public static String entryName(final Class<?> type) {
+        return type.getName()
+                   .replace('.', '/') + ".class";
+    }
+}
@@ -15,7 +15,10 @@
  */
 package net.kemitix.huntbugs;
 
+import net.kemitix.huntbugs.detect.CohesiveDetector;
 import one.util.huntbugs.spi.DataTests;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 /**
@@ -23,6 +26,28 @@ import org.junit.Test;
  */
 public class DataTest {
 
+    private static final String[][] METRIC_THRESHOLDS = {
+            {CohesiveDetector.MAX_LCOM1_PROPERTY, "5"},
+            {CohesiveDetector.MAX_LCOM2_PROPERTY, "5"},
+            {CohesiveDetector.MAX_LCOM3_PROPERTY, "3"},
+            {CohesiveDetector.MIN_TCC_PROPERTY, "0.5"},
+            {CohesiveDetector.MIN_LCC_PROPERTY, "0.5"},
+    };
+
+    @Before
+    public void setUp() {
+        for (final String[] threshold : METRIC_THRESHOLDS) {
+            System.setProperty(threshold[0], threshold[1]);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        for (final String[] threshold : METRIC_THRESHOLDS) {
+            System.clearProperty(threshold[0]);
+        }
+    }
+
     @Test
     public void test() throws Exception {
         DataTests.test("net/kemitix/huntbugs/testdata");
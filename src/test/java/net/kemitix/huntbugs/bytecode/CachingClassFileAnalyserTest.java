@@ -0,0 +1,114 @@
+package net.kemitix.huntbugs.bytecode;
+
+import net.kemitix.huntbugs.ClassFiles;
+import net.kemitix.huntbugs.cache.CacheKey;
+import net.kemitix.huntbugs.cache.ResultCache;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.Component;
+import net.kemitix.huntbugs.testdata.TestNonCohesive;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+/**
+ * Tests for {@link CachingClassFileAnalyser}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class CachingClassFileAnalyserTest {
+
+    private static final int THREADS = 8;
+
+    private final byte[] classFile = {1, 2, 3};
+
+    private final AnalysisResult result = new AnalysisResult();
+
+    @Mock
+    private ClassFileAnalyser delegate;
+
+    @Mock
+    private ResultCache resultCache;
+
+    private ClassFileAnalyser analyser;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        analyser = ClassFileAnalyser.caching(delegate, resultCache);
+    }
+
+    @Test
+    public void analyseAndStoreOnMiss() {
+        //given
+        given(resultCache.get(any())).willReturn(Optional.empty());
+        given(delegate.analyse(classFile)).willReturn(result);
+        //when
+        final AnalysisResult analysed = analyser.analyse(classFile);
+        //then
+        assertThat(analysed.getComponents()).isEqualTo(result.getComponents());
+        then(resultCache).should()
+                         .put(CacheKey.of(classFile), analysed);
+    }
+
+    @Test
+    public void replayOnHit() {
+        //given
+        given(resultCache.get(CacheKey.of(classFile))).willReturn(Optional.of(result));
+        //when
+        final AnalysisResult analysed = analyser.analyse(classFile);
+        //then
+        assertThat(analysed).isSameAs(result);
+        then(delegate).should(never())
+                      .analyse(any());
+    }
+
+    @Test
+    public void replaySameResultToConcurrentCallers() throws IOException, InterruptedException, ExecutionException {
+        //given
+        final byte[] nonCohesive = ClassFiles.of(TestNonCohesive.class);
+        final ClassFileAnalyser shared = ClassFileAnalyser.caching(ClassFileAnalyser.defaultInstance(),
+                                                                   ResultCache.inMemory(1)
+                                                                  );
+        final Set<Component> expected = ClassFileAnalyser.defaultInstance()
+                                                         .analyse(nonCohesive)
+                                                         .getComponents();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Set<Component>>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return shared.analyse(nonCohesive)
+                                 .getComponents();
+                }));
+            }
+            //when
+            start.countDown();
+            //then
+            for (final Future<Set<Component>> future : futures) {
+                assertThat(future.get()).isEqualTo(expected);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
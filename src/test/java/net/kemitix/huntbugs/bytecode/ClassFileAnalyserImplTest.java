@@ -0,0 +1,47 @@
+package net.kemitix.huntbugs.bytecode;
+
+import net.kemitix.huntbugs.ClassFiles;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.testdata.TestCohesive;
+import net.kemitix.huntbugs.testdata.TestNonCohesive;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ClassFileAnalyserImpl}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class ClassFileAnalyserImplTest {
+
+    private final ClassFileAnalyser analyser = ClassFileAnalyser.defaultInstance();
+
+    @Test
+    public void cohesiveClassHasOneComponent() throws IOException {
+        //when
+        final AnalysisResult result = analyser.analyse(ClassFiles.of(TestCohesive.class));
+        //then
+        assertThat(result.getComponents()).hasSize(1);
+    }
+
+    @Test
+    public void nonCohesiveClassHasMultipleComponents() throws IOException {
+        //when
+        final AnalysisResult result = analyser.analyse(ClassFiles.of(TestNonCohesive.class));
+        //then
+        assertThat(result.getComponents()
+                         .size()).isGreaterThan(1);
+    }
+
+    @Test
+    public void beanMethodsAreNotNonBeanMethods() throws IOException {
+        //when
+        final AnalysisResult result = analyser.analyse(ClassFiles.of(TestNonCohesive.class));
+        //then
+        assertThat(result.getNonBeanMethods()).doesNotContain("getLeft()Ljava/lang/String;", "setCounter(I)V")
+                                              .contains("increment()V");
+    }
+}
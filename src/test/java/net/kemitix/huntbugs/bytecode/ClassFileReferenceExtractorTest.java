@@ -0,0 +1,203 @@
+package net.kemitix.huntbugs.bytecode;
+
+import net.kemitix.huntbugs.ClassFiles;
+import net.kemitix.huntbugs.testdata.TestNonCohesive;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link ClassFileReferenceExtractor}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class ClassFileReferenceExtractorTest {
+
+    private static final String GET_FULL_FORMAT = "getFullFormat(Ljava/lang/String;)Ljava/lang/String;";
+
+    private final ReferenceExtractor extractor = ReferenceExtractor.defaultInstance();
+
+    @Test
+    public void extractClassName() throws IOException {
+        //when
+        final ClassUsages classUsages = extractor.extract(ClassFiles.of(TestNonCohesive.class));
+        //then
+        assertThat(classUsages.getClassName()).isEqualTo("net/kemitix/huntbugs/testdata/TestNonCohesive");
+    }
+
+    @Test
+    public void extractFields() throws IOException {
+        //when
+        final ClassUsages classUsages = extractor.extract(ClassFiles.of(TestNonCohesive.class));
+        //then
+        assertThat(classUsages.getFields()).containsOnly("left", "right", "counter", "format");
+    }
+
+    @Test
+    public void extractNonPrivateMethodsExcludingConstructors() throws IOException {
+        //when
+        final ClassUsages classUsages = extractor.extract(ClassFiles.of(TestNonCohesive.class));
+        //then
+        assertThat(classUsages.getNonPrivateMethods()).contains("getLeft()Ljava/lang/String;", "increment()V",
+                                                               "setCounter(I)V", GET_FULL_FORMAT
+                                                              )
+                                                     .noneMatch(m -> m.startsWith("<init>"));
+    }
+
+    @Test
+    public void extractUsagesOfOwnMembers() throws IOException {
+        //when
+        final Map<String, Set<String>> usages = extractor.extract(ClassFiles.of(TestNonCohesive.class))
+                                                         .getUsageGraph()
+                                                         .toMap();
+        //then
+        assertThat(usages.get("getLeft()Ljava/lang/String;")).containsOnly("left");
+        assertThat(usages.get("increment()V")).containsOnly("counter");
+        assertThat(usages.get(GET_FULL_FORMAT)).containsOnly("left", "format", "right");
+        assertThat(usages.get("sayHello(Lnet/kemitix/huntbugs/testdata/TestNonCohesive$OtherClass;)"
+                              + "Ljava/lang/String;")).containsOnly(GET_FULL_FORMAT);
+        assertThat(usages.keySet()).noneMatch(m -> m.startsWith("<init>"));
+    }
+
+    @Test
+    public void scanPastSwitches() throws IOException {
+        //when
+        final Map<String, Set<String>> usages = extractor.extract(ClassFiles.of(Switches.class))
+                                                         .getUsageGraph()
+                                                         .toMap();
+        //then
+        assertThat(usages.get("table(I)I")).containsOnly("low", "high", "after()I");
+        assertThat(usages.get("lookup(I)I")).containsOnly("low", "high", "after()I");
+    }
+
+    @Test
+    public void skipStaticInitialiserAndBridgeMethods() throws IOException {
+        //when
+        final ClassUsages classUsages = extractor.extract(ClassFiles.of(Skipped.class));
+        //then
+        final String compareTo = "compareTo(Lnet/kemitix/huntbugs/bytecode/ClassFileReferenceExtractorTest$Skipped;)I";
+        assertThat(classUsages.getNonPrivateMethods()).containsOnly(compareTo);
+        assertThat(classUsages.getUsageGraph()
+                              .toMap()
+                              .keySet()).containsOnly(compareTo);
+    }
+
+    @Test
+    public void rejectNonClassFile() {
+        //when
+        assertThatThrownBy(() -> extractor.extract(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}))
+                //then
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Not a class file");
+    }
+
+    @Test
+    public void lambdaBodyIsUsedByItsSyntheticMethodOnly() throws IOException {
+        //when
+        final Map<String, Set<String>> usages = extractor.extract(ClassFiles.of(Lambdas.class))
+                                                         .getUsageGraph()
+                                                         .toMap();
+        //then
+        assertThat(usages.getOrDefault("counter()Ljava/util/function/Supplier;", Collections.emptySet())).isEmpty();
+        final String lambda = usages.keySet()
+                                    .stream()
+                                    .filter(method -> method.startsWith("lambda$counter$"))
+                                    .findFirst()
+                                    .orElseThrow(AssertionError::new);
+        assertThat(usages.get(lambda)).containsOnly("count");
+    }
+
+    @Test
+    public void rejectConstantPoolEntryPastEndOfClassFile() {
+        //given
+        final byte[] classFile = {
+                (byte) 0xca, (byte) 0xfe, (byte) 0xba, (byte) 0xbe, 0, 0, 0, 52,
+                // two constant pool slots, the first a UTF-8 entry of 100 bytes of which only 3 are present
+                0, 2, 1, 0, 100, 'a', 'b', 'c'
+        };
+        //when
+        assertThatThrownBy(() -> extractor.extract(classFile))
+                //then
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Truncated class file");
+    }
+
+    @Test
+    public void rejectTruncatedClassFile() throws IOException {
+        //given
+        final byte[] classFile = ClassFiles.of(TestNonCohesive.class);
+        //when
+        assertThatThrownBy(() -> extractor.extract(Arrays.copyOf(classFile, classFile.length / 2)))
+                //then
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Truncated class file");
+    }
+
+    private static class Skipped implements Comparable<Skipped> {
+
+        private static int order;
+
+        static {
+            order = 1;
+        }
+
+        @Override
+        public int compareTo(final Skipped other) {
+            return order;
+        }
+    }
+
+    private static class Lambdas {
+
+        private int count;
+
+        Supplier<Integer> counter() {
+            return () -> count;
+        }
+    }
+
+    private static class Switches {
+
+        private int low;
+
+        private int high;
+
+        int table(final int value) {
+            switch (value) {
+            case 1:
+                return low;
+            case 2:
+                return high;
+            case 3:
+                return low + high;
+            default:
+                return after();
+            }
+        }
+
+        int lookup(final int value) {
+            switch (value) {
+            case 1:
+                return low;
+            case 1000:
+                return high;
+            case 1000000:
+                return low + high;
+            default:
+                return after();
+            }
+        }
+
+        int after() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package net.kemitix.huntbugs.bytecode;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link Instructions}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class InstructionsTest {
+
+    private static final byte TABLESWITCH = (byte) 0xaa;
+
+    private static final byte LOOKUPSWITCH = (byte) 0xab;
+
+    /**
+     * A switch at the start of the code, so its default, then low and high or the number of pairs, follow three bytes
+     * of padding.
+     */
+    private static ByteBuffer switchCode(final byte opcode, final int... operands) {
+        final ByteBuffer code = ByteBuffer.allocate(4 + operands.length * 4);
+        code.put(opcode)
+            .position(4);
+        for (final int operand : operands) {
+            code.putInt(operand);
+        }
+        return code;
+    }
+
+    @Test
+    public void lengthOfFixedLengthInstruction() {
+        //given
+        final ByteBuffer code = ByteBuffer.wrap(new byte[]{(byte) 0xb4, 0, 1});
+        //then
+        assertThat(Instructions.length(code, 0, 0)).isEqualTo(3);
+    }
+
+    @Test
+    public void lengthOfTableSwitch() {
+        //given
+        final ByteBuffer code = switchCode(TABLESWITCH, 0, 1, 3);
+        //then
+        assertThat(Instructions.length(code, 0, 0)).isEqualTo(4 + 12 + 3 * 4);
+    }
+
+    @Test
+    public void lengthOfLookupSwitch() {
+        //given
+        final ByteBuffer code = switchCode(LOOKUPSWITCH, 0, 2);
+        //then
+        assertThat(Instructions.length(code, 0, 0)).isEqualTo(4 + 8 + 2 * 8);
+    }
+
+    @Test
+    public void rejectTableSwitchWithHighBelowLow() {
+        //given
+        final ByteBuffer code = switchCode(TABLESWITCH, 0, 5, 3);
+        //when
+        assertThatThrownBy(() -> Instructions.length(code, 0, 0))
+                //then
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid tableswitch: low 5 is above high 3");
+    }
+
+    @Test
+    public void rejectTableSwitchLongerThanAnInt() {
+        //given
+        final ByteBuffer code = switchCode(TABLESWITCH, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        //when
+        assertThatThrownBy(() -> Instructions.length(code, 0, 0))
+                //then
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid instruction length: 17179869200");
+    }
+
+    @Test
+    public void rejectLookupSwitchWithNegativePairs() {
+        //given
+        final ByteBuffer code = switchCode(LOOKUPSWITCH, 0, -1);
+        //when
+        assertThatThrownBy(() -> Instructions.length(code, 0, 0))
+                //then
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid lookupswitch: -1 pairs");
+    }
+}
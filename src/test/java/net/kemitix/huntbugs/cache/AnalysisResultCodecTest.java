@@ -0,0 +1,92 @@
+package net.kemitix.huntbugs.cache;
+
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.CohesionMetrics;
+import net.kemitix.huntbugs.cohesive.Component;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link AnalysisResultCodec}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class AnalysisResultCodecTest {
+
+    private static Set<Set<String>> members(final AnalysisResult result) {
+        return result.getComponents()
+                     .stream()
+                     .map(Component::getMembers)
+                     .collect(Collectors.toSet());
+    }
+
+    @Test
+    public void roundTripResult() {
+        //given
+        final AnalysisResult result = new AnalysisResult();
+        result.addNonBeanMethods(new HashSet<>(Arrays.asList("a()V", "b()V")));
+        final Component first = Component.from(Arrays.asList("a()V", "field"));
+        final Component second = Component.from(Arrays.asList("b()V", "other", "\u00fcn\u00efcode"));
+        result.addComponents(new HashSet<>(Arrays.asList(first, second)));
+        final CohesionMetrics metrics = new CohesionMetrics(1, 0, 2, 2, 0.0, 0.25);
+        result.setMetrics(metrics);
+        //when
+        final AnalysisResult decoded = AnalysisResultCodec.decode(AnalysisResultCodec.encode(result));
+        //then
+        assertThat(decoded.getNonBeanMethods()).containsOnly("a()V", "b()V");
+        assertThat(members(decoded)).isEqualTo(members(result));
+        assertThat(decoded.getMetrics()).isEqualTo(metrics);
+    }
+
+    @Test
+    public void roundTripKeepsEmptyComponent() {
+        //given
+        final AnalysisResult result = new AnalysisResult();
+        result.addComponents(Collections.singleton(Component.from(Collections.emptyList())));
+        //when
+        final AnalysisResult decoded = AnalysisResultCodec.decode(AnalysisResultCodec.encode(result));
+        //then
+        assertThat(decoded.getComponents()).containsExactly(Component.from(Collections.emptyList()));
+    }
+
+    @Test
+    public void writeEachMemberOnce() {
+        //given
+        final String member = "aVeryLongMemberNameThatWouldBeExpensiveToRepeat()V";
+        final AnalysisResult result = new AnalysisResult();
+        result.addNonBeanMethods(new HashSet<>(Arrays.asList(member)));
+        result.addComponents(new HashSet<>(Arrays.asList(Component.from(Arrays.asList(member)))));
+        //when
+        final byte[] encoded = AnalysisResultCodec.encode(result);
+        //then
+        assertThat(encoded.length).isLessThan(member.length() * 2);
+    }
+
+    @Test
+    public void rejectUnknownFormat() {
+        //when
+        assertThatThrownBy(() -> AnalysisResultCodec.decode(new byte[]{99}))
+                //then
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void rejectTruncatedResult() {
+        //given
+        final AnalysisResult result = new AnalysisResult();
+        result.addNonBeanMethods(new HashSet<>(Arrays.asList("a()V")));
+        final byte[] encoded = AnalysisResultCodec.encode(result);
+        //when
+        assertThatThrownBy(() -> AnalysisResultCodec.decode(Arrays.copyOf(encoded, encoded.length - 1)))
+                //then
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,45 @@
+package net.kemitix.huntbugs.cache;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CacheKey}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class CacheKeyTest {
+
+    @Test
+    public void sameContentHasSameKey() {
+        assertThat(CacheKey.of(new byte[]{1, 2, 3})).isEqualTo(CacheKey.of(new byte[]{1, 2, 3}))
+                                                     .hasSameHashCodeAs(CacheKey.of(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    public void differentContentHasDifferentKey() {
+        assertThat(CacheKey.of(new byte[]{1, 2, 3})).isNotEqualTo(CacheKey.of(new byte[]{1, 2, 4}));
+    }
+
+    @Test
+    public void partsAreDelimited() {
+        //given
+        final CacheKey ab = CacheKey.hasher()
+                                    .add("a")
+                                    .add("b")
+                                    .build();
+        final CacheKey a = CacheKey.hasher()
+                                   .add("ab")
+                                   .build();
+        //then
+        assertThat(ab).isNotEqualTo(a);
+    }
+
+    @Test
+    public void hexIsSha256Length() {
+        assertThat(CacheKey.of(new byte[0])
+                           .toHex()).hasSize(64)
+                                    .matches("[0-9a-f]+");
+    }
+}
@@ -0,0 +1,157 @@
+package net.kemitix.huntbugs.cache;
+
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.Component;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DiskResultCache}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class DiskResultCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path directory;
+
+    private AnalysisResult result;
+
+    private long resultBytes;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = temporaryFolder.newFolder()
+                                   .toPath();
+        result = new AnalysisResult();
+        result.addNonBeanMethods(Collections.singleton("method()V"));
+        result.addComponents(Collections.singleton(Component.from(Arrays.asList("method()V", "field"))));
+        resultBytes = AnalysisResultCodec.encode(result).length;
+    }
+
+    private static CacheKey key(final String content) {
+        return CacheKey.of(content.getBytes());
+    }
+
+    @Test
+    public void missWhenEmpty() {
+        //given
+        final ResultCache cache = ResultCache.onDisk(directory, 1024);
+        //then
+        assertThat(cache.get(key("class"))).isEmpty();
+    }
+
+    @Test
+    public void hitAfterPut() {
+        //given
+        final ResultCache cache = ResultCache.onDisk(directory, 1024);
+        //when
+        cache.put(key("class"), result);
+        //then
+        final Optional<AnalysisResult> cached = cache.get(key("class"));
+        assertThat(cached).isPresent();
+        assertThat(cached.get()
+                         .getNonBeanMethods()).containsOnly("method()V");
+        assertThat(cached.get()
+                         .getComponents()).hasSize(1);
+    }
+
+    @Test
+    public void hitInLaterRun() {
+        //given
+        ResultCache.onDisk(directory, 1024)
+                   .put(key("class"), result);
+        //when
+        final ResultCache cache = new DiskResultCache(directory, 1024);
+        //then
+        assertThat(cache.get(key("class"))).isPresent();
+    }
+
+    @Test
+    public void shareCacheForSameDirectory() {
+        //when
+        final ResultCache cache = ResultCache.onDisk(directory, 1024);
+        //then
+        assertThat(ResultCache.onDisk(directory.resolve("."), 2048)).isSameAs(cache);
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        //given
+        final DiskResultCache cache = new DiskResultCache(directory, resultBytes * 2);
+        cache.put(key("first"), result);
+        cache.put(key("second"), result);
+        cache.get(key("first"));
+        //when
+        cache.put(key("third"), result);
+        //then
+        assertThat(cache.get(key("second"))).isEmpty();
+        assertThat(cache.get(key("first"))).isPresent();
+        assertThat(cache.get(key("third"))).isPresent();
+        assertThat(cache.getTotalBytes()).isEqualTo(resultBytes * 2);
+    }
+
+    @Test
+    public void evictWhenOpenedWithSmallerBound() throws IOException {
+        //given
+        final ResultCache large = ResultCache.onDisk(directory, 1024);
+        large.put(key("first"), result);
+        large.put(key("second"), result);
+        //when
+        final DiskResultCache small = new DiskResultCache(directory, resultBytes);
+        //then
+        assertThat(small.getTotalBytes()).isEqualTo(resultBytes);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void missAndDeleteWhenCorrupt() throws IOException {
+        //given
+        final ResultCache cache = ResultCache.onDisk(directory, 1024);
+        cache.put(key("class"), result);
+        final Path file = directory.resolve(key("class").toHex() + ".result");
+        Files.write(file, new byte[]{99});
+        //then
+        assertThat(cache.get(key("class"))).isEmpty();
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    public void doNotStoreResultLargerThanBound() {
+        //given
+        final DiskResultCache cache = new DiskResultCache(directory, resultBytes - 1);
+        //when
+        cache.put(key("class"), result);
+        //then
+        assertThat(cache.get(key("class"))).isEmpty();
+        assertThat(cache.getTotalBytes()).isZero();
+    }
+
+    @Test
+    public void noneAlwaysMisses() {
+        //given
+        final ResultCache cache = ResultCache.none();
+        //when
+        cache.put(key("class"), result);
+        //then
+        assertThat(cache.get(key("class"))).isEmpty();
+        assertThat(directory.toFile()
+                            .list()).isEmpty();
+    }
+}
@@ -0,0 +1,83 @@
+package net.kemitix.huntbugs.cache;
+
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link FileResultCache}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class FileResultCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path file;
+
+    @Before
+    public void setUp() {
+        file = temporaryFolder.getRoot()
+                              .toPath()
+                              .resolve("results.store");
+    }
+
+    private static CacheKey key(final int i) {
+        return CacheKey.of(("class" + i).getBytes());
+    }
+
+    @Test
+    public void shareCacheForSameFile() {
+        //when
+        final ResultCache cache = ResultCache.inFile(file);
+        //then
+        assertThat(ResultCache.inFile(file.getParent()
+                                          .resolve(".")
+                                          .resolve("results.store"))).isSameAs(cache);
+    }
+
+    @Test
+    public void getResultBeforeItIsFlushed() {
+        //given
+        final ResultCache cache = ResultCache.inFile(file);
+        final AnalysisResult result = new AnalysisResult();
+        //when
+        cache.put(key(0), result);
+        //then
+        assertThat(cache.get(key(0))).containsSame(result);
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    public void flushOnceBatchIsFull() throws IOException {
+        //given
+        final ResultCache cache = ResultCache.inFile(file);
+        //when
+        for (int i = 0; i < FileResultCache.MIN_BATCH; i++) {
+            cache.put(key(i), new AnalysisResult());
+        }
+        //then
+        assertThat(MappedResultStore.open(file)
+                                    .size()).isEqualTo(FileResultCache.MIN_BATCH);
+    }
+
+    @Test
+    public void replaceFileThatIsNotAStore() throws IOException {
+        //given
+        Files.write(file, new byte[]{1, 2, 3});
+        //when
+        final ResultCache cache = ResultCache.inFile(file);
+        //then
+        assertThat(cache).isInstanceOf(FileResultCache.class);
+        assertThat(file).doesNotExist();
+    }
+}
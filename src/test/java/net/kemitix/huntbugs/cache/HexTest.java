@@ -0,0 +1,26 @@
+package net.kemitix.huntbugs.cache;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link Hex}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class HexTest {
+
+    @Test
+    public void encodeTwoLowerCaseDigitsForEachByte() {
+        //when
+        final String hex = Hex.encode(new byte[]{0, 1, 0x7f, (byte) 0x80, (byte) 0xab, (byte) 0xff});
+        //then
+        assertThat(hex).isEqualTo("00017f80abff");
+    }
+
+    @Test
+    public void encodeNoBytesAsEmpty() {
+        assertThat(Hex.encode(new byte[0])).isEmpty();
+    }
+}
@@ -0,0 +1,239 @@
+package net.kemitix.huntbugs.cache;
+
+import com.sun.management.ThreadMXBean;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.CohesionMetrics;
+import net.kemitix.huntbugs.cohesive.Component;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Tests for {@link MappedResultStore}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class MappedResultStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = temporaryFolder.getRoot()
+                              .toPath()
+                              .resolve("results.store");
+    }
+
+    private static CacheKey key(final int i) {
+        return CacheKey.of(("class" + i).getBytes());
+    }
+
+    private static AnalysisResult result(final int i) {
+        final AnalysisResult result = new AnalysisResult();
+        result.addNonBeanMethods(new HashSet<>(Arrays.asList("method" + i + "()V", "shared()V")));
+        final Set<Component> components = new HashSet<>();
+        for (int c = 0; c <= i % 3; c++) {
+            components.add(Component.from(Arrays.asList("method" + i + "()V", "field" + c)));
+        }
+        result.addComponents(components);
+        result.setMetrics(new CohesionMetrics(i, i * 2L, i % 3 + 1, components.size(), 1.0 / (i + 1), 0.5));
+        return result;
+    }
+
+    private static Set<Set<String>> members(final AnalysisResult result) {
+        return result.getComponents()
+                     .stream()
+                     .map(Component::getMembers)
+                     .collect(Collectors.toSet());
+    }
+
+    private MappedResultStore storeWith(final int count) throws IOException {
+        try (MappedResultStore store = MappedResultStore.open(file)) {
+            for (int i = 0; i < count; i++) {
+                store.put(key(i), result(i));
+            }
+        }
+        return MappedResultStore.open(file);
+    }
+
+    @Test
+    public void emptyWhenFileDoesNotExist() throws IOException {
+        //when
+        final MappedResultStore store = MappedResultStore.open(file);
+        //then
+        assertThat(store.size()).isZero();
+        assertThat(store.find(key(1))).isEqualTo(-1);
+        assertThat(store.get(key(1))).isEmpty();
+    }
+
+    @Test
+    public void getUnflushedResult() throws IOException {
+        //given
+        final MappedResultStore store = MappedResultStore.open(file);
+        final AnalysisResult result = result(1);
+        //when
+        store.put(key(1), result);
+        //then
+        assertThat(store.get(key(1))).containsSame(result);
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    public void getResultAfterReopening() throws IOException {
+        //when
+        final MappedResultStore store = storeWith(10);
+        //then
+        assertThat(store.size()).isEqualTo(10);
+        for (int i = 0; i < 10; i++) {
+            final AnalysisResult result = store.get(key(i))
+                                               .orElseThrow(IllegalStateException::new);
+            assertThat(result.getNonBeanMethods()).isEqualTo(result(i).getNonBeanMethods());
+            assertThat(members(result)).isEqualTo(members(result(i)));
+            assertThat(result.getMetrics()).isEqualTo(result(i).getMetrics());
+        }
+    }
+
+    @Test
+    public void readRecordInPlace() throws IOException {
+        //given
+        final MappedResultStore store = storeWith(10);
+        //when
+        final int entry = store.find(key(5));
+        //then
+        assertThat(store.nonBeanMethodCount(entry)).isEqualTo(2);
+        assertThat(store.componentCount(entry)).isEqualTo(3);
+        final Set<Set<String>> components = new HashSet<>();
+        for (int c = 0; c < store.componentCount(entry); c++) {
+            final Set<String> members = new HashSet<>();
+            for (int i = 0; i < store.memberCount(entry, c); i++) {
+                members.add(store.symbol(store.member(entry, c, i)));
+            }
+            components.add(members);
+        }
+        assertThat(components).isEqualTo(members(result(5)));
+        assertThat(store.metrics(entry)).isEqualTo(result(5).getMetrics());
+    }
+
+    @Test
+    public void flushMergesAndReplaces() throws IOException {
+        //given
+        final MappedResultStore store = storeWith(3);
+        final AnalysisResult empty = new AnalysisResult();
+        //when
+        store.put(key(1), empty);
+        store.put(key(3), result(3));
+        store.flush();
+        //then
+        assertThat(store.size()).isEqualTo(4);
+        assertThat(store.componentCount(store.find(key(1)))).isZero();
+        assertThat(store.componentCount(store.find(key(2)))).isEqualTo(3);
+        assertThat(store.componentCount(store.find(key(3)))).isEqualTo(1);
+    }
+
+    @Test
+    public void rejectFileThatIsNotAStore() throws IOException {
+        //given
+        Files.write(file, new byte[100]);
+        //when
+        assertThatThrownBy(() -> MappedResultStore.open(file))
+                //then
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void lookupDoesNotAllocate() throws IOException {
+        //given
+        final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        final MappedResultStore store = storeWith(100);
+        final CacheKey[] keys = new CacheKey[100];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key(i);
+        }
+        lookupAll(store, keys, 100);
+        final long threadId = Thread.currentThread()
+                                    .getId();
+        //when
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        final long total = lookupAll(store, keys, 1000);
+        final long after = threadMXBean.getThreadAllocatedBytes(threadId);
+        //then
+        assertThat(total).isPositive();
+        assertThat((double) (after - before) / (1000 * keys.length)).isLessThan(1.0);
+    }
+
+    private static long lookupAll(final MappedResultStore store, final CacheKey[] keys, final int iterations) {
+        long total = 0;
+        for (int n = 0; n < iterations; n++) {
+            for (final CacheKey key : keys) {
+                final int entry = store.find(key);
+                total += store.componentCount(entry) + store.memberCount(entry, 0) + store.member(entry, 0, 0);
+            }
+        }
+        return total;
+    }
+
+    @Test
+    public void readWhileFlushing() throws Exception {
+        //given
+        final int count = 200;
+        final MappedResultStore store = storeWith(1);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final List<String> failures = new CopyOnWriteArrayList<>();
+        final ExecutorService readers = Executors.newFixedThreadPool(4);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            futures.add(readers.submit(() -> {
+                while (writing.get()) {
+                    final Optional<AnalysisResult> found = store.get(key(0));
+                    if (!found.isPresent() || !members(found.get()).equals(members(result(0)))) {
+                        failures.add(String.valueOf(found));
+                    }
+                }
+            }));
+        }
+        //when
+        try {
+            for (int i = 1; i < count; i++) {
+                store.put(key(i), result(i));
+                store.flush();
+            }
+        } finally {
+            writing.set(false);
+        }
+        for (final Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        readers.shutdown();
+        //then
+        assertThat(failures).isEmpty();
+        assertThat(store.size()).isEqualTo(count);
+    }
+}
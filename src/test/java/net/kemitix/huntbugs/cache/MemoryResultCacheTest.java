@@ -0,0 +1,49 @@
+package net.kemitix.huntbugs.cache;
+
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MemoryResultCache}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class MemoryResultCacheTest {
+
+    private final ResultCache cache = ResultCache.inMemory(2);
+
+    private static CacheKey key(final String content) {
+        return CacheKey.of(content.getBytes());
+    }
+
+    @Test
+    public void missWhenEmpty() {
+        assertThat(cache.get(key("class"))).isEmpty();
+    }
+
+    @Test
+    public void hitAfterPut() {
+        //given
+        final AnalysisResult result = new AnalysisResult();
+        //when
+        cache.put(key("class"), result);
+        //then
+        assertThat(cache.get(key("class"))).containsSame(result);
+    }
+
+    @Test
+    public void dropLeastRecentlyUsedResult() {
+        //given
+        cache.put(key("a"), new AnalysisResult());
+        cache.put(key("b"), new AnalysisResult());
+        cache.get(key("a"));
+        //when
+        cache.put(key("c"), new AnalysisResult());
+        //then
+        assertThat(cache.get(key("a"))).isPresent();
+        assertThat(cache.get(key("b"))).isEmpty();
+        assertThat(cache.get(key("c"))).isPresent();
+    }
+}
@@ -0,0 +1,76 @@
+package net.kemitix.huntbugs.cache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PluginBuild}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class PluginBuildTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sameClassesAreSameBuild() throws IOException {
+        //given
+        final Path first = folder.newFolder("first")
+                                 .toPath();
+        final Path second = folder.newFolder("second")
+                                  .toPath();
+        Files.write(first.resolve("A.class"), new byte[]{1, 2});
+        Files.write(second.resolve("A.class"), new byte[]{1, 2});
+        //then
+        assertThat(PluginBuild.of(first)).isEqualTo(PluginBuild.of(second));
+    }
+
+    @Test
+    public void changedClassIsNewBuild() throws IOException {
+        //given
+        final Path classes = folder.newFolder("classes")
+                                   .toPath();
+        final Path file = classes.resolve("A.class");
+        Files.write(file, new byte[]{1, 2});
+        final String before = PluginBuild.of(classes);
+        //when
+        Files.write(file, new byte[]{1, 3});
+        //then
+        assertThat(PluginBuild.of(classes)).isNotEqualTo(before);
+    }
+
+    @Test
+    public void renamedClassIsNewBuild() throws IOException {
+        //given
+        final Path classes = folder.newFolder("classes")
+                                   .toPath();
+        Files.write(classes.resolve("A.class"), new byte[]{1, 2});
+        final String before = PluginBuild.of(classes);
+        //when
+        Files.move(classes.resolve("A.class"), classes.resolve("B.class"));
+        //then
+        assertThat(PluginBuild.of(classes)).isNotEqualTo(before);
+    }
+
+    @Test
+    public void jarIsHashed() throws IOException {
+        //given
+        final Path jar = folder.newFile("plugin.jar")
+                               .toPath();
+        Files.write(jar, new byte[]{1, 2});
+        final String before = PluginBuild.of(jar);
+        //when
+        Files.write(jar, new byte[]{1, 3});
+        //then
+        assertThat(PluginBuild.of(jar)).isNotEqualTo(before)
+                                       .hasSize(64);
+    }
+}
@@ -0,0 +1,107 @@
+package net.kemitix.huntbugs.cli;
+
+import net.kemitix.huntbugs.ClassFiles;
+import net.kemitix.huntbugs.testdata.TestCohesive;
+import net.kemitix.huntbugs.testdata.TestNonCohesive;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ClassArchive}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class ClassArchiveTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    static void write(final Path root, final Class<?> type) throws IOException {
+        final Path file = root.resolve(ClassFiles.entryName(type));
+        Files.createDirectories(file.getParent());
+        Files.write(file, ClassFiles.of(type));
+    }
+
+    static void jar(final Path jar, final Class<?>... types) throws IOException {
+        try (OutputStream out = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            zip.write("Manifest-Version: 1.0\n".getBytes("UTF-8"));
+            zip.putNextEntry(new ZipEntry("module-info.class"));
+            zip.write(new byte[]{1, 2, 3});
+            for (final Class<?> type : types) {
+                zip.putNextEntry(new ZipEntry(ClassFiles.entryName(type)));
+                zip.write(ClassFiles.of(type));
+            }
+        }
+    }
+
+    private static List<String> classNames(final ClassArchive archive) {
+        return archive.getEntries()
+                      .stream()
+                      .map(ClassEntry::getClassName)
+                      .collect(Collectors.toList());
+    }
+
+    @Test
+    public void listClassFilesInDirectory() throws IOException {
+        //given
+        final Path root = folder.getRoot()
+                                .toPath();
+        write(root, TestCohesive.class);
+        write(root, TestNonCohesive.class);
+        Files.write(root.resolve("readme.txt"), new byte[]{1});
+        //when
+        try (ClassArchive archive = ClassArchive.open(root)) {
+            //then
+            assertThat(classNames(archive)).containsExactlyInAnyOrder(TestCohesive.class.getName(),
+                                                                      TestNonCohesive.class.getName()
+                                                                     );
+        }
+    }
+
+    @Test
+    public void listClassFilesInJar() throws IOException {
+        //given
+        final Path jar = folder.getRoot()
+                               .toPath()
+                               .resolve("classes.jar");
+        jar(jar, TestCohesive.class, TestNonCohesive.class);
+        //when
+        try (ClassArchive archive = ClassArchive.open(jar)) {
+            //then
+            assertThat(classNames(archive)).containsExactlyInAnyOrder(TestCohesive.class.getName(),
+                                                                      TestNonCohesive.class.getName()
+                                                                     );
+        }
+    }
+
+    @Test
+    public void readClassFileFromJar() throws IOException {
+        //given
+        final Path jar = folder.getRoot()
+                               .toPath()
+                               .resolve("classes.jar");
+        jar(jar, TestCohesive.class);
+        final byte[] expected = ClassFiles.of(TestCohesive.class);
+        //when
+        try (ClassArchive archive = ClassArchive.open(jar)) {
+            final ClassEntry entry = archive.getEntries()
+                                            .get(0);
+            //then
+            assertThat(entry.getSize()).isEqualTo(expected.length);
+            assertThat(entry.read()).isEqualTo(expected);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package net.kemitix.huntbugs.cli;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ClassDiff}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class ClassDiffTest {
+
+    private final AtomicInteger reads = new AtomicInteger();
+
+    private ClassEntry jarEntry(final String className, final long size, final long crc) {
+        return new ClassEntry(className, size, crc, () -> {
+            reads.incrementAndGet();
+            return new byte[(int) size];
+        });
+    }
+
+    private ClassEntry fileEntry(final String className, final byte[] contents) {
+        return new ClassEntry(className, contents.length, -1, () -> {
+            reads.incrementAndGet();
+            return contents;
+        });
+    }
+
+    private static List<String> classNames(final List<ClassEntry> entries) {
+        return entries.stream()
+                      .map(ClassEntry::getClassName)
+                      .collect(Collectors.toList());
+    }
+
+    @Test
+    public void findAddedAndChangedClassesWithoutReadingJarEntries() throws IOException {
+        //given
+        final List<ClassEntry> baseline = Arrays.asList(jarEntry("a.Same", 10, 1), jarEntry("a.Crc", 10, 2),
+                                                        jarEntry("a.Size", 10, 3), jarEntry("a.Removed", 10, 4)
+                                                       );
+        final List<ClassEntry> candidate = Arrays.asList(jarEntry("a.Same", 10, 1), jarEntry("a.Crc", 10, 5),
+                                                         jarEntry("a.Size", 11, 3), jarEntry("a.Added", 10, 6)
+                                                        );
+        //when
+        final ClassDiff diff = ClassDiff.between(baseline, candidate);
+        //then
+        assertThat(classNames(diff.getChanged())).containsExactly("a.Crc", "a.Size", "a.Added");
+        assertThat(classNames(diff.getPrevious())).containsExactly("a.Crc", "a.Size");
+        assertThat(diff.getPrevious()
+                       .get(0)).isSameAs(baseline.get(1));
+        assertThat(diff.getUnchanged()).isEqualTo(1);
+        assertThat(reads.get()).isZero();
+    }
+
+    @Test
+    public void compareContentsWhenCrcIsNotKnown() throws IOException {
+        //given
+        final List<ClassEntry> baseline = Arrays.asList(fileEntry("a.Same", new byte[]{1, 2}),
+                                                        fileEntry("a.Changed", new byte[]{1, 2})
+                                                       );
+        final List<ClassEntry> candidate = Arrays.asList(fileEntry("a.Same", new byte[]{1, 2}),
+                                                         fileEntry("a.Changed", new byte[]{1, 3})
+                                                        );
+        //when
+        final ClassDiff diff = ClassDiff.between(baseline, candidate);
+        //then
+        assertThat(classNames(diff.getChanged())).containsExactly("a.Changed");
+        assertThat(diff.getUnchanged()).isEqualTo(1);
+    }
+
+    @Test
+    public void everyClassIsAddedWhenBaselineIsEmpty() throws IOException {
+        //given
+        final List<ClassEntry> candidate = Collections.singletonList(jarEntry("a.B", 10, 1));
+        //when
+        final ClassDiff diff = ClassDiff.between(Collections.emptyList(), candidate);
+        //then
+        assertThat(classNames(diff.getChanged())).containsExactly("a.B");
+        assertThat(diff.getPrevious()).isEmpty();
+    }
+}
@@ -0,0 +1,93 @@
+package net.kemitix.huntbugs.cli;
+
+import net.kemitix.huntbugs.cache.CacheKey;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.Component;
+import net.kemitix.huntbugs.report.ResultSink;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ClassIndex}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class ClassIndexTest {
+
+    private final ClassIndex index = new ClassIndex(ResultSink.none());
+
+    private static CacheKey key(final String content) {
+        return CacheKey.of(content.getBytes());
+    }
+
+    private static AnalysisResult twoComponents() {
+        final AnalysisResult result = new AnalysisResult();
+        result.addComponents(new HashSet<>(Arrays.asList(Component.from(Collections.singletonList("a()V")),
+                                                         Component.from(Collections.singletonList("b()V"))
+                                                        )));
+        return result;
+    }
+
+    @Test
+    public void analyseNewOrChangedClassOnly() {
+        //given
+        final boolean added = index.update("a.B", key("one"));
+        //when
+        final boolean same = index.update("a.B", key("one"));
+        final boolean changed = index.update("a.B", key("two"));
+        //then
+        assertThat(added).isTrue();
+        assertThat(same).isFalse();
+        assertThat(changed).isTrue();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void forgetResultWhenClassChanges() {
+        //given
+        index.update("a.B", key("one"));
+        index.accept("a.B", twoComponents());
+        assertThat(index.componentCount("a.B")).contains(2);
+        assertThat(index.multipleComponents()).isEqualTo(1);
+        //when
+        index.update("a.B", key("two"));
+        //then
+        assertThat(index.componentCount("a.B")).isEmpty();
+        assertThat(index.multipleComponents()).isZero();
+    }
+
+    @Test
+    public void removeClass() {
+        //given
+        index.update("a.B", key("one"));
+        index.accept("a.B", twoComponents());
+        //when
+        final boolean removed = index.remove("a.B");
+        //then
+        assertThat(removed).isTrue();
+        assertThat(index.remove("a.B")).isFalse();
+        assertThat(index.size()).isZero();
+        assertThat(index.multipleComponents()).isZero();
+    }
+
+    @Test
+    public void removeEveryMatchingClass() {
+        //given
+        index.update("a.b.C", key("one"));
+        index.update("a.b.C$D", key("two"));
+        index.update("a.E", key("three"));
+        index.accept("a.b.C", twoComponents());
+        //when
+        final List<String> removed = index.removeAll(className -> className.startsWith("a.b."));
+        //then
+        assertThat(removed).containsExactly("a.b.C", "a.b.C$D");
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.multipleComponents()).isZero();
+    }
+}
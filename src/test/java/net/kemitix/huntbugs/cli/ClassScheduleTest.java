@@ -0,0 +1,57 @@
+package net.kemitix.huntbugs.cli;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ClassSchedule}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class ClassScheduleTest {
+
+    private static ClassEntry entry(final String className, final long size) {
+        return new ClassEntry(className, size, -1, () -> new byte[0]);
+    }
+
+    private static List<String> classNames(final List<ClassEntry> entries) {
+        return entries.stream()
+                      .map(ClassEntry::getClassName)
+                      .collect(Collectors.toList());
+    }
+
+    @Test
+    public void orderLargestFirst() {
+        //given
+        final List<ClassEntry> entries = Arrays.asList(entry("small", 10), entry("large", 1000), entry("medium", 100));
+        //when
+        final List<ClassEntry> ordered = ClassSchedule.largestFirst(entries);
+        //then
+        assertThat(classNames(ordered)).containsExactly("large", "medium", "small");
+    }
+
+    @Test
+    public void orderEqualSizesByName() {
+        //given
+        final List<ClassEntry> entries = Arrays.asList(entry("b", 10), entry("a", 10));
+        //when
+        final List<ClassEntry> ordered = ClassSchedule.largestFirst(entries);
+        //then
+        assertThat(classNames(ordered)).containsExactly("a", "b");
+    }
+
+    @Test
+    public void placeUnknownSizeFirst() {
+        //given
+        final List<ClassEntry> entries = Arrays.asList(entry("known", 1000), entry("unknown", -1));
+        //when
+        final List<ClassEntry> ordered = ClassSchedule.largestFirst(entries);
+        //then
+        assertThat(classNames(ordered)).containsExactly("unknown", "known");
+    }
+}
@@ -0,0 +1,131 @@
+package net.kemitix.huntbugs.cli;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link ClassWatch}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class ClassWatchTest {
+
+    private static final long QUIET_MILLIS = 100;
+
+    private static final int MAX_BATCHES = 10;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void listInitialFiles() throws IOException {
+        //given
+        final Path root = folder.getRoot()
+                                .toPath();
+        final Path file = Files.write(Files.createDirectories(root.resolve("a"))
+                                           .resolve("B.class"), new byte[]{1});
+        //when
+        try (ClassWatch watch = ClassWatch.open(root)) {
+            //then
+            assertThat(watch.getInitialFiles()).containsExactly(file);
+        }
+    }
+
+    @Test
+    public void batchChangedFiles() throws IOException, InterruptedException {
+        //given
+        final Path root = folder.getRoot()
+                                .toPath();
+        final Path changed = Files.write(root.resolve("Changed.class"), new byte[]{1});
+        try (ClassWatch watch = ClassWatch.open(root)) {
+            final Path added = Files.write(root.resolve("Added.class"), new byte[]{1});
+            Files.write(changed, new byte[]{2});
+            //when
+            final Set<Path> changes = watch.awaitChanges(QUIET_MILLIS)
+                                          .getFiles();
+            //then
+            assertThat(changes).contains(added, changed);
+        }
+    }
+
+    @Test
+    public void includeFilesInNewDirectory() throws IOException, InterruptedException {
+        //given
+        final Path root = folder.getRoot()
+                                .toPath();
+        try (ClassWatch watch = ClassWatch.open(root)) {
+            final Path file = Files.write(Files.createDirectories(root.resolve("a/b"))
+                                               .resolve("C.class"), new byte[]{1});
+            //when
+            final Set<Path> changes = watch.awaitChanges(QUIET_MILLIS)
+                                          .getFiles();
+            //then
+            assertThat(changes).contains(file);
+        }
+    }
+
+    @Test
+    public void rescanWhenRootIsDeletedAndCreatedAgain() throws IOException, InterruptedException {
+        //given
+        final Path root = folder.newFolder("classes")
+                                .toPath();
+        final Path file = root.resolve("a/B.class");
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[]{1});
+        try (ClassWatch watch = ClassWatch.open(root)) {
+            delete(root);
+            //when
+            final ClassWatch.Changes deleted = awaitCompleteChanges(watch);
+            Files.createDirectories(file.getParent());
+            Files.write(file, new byte[]{2});
+            final ClassWatch.Changes created = watch.awaitChanges(QUIET_MILLIS);
+            //then
+            assertThat(deleted.getFiles()).isEmpty();
+            assertThat(created.isComplete()).isTrue();
+            assertThat(created.getFiles()).contains(file);
+        }
+    }
+
+    private static ClassWatch.Changes awaitCompleteChanges(final ClassWatch watch)
+            throws IOException, InterruptedException {
+        ClassWatch.Changes changes = watch.awaitChanges(QUIET_MILLIS);
+        for (int batch = 0; batch < MAX_BATCHES && !changes.isComplete(); batch++) {
+            changes = watch.awaitChanges(QUIET_MILLIS);
+        }
+        assertThat(changes.isComplete()).isTrue();
+        return changes;
+    }
+
+    private static void delete(final Path root) throws IOException {
+        try (Stream<Path> walk = Files.walk(root)) {
+            final List<Path> paths = walk.sorted(Comparator.reverseOrder())
+                                         .collect(Collectors.toList());
+            for (final Path path : paths) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void rejectFile() throws IOException {
+        //given
+        final Path file = folder.newFile("classes.jar")
+                                .toPath();
+        //then
+        assertThatThrownBy(() -> ClassWatch.open(file)).isInstanceOf(NotDirectoryException.class);
+    }
+}
@@ -0,0 +1,111 @@
+package net.kemitix.huntbugs.cli;
+
+import org.junit.Test;
+
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link CliOptions}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class CliOptionsTest {
+
+    @Test
+    public void defaultToTextOnStandardOutput() {
+        //when
+        final CliOptions options = CliOptions.parse("a.jar", "classes");
+        //then
+        assertThat(options.getFormat()).isEqualTo(CliOptions.Format.TEXT);
+        assertThat(options.getOutput()).isNull();
+        assertThat(options.getBaseline()).isNull();
+        assertThat(options.isWatch()).isFalse();
+        assertThat(options.getThreads()).isEqualTo(Runtime.getRuntime()
+                                                          .availableProcessors());
+        assertThat(options.getPaths()).containsExactly(Paths.get("a.jar"), Paths.get("classes"));
+    }
+
+    @Test
+    public void parseOptions() {
+        //when
+        final CliOptions options = CliOptions.parse("--format", "jsonl", "--output", "out.jsonl", "--threads", "3",
+                                                    "--baseline", "base.jar", "a.jar"
+                                                   );
+        //then
+        assertThat(options.getFormat()).isEqualTo(CliOptions.Format.JSONL);
+        assertThat(options.getOutput()).isEqualTo(Paths.get("out.jsonl"));
+        assertThat(options.getThreads()).isEqualTo(3);
+        assertThat(options.getBaseline()).isEqualTo(Paths.get("base.jar"));
+        assertThat(options.getPaths()).containsExactly(Paths.get("a.jar"));
+    }
+
+    @Test
+    public void requirePath() {
+        assertThatIllegalArgumentException().isThrownBy(() -> CliOptions.parse("--format", "sarif"))
+                                            .withMessage("No jar or directory given");
+    }
+
+    @Test
+    public void rejectUnknownOption() {
+        assertThatIllegalArgumentException().isThrownBy(() -> CliOptions.parse("--fast", "a.jar"))
+                                            .withMessage("Unknown option: --fast");
+    }
+
+    @Test
+    public void rejectUnknownFormat() {
+        assertThatIllegalArgumentException().isThrownBy(() -> CliOptions.parse("--format", "xml", "a.jar"))
+                                            .withMessage("Unknown format: xml");
+    }
+
+    @Test
+    public void rejectMissingValue() {
+        assertThatIllegalArgumentException().isThrownBy(() -> CliOptions.parse("a.jar", "--output"))
+                                            .withMessage("Missing value for --output");
+    }
+
+    @Test
+    public void rejectInvalidThreads() {
+        assertThatIllegalArgumentException().isThrownBy(() -> CliOptions.parse("--threads", "0", "a.jar"))
+                                            .withMessage("Not a number of threads: 0");
+    }
+
+    @Test
+    public void resolvePathsAgainstWorkingDirectory() {
+        //when
+        final CliOptions options = CliOptions.parse(Paths.get("/work"), "--output", "out.txt", "classes");
+        //then
+        assertThat(options.getOutput()).isEqualTo(Paths.get("/work/out.txt"));
+        assertThat(options.getPaths()).containsExactly(Paths.get("/work/classes"));
+    }
+
+    @Test
+    public void parseWatch() {
+        //when
+        final CliOptions options = CliOptions.parse("--watch", "target/classes");
+        //then
+        assertThat(options.isWatch()).isTrue();
+    }
+
+    @Test
+    public void rejectWatchOfSeveralDirectories() {
+        assertThatIllegalArgumentException().isThrownBy(() -> CliOptions.parse("--watch", "a", "b"))
+                                            .withMessage("--watch takes a single directory");
+    }
+
+    @Test
+    public void rejectWatchWithBaseline() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> CliOptions.parse("--watch", "--baseline", "base.jar", "classes"))
+                                            .withMessage("--watch can not be used with --baseline");
+    }
+
+    @Test
+    public void rejectWatchWritingSarif() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> CliOptions.parse("--watch", "--format", "sarif", "classes"))
+                                            .withMessage("--watch can not write sarif");
+    }
+}
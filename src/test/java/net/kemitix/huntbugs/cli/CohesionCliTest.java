@@ -0,0 +1,211 @@
+package net.kemitix.huntbugs.cli;
+
+import net.kemitix.huntbugs.ClassFiles;
+import net.kemitix.huntbugs.testdata.TestCohesive;
+import net.kemitix.huntbugs.testdata.TestNonCohesive;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CohesionCli}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class CohesionCliTest {
+
+    private static final long WAIT_MILLIS = 10_000;
+
+    private static final long POLL_MILLIS = 20;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private Path classes;
+
+    @Before
+    public void setUp() throws IOException {
+        classes = folder.newFolder("classes")
+                        .toPath();
+        ClassArchiveTest.write(classes, TestCohesive.class);
+        ClassArchiveTest.write(classes, TestNonCohesive.class);
+    }
+
+    private Path jar(final String name, final Class<?> same, final Class<?> changed) throws IOException {
+        final Path jar = folder.getRoot()
+                               .toPath()
+                               .resolve(name);
+        try (OutputStream output = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(output)) {
+            zip.putNextEntry(new ZipEntry("a/Same.class"));
+            zip.write(ClassFiles.of(same));
+            zip.putNextEntry(new ZipEntry("a/Changed.class"));
+            zip.write(ClassFiles.of(changed));
+        }
+        return jar;
+    }
+
+    private int run(final String... args) throws UnsupportedEncodingException {
+        return CohesionCli.run(args, new PrintStream(out, true, "UTF-8"), new PrintStream(err, true, "UTF-8"));
+    }
+
+    @Test
+    public void writeTextForClassWithMultipleComponents() throws IOException {
+        //when
+        final int status = run(classes.toString());
+        //then
+        assertThat(status).isEqualTo(CohesionCli.SUCCESS);
+        final String text = out.toString("UTF-8");
+        assertThat(text).startsWith(TestNonCohesive.class.getName() + ": ")
+                        .doesNotContain(TestCohesive.class.getName());
+        assertThat(err.toString("UTF-8")).contains("Analysed 2 classes", "1 with multiple components", "0 failed");
+    }
+
+    @Test
+    public void writeJsonLinesForEachClassToFile() throws IOException {
+        //given
+        final Path output = folder.getRoot()
+                                  .toPath()
+                                  .resolve("out.jsonl");
+        //when
+        final int status = run("--format", "jsonl", "--output", output.toString(), "--threads", "2",
+                               classes.toString()
+                              );
+        //then
+        assertThat(status).isEqualTo(CohesionCli.SUCCESS);
+        assertThat(Files.readAllLines(output)).hasSize(2);
+    }
+
+    @Test
+    public void analyseJar() throws IOException {
+        //given
+        final Path jar = folder.getRoot()
+                               .toPath()
+                               .resolve("classes.jar");
+        ClassArchiveTest.jar(jar, TestNonCohesive.class);
+        //when
+        final int status = run("--format", "jsonl", jar.toString());
+        //then
+        assertThat(status).isEqualTo(CohesionCli.SUCCESS);
+        assertThat(out.toString("UTF-8")).startsWith("{\"class\":\"" + TestNonCohesive.class.getName() + "\"");
+    }
+
+    @Test
+    public void reportClassThatCanNotBeAnalysed() throws IOException {
+        //given
+        Files.write(classes.resolve("Broken.class"), new byte[]{1, 2, 3});
+        //when
+        final int status = run(classes.toString());
+        //then
+        assertThat(status).isEqualTo(CohesionCli.FAILURE);
+        assertThat(err.toString("UTF-8")).contains("Could not analyse Broken", "1 failed");
+    }
+
+    @Test
+    public void reportInvalidCommandLine() throws IOException {
+        //when
+        final int status = run("--format");
+        //then
+        assertThat(status).isEqualTo(CohesionCli.USAGE_ERROR);
+        assertThat(err.toString("UTF-8")).contains(CliOptions.USAGE);
+    }
+
+    @Test
+    public void reportMissingJar() throws IOException {
+        //when
+        final int status = run(folder.getRoot()
+                                     .toPath()
+                                     .resolve("missing.jar")
+                                     .toString());
+        //then
+        assertThat(status).isEqualTo(CohesionCli.FAILURE);
+    }
+
+    @Test
+    public void reportClassWithMoreComponentsThanBaseline() throws IOException {
+        //given
+        final Path baseline = jar("baseline.jar", TestNonCohesive.class, TestCohesive.class);
+        final Path candidate = jar("candidate.jar", TestNonCohesive.class, TestNonCohesive.class);
+        //when
+        final int status = run("--baseline", baseline.toString(), candidate.toString());
+        //then
+        assertThat(status).isEqualTo(CohesionCli.REGRESSION);
+        assertThat(out.toString("UTF-8")).startsWith("a.Changed: ")
+                                         .contains("(1 in baseline)")
+                                         .doesNotContain("a.Same");
+        assertThat(err.toString("UTF-8")).contains("Changed since baseline: 1 of 2 classes", "Analysed 1 classes",
+                                                   "1 classes new with multiple components"
+                                                  );
+    }
+
+    @Test
+    public void passWhenNoClassHasMoreComponentsThanBaseline() throws IOException {
+        //given
+        final Path baseline = jar("baseline.jar", TestNonCohesive.class, TestNonCohesive.class);
+        final Path candidate = jar("candidate.jar", TestNonCohesive.class, TestCohesive.class);
+        //when
+        final int status = run("--baseline", baseline.toString(), candidate.toString());
+        //then
+        assertThat(status).isEqualTo(CohesionCli.SUCCESS);
+        assertThat(out.toString("UTF-8")).isEmpty();
+    }
+
+    @Test
+    public void analyseNothingWhenJarIsUnchanged() throws IOException {
+        //given
+        final Path baseline = jar("baseline.jar", TestNonCohesive.class, TestNonCohesive.class);
+        //when
+        final int status = run("--baseline", baseline.toString(), baseline.toString());
+        //then
+        assertThat(status).isEqualTo(CohesionCli.SUCCESS);
+        assertThat(err.toString("UTF-8")).contains("Changed since baseline: 0 of 2 classes", "Analysed 0 classes");
+    }
+
+    @Test
+    public void watchDirectoryForChangedClasses() throws Exception {
+        //given
+        final int[] status = new int[1];
+        final Thread watch = new Thread(() -> {
+            try {
+                status[0] = run("--watch", classes.toString());
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        watch.start();
+        awaitOutput(err, "Watching 2 classes: 1 with multiple components");
+        //when
+        Files.write(classes.resolve(ClassFiles.entryName(TestCohesive.class)), ClassFiles.of(TestNonCohesive.class));
+        //then
+        awaitOutput(err, "Watching 2 classes: 2 with multiple components");
+        assertThat(out.toString("UTF-8")).contains(TestCohesive.class.getName() + ": ");
+        watch.interrupt();
+        watch.join(WAIT_MILLIS);
+        assertThat(status[0]).isEqualTo(CohesionCli.SUCCESS);
+    }
+
+    private static void awaitOutput(final ByteArrayOutputStream output, final String expected) throws Exception {
+        final long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!output.toString("UTF-8")
+                      .contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(POLL_MILLIS);
+        }
+        assertThat(output.toString("UTF-8")).contains(expected);
+    }
+}
@@ -0,0 +1,203 @@
+package net.kemitix.huntbugs.cli;
+
+import net.kemitix.huntbugs.testdata.TestCohesive;
+import net.kemitix.huntbugs.testdata.TestNonCohesive;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CohesionDaemon} and {@link CohesionClient}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class CohesionDaemonTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+    private CohesionDaemon daemon;
+
+    private Thread server;
+
+    private Path root;
+
+    private Path secrets;
+
+    @Before
+    public void setUp() throws IOException {
+        root = folder.getRoot()
+                     .toPath();
+        final Path classes = folder.newFolder("classes")
+                                   .toPath();
+        ClassArchiveTest.write(classes, TestCohesive.class);
+        ClassArchiveTest.write(classes, TestNonCohesive.class);
+        secrets = folder.newFolder("secrets")
+                        .toPath();
+        daemon = CohesionDaemon.start(0, CohesionDaemon.warmAnalyser(16), new PrintStream(log, true, "UTF-8"),
+                                      secrets
+                                     );
+        server = new Thread(() -> {
+            try {
+                daemon.serve();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        daemon.close();
+        server.join(TIMEOUT_MILLIS);
+    }
+
+    private int submit(final String... args) throws UnsupportedEncodingException {
+        return CohesionClient.run(args, daemon.getPort(), secrets, root, new PrintStream(out, true, "UTF-8"),
+                                  new PrintStream(err, true, "UTF-8")
+                                 );
+    }
+
+    @Test
+    public void streamResultsOfDirectoryRelativeToClient() throws IOException {
+        //when
+        final int status = submit("classes");
+        //then
+        assertThat(status).isEqualTo(CohesionCli.SUCCESS);
+        assertThat(out.toString("UTF-8")).startsWith(TestNonCohesive.class.getName() + ": ")
+                                         .doesNotContain(TestCohesive.class.getName());
+        assertThat(err.toString("UTF-8")).contains("Analysed 2 classes", "1 with multiple components");
+    }
+
+    @Test
+    public void repeatRequestOnWarmDaemon() throws IOException {
+        //given
+        submit("--format", "jsonl", "classes");
+        final String first = out.toString("UTF-8");
+        out.reset();
+        //when
+        final int status = submit("--format", "jsonl", "classes");
+        //then
+        assertThat(status).isEqualTo(CohesionCli.SUCCESS);
+        assertThat(out.toString("UTF-8")
+                      .split("\n")).containsExactlyInAnyOrder(first.split("\n"));
+    }
+
+    @Test
+    public void passOnExitStatus() throws IOException {
+        //when
+        final int status = submit("--format");
+        //then
+        assertThat(status).isEqualTo(CohesionCli.USAGE_ERROR);
+        assertThat(err.toString("UTF-8")).contains(CliOptions.USAGE);
+    }
+
+    @Test
+    public void stopDaemon() throws IOException, InterruptedException {
+        //when
+        final int status = submit("--stop");
+        server.join(TIMEOUT_MILLIS);
+        //then
+        assertThat(status).isEqualTo(CohesionCli.SUCCESS);
+        assertThat(server.isAlive()).isFalse();
+    }
+
+    @Test
+    public void reportMissingDaemon() throws IOException {
+        //given
+        daemon.close();
+        //when
+        final int status = submit("classes");
+        //then
+        assertThat(status).isEqualTo(CohesionCli.FAILURE);
+        assertThat(err.toString("UTF-8")).contains("Could not read the secret of the daemon");
+        assertThat(DaemonProtocol.secretFile(secrets, daemon.getPort())).doesNotExist();
+    }
+
+    @Test
+    public void writeSecretReadableOnlyByUser() throws IOException {
+        //given
+        final Path secret = DaemonProtocol.secretFile(secrets, daemon.getPort());
+        Assume.assumeTrue(secret.getFileSystem()
+                                .supportedFileAttributeViews()
+                                .contains("posix"));
+        //when
+        final Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(secret);
+        //then
+        assertThat(permissions).containsExactlyInAnyOrder(PosixFilePermission.OWNER_READ,
+                                                          PosixFilePermission.OWNER_WRITE
+                                                         );
+    }
+
+    @Test
+    public void refuseRequestWithoutSecret() throws IOException {
+        //given
+        Files.write(DaemonProtocol.secretFile(secrets, daemon.getPort()), "guess".getBytes("UTF-8"));
+        //when
+        final int status = submit("--stop");
+        //then
+        assertThat(status).isEqualTo(CohesionCli.FAILURE);
+        assertThat(err.toString("UTF-8")).contains("Not authorised");
+        assertThat(server.isAlive()).isTrue();
+    }
+
+    @Test
+    public void refuseFirstLineLongerThanSecret() throws IOException {
+        //given
+        final char[] line = new char[1024];
+        Arrays.fill(line, 'a');
+        //when
+        final String response;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+            final Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            writer.write(line);
+            writer.flush();
+            response = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))
+                    .readLine();
+        }
+        //then
+        assertThat(response).isEqualTo(DaemonProtocol.tagged(DaemonProtocol.ERR, "Not authorised")
+                                                     .trim());
+        assertThat(server.isAlive()).isTrue();
+    }
+
+    @Test
+    public void refuseWatch() throws IOException {
+        //when
+        final int status = submit("--watch", "classes");
+        //then
+        assertThat(status).isEqualTo(CohesionCli.USAGE_ERROR);
+        assertThat(err.toString("UTF-8")).contains("The daemon can not --watch");
+    }
+}
@@ -0,0 +1,110 @@
+package net.kemitix.huntbugs.cli;
+
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.report.ResultSink;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CohesionRun}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class CohesionRunTest {
+
+    private final List<String> accepted = Collections.synchronizedList(new ArrayList<>());
+
+    private final ResultSink sink = new ResultSink() {
+        @Override
+        public void accept(final String className, final AnalysisResult result) {
+            accepted.add(className);
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private final CohesionRun run = new CohesionRun(classFile -> new AnalysisResult(), sink, new PrintStream(err));
+
+    private ForkJoinPool pool;
+
+    private static ClassEntry entry(final String className) {
+        return new ClassEntry(className, 1, -1, () -> new byte[0]);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void startClassesInOrderGiven() {
+        //given
+        pool = new ForkJoinPool(1);
+        //when
+        final RunSummary summary = run.run(Arrays.asList(entry("c"), entry("a"), entry("b")), pool);
+        //then
+        assertThat(accepted).containsExactly("c", "a", "b");
+        assertThat(summary.getAnalysed()).isEqualTo(3);
+    }
+
+    @Test
+    public void analyseEveryClassOnManyThreads() {
+        //given
+        pool = new ForkJoinPool(4);
+        final List<ClassEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            entries.add(entry("class" + i));
+        }
+        //when
+        final RunSummary summary = run.run(entries, pool);
+        //then
+        assertThat(accepted).hasSize(100);
+        assertThat(summary.getAnalysed()).isEqualTo(100);
+    }
+
+    @Test
+    public void countClassThatCanNotBeRead() {
+        //given
+        pool = new ForkJoinPool(2);
+        final ClassEntry unreadable = new ClassEntry("broken", 1, -1, () -> {
+            throw new IOException("gone");
+        });
+        //when
+        final RunSummary summary = run.run(Arrays.asList(unreadable, entry("a")), pool);
+        //then
+        assertThat(summary.getFailed()).isEqualTo(1);
+        assertThat(summary.getAnalysed()).isEqualTo(1);
+        assertThat(err.toString()).contains("Could not analyse broken: java.io.IOException: gone");
+    }
+
+    @Test
+    public void countClassThatFailsAnalysis() {
+        //given
+        pool = new ForkJoinPool(2);
+        final CohesionRun failingRun = new CohesionRun(classFile -> {
+            throw new IllegalStateException("corrupt");
+        }, sink, new PrintStream(err));
+        //when
+        final RunSummary summary = failingRun.run(Arrays.asList(entry("broken"), entry("a")), pool);
+        //then
+        assertThat(summary.getFailed()).isEqualTo(2);
+        assertThat(summary.getAnalysed()).isEqualTo(0);
+        assertThat(accepted).isEmpty();
+        assertThat(err.toString()).contains("Could not analyse broken: java.lang.IllegalStateException: corrupt");
+    }
+}
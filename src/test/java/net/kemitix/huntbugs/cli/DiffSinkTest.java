@@ -0,0 +1,74 @@
+package net.kemitix.huntbugs.cli;
+
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.BreakdownFormatter;
+import net.kemitix.huntbugs.cohesive.Component;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DiffSink}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class DiffSinkTest {
+
+    private final StringWriter writer = new StringWriter();
+
+    private final BaselineCounts baseline = new BaselineCounts();
+
+    private final DiffSink sink = new DiffSink(new TextSink(writer, BreakdownFormatter.textInstance()), baseline);
+
+    private static AnalysisResult components(final int count) {
+        final List<Component> components = IntStream.range(0, count)
+                                                    .mapToObj(i -> Collections.singletonList("m" + i + "()V"))
+                                                    .map(Component::from)
+                                                    .collect(Collectors.toList());
+        final AnalysisResult result = new AnalysisResult();
+        result.addComponents(new HashSet<>(components));
+        return result;
+    }
+
+    @Test
+    public void passOnClassWithMoreComponentsThanBaseline() {
+        //given
+        baseline.accept("a.B", components(2));
+        //when
+        sink.accept("a.B", components(3));
+        //then
+        assertThat(writer.toString()).startsWith("a.B: 3 components");
+        assertThat(sink.getRegressions()).isEqualTo(1);
+    }
+
+    @Test
+    public void skipClassWithNoMoreComponentsThanBaseline() {
+        //given
+        baseline.accept("a.B", components(3));
+        baseline.accept("a.C", components(2));
+        //when
+        sink.accept("a.B", components(2));
+        sink.accept("a.C", components(2));
+        //then
+        assertThat(writer.toString()).isEmpty();
+        assertThat(sink.getRegressions()).isZero();
+    }
+
+    @Test
+    public void passOnNewClassWithMultipleComponents() {
+        //when
+        sink.accept("a.B", components(2));
+        sink.accept("a.C", components(1));
+        //then
+        assertThat(writer.toString()).startsWith("a.B: 2 components")
+                                     .doesNotContain("a.C");
+        assertThat(sink.getRegressions()).isEqualTo(1);
+    }
+}
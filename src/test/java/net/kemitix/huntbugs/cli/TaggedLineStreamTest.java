@@ -0,0 +1,43 @@
+package net.kemitix.huntbugs.cli;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TaggedLineStream}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class TaggedLineStreamTest {
+
+    private final StringWriter writer = new StringWriter();
+
+    @Test
+    public void tagEachCompleteLine() throws IOException {
+        //given
+        final PrintStream out = new PrintStream(new TaggedLineStream(writer, DaemonProtocol.OUT), true, "UTF-8");
+        final PrintStream err = new PrintStream(new TaggedLineStream(writer, DaemonProtocol.ERR), true, "UTF-8");
+        //when
+        out.print("a.B: ");
+        err.println("summary");
+        out.println("2 components");
+        //then
+        assertThat(writer.toString()).isEqualTo("E summary\nO a.B: 2 components\n");
+    }
+
+    @Test
+    public void sendIncompleteLineOnClose() throws IOException {
+        //given
+        final PrintStream out = new PrintStream(new TaggedLineStream(writer, DaemonProtocol.OUT), true, "UTF-8");
+        out.print("partial");
+        //when
+        out.close();
+        //then
+        assertThat(writer.toString()).isEqualTo("O partial\n");
+    }
+}
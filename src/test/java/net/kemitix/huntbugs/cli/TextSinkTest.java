@@ -0,0 +1,69 @@
+package net.kemitix.huntbugs.cli;
+
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.BreakdownFormatter;
+import net.kemitix.huntbugs.cohesive.Component;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TextSink}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class TextSinkTest {
+
+    private final StringWriter writer = new StringWriter();
+
+    private final TextSink sink = new TextSink(writer, BreakdownFormatter.textInstance());
+
+    @Test
+    public void writeLineForClassWithMultipleComponents() {
+        //given
+        final AnalysisResult result = new AnalysisResult();
+        result.addComponents(new HashSet<>(Arrays.asList(Component.from(Arrays.asList("e()V", "f")),
+                                                         Component.from(Arrays.asList("c()V", "d()V", "g"))
+                                                        )));
+        //when
+        sink.accept("a.B", result);
+        //then
+        assertThat(writer.toString()).isEqualTo("a.B: 2 components: #1: c()V, d()V; #2: e()V\n");
+    }
+
+    @Test
+    public void skipClassWithOneComponent() {
+        //given
+        final AnalysisResult result = new AnalysisResult();
+        result.addComponents(Collections.singleton(Component.from(Arrays.asList("c()V", "d"))));
+        //when
+        sink.accept("a.B", result);
+        //then
+        assertThat(writer.toString()).isEmpty();
+    }
+
+    @Test
+    public void noteComponentsInBaseline() {
+        //given
+        final AnalysisResult baselineResult = new AnalysisResult();
+        baselineResult.addComponents(Collections.singleton(Component.from(Arrays.asList("c()V", "e()V"))));
+        final BaselineCounts baseline = new BaselineCounts();
+        baseline.accept("a.B", baselineResult);
+        final TextSink comparison = new TextSink(writer, BreakdownFormatter.textInstance(), baseline);
+        final AnalysisResult result = new AnalysisResult();
+        result.addComponents(new HashSet<>(Arrays.asList(Component.from(Collections.singletonList("e()V")),
+                                                         Component.from(Collections.singletonList("c()V"))
+                                                        )));
+        //when
+        comparison.accept("a.B", result);
+        comparison.accept("a.C", result);
+        //then
+        assertThat(writer.toString()).isEqualTo("a.B: 2 components (1 in baseline): #1: c()V; #2: e()V\n"
+                                                + "a.C: 2 components (new): #1: c()V; #2: e()V\n");
+    }
+}
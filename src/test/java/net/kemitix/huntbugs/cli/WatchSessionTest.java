@@ -0,0 +1,156 @@
+package net.kemitix.huntbugs.cli;
+
+import net.kemitix.huntbugs.ClassFiles;
+import net.kemitix.huntbugs.bytecode.ClassFileAnalyser;
+import net.kemitix.huntbugs.report.ResultSink;
+import net.kemitix.huntbugs.testdata.TestCohesive;
+import net.kemitix.huntbugs.testdata.TestNonCohesive;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link WatchSession}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class WatchSessionTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private Path root;
+
+    private Path cohesive;
+
+    private Path nonCohesive;
+
+    private WatchSession session;
+
+    @Before
+    public void setUp() throws IOException {
+        root = folder.getRoot()
+                     .toPath();
+        cohesive = root.resolve("a/Cohesive.class");
+        nonCohesive = root.resolve("a/NonCohesive.class");
+        Files.createDirectories(cohesive.getParent());
+        Files.write(cohesive, ClassFiles.of(TestCohesive.class));
+        Files.write(nonCohesive, ClassFiles.of(TestNonCohesive.class));
+        session = new WatchSession(root, ClassFileAnalyser.defaultInstance(), ResultSink.none(),
+                                   new PrintStream(err, true, "UTF-8"), pool
+        );
+        session.analyse(Arrays.asList(cohesive, nonCohesive));
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void analyseEveryClassAtStart() throws IOException {
+        //then
+        assertThat(session.getIndex()
+                          .size()).isEqualTo(2);
+        assertThat(session.getIndex()
+                          .multipleComponents()).isEqualTo(1);
+        assertThat(err.toString("UTF-8")).contains("Analysed 2 classes", "Watching 2 classes: 1 with multiple");
+    }
+
+    @Test
+    public void skipClassFileWrittenWithoutChange() throws IOException {
+        //given
+        Files.write(cohesive, ClassFiles.of(TestCohesive.class));
+        //when
+        final RunSummary summary = session.analyse(Collections.singletonList(cohesive));
+        //then
+        assertThat(summary.getAnalysed()).isZero();
+    }
+
+    @Test
+    public void analyseChangedClassOnly() throws IOException {
+        //given
+        Files.write(cohesive, ClassFiles.of(TestNonCohesive.class));
+        //when
+        final RunSummary summary = session.analyse(Arrays.asList(cohesive, nonCohesive));
+        //then
+        assertThat(summary.getAnalysed()).isEqualTo(1);
+        assertThat(session.getIndex()
+                          .multipleComponents()).isEqualTo(2);
+    }
+
+    @Test
+    public void removeDeletedClass() throws IOException {
+        //given
+        Files.delete(nonCohesive);
+        //when
+        session.analyse(Collections.singletonList(nonCohesive));
+        //then
+        assertThat(session.getIndex()
+                          .size()).isEqualTo(1);
+        assertThat(session.getIndex()
+                          .multipleComponents()).isZero();
+        assertThat(err.toString("UTF-8")).contains("Removed a.NonCohesive");
+    }
+
+    @Test
+    public void removeClassesInDeletedDirectory() throws IOException {
+        //given
+        Files.delete(cohesive);
+        Files.delete(nonCohesive);
+        Files.delete(cohesive.getParent());
+        //when
+        session.analyse(Collections.singletonList(cohesive.getParent()));
+        //then
+        assertThat(session.getIndex()
+                          .size()).isZero();
+        assertThat(err.toString("UTF-8")).contains("Removed a.Cohesive", "Removed a.NonCohesive");
+    }
+
+    @Test
+    public void removeClassesMissingFromCompleteBatch() throws IOException {
+        //when
+        session.analyse(new ClassWatch.Changes(Collections.singleton(cohesive), true));
+        //then
+        assertThat(session.getIndex()
+                          .size()).isEqualTo(1);
+        assertThat(err.toString("UTF-8")).contains("Removed a.NonCohesive")
+                                         .doesNotContain("Removed a.Cohesive");
+    }
+
+    @Test
+    public void keepClassesMissingFromPartialBatch() {
+        //when
+        session.analyse(new ClassWatch.Changes(Collections.singleton(cohesive), false));
+        //then
+        assertThat(session.getIndex()
+                          .size()).isEqualTo(2);
+    }
+
+    @Test
+    public void ignoreOtherFiles() {
+        //when
+        final RunSummary summary = session.analyse(Collections.singletonList(root.resolve("a/readme.txt")));
+        //then
+        assertThat(summary.getAnalysed()).isZero();
+        assertThat(session.getIndex()
+                          .size()).isEqualTo(2);
+    }
+}
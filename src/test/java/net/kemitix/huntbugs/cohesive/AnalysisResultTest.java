@@ -0,0 +1,110 @@
+package net.kemitix.huntbugs.cohesive;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AnalysisResult}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class AnalysisResultTest {
+
+    private final AnalysisResult result = new AnalysisResult();
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void deferredNonBeanMethodsAreNotComputedUntilRead() {
+        //given
+        result.deferNonBeanMethods(() -> {
+            calls.incrementAndGet();
+            return Collections.singleton("a()V");
+        });
+        //when
+        result.getComponents();
+        //then
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    public void deferredNonBeanMethodsAreComputedOnce() {
+        //given
+        result.deferNonBeanMethods(() -> {
+            calls.incrementAndGet();
+            return Collections.singleton("a()V");
+        });
+        //when
+        result.getNonBeanMethods();
+        //then
+        assertThat(result.getNonBeanMethods()).containsExactly("a()V");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    public void deferredComponentsAreComputedOnce() {
+        //given
+        final Component component = Component.from(Collections.singleton("a()V"));
+        result.deferComponents(() -> {
+            calls.incrementAndGet();
+            return Collections.singleton(component);
+        });
+        //when
+        result.getComponents();
+        //then
+        assertThat(result.getComponents()).containsExactly(component);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    public void addingResolvesDeferredItems() {
+        //given
+        result.deferNonBeanMethods(() -> Collections.singleton("a()V"));
+        //when
+        result.addNonBeanMethods(Collections.singleton("b()V"));
+        //then
+        assertThat(result.getNonBeanMethods()).containsOnly("a()V", "b()V");
+    }
+
+    @Test
+    public void metricsAreNoneUntilSet() {
+        assertThat(result.getMetrics()).isEqualTo(CohesionMetrics.NONE);
+    }
+
+    @Test
+    public void deferredMetricsAreComputedOnce() {
+        //given
+        final CohesionMetrics metrics = new CohesionMetrics(1, 1, 2, 2, 0.0, 0.0);
+        result.deferMetrics(() -> {
+            calls.incrementAndGet();
+            return metrics;
+        });
+        //when
+        result.getMetrics();
+        //then
+        assertThat(result.getMetrics()).isEqualTo(metrics);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    public void resolvedCopyHasEveryDeferredPart() {
+        //given
+        final Component component = Component.from(Collections.singleton("a()V"));
+        final CohesionMetrics metrics = new CohesionMetrics(1, 1, 2, 2, 0.0, 0.0);
+        result.addNonBeanMethods(Collections.singleton("b()V"));
+        result.deferNonBeanMethods(() -> Collections.singleton("a()V"));
+        result.deferComponents(() -> Collections.singleton(component));
+        result.deferMetrics(() -> metrics);
+        //when
+        final AnalysisResult resolved = result.resolved();
+        //then
+        assertThat(resolved).isNotSameAs(result);
+        assertThat(resolved.getNonBeanMethods()).containsExactlyInAnyOrder("a()V", "b()V");
+        assertThat(resolved.getComponents()).containsExactly(component);
+        assertThat(resolved.getMetrics()).isEqualTo(metrics);
+    }
+}
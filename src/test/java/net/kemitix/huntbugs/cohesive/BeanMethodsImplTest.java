@@ -161,4 +161,57 @@ public class BeanMethodsImplTest {
         assertThatNullPointerException().isThrownBy(action)
                                         .withMessage("fields");
     }
+
+    @Test
+    public void indexIdentifiesAccessors() {
+        //given
+        fields.add("name");
+        //when
+        final BeanMethodIndex index = beanMethods.index(fields);
+        //then
+        assertThat(index.isNotBeanMethod("getName()Ljava/lang/String;")).isFalse();
+        assertThat(index.isNotBeanMethod("isName()Ljava/lang/Boolean;")).isFalse();
+        assertThat(index.isNotBeanMethod("isName()Z")).isFalse();
+        assertThat(index.isNotBeanMethod("setName(Ljava/lang/String;)V")).isFalse();
+    }
+
+    @Test
+    public void indexIdentifiesNonAccessors() {
+        //given
+        fields.add("name");
+        //when
+        final BeanMethodIndex index = beanMethods.index(fields);
+        //then
+        assertThat(index.isNotBeanMethod("name")).isTrue();
+        assertThat(index.isNotBeanMethod("getOther()Ljava/lang/String;")).isTrue();
+        assertThat(index.isNotBeanMethod("getName(I)Ljava/lang/String;")).isTrue();
+        assertThat(index.isNotBeanMethod("isName()I")).isTrue();
+        assertThat(index.isNotBeanMethod("setName()V")).isTrue();
+        assertThat(index.isNotBeanMethod("setName(I)I")).isTrue();
+    }
+
+    @Test
+    public void indexAgreesWithFieldScan() {
+        //given
+        fields.add("name");
+        fields.add("count");
+        final BeanMethodIndex index = beanMethods.index(fields);
+        final String[] methods = {
+                "getName()Ljava/lang/String;", "getCount()I", "isCount()Z", "setCount(I)V", "setCount()V",
+                "getname()", "isname()z", "increment()V", "getOther()I", "count"
+        };
+        for (final String method : methods) {
+            //then
+            assertThat(index.isNotBeanMethod(method)).as(method)
+                                                     .isEqualTo(beanMethods.isNotBeanMethod(method, fields));
+        }
+    }
+
+    @Test
+    public void mayBeBeanMethodWhenNamedLikeAnAccessor() {
+        assertThat(beanMethods.mayBeBeanMethod("getName()I")).isTrue();
+        assertThat(beanMethods.mayBeBeanMethod("isName()Z")).isTrue();
+        assertThat(beanMethods.mayBeBeanMethod("setName(I)V")).isTrue();
+        assertThat(beanMethods.mayBeBeanMethod("increment()V")).isFalse();
+    }
 }
@@ -0,0 +1,76 @@
+package net.kemitix.huntbugs.cohesive;
+
+import com.strobel.assembler.metadata.MemberReference;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link CachingMethodSignature}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class CachingMethodSignatureTest {
+
+    @Mock
+    private MemberReference memberReference;
+
+    @Mock
+    private MemberReference otherReference;
+
+    private MethodSignature methodSignature;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        methodSignature = new CachingMethodSignature(new SignaturePool(100));
+        given(memberReference.getName()).willReturn("name");
+        given(memberReference.getSignature()).willReturn("()V");
+        given(otherReference.getName()).willReturn("name");
+        given(otherReference.getSignature()).willReturn("()V");
+    }
+
+    @Test
+    public void canCreateSignature() {
+        assertThat(methodSignature.create(memberReference)).isEqualTo("name()V");
+    }
+
+    @Test
+    public void equalSignaturesShareAnInstance() {
+        //when
+        final String first = methodSignature.create(memberReference);
+        final String second = methodSignature.forClass()
+                                              .create(otherReference);
+        //then
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    public void classSignatureIsRememberedForEachReference() {
+        //given
+        final MethodSignature classMethodSignature = methodSignature.forClass();
+        //when
+        classMethodSignature.create(memberReference);
+        classMethodSignature.create(memberReference);
+        classMethodSignature.create(memberReference);
+        //then
+        verify(memberReference, times(1)).getName();
+    }
+
+    @Test
+    public void eachClassHasItsOwnSignatures() {
+        //when
+        methodSignature.forClass()
+                       .create(memberReference);
+        methodSignature.forClass()
+                       .create(memberReference);
+        //then
+        verify(memberReference, times(2)).getName();
+    }
+}
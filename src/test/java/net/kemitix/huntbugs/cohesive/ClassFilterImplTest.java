@@ -0,0 +1,94 @@
+package net.kemitix.huntbugs.cohesive;
+
+import com.strobel.assembler.metadata.ClasspathTypeLoader;
+import com.strobel.assembler.metadata.MetadataSystem;
+import com.strobel.assembler.metadata.TypeDefinition;
+import net.kemitix.huntbugs.testdata.TestNonCohesive;
+import org.junit.Test;
+
+import java.lang.annotation.Retention;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ClassFilterImpl}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class ClassFilterImplTest {
+
+    private final MetadataSystem metadataSystem = new MetadataSystem(new ClasspathTypeLoader());
+
+    private final ClassFilter classFilter = new ClassFilterImpl();
+
+    private boolean isTriviallyCohesive(final Class<?> type) {
+        final TypeDefinition typeDefinition = metadataSystem.lookupType(type.getName()
+                                                                            .replace('.', '/'))
+                                                            .resolve();
+        return classFilter.isTriviallyCohesive(typeDefinition);
+    }
+
+    @Test
+    public void annotationIsTriviallyCohesive() {
+        assertThat(isTriviallyCohesive(Retention.class)).isTrue();
+    }
+
+    @Test
+    public void interfaceWithoutDefaultMethodsIsTriviallyCohesive() {
+        assertThat(isTriviallyCohesive(Runnable.class)).isTrue();
+    }
+
+    @Test
+    public void enumWithoutMethodsIsTriviallyCohesive() {
+        assertThat(isTriviallyCohesive(Stateless.class)).isTrue();
+    }
+
+    @Test
+    public void enumWithMethodsIsNotTriviallyCohesive() {
+        assertThat(isTriviallyCohesive(Stateful.class)).isFalse();
+    }
+
+    @Test
+    public void classWithOneMethodIsTriviallyCohesive() {
+        assertThat(isTriviallyCohesive(SingleMethod.class)).isTrue();
+    }
+
+    @Test
+    public void classWithManyMethodsIsNotTriviallyCohesive() {
+        assertThat(isTriviallyCohesive(TestNonCohesive.class)).isFalse();
+    }
+
+    private enum Stateless {
+        FIRST, SECOND
+    }
+
+    private enum Stateful {
+        FIRST, SECOND;
+
+        private int count;
+
+        int count() {
+            return count;
+        }
+
+        void increment() {
+            count++;
+        }
+    }
+
+    private static class SingleMethod {
+
+        private final String left;
+
+        private final String right;
+
+        SingleMethod(final String left, final String right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        String join() {
+            return left + right;
+        }
+    }
+}
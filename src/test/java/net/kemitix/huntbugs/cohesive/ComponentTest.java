@@ -0,0 +1,82 @@
+package net.kemitix.huntbugs.cohesive;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link Component}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class ComponentTest {
+
+    private final Component component = Component.from(Arrays.asList("field", "b()V", "a()V", "a()V", "other"));
+
+    @Test
+    public void membersAreHeldOnceInOrder() {
+        assertThat(component.getMembers()).containsExactly("a()V", "b()V", "field", "other");
+    }
+
+    @Test
+    public void splitMethodsFromFields() {
+        assertThat(component.methods()).containsExactly("a()V", "b()V");
+        assertThat(component.fields()).containsExactly("field", "other");
+        assertThat(component.methods()
+                            .contains("field")).isFalse();
+        assertThat(component.fields()
+                            .contains("field")).isTrue();
+    }
+
+    @Test
+    public void membersCanNotBeChanged() {
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> component.getMembers()
+                                                                                                  .add("c()V"));
+    }
+
+    @Test
+    public void componentsWithTheSameMembersAreEqual() {
+        //given
+        final Component same = Component.from(new HashSet<>(Arrays.asList("other", "a()V", "field", "b()V")));
+        //then
+        assertThat(same).isEqualTo(component)
+                        .hasSameHashCodeAs(component);
+        assertThat(Component.from(Collections.singleton("a()V"))).isNotEqualTo(component);
+    }
+
+    @Test
+    public void equalComponentsAreDeduplicated() {
+        //given
+        final Set<Component> components = new HashSet<>();
+        //when
+        components.add(Component.from(Collections.emptyList()));
+        components.add(Component.from(Collections.emptyList()));
+        //then
+        assertThat(components).hasSize(1);
+    }
+
+    @Test
+    public void unionMergesMembersInOrder() {
+        //given
+        final Component other = Component.from(Arrays.asList("c()V", "field", "another"));
+        //when
+        final Component union = component.union(other);
+        //then
+        assertThat(union.getMembers()).containsExactly("a()V", "b()V", "c()V", "another", "field", "other");
+        assertThat(union.methods()).containsExactly("a()V", "b()V", "c()V");
+        assertThat(component.getMembers()).doesNotContain("c()V");
+    }
+
+    @Test
+    public void overlapsWhenAnyMemberIsShared() {
+        assertThat(component.overlaps(Component.from(Arrays.asList("c()V", "other")))).isTrue();
+        assertThat(component.overlaps(Component.from(Arrays.asList("c()V", "another")))).isFalse();
+        assertThat(component.overlaps(Component.from(Collections.emptyList()))).isFalse();
+    }
+}
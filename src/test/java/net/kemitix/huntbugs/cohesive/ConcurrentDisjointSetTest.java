@@ -0,0 +1,60 @@
+package net.kemitix.huntbugs.cohesive;
+
+import org.junit.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ConcurrentDisjointSet}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class ConcurrentDisjointSetTest {
+
+    private final ConcurrentDisjointSet disjointSet = new ConcurrentDisjointSet(6);
+
+    @Test
+    public void eachMemberStartsInItsOwnSet() {
+        for (int i = 0; i < disjointSet.size(); i++) {
+            assertThat(disjointSet.find(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void unionMergesSets() {
+        //when
+        final boolean result = disjointSet.union(1, 0);
+        //then
+        assertThat(result).isTrue();
+        assertThat(disjointSet.find(0)).isEqualTo(disjointSet.find(1));
+        assertThat(disjointSet.find(2)).isNotEqualTo(disjointSet.find(0));
+    }
+
+    @Test
+    public void unionOfSameSetIsIgnored() {
+        //given
+        disjointSet.union(0, 1);
+        disjointSet.union(1, 2);
+        //when
+        final boolean result = disjointSet.union(2, 0);
+        //then
+        assertThat(result).isFalse();
+    }
+
+    @Test
+    public void unionsFromManyThreadsMergeTransitively() {
+        //given
+        final int size = 100_000;
+        final ConcurrentDisjointSet large = new ConcurrentDisjointSet(size);
+        //when
+        IntStream.range(2, size)
+                 .parallel()
+                 .forEach(i -> large.union(i, i - 2));
+        //then
+        assertThat(IntStream.range(0, size)
+                            .map(large::find)
+                            .distinct()).containsExactlyInAnyOrder(0, 1);
+    }
+}
@@ -106,8 +106,10 @@ public class DefaultAnalyserTest {
 
     @Test
     public void requiresNonNullUseByMethod() {
+        //given
+        final Map<String, Set<String>> usedByMethod = null;
         //when
-        final ThrowableAssert.ThrowingCallable action = () -> analyser.analyse(null, nonPrivateMethods, fields);
+        final ThrowableAssert.ThrowingCallable action = () -> analyser.analyse(usedByMethod, nonPrivateMethods, fields);
         //then
         assertThatNullPointerException().isThrownBy(action)
                                         .withMessage("usedByMethod");
@@ -0,0 +1,61 @@
+package net.kemitix.huntbugs.cohesive;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DisjointSet}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class DisjointSetTest {
+
+    private DisjointSet disjointSet;
+
+    @Before
+    public void setUp() {
+        disjointSet = new DisjointSet(6);
+    }
+
+    @Test
+    public void eachMemberStartsInItsOwnSet() {
+        for (int i = 0; i < disjointSet.size(); i++) {
+            assertThat(disjointSet.find(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void unionMergesSets() {
+        //when
+        final boolean result = disjointSet.union(0, 1);
+        //then
+        assertThat(result).isTrue();
+        assertThat(disjointSet.find(0)).isEqualTo(disjointSet.find(1));
+        assertThat(disjointSet.find(2)).isNotEqualTo(disjointSet.find(0));
+    }
+
+    @Test
+    public void unionOfSameSetIsIgnored() {
+        //given
+        disjointSet.union(0, 1);
+        //when
+        final boolean result = disjointSet.union(1, 0);
+        //then
+        assertThat(result).isFalse();
+    }
+
+    @Test
+    public void unionIsTransitive() {
+        //given
+        disjointSet.union(0, 1);
+        disjointSet.union(2, 3);
+        //when
+        disjointSet.union(1, 3);
+        //then
+        assertThat(disjointSet.find(0)).isEqualTo(disjointSet.find(2));
+        assertThat(disjointSet.find(4)).isNotEqualTo(disjointSet.find(0));
+        assertThat(disjointSet.find(5)).isNotEqualTo(disjointSet.find(4));
+    }
+}
@@ -60,6 +60,42 @@ public class MethodDefinitionWrapperImplTest {
         assertThat(result).isTrue();
     }
 
+    @Test
+    public void canTestIsNotTypeInitializer() {
+        //when
+        final boolean result = wrapper.isTypeInitializer(methodDefinition);
+        //then
+        assertThat(result).isFalse();
+    }
+
+    @Test
+    public void canTestIsTypeInitializer() {
+        //given
+        methodDefinition.setAsTypeInitializer();
+        //when
+        final boolean result = wrapper.isTypeInitializer(methodDefinition);
+        //then
+        assertThat(result).isTrue();
+    }
+
+    @Test
+    public void canTestIsNotBridgeMethod() {
+        //when
+        final boolean result = wrapper.isBridgeMethod(methodDefinition);
+        //then
+        assertThat(result).isFalse();
+    }
+
+    @Test
+    public void canTestIsBridgeMethod() {
+        //given
+        methodDefinition.setAsBridgeMethod();
+        //when
+        final boolean result = wrapper.isBridgeMethod(methodDefinition);
+        //then
+        assertThat(result).isTrue();
+    }
+
     private class MyMethodDefinition extends MethodDefinition {
 
         void setAsConstructor() {
@@ -69,5 +105,13 @@ public class MethodDefinitionWrapperImplTest {
         void setAsPrivate() {
             setFlags(Flags.PRIVATE);
         }
+
+        void setAsTypeInitializer() {
+            setName(STATIC_INITIALIZER_NAME);
+        }
+
+        void setAsBridgeMethod() {
+            setFlags(Flags.BRIDGE | Flags.SYNTHETIC);
+        }
     }
 }
@@ -35,6 +35,15 @@ public class MethodFilterImplTest {
     @Mock
     private MethodDefinition nonPrivateMethod;
 
+    @Mock
+    private MethodDefinition typeInitializer;
+
+    @Mock
+    private MethodDefinition bridgeMethod;
+
+    @Mock
+    private MethodDefinition beanMethod;
+
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
@@ -43,6 +52,8 @@ public class MethodFilterImplTest {
         given(methodDefinitionWrapper.isConstructor(nonConstructor)).willReturn(false);
         given(methodDefinitionWrapper.isPrivate(privateMethod)).willReturn(true);
         given(methodDefinitionWrapper.isPrivate(nonPrivateMethod)).willReturn(false);
+        given(methodDefinitionWrapper.isTypeInitializer(typeInitializer)).willReturn(true);
+        given(methodDefinitionWrapper.isBridgeMethod(bridgeMethod)).willReturn(true);
     }
 
     @Test
@@ -100,4 +111,33 @@ public class MethodFilterImplTest {
     private Predicate<? super MethodDefinition> isNotPrivate() {
         return methodFilter.isPrivate(false);
     }
+
+    private Predicate<? super MethodDefinition> contributesUsages() {
+        return methodFilter.contributesUsages();
+    }
+
+    @Test
+    public void contributesUsagesReturnsTrueForOtherMethods() {
+        assertThat(contributesUsages().test(nonConstructor)).isTrue();
+    }
+
+    @Test
+    public void contributesUsagesReturnsFalseForConstructor() {
+        assertThat(contributesUsages().test(constructor)).isFalse();
+    }
+
+    @Test
+    public void contributesUsagesReturnsFalseForTypeInitializer() {
+        assertThat(contributesUsages().test(typeInitializer)).isFalse();
+    }
+
+    @Test
+    public void contributesUsagesReturnsFalseForBridgeMethod() {
+        assertThat(contributesUsages().test(bridgeMethod)).isFalse();
+    }
+
+    @Test
+    public void contributesUsagesReturnsTrueForMethodNamedAsBeanMethod() {
+        assertThat(contributesUsages().test(beanMethod)).isTrue();
+    }
 }
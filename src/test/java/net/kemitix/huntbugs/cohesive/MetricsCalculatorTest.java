@@ -0,0 +1,117 @@
+package net.kemitix.huntbugs.cohesive;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for {@link MetricsCalculator}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class MetricsCalculatorTest {
+
+    private final UsageGraph usageGraph = new UsageGraph();
+
+    private final Set<String> nonPrivateMethods = new HashSet<>();
+
+    private final Set<String> fields = new HashSet<>();
+
+    private final BeanMethodIndex beanMethodIndex = method -> !method.startsWith("get");
+
+    private void uses(final String method, final String... members) {
+        usageGraph.addMethod(method);
+        for (final String member : members) {
+            usageGraph.addUsage(method, member);
+        }
+    }
+
+    private CohesionMetrics measure(final int componentCount) {
+        return MetricsCalculator.measure(usageGraph, nonPrivateMethods, fields, beanMethodIndex, componentCount);
+    }
+
+    @Before
+    public void setUp() {
+        fields.addAll(Arrays.asList("counter", "left", "right"));
+    }
+
+    @Test
+    public void classWithoutMethodsHasNoMetrics() {
+        assertThat(measure(0)).isEqualTo(CohesionMetrics.NONE);
+    }
+
+    @Test
+    public void methodsSharingFieldsAreCohesive() {
+        //given
+        uses("counter()I", "counter");
+        uses("increment()V", "counter");
+        //when
+        final CohesionMetrics metrics = measure(1);
+        //then
+        assertThat(metrics).isEqualTo(new CohesionMetrics(0, 0, 1, 1, 1, 1));
+    }
+
+    @Test
+    public void measureAllMetricsFromOneGraph() {
+        //given
+        uses("counter()I", "counter");
+        uses("increment()V", "counter");
+        uses("format()Ljava/lang/String;", "left", "right");
+        uses("hello()Ljava/lang/String;", "format()Ljava/lang/String;");
+        uses("getLeft()Ljava/lang/String;", "left");
+        nonPrivateMethods.add("noop()V");
+        //when
+        final CohesionMetrics metrics = measure(2);
+        //then
+        assertThat(metrics.getLcom1()).isEqualTo(9);
+        assertThat(metrics.getLcom2()).isEqualTo(8);
+        assertThat(metrics.getLcom3()).isEqualTo(4);
+        assertThat(metrics.getLcom4()).isEqualTo(2);
+        assertThat(metrics.getTcc()).isCloseTo(0.2, within(1e-9));
+        assertThat(metrics.getLcc()).isCloseTo(0.2, within(1e-9));
+    }
+
+    @Test
+    public void looseCohesionFollowsChainsOfSharedFields() {
+        //given
+        uses("a()V", "counter");
+        uses("b()V", "counter", "left");
+        uses("c()V", "left");
+        //when
+        final CohesionMetrics metrics = measure(1);
+        //then
+        assertThat(metrics.getTcc()).isCloseTo(2.0 / 3, within(1e-9));
+        assertThat(metrics.getLcc()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void callsToBeanMethodsCarryTheirFields() {
+        //given
+        uses("a()V", "getLeft()Ljava/lang/String;");
+        uses("b()V", "left");
+        uses("getLeft()Ljava/lang/String;", "left");
+        //when
+        final CohesionMetrics metrics = measure(1);
+        //then
+        assertThat(metrics.getLcom1()).isEqualTo(1);
+        assertThat(metrics.getTcc()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void ignoreMembersThatAreNotFieldsOrMethods() {
+        //given
+        fields.clear();
+        uses("a()V", "other");
+        nonPrivateMethods.add("a()V");
+        //when
+        final CohesionMetrics metrics = measure(1);
+        //then
+        assertThat(metrics.getLcom3()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,135 @@
+package net.kemitix.huntbugs.cohesive;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link OnlineUsageRecorder}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class OnlineUsageRecorderTest {
+
+    private final Map<String, Set<String>> usedByMethod = new HashMap<>();
+
+    private final Set<String> fields = new HashSet<>();
+
+    private final Set<String> nonPrivateMethods = new HashSet<>();
+
+    private BeanMethods beanMethods;
+
+    private UsageRecorder online;
+
+    private UsageRecorder unmeasured;
+
+    private UsageRecorder deferred;
+
+    @Before
+    public void setUp() {
+        beanMethods = BeanMethods.defaultInstance(MethodSignature.defaultInstance());
+        online = UsageRecorder.online(beanMethods, true);
+        unmeasured = UsageRecorder.online(beanMethods, false);
+        deferred = UsageRecorder.deferred(new UsageGraph(), Analyser.unionFindInstance(beanMethods));
+    }
+
+    private void uses(final String method, final String... used) {
+        Arrays.stream(used)
+              .forEach(member -> {
+                  online.addUsage(method, member);
+                  unmeasured.addUsage(method, member);
+                  deferred.addUsage(method, member);
+                  usedByMethod.computeIfAbsent(method, m -> new HashSet<>())
+                              .add(member);
+              });
+    }
+
+    private AnalysisResult analyse(final UsageRecorder recorder) {
+        return recorder.analyse(nonPrivateMethods, fields, beanMethods.index(fields));
+    }
+
+    private List<Set<String>> components(final UsageRecorder recorder) {
+        return analyse(recorder)
+                       .getComponents()
+                       .stream()
+                       .map(Component::getMembers)
+                       .collect(Collectors.toList());
+    }
+
+    @Test
+    public void matchesDeferredAnalysis() {
+        //given
+        fields.addAll(Arrays.asList("name", "count", "other"));
+        nonPrivateMethods.addAll(Arrays.asList("getname()Ljava/lang/String;", "increment()V", "report()V"));
+        uses("getname()Ljava/lang/String;", "name");
+        uses("setname(Ljava/lang/String;)V", "name");
+        uses("increment()V", "count");
+        uses("report()V", "other", "format()Ljava/lang/String;");
+        uses("format()Ljava/lang/String;", "name");
+        //when
+        final List<Set<String>> result = components(online);
+        //then
+        assertThat(result).containsExactlyInAnyOrderElementsOf(components(deferred));
+        assertThat(result).hasSize(2);
+    }
+
+    @Test
+    public void accessorNamedMethodThatIsNotABeanMethodIsMerged() {
+        //given
+        fields.addAll(Arrays.asList("left", "right"));
+        uses("getleft()Ljava/lang/String;", "right", "other()V");
+        uses("other()V", "left");
+        //when
+        final List<Set<String>> result = components(online);
+        //then
+        assertThat(result).containsExactlyInAnyOrderElementsOf(components(deferred));
+        assertThat(result).hasSize(1);
+    }
+
+    @Test
+    public void clearRemovesAllUsages() {
+        //given
+        uses("a()V", "x");
+        //when
+        online.clear();
+        //then
+        assertThat(components(online)).isEmpty();
+    }
+
+    @Test
+    public void measuredMatchesDeferredMetrics() {
+        //given
+        fields.addAll(Arrays.asList("name", "count"));
+        nonPrivateMethods.addAll(Arrays.asList("increment()V", "report()V"));
+        uses("increment()V", "count");
+        uses("report()V", "name");
+        //when
+        final CohesionMetrics result = analyse(online).getMetrics();
+        //then
+        assertThat(result).isEqualTo(analyse(deferred).getMetrics());
+        assertThat(result).isNotEqualTo(CohesionMetrics.NONE);
+    }
+
+    @Test
+    public void unmeasuredFindsComponentsWithoutMetrics() {
+        //given
+        fields.addAll(Arrays.asList("name", "count"));
+        nonPrivateMethods.addAll(Arrays.asList("increment()V", "report()V"));
+        uses("increment()V", "count");
+        uses("report()V", "name");
+        //when
+        final AnalysisResult result = analyse(unmeasured);
+        //then
+        assertThat(components(unmeasured)).containsExactlyInAnyOrderElementsOf(components(deferred));
+        assertThat(result.getMetrics()).isEqualTo(CohesionMetrics.NONE);
+    }
+}
@@ -0,0 +1,109 @@
+package net.kemitix.huntbugs.cohesive;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ParallelUnionFindAnalyser}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class ParallelUnionFindAnalyserTest {
+
+    private static final int GROUPS = 7;
+
+    private final BeanMethods beanMethods = BeanMethods.defaultInstance(MethodSignature.defaultInstance());
+
+    private final Map<String, Set<String>> usedByMethod = new HashMap<>();
+
+    private final Set<String> nonPrivateMethods = new HashSet<>();
+
+    private final Set<String> fields = new HashSet<>();
+
+    /**
+     * A large class of methods in groups, each method using its group's field and calling the previous method of its
+     * group, with a getter for each field and a constructor that joins the first two groups.
+     */
+    private void largeClass() {
+        for (int group = 0; group < GROUPS; group++) {
+            final String field = "field" + group;
+            fields.add(field);
+            final String getter = "getField" + group + "()I";
+            nonPrivateMethods.add(getter);
+            usedByMethod.put(getter, setOf(field));
+        }
+        for (int i = 0; i < 5_000; i++) {
+            final int group = i % GROUPS;
+            final String method = "method" + i + "()V";
+            final Set<String> used = setOf("field" + group);
+            if (i >= GROUPS) {
+                used.add("method" + (i - GROUPS) + "()V");
+            }
+            if (i % 3 == 0) {
+                used.add("getField" + group + "()I");
+            }
+            nonPrivateMethods.add(method);
+            usedByMethod.put(method, used);
+        }
+        nonPrivateMethods.add("(I)V");
+        usedByMethod.put("(I)V", setOf("field0", "field1"));
+    }
+
+    private static Set<String> setOf(final String... values) {
+        final Set<String> set = new HashSet<>();
+        for (final String value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    private AnalysisResult analyse(final Analyser analyser) {
+        return analyser.analyse(UsageGraph.from(usedByMethod), nonPrivateMethods, fields);
+    }
+
+    @Test
+    public void findSameComponentsInParallelAsSequentially() {
+        //given
+        largeClass();
+        //when
+        final AnalysisResult parallel = analyse(new ParallelUnionFindAnalyser(beanMethods, 0));
+        //then
+        final AnalysisResult sequential = analyse(new UnionFindAnalyser(beanMethods));
+        assertThat(parallel.getComponents()).hasSize(GROUPS - 1)
+                                            .isEqualTo(sequential.getComponents());
+        assertThat(parallel.getNonBeanMethods()).isEqualTo(sequential.getNonBeanMethods());
+    }
+
+    @Test
+    public void findSameComponentsAsDefaultAnalyser() {
+        //given
+        largeClass();
+        usedByMethod.remove("(I)V");
+        nonPrivateMethods.remove("(I)V");
+        //when
+        final AnalysisResult parallel = analyse(new ParallelUnionFindAnalyser(beanMethods, 0));
+        //then
+        final AnalysisResult expected = Analyser.defaultInstance(beanMethods)
+                                                .analyse(usedByMethod, nonPrivateMethods, fields);
+        assertThat(parallel.getComponents()).isEqualTo(expected.getComponents());
+    }
+
+    @Test
+    public void analyseSmallClassSequentially() {
+        //given
+        usedByMethod.put("a()V", setOf("field"));
+        usedByMethod.put("b()V", setOf("other"));
+        fields.add("field");
+        fields.add("other");
+        //when
+        final AnalysisResult result = analyse(new ParallelUnionFindAnalyser(beanMethods, Integer.MAX_VALUE));
+        //then
+        assertThat(result.getComponents()).hasSize(2);
+    }
+}
@@ -0,0 +1,36 @@
+package net.kemitix.huntbugs.cohesive;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SignaturePool}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class SignaturePoolTest {
+
+    @Test
+    public void returnsPooledInstance() {
+        //given
+        final SignaturePool pool = new SignaturePool(10);
+        final String first = pool.intern(new String("a()V"));
+        //when
+        final String result = pool.intern(new String("a()V"));
+        //then
+        assertThat(result).isSameAs(first);
+    }
+
+    @Test
+    public void sizeIsBounded() {
+        //given
+        final SignaturePool pool = new SignaturePool(10);
+        //when
+        for (int i = 0; i < 100; i++) {
+            pool.intern("method" + i + "()V");
+        }
+        //then
+        assertThat(pool.size()).isLessThanOrEqualTo(10);
+    }
+}
@@ -0,0 +1,78 @@
+package net.kemitix.huntbugs.cohesive;
+
+import org.assertj.core.api.ThrowableAssert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link SymbolTable}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class SymbolTableTest {
+
+    private SymbolTable symbolTable;
+
+    @Before
+    public void setUp() {
+        symbolTable = new SymbolTable();
+    }
+
+    @Test
+    public void allocatesDenseIdsInOrder() {
+        assertThat(symbolTable.intern("a")).isEqualTo(0);
+        assertThat(symbolTable.intern("b()V")).isEqualTo(1);
+        assertThat(symbolTable.intern("c")).isEqualTo(2);
+        assertThat(symbolTable.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void internReturnsExistingId() {
+        //given
+        final int id = symbolTable.intern("field");
+        //then
+        assertThat(symbolTable.intern(new String("field"))).isEqualTo(id);
+        assertThat(symbolTable.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void idOfUnknownSymbolIsNegative() {
+        assertThat(symbolTable.idOf("unknown")).isEqualTo(-1);
+    }
+
+    @Test
+    public void canLookUpManySymbols() {
+        //given
+        for (int i = 0; i < 5000; i++) {
+            symbolTable.intern("member" + i);
+        }
+        //then
+        for (int i = 0; i < 5000; i++) {
+            assertThat(symbolTable.idOf("member" + i)).isEqualTo(i);
+            assertThat(symbolTable.symbol(i)).isEqualTo("member" + i);
+        }
+    }
+
+    @Test
+    public void clearRemovesAllSymbols() {
+        //given
+        symbolTable.intern("a");
+        //when
+        symbolTable.clear();
+        //then
+        assertThat(symbolTable.size()).isZero();
+        assertThat(symbolTable.idOf("a")).isEqualTo(-1);
+        assertThat(symbolTable.intern("b")).isEqualTo(0);
+    }
+
+    @Test
+    public void symbolOutOfRangeIsRejected() {
+        //when
+        final ThrowableAssert.ThrowingCallable action = () -> symbolTable.symbol(0);
+        //then
+        assertThatThrownBy(action).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -0,0 +1,41 @@
+package net.kemitix.huntbugs.cohesive;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TextBreakdownFormatter}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class TextBreakdownFormatterTest {
+
+    private final BreakdownFormatter formatter = BreakdownFormatter.textInstance();
+
+    @Test
+    public void listMethodsOfEachComponentInOrder() {
+        //given
+        final Component first = Component.from(Arrays.asList("b()V", "a()V", "field"));
+        final Component second = Component.from(Arrays.asList("c()V", "other"));
+        //when
+        final String breakdown = formatter.apply(new HashSet<>(Arrays.asList(second, first)));
+        //then
+        assertThat(breakdown).isEqualTo("#1: a()V, b()V; #2: c()V");
+    }
+
+    @Test
+    public void componentWithoutMethodsIsListedFirst() {
+        //when
+        final String breakdown = formatter.apply(new HashSet<>(Arrays.asList(Component.from(Arrays.asList("a()V")),
+                                                                             Component.from(Collections.singleton(
+                                                                                     "field"))
+                                                                            )));
+        //then
+        assertThat(breakdown).isEqualTo("#1: ; #2: a()V");
+    }
+}
@@ -0,0 +1,200 @@
+package net.kemitix.huntbugs.cohesive;
+
+import org.assertj.core.api.ThrowableAssert;
+import org.assertj.core.util.Sets;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+/**
+ * Tests for {@link UnionFindAnalyser}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class UnionFindAnalyserTest {
+
+    private Analyser analyser;
+
+    private Map<String, Set<String>> usedByMethod;
+
+    private Set<String> nonPrivateMethods;
+
+    private AnalysisResult analysisResult;
+
+    private Set<String> fields = new HashSet<>();
+
+    @Mock
+    private BeanMethods beanMethods;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        usedByMethod = new HashMap<>();
+        nonPrivateMethods = new HashSet<>();
+        analyser = new UnionFindAnalyser(beanMethods);
+        given(beanMethods.isNotBeanMethod(any(String.class), any())).willReturn(true);
+        given(beanMethods.index(any())).willAnswer(invocation -> {
+            final Set<String> classFields = invocation.getArgument(0);
+            return (BeanMethodIndex) m -> beanMethods.isNotBeanMethod(m, classFields);
+        });
+    }
+
+    private void hasNonPrivateMethod(
+            final String method, final boolean isBeanMethod, final Set<String> used
+                                    ) {
+        given(beanMethods.isNotBeanMethod(eq(method), any())).willReturn(!isBeanMethod);
+        nonPrivateMethods.add(method);
+        usedByMethod.put(method, used);
+    }
+
+    private HashSet<String> setOf(final String... values) {
+        return Sets.newHashSet(Arrays.asList(values));
+    }
+
+    private void performAnalysis() {
+        analysisResult = analyser.analyse(usedByMethod, nonPrivateMethods, fields);
+    }
+
+    private List<Set<String>> componentMembers() {
+        return analysisResult.getComponents()
+                             .stream()
+                             .map(Component::getMembers)
+                             .collect(Collectors.toList());
+    }
+
+    @Test
+    public void canDetectNonBeanMethods() {
+        //given
+        final String beanGetMethod = "java.lang.String getValue()";
+        hasNonPrivateMethod(beanGetMethod, true, setOf("value"));
+        final String nonBeanMethod = "void nonBean()";
+        hasNonPrivateMethod(nonBeanMethod, false, setOf("other"));
+        //when
+        performAnalysis();
+        //then
+        assertThat(analysisResult.getNonBeanMethods()).containsExactly(nonBeanMethod);
+    }
+
+    @Test
+    public void canDetectASingleComponentFromASingleMethodAndField() {
+        //given
+        final String method = "getValue()";
+        final String fieldName = "fieldName";
+        hasNonPrivateMethod(method, false, setOf(fieldName));
+        //when
+        performAnalysis();
+        //then
+        assertThat(componentMembers()).containsExactly(setOf(method, fieldName));
+    }
+
+    @Test
+    public void canDetectSeparateComponents() {
+        //given
+        hasNonPrivateMethod("a()", false, setOf("x"));
+        hasNonPrivateMethod("b()", false, setOf("y"));
+        //when
+        performAnalysis();
+        //then
+        assertThat(componentMembers()).containsExactlyInAnyOrder(setOf("a()", "x"), setOf("b()", "y"));
+    }
+
+    @Test
+    public void mergesComponentsTransitively() {
+        //given
+        hasNonPrivateMethod("a()", false, setOf("x"));
+        hasNonPrivateMethod("b()", false, setOf("y"));
+        hasNonPrivateMethod("c()", false, setOf("x", "y"));
+        //when
+        performAnalysis();
+        //then
+        assertThat(componentMembers()).containsExactly(setOf("a()", "b()", "c()", "x", "y"));
+    }
+
+    @Test
+    public void beanMethodsDoNotJoinComponents() {
+        //given
+        hasNonPrivateMethod("a()", false, setOf("x"));
+        hasNonPrivateMethod("b()", false, setOf("y"));
+        hasNonPrivateMethod("getXY()", true, setOf("x", "y"));
+        //when
+        performAnalysis();
+        //then
+        assertThat(componentMembers()).containsExactlyInAnyOrder(setOf("a()", "x"), setOf("b()", "y"));
+    }
+
+    @Test
+    public void requiresNonNullUseByMethod() {
+        //given
+        final Map<String, Set<String>> usedByMethod = null;
+        //when
+        final ThrowableAssert.ThrowingCallable action = () -> analyser.analyse(usedByMethod, nonPrivateMethods, fields);
+        //then
+        assertThatNullPointerException().isThrownBy(action)
+                                        .withMessage("usedByMethod");
+    }
+
+    @Test
+    public void requiresNonNullNonPrivateMethods() {
+        //when
+        final ThrowableAssert.ThrowingCallable action = () -> analyser.analyse(usedByMethod, null, fields);
+        //then
+        assertThatNullPointerException().isThrownBy(action)
+                                        .withMessage("nonPrivateMethods");
+    }
+
+    @Test
+    public void requiresNonNullFields() {
+        //when
+        final ThrowableAssert.ThrowingCallable action = () -> analyser.analyse(usedByMethod, nonPrivateMethods, null);
+        //when
+        assertThatNullPointerException().isThrownBy(action)
+                                        .withMessage("fields");
+    }
+
+    @Test
+    public void constructorIsIgnored() {
+        //given
+        final String constructor = "(v)v";
+        hasNonPrivateMethod(constructor, false, setOf());
+        //when
+        performAnalysis();
+        //then
+        final List<Component> components = new ArrayList<>(analysisResult.getComponents());
+        assertThat(components).hasSize(1);
+        assertThat(components.get(0)
+                             .getMembers()).isEmpty();
+    }
+
+    @Test
+    public void useBeanMethodIndexGivenByCaller() {
+        //given
+        hasNonPrivateMethod("a()", false, setOf("x"));
+        hasNonPrivateMethod("getX()", false, setOf("x"));
+        final BeanMethodIndex beanMethodIndex = m -> !m.equals("getX()");
+        //when
+        analysisResult = analyser.analyse(UsageGraph.from(usedByMethod), nonPrivateMethods, fields, beanMethodIndex);
+        //then
+        assertThat(componentMembers()).containsExactly(setOf("a()", "x"));
+        assertThat(analysisResult.getMetrics()).isNotNull();
+        then(beanMethods).should(never())
+                         .index(any());
+    }
+}
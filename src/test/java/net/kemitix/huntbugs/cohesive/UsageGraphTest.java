@@ -0,0 +1,104 @@
+package net.kemitix.huntbugs.cohesive;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link UsageGraph}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class UsageGraphTest {
+
+    private UsageGraph usageGraph;
+
+    @Before
+    public void setUp() {
+        usageGraph = new UsageGraph();
+    }
+
+    private Set<String> setOf(final String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+
+    @Test
+    public void recordsUsagesByMethod() {
+        //when
+        usageGraph.addUsage("a()V", "x");
+        usageGraph.addUsage("a()V", "b()V");
+        usageGraph.addUsage("b()V", "y");
+        //then
+        final Map<String, Set<String>> expected = new HashMap<>();
+        expected.put("a()V", setOf("x", "b()V"));
+        expected.put("b()V", setOf("y"));
+        assertThat(usageGraph.toMap()).isEqualTo(expected);
+    }
+
+    @Test
+    public void duplicateUsagesAreRemoved() {
+        //when
+        usageGraph.addUsage("a()V", "x");
+        usageGraph.addUsage("a()V", "y");
+        usageGraph.addUsage("a()V", "x");
+        //then
+        final int method = usageGraph.getSymbols()
+                                     .idOf("a()V");
+        assertThat(usageGraph.usedByCount(method)).isEqualTo(2);
+        assertThat(usageGraph.membersUsedBy(method)).containsExactlyInAnyOrder("x", "y");
+    }
+
+    @Test
+    public void usedMembersAreNotMethodsUnlessRecorded() {
+        //when
+        usageGraph.addUsage("a()V", "x");
+        //then
+        assertThat(usageGraph.isMethod(usageGraph.getSymbols()
+                                                 .idOf("x"))).isFalse();
+        assertThat(usageGraph.usedByCount(usageGraph.getSymbols()
+                                                    .idOf("x"))).isZero();
+    }
+
+    @Test
+    public void canBeCreatedFromMap() {
+        //given
+        final Map<String, Set<String>> usedByMethod = new HashMap<>();
+        usedByMethod.put("a()V", setOf("x"));
+        usedByMethod.put("b()V", setOf());
+        //when
+        final UsageGraph result = UsageGraph.from(usedByMethod);
+        //then
+        assertThat(result.toMap()).isEqualTo(usedByMethod);
+    }
+
+    @Test
+    public void usagesCanBeAddedAfterQuerying() {
+        //given
+        usageGraph.addUsage("a()V", "x");
+        final int method = usageGraph.getSymbols()
+                                     .idOf("a()V");
+        assertThat(usageGraph.usedByCount(method)).isEqualTo(1);
+        //when
+        usageGraph.addUsage("a()V", "y");
+        //then
+        assertThat(usageGraph.usedByCount(method)).isEqualTo(2);
+    }
+
+    @Test
+    public void clearRemovesAllUsages() {
+        //given
+        usageGraph.addUsage("a()V", "x");
+        //when
+        usageGraph.clear();
+        //then
+        assertThat(usageGraph.toMap()).isEmpty();
+        assertThat(usageGraph.getEdgeCount()).isZero();
+    }
+}
@@ -0,0 +1,144 @@
+package net.kemitix.huntbugs.detect;
+
+import com.strobel.assembler.metadata.TypeDefinition;
+import net.kemitix.huntbugs.cache.CacheKey;
+import net.kemitix.huntbugs.cache.ResultCache;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+/**
+ * Tests for {@link ClassResultCache}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class ClassResultCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final CacheKey key = CacheKey.of(new byte[]{1});
+
+    private final AnalysisResult result = new AnalysisResult();
+
+    @Mock
+    private ResultCache resultCache;
+
+    @Mock
+    private TypeDefinition typeDefinition;
+
+    private ClassResultCache classResultCache;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        classResultCache = new ClassResultCache(resultCache, td -> key);
+    }
+
+    @Test
+    public void findOnHit() {
+        //given
+        given(resultCache.get(key)).willReturn(Optional.of(result));
+        //when
+        final Optional<AnalysisResult> found = classResultCache.lookup(typeDefinition);
+        classResultCache.store(typeDefinition, result);
+        //then
+        assertThat(found).contains(result);
+        then(resultCache).should(never())
+                         .put(any(), any());
+    }
+
+    @Test
+    public void storeAfterMiss() {
+        //given
+        given(resultCache.get(key)).willReturn(Optional.empty());
+        //when
+        final Optional<AnalysisResult> found = classResultCache.lookup(typeDefinition);
+        classResultCache.store(typeDefinition, result);
+        //then
+        assertThat(found).isEmpty();
+        then(resultCache).should()
+                         .put(eq(key), any());
+    }
+
+    @Test
+    public void storeResolvedResult() {
+        //given
+        given(resultCache.get(key)).willReturn(Optional.empty());
+        result.deferNonBeanMethods(() -> Collections.singleton("method()V"));
+        final ArgumentCaptor<AnalysisResult> stored = ArgumentCaptor.forClass(AnalysisResult.class);
+        //when
+        classResultCache.lookup(typeDefinition);
+        classResultCache.store(typeDefinition, result);
+        //then
+        then(resultCache).should()
+                         .put(eq(key), stored.capture());
+        assertThat(stored.getValue()).isNotSameAs(result);
+        assertThat(stored.getValue()
+                         .getNonBeanMethods()).containsOnly("method()V");
+    }
+
+    @Test
+    public void doNotStoreClassNotLookedUp() {
+        //when
+        classResultCache.store(typeDefinition, result);
+        //then
+        then(resultCache).should(never())
+                         .put(any(), any());
+    }
+
+    @Test
+    public void doNotCacheWhenThereIsNoKey() {
+        //given
+        classResultCache = new ClassResultCache(resultCache, td -> null);
+        //when
+        final Optional<AnalysisResult> found = classResultCache.lookup(typeDefinition);
+        classResultCache.store(typeDefinition, result);
+        //then
+        assertThat(found).isEmpty();
+        then(resultCache).should(never())
+                         .get(any());
+        then(resultCache).should(never())
+                         .put(any(), any());
+    }
+
+    @Test
+    public void cacheInFileWhenSet() {
+        //given
+        System.setProperty(CohesiveDetector.CACHE_FILE_PROPERTY, temporaryFolder.getRoot()
+                                                                                .toPath()
+                                                                                .resolve("results.store")
+                                                                                .toString());
+        try {
+            //when
+            final ClassResultCache fromProperties = ClassResultCache.fromSystemProperties();
+            //then
+            assertThat(fromProperties.isEnabled()).isTrue();
+        } finally {
+            System.clearProperty(CohesiveDetector.CACHE_FILE_PROPERTY);
+        }
+    }
+
+    @Test
+    public void cacheNothingWithoutFileOrDirectory() {
+        //when
+        final ClassResultCache fromProperties = ClassResultCache.fromSystemProperties();
+        //then
+        assertThat(fromProperties.isEnabled()).isFalse();
+    }
+}
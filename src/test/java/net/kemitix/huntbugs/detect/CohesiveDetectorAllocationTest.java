@@ -0,0 +1,111 @@
+package net.kemitix.huntbugs.detect;
+
+import com.strobel.assembler.metadata.ClasspathTypeLoader;
+import com.strobel.assembler.metadata.FieldDefinition;
+import com.strobel.assembler.metadata.MetadataSystem;
+import com.strobel.assembler.metadata.MethodDefinition;
+import com.strobel.assembler.metadata.TypeDefinition;
+import com.strobel.decompiler.ast.AstCode;
+import com.strobel.decompiler.ast.Expression;
+import com.sun.management.ThreadMXBean;
+import net.kemitix.huntbugs.testdata.TestNonCohesive;
+import one.util.huntbugs.registry.ClassContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Allocation regression test for {@link CohesiveDetector#visit(Expression, MethodDefinition)}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class CohesiveDetectorAllocationTest {
+
+    private static final int WARM_UP_ITERATIONS = 20_000;
+
+    private static final int MEASURED_ITERATIONS = 100_000;
+
+    private static final double MAX_BYTES_PER_EXPRESSION = 1.0;
+
+    private final List<Expression> expressions = new ArrayList<>();
+
+    private ThreadMXBean threadMXBean;
+
+    private TypeDefinition type;
+
+    private MethodDefinition method;
+
+    @Before
+    public void setUp() {
+        threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        final MetadataSystem metadataSystem = new MetadataSystem(new ClasspathTypeLoader());
+        type = metadataSystem.lookupType(TestNonCohesive.class.getName()
+                                                              .replace('.', '/'))
+                             .resolve();
+        final TypeDefinition otherType = metadataSystem.lookupType("java/lang/String")
+                                                       .resolve();
+        method = type.getDeclaredMethods()
+                     .stream()
+                     .filter(m -> !m.isConstructor())
+                     .findFirst()
+                     .orElseThrow(IllegalStateException::new);
+        for (final FieldDefinition field : type.getDeclaredFields()) {
+            expressions.add(new Expression(AstCode.GetField, field, 0));
+        }
+        for (final MethodDefinition target : type.getDeclaredMethods()) {
+            expressions.add(new Expression(AstCode.InvokeVirtual, target, 0));
+        }
+        for (final MethodDefinition target : otherType.getDeclaredMethods()) {
+            expressions.add(new Expression(AstCode.InvokeVirtual, target, 0));
+        }
+        expressions.add(new Expression(AstCode.Nop, null, 0));
+    }
+
+    private void visit(final CohesiveDetector detector, final int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            for (final Expression expression : expressions) {
+                detector.visit(expression, method);
+            }
+        }
+    }
+
+    private double bytesPerExpression(final CohesiveDetector detector) {
+        detector.init(type, mock(ClassContext.class));
+        visit(detector, WARM_UP_ITERATIONS);
+        final long threadId = Thread.currentThread()
+                                    .getId();
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        visit(detector, MEASURED_ITERATIONS);
+        final long after = threadMXBean.getThreadAllocatedBytes(threadId);
+        detector.finish(type);
+        return (double) (after - before) / ((long) MEASURED_ITERATIONS * expressions.size());
+    }
+
+    @Test
+    public void visitingAnExpressionDoesNotAllocate() {
+        assertThat(bytesPerExpression(new CohesiveDetector())).isLessThan(MAX_BYTES_PER_EXPRESSION);
+    }
+
+    @Test
+    public void visitingAnExpressionDoesNotAllocateWhenOnline() {
+        final String previous = System.setProperty(CohesiveDetector.ONLINE_PROPERTY, "true");
+        try {
+            assertThat(bytesPerExpression(new CohesiveDetector())).isLessThan(MAX_BYTES_PER_EXPRESSION);
+        } finally {
+            if (previous == null) {
+                System.clearProperty(CohesiveDetector.ONLINE_PROPERTY);
+            } else {
+                System.setProperty(CohesiveDetector.ONLINE_PROPERTY, previous);
+            }
+        }
+    }
+}
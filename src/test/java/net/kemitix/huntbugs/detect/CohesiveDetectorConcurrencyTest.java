@@ -0,0 +1,222 @@
+package net.kemitix.huntbugs.detect;
+
+import com.strobel.assembler.metadata.FieldDefinition;
+import com.strobel.assembler.metadata.FieldReference;
+import com.strobel.assembler.metadata.MemberReference;
+import com.strobel.assembler.metadata.MethodDefinition;
+import com.strobel.assembler.metadata.MethodReference;
+import com.strobel.assembler.metadata.TypeDefinition;
+import com.strobel.assembler.metadata.TypeReference;
+import com.strobel.decompiler.ast.AstCode;
+import com.strobel.decompiler.ast.Expression;
+import net.kemitix.huntbugs.cohesive.Analyser;
+import net.kemitix.huntbugs.cohesive.BeanMethods;
+import net.kemitix.huntbugs.cohesive.Component;
+import net.kemitix.huntbugs.cohesive.MethodDefinitionWrapper;
+import net.kemitix.huntbugs.cohesive.MethodFilter;
+import net.kemitix.huntbugs.cohesive.MethodSignature;
+import net.kemitix.huntbugs.cohesive.TypeDefinitionWrapper;
+import net.kemitix.huntbugs.cohesive.UsageGraph;
+import net.kemitix.huntbugs.cohesive.UsageRecorder;
+import one.util.huntbugs.registry.ClassContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Stress test for {@link CohesiveDetector} analysing many classes concurrently with a single shared instance.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class CohesiveDetectorConcurrencyTest {
+
+    private static final int CLASSES = 400;
+
+    private static final int THREADS = 8;
+
+    private final Map<MemberReference, String> signatures = new IdentityHashMap<>();
+
+    private final Map<MethodDefinition, TypeDefinition> declaringTypes = new IdentityHashMap<>();
+
+    private final Map<TypeDefinition, List<MethodDefinition>> declaredMethods = new IdentityHashMap<>();
+
+    private final List<SyntheticClass> classes = new ArrayList<>();
+
+    private final Random random = new Random(42);
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < CLASSES; i++) {
+            classes.add(syntheticClass(i));
+        }
+    }
+
+    private SyntheticClass syntheticClass(final int index) {
+        final TypeDefinition type = mock(TypeDefinition.class);
+        final TypeReference sameType = mock(TypeReference.class);
+        given(sameType.isEquivalentTo(any())).willReturn(true);
+        final int fieldCount = 1 + random.nextInt(8);
+        final int methodCount = 1 + random.nextInt(12);
+        final List<MethodDefinition> methods = new ArrayList<>();
+        final List<MethodReference> methodReferences = new ArrayList<>();
+        for (int m = 0; m < methodCount; m++) {
+            final MethodDefinition method = mock(MethodDefinition.class);
+            final String signature = "method" + m + "()V";
+            signatures.put(method, signature);
+            declaringTypes.put(method, type);
+            methods.add(method);
+            final MethodReference reference = mock(MethodReference.class);
+            given(reference.getDeclaringType()).willReturn(sameType);
+            signatures.put(reference, signature);
+            methodReferences.add(reference);
+        }
+        declaredMethods.put(type, methods);
+        final SyntheticClass syntheticClass = new SyntheticClass(type);
+        methods.forEach(method -> {
+            final int usages = 1 + random.nextInt(4);
+            for (int u = 0; u < usages; u++) {
+                syntheticClass.add(method, randomOperand(index, fieldCount, sameType, methodReferences));
+            }
+        });
+        return syntheticClass;
+    }
+
+    private Object randomOperand(
+            final int index, final int fieldCount, final TypeReference sameType,
+            final List<MethodReference> methodReferences
+                                ) {
+        if (random.nextInt(4) == 0) {
+            return methodReferences.get(random.nextInt(methodReferences.size()));
+        }
+        final FieldReference field = mock(FieldReference.class);
+        given(field.getName()).willReturn("class" + index + "field" + random.nextInt(fieldCount));
+        given(field.getDeclaringType()).willReturn(sameType);
+        return field;
+    }
+
+    private CohesiveDetector detector() {
+        final MethodSignature methodSignature = signatures::get;
+        final BeanMethods beanMethods = BeanMethods.defaultInstance(methodSignature);
+        final MethodDefinitionWrapper methodDefinitionWrapper = new MethodDefinitionWrapper() {
+            @Override
+            public boolean isConstructor(final MethodDefinition methodDefinition) {
+                return false;
+            }
+
+            @Override
+            public boolean isPrivate(final MethodDefinition methodDefinition) {
+                return false;
+            }
+
+            @Override
+            public boolean isTypeInitializer(final MethodDefinition methodDefinition) {
+                return false;
+            }
+
+            @Override
+            public boolean isBridgeMethod(final MethodDefinition methodDefinition) {
+                return false;
+            }
+
+            @Override
+            public TypeDefinition getDeclaringType(final MethodDefinition methodDefinition) {
+                return declaringTypes.get(methodDefinition);
+            }
+        };
+        final TypeDefinitionWrapper typeDefinitionWrapper = new TypeDefinitionWrapper() {
+            @Override
+            public List<FieldDefinition> getDeclaredFields(final TypeDefinition typeDefinition) {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public List<MethodDefinition> getDeclaredMethods(final TypeDefinition typeDefinition) {
+                return declaredMethods.get(typeDefinition);
+            }
+        };
+        final Analyser analyser = Analyser.unionFindInstance(beanMethods);
+        return new CohesiveDetector(beanMethods, methodSignature, typeDefinitionWrapper, methodDefinitionWrapper,
+                                    components -> "", () -> UsageRecorder.deferred(new UsageGraph(), analyser),
+                                    MethodFilter.defaultInstance(methodDefinitionWrapper), typeDefinition -> false
+        );
+    }
+
+    private List<String> analyse(final CohesiveDetector detector, final SyntheticClass syntheticClass) {
+        detector.init(syntheticClass.type, mock(ClassContext.class));
+        for (int i = 0; i < syntheticClass.expressions.size(); i++) {
+            detector.visit(syntheticClass.expressions.get(i), syntheticClass.methods.get(i));
+            Thread.yield();
+        }
+        return detector.finish(syntheticClass.type)
+                       .getComponents()
+                       .stream()
+                       .map(Component::methods)
+                       .map(methods -> new TreeSet<>(methods).toString())
+                       .sorted()
+                       .collect(Collectors.toList());
+    }
+
+    @Test
+    public void concurrentAnalysisMatchesSequentialAnalysis() throws Exception {
+        //given
+        final CohesiveDetector sequentialDetector = detector();
+        final List<List<String>> expected = classes.stream()
+                                                   .map(c -> analyse(sequentialDetector, c))
+                                                   .collect(Collectors.toList());
+        final CohesiveDetector sharedDetector = detector();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        //when
+        final List<Future<List<String>>> futures = new ArrayList<>();
+        try {
+            classes.forEach(c -> futures.add(executor.submit(() -> analyse(sharedDetector, c))));
+            final List<List<String>> result = new ArrayList<>();
+            for (final Future<List<String>> future : futures) {
+                result.add(future.get(1, TimeUnit.MINUTES));
+            }
+            //then
+            assertThat(result).isEqualTo(expected);
+            assertThat(expected.stream()
+                               .filter(components -> components.size() > 1)
+                               .count()).isPositive();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class SyntheticClass {
+
+        private final TypeDefinition type;
+
+        private final List<Expression> expressions = new ArrayList<>();
+
+        private final List<MethodDefinition> methods = new ArrayList<>();
+
+        SyntheticClass(final TypeDefinition type) {
+            this.type = type;
+        }
+
+        void add(final MethodDefinition method, final Object operand) {
+            final AstCode code = operand instanceof FieldReference ? AstCode.GetField : AstCode.InvokeVirtual;
+            expressions.add(new Expression(code, operand, 0));
+            methods.add(method);
+        }
+    }
+}
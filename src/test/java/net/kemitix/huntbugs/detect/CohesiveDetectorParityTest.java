@@ -0,0 +1,154 @@
+package net.kemitix.huntbugs.detect;
+
+import com.strobel.assembler.metadata.ClasspathTypeLoader;
+import com.strobel.assembler.metadata.MetadataSystem;
+import com.strobel.assembler.metadata.MethodDefinition;
+import com.strobel.assembler.metadata.TypeDefinition;
+import com.strobel.decompiler.DecompilerContext;
+import com.strobel.decompiler.ast.AstBuilder;
+import com.strobel.decompiler.ast.AstOptimizationStep;
+import com.strobel.decompiler.ast.AstOptimizer;
+import com.strobel.decompiler.ast.Block;
+import com.strobel.decompiler.ast.Expression;
+import net.kemitix.huntbugs.ClassFiles;
+import net.kemitix.huntbugs.bytecode.ClassFileAnalyser;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.testdata.TestAccessorNamedMethod;
+import net.kemitix.huntbugs.testdata.TestCohesive;
+import net.kemitix.huntbugs.testdata.TestLowCohesionMetrics;
+import net.kemitix.huntbugs.testdata.TestNonCohesive;
+import one.util.huntbugs.registry.ClassContext;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Parity tests between {@link CohesiveDetector}, over the AST that HuntBugs visits, and the {@link ClassFileAnalyser},
+ * over the class file, for the same classes.
+ *
+ * <p>Classes with lambdas or other {@code invokedynamic} call sites are not compared, as the class-file engine does
+ * not follow a call site to the method it is bound to.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class CohesiveDetectorParityTest {
+
+    private final MetadataSystem metadataSystem = new MetadataSystem(new ClasspathTypeLoader());
+
+    private final ClassFileAnalyser classFileAnalyser = ClassFileAnalyser.defaultInstance();
+
+    /**
+     * Visit every expression of every method of the class, as HuntBugs does, and analyse it.
+     */
+    private AnalysisResult detect(final Class<?> type) {
+        final TypeDefinition td = metadataSystem.lookupType(type.getName()
+                                                                .replace('.', '/'))
+                                                .resolve();
+        final CohesiveDetector detector = new CohesiveDetector();
+        if (detector.init(td, mock(ClassContext.class))) {
+            for (final MethodDefinition method : td.getDeclaredMethods()) {
+                if (method.hasBody()) {
+                    for (final Expression expression : ast(td, method).getSelfAndChildrenRecursive(Expression.class)) {
+                        detector.visit(expression, method);
+                    }
+                }
+            }
+        }
+        return detector.finish(td);
+    }
+
+    private static Block ast(final TypeDefinition td, final MethodDefinition method) {
+        final DecompilerContext context = new DecompilerContext();
+        context.setCurrentType(td);
+        context.setCurrentMethod(method);
+        final Block block = new Block();
+        block.getBody()
+             .addAll(AstBuilder.build(method.getBody(), true, context));
+        AstOptimizer.optimize(context, block, AstOptimizationStep.None);
+        return block;
+    }
+
+    private void assertParity(final Class<?> type) throws IOException {
+        //when
+        final AnalysisResult detected = detect(type);
+        final AnalysisResult fromClassFile = classFileAnalyser.analyse(ClassFiles.of(type));
+        //then
+        assertThat(fromClassFile.getComponents()).isEqualTo(detected.getComponents());
+        assertThat(fromClassFile.getNonBeanMethods()).isEqualTo(detected.getNonBeanMethods());
+    }
+
+    @Test
+    public void sameResultForCohesiveClass() throws IOException {
+        assertParity(TestCohesive.class);
+    }
+
+    @Test
+    public void sameResultForNonCohesiveClass() throws IOException {
+        assertParity(TestNonCohesive.class);
+    }
+
+    @Test
+    public void sameResultForClassWithLowCohesionMetrics() throws IOException {
+        assertParity(TestLowCohesionMetrics.class);
+    }
+
+    @Test
+    public void sameResultForMethodNamedAsBeanMethod() throws IOException {
+        assertParity(TestAccessorNamedMethod.class);
+    }
+
+    @Test
+    public void sameResultForClassWithStaticInitialiser() throws IOException {
+        assertParity(StaticInitialiser.class);
+    }
+
+    @Test
+    public void sameResultForClassWithBridgeMethod() throws IOException {
+        assertParity(BridgeMethod.class);
+    }
+
+    /**
+     * The static initialiser uses both fields, which would join the two methods if it were walked.
+     */
+    private static class StaticInitialiser {
+
+        private static int left;
+
+        private static int right;
+
+        static {
+            left = 1;
+            right = 2;
+        }
+
+        int readLeft() {
+            return left;
+        }
+
+        int readRight() {
+            return right;
+        }
+    }
+
+    /**
+     * The compiler generates a {@code compareTo(Object)} bridge method that calls {@code compareTo(BridgeMethod)}.
+     */
+    private static class BridgeMethod implements Comparable<BridgeMethod> {
+
+        private int left;
+
+        private int right;
+
+        @Override
+        public int compareTo(final BridgeMethod other) {
+            return left - other.left;
+        }
+
+        int readRight() {
+            return right;
+        }
+    }
+}
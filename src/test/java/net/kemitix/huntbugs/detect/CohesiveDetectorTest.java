@@ -9,29 +9,40 @@ import com.strobel.assembler.metadata.TypeReference;
 import com.strobel.decompiler.ast.AstCode;
 import com.strobel.decompiler.ast.Expression;
 import net.kemitix.huntbugs.cohesive.Analyser;
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.BeanMethodIndex;
 import net.kemitix.huntbugs.cohesive.BeanMethods;
 import net.kemitix.huntbugs.cohesive.BreakdownFormatter;
+import net.kemitix.huntbugs.cohesive.Component;
 import net.kemitix.huntbugs.cohesive.MethodDefinitionWrapper;
 import net.kemitix.huntbugs.cohesive.MethodFilter;
 import net.kemitix.huntbugs.cohesive.MethodSignature;
 import net.kemitix.huntbugs.cohesive.TypeDefinitionWrapper;
+import net.kemitix.huntbugs.cohesive.UsageGraph;
+import net.kemitix.huntbugs.cohesive.UsageRecorder;
+import one.util.huntbugs.registry.ClassContext;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
 
 /**
  * Tests for {@link CohesiveDetector}.
@@ -40,17 +51,21 @@ import static org.mockito.BDDMockito.given;
  */
 public class CohesiveDetectorTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private CohesiveDetector detector;
 
     @Mock
     private BeanMethods beanMethods;
 
     @Mock
-    private MethodSignature methodSignature;
+    private BeanMethodIndex beanMethodIndex;
 
-    private Set<String> nonPrivateMethodNames = new HashSet<>();
+    @Mock
+    private MethodSignature methodSignature;
 
-    private Map<String, Set<String>> usedByMethod = new HashMap<>();
+    private UsageGraph usageGraph = new UsageGraph();
 
     @Mock
     private TypeDefinition typeDefinition;
@@ -102,18 +117,41 @@ public class CohesiveDetectorTest {
     @Mock
     private BreakdownFormatter breakdownFormatter;
 
+    @Mock
+    private ClassContext classContext;
+
+    private boolean triviallyCohesive;
+
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
-        final MethodFilter methodFilter = MethodFilter.defaultInstance(methodDefinitionWrapper);
-        detector = new CohesiveDetector(beanMethods, methodSignature, typeDefinitionWrapper, methodDefinitionWrapper,
-                                        breakdownFormatter, analyser, nonPrivateMethodNames, usedByMethod, methodFilter
-        );
+        detector = newDetector();
         given(typeDefinitionWrapper.getDeclaredMethods(typeDefinition)).willReturn(declaredMethods);
-        expression = new Expression(AstCode.Nop, null, 0);
+        given(methodDefinitionWrapper.getDeclaringType(any())).willReturn(typeDefinition);
+        given(beanMethods.index(any())).willReturn(beanMethodIndex);
+        given(methodSignature.forClass()).willReturn(methodSignature);
+        expression = new Expression(AstCode.GetField, null, 0);
         nonPrivateMethodSignature = randomString();
     }
 
+    private CohesiveDetector newDetector() {
+        final MethodFilter methodFilter = MethodFilter.defaultInstance(methodDefinitionWrapper);
+        final UsageRecorder usageRecorder = UsageRecorder.deferred(usageGraph, analyser);
+        return new CohesiveDetector(beanMethods, methodSignature, typeDefinitionWrapper, methodDefinitionWrapper,
+                                    breakdownFormatter, () -> usageRecorder, methodFilter, type -> triviallyCohesive
+        );
+    }
+
+    private CohesiveDetector newCachingDetector() {
+        System.setProperty(CohesiveDetector.CACHE_DIRECTORY_PROPERTY, temporaryFolder.getRoot()
+                                                                                     .toString());
+        try {
+            return newDetector();
+        } finally {
+            System.clearProperty(CohesiveDetector.CACHE_DIRECTORY_PROPERTY);
+        }
+    }
+
     private String randomString() {
         return UUID.randomUUID()
                    .toString();
@@ -124,9 +162,9 @@ public class CohesiveDetectorTest {
         //given
         hasPrivateMethod();
         //when
-        detector.init(typeDefinition);
+        detector.init(typeDefinition, classContext);
         //then
-        assertThat(nonPrivateMethodNames).doesNotContain(privateMethodSignature);
+        assertThat(nonPrivateMethodNames()).doesNotContain(privateMethodSignature);
     }
 
     private void hasPrivateMethod() {
@@ -137,6 +175,11 @@ public class CohesiveDetectorTest {
         declaredMethods.add(privateMethodDefinition);
     }
 
+    private Set<String> nonPrivateMethodNames() {
+        return detector.classAnalysis(typeDefinition)
+                       .getNonPrivateMethodNames();
+    }
+
     private void setAsSignature(final MethodDefinition methodDefinition, final String signature) {
         given(methodSignature.create(methodDefinition)).willReturn(signature);
     }
@@ -156,9 +199,9 @@ public class CohesiveDetectorTest {
         //given
         hasConstructor();
         //when
-        detector.init(typeDefinition);
+        detector.init(typeDefinition, classContext);
         //then
-        assertThat(nonPrivateMethodNames).doesNotContain(constructorMethodSignature);
+        assertThat(nonPrivateMethodNames()).doesNotContain(constructorMethodSignature);
     }
 
     private void hasConstructor() {
@@ -173,21 +216,21 @@ public class CohesiveDetectorTest {
         //given
         hasNonPrivateNonBeanMethod();
         //when
-        detector.init(typeDefinition);
+        detector.init(typeDefinition, classContext);
         //then
-        assertThat(nonPrivateMethodNames).contains(nonPrivateMethodSignature);
+        assertThat(nonPrivateMethodNames()).contains(nonPrivateMethodSignature);
     }
 
     private void hasNonPrivateNonBeanMethod() {
         setAsSignature(nonPrivateMethodDefinition, nonPrivateMethodSignature);
         setAsConstructor(nonPrivateMethodDefinition, false);
         setAsPrivate(nonPrivateMethodDefinition, false);
-        setAsBean(nonPrivateMethodDefinition, false);
+        setAsBean(nonPrivateMethodSignature, false);
         declaredMethods.add(nonPrivateMethodDefinition);
     }
 
-    private void setAsBean(final MethodDefinition methodDefinition, final boolean value) {
-        given(beanMethods.isNotBeanMethod(eq(methodDefinition), any())).willReturn(!value);
+    private void setAsBean(final String signature, final boolean value) {
+        given(beanMethodIndex.isNotBeanMethod(signature)).willReturn(!value);
     }
 
     @Test
@@ -195,9 +238,9 @@ public class CohesiveDetectorTest {
         //given
         hasBeanMethod();
         //when
-        detector.init(typeDefinition);
+        detector.init(typeDefinition, classContext);
         //then
-        assertThat(nonPrivateMethodNames).doesNotContain(beanMethodSignature);
+        assertThat(nonPrivateMethodNames()).doesNotContain(beanMethodSignature);
     }
 
     private void hasBeanMethod() {
@@ -205,7 +248,7 @@ public class CohesiveDetectorTest {
         setAsSignature(beanMethodDefinition, beanMethodSignature);
         setAsConstructor(beanMethodDefinition, false);
         setAsPrivate(beanMethodDefinition, false);
-        setAsBean(beanMethodDefinition, true);
+        setAsBean(beanMethodSignature, true);
         declaredMethods.add(beanMethodDefinition);
     }
 
@@ -219,15 +262,69 @@ public class CohesiveDetectorTest {
         assertThat(result).isFalse();
     }
 
+    @Test
+    public void skipMethodWhenConstructorOfPreparedClass() {
+        //given
+        hasConstructor();
+        detector.init(typeDefinition, classContext);
+        //when
+        final boolean result = detector.visit(expression, constructorMethodDefinition);
+        //then
+        assertThat(result).isFalse();
+    }
+
+    @Test
+    public void skipMethodWhenTypeInitializer() {
+        //given
+        hasFieldInSameClass();
+        given(methodDefinitionWrapper.isTypeInitializer(nonPrivateMethodDefinition)).willReturn(true);
+        detector.init(typeDefinition, classContext);
+        //when
+        final boolean result = detector.visit(expression, nonPrivateMethodDefinition);
+        //then
+        assertThat(result).isFalse();
+        assertThat(usageGraph.toMap()).isEmpty();
+    }
+
+    @Test
+    public void skipMethodWhenBridgeMethod() {
+        //given
+        hasFieldInSameClass();
+        given(methodDefinitionWrapper.isBridgeMethod(nonPrivateMethodDefinition)).willReturn(true);
+        detector.init(typeDefinition, classContext);
+        //when
+        final boolean result = detector.visit(expression, nonPrivateMethodDefinition);
+        //then
+        assertThat(result).isFalse();
+        assertThat(usageGraph.toMap()).isEmpty();
+    }
+
+    @Test
+    public void walkMethodWhenNamedAsBeanMethod() {
+        //given
+        hasBeanMethod();
+        final String fieldName = randomString();
+        setAsFieldReference(fieldName);
+        setAsInSameClass(fieldReference, true);
+        detector.init(typeDefinition, classContext);
+        //when
+        final boolean result = detector.visit(expression, beanMethodDefinition);
+        //then
+        assertThat(result).isTrue();
+        assertThat(usageGraph.toMap()).containsOnlyKeys(beanMethodSignature);
+        assertThat(usageGraph.toMap().get(beanMethodSignature)).contains(fieldName);
+    }
+
     @Test
     public void handleFieldInSameClass() {
         //given
         final String fieldName = hasFieldInSameClass();
+        detector.init(typeDefinition, classContext);
         //when
         detector.visit(expression, nonPrivateMethodDefinition);
         //then
-        assertThat(usedByMethod).containsOnlyKeys(nonPrivateMethodSignature);
-        assertThat(usedByMethod.get(nonPrivateMethodSignature)).contains(fieldName);
+        assertThat(usageGraph.toMap()).containsOnlyKeys(nonPrivateMethodSignature);
+        assertThat(usageGraph.toMap().get(nonPrivateMethodSignature)).contains(fieldName);
     }
 
     private String hasFieldInSameClass() {
@@ -245,7 +342,7 @@ public class CohesiveDetectorTest {
 
     private void setAsFieldReference(final String fieldName) {
         given(fieldReference.getName()).willReturn(fieldName);
-        expression.setOperand(fieldReference);
+        expression = new Expression(AstCode.GetField, fieldReference, 0);
     }
 
     @Test
@@ -255,21 +352,23 @@ public class CohesiveDetectorTest {
         final String fieldName = randomString();
         setAsFieldReference(fieldName);
         setAsInSameClass(fieldReference, false);
+        detector.init(typeDefinition, classContext);
         //when
         detector.visit(expression, nonPrivateMethodDefinition);
         //then
-        assertThat(usedByMethod).isEmpty();
+        assertThat(usageGraph.toMap()).isEmpty();
     }
 
     @Test
     public void handleMethodCallInSameClass() {
         //given
         hasMethodCallInSameClass();
+        detector.init(typeDefinition, classContext);
         //when
         detector.visit(expression, nonPrivateMethodDefinition);
         //then
-        assertThat(usedByMethod).containsOnlyKeys(nonPrivateMethodSignature);
-        assertThat(usedByMethod.get(nonPrivateMethodSignature)).contains(privateMethodSignature);
+        assertThat(usageGraph.toMap()).containsOnlyKeys(nonPrivateMethodSignature);
+        assertThat(usageGraph.toMap().get(nonPrivateMethodSignature)).contains(privateMethodSignature);
     }
 
     private void hasMethodCallInSameClass() {
@@ -281,7 +380,7 @@ public class CohesiveDetectorTest {
 
     private void setAsMethodReference(final String signature) {
         given(methodSignature.create(methodReference)).willReturn(signature);
-        expression.setOperand(methodReference);
+        expression = new Expression(AstCode.InvokeVirtual, methodReference, 0);
     }
 
     @Test
@@ -291,16 +390,18 @@ public class CohesiveDetectorTest {
         hasPrivateMethod();
         setAsMethodReference(privateMethodSignature);
         setAsInSameClass(methodReference, false);
+        detector.init(typeDefinition, classContext);
         //when
         detector.visit(expression, nonPrivateMethodDefinition);
         //then
-        assertThat(usedByMethod).isEmpty();
+        assertThat(usageGraph.toMap()).isEmpty();
     }
 
     @Test
     public void methodCanUseMulitpleItems() {
         //given
         hasMethodCallInSameClass();
+        detector.init(typeDefinition, classContext);
         //when
         detector.visit(expression, nonPrivateMethodDefinition);
         //given
@@ -308,7 +409,87 @@ public class CohesiveDetectorTest {
         //when
         detector.visit(expression, nonPrivateMethodDefinition);
         //then
-        assertThat(usedByMethod).containsOnlyKeys(nonPrivateMethodSignature);
-        assertThat(usedByMethod.get(nonPrivateMethodSignature)).contains(privateMethodSignature, fieldName);
+        assertThat(usageGraph.toMap()).containsOnlyKeys(nonPrivateMethodSignature);
+        assertThat(usageGraph.toMap().get(nonPrivateMethodSignature)).contains(privateMethodSignature, fieldName);
+    }
+
+    @Test
+    public void passOverExpressionThatCannotAccessMember() {
+        //given
+        hasNonPrivateNonBeanMethod();
+        detector.init(typeDefinition, classContext);
+        //when
+        final boolean result = detector.visit(new Expression(AstCode.Nop, fieldReference, 0),
+                                              nonPrivateMethodDefinition);
+        //then
+        assertThat(result).isTrue();
+        assertThat(usageGraph.toMap()).isEmpty();
+    }
+
+    @Test
+    public void skipMethodWhenClassNotPrepared() {
+        //given
+        hasFieldInSameClass();
+        //when
+        final boolean result = detector.visit(expression, nonPrivateMethodDefinition);
+        //then
+        assertThat(result).isFalse();
+        assertThat(usageGraph.toMap()).isEmpty();
+    }
+
+    @Test
+    public void finishDiscardsClassState() {
+        //given
+        given(analyser.analyse(any(UsageGraph.class), any(), any(), any())).willReturn(new AnalysisResult());
+        detector.init(typeDefinition, classContext);
+        //when
+        detector.finish(typeDefinition);
+        //then
+        assertThat(detector.classAnalysis(typeDefinition)).isNull();
+    }
+
+    @Test
+    public void prepareClassThatIsNotTriviallyCohesive() {
+        //when
+        final boolean result = detector.init(typeDefinition, classContext);
+        //then
+        assertThat(result).isTrue();
+        assertThat(detector.classAnalysis(typeDefinition)).isNotNull();
+    }
+
+    @Test
+    public void skipClassThatIsTriviallyCohesive() {
+        //given
+        triviallyCohesive = true;
+        hasNonPrivateNonBeanMethod();
+        //when
+        final boolean result = detector.init(typeDefinition, classContext);
+        //then
+        assertThat(result).isFalse();
+        assertThat(detector.classAnalysis(typeDefinition)).isNull();
+    }
+
+    @Test
+    public void reportCachedClassWithoutVisitingIt() {
+        //given
+        given(typeDefinition.getInternalName()).willReturn("net/kemitix/Cached");
+        given(typeDefinition.getFullName()).willReturn("net.kemitix.Cached");
+        final AnalysisResult analysed = new AnalysisResult();
+        analysed.addComponents(new HashSet<>(Arrays.asList(Component.from(Collections.singleton("a()")),
+                                                           Component.from(Collections.singleton("b()")))));
+        given(analyser.analyse(any(UsageGraph.class), any(), any(), any())).willReturn(analysed);
+        final CohesiveDetector firstRun = newCachingDetector();
+        firstRun.init(typeDefinition, classContext);
+        firstRun.analyse(typeDefinition, classContext);
+        final CohesiveDetector secondRun = newCachingDetector();
+        //when
+        final boolean result = secondRun.init(typeDefinition, classContext);
+        //then
+        assertThat(result).isFalse();
+        assertThat(secondRun.classAnalysis(typeDefinition)).isNull();
+        then(analyser).should(times(1))
+                      .analyse(any(UsageGraph.class), any(), any(), any());
+        then(classContext).should(times(2))
+                          .report(eq(CohesiveDetector.MULTIPLE_COMPONENTS), anyInt(), any(), any(), any());
     }
 }
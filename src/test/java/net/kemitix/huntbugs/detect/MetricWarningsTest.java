@@ -0,0 +1,86 @@
+package net.kemitix.huntbugs.detect;
+
+import com.strobel.assembler.metadata.TypeDefinition;
+import net.kemitix.huntbugs.cohesive.CohesionMetrics;
+import one.util.huntbugs.registry.ClassContext;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+/**
+ * Tests for {@link MetricWarnings}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class MetricWarningsTest {
+
+    private final CohesionMetrics metrics = new CohesionMetrics(6, 6, 4, 4, 0, 0);
+
+    @Mock
+    private TypeDefinition typeDefinition;
+
+    @Mock
+    private ClassContext classContext;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        given(typeDefinition.getInternalName()).willReturn("net/kemitix/Uncohesive");
+    }
+
+    @Test
+    public void reportNothingWhenNoThresholdIsSet() {
+        //given
+        final MetricWarnings metricWarnings =
+                new MetricWarnings(OptionalLong.empty(), OptionalLong.empty(), OptionalLong.empty(),
+                                   OptionalDouble.empty(), OptionalDouble.empty()
+                );
+        //when
+        metricWarnings.report(typeDefinition, metrics, classContext);
+        //then
+        assertThat(metricWarnings.isEnabled()).isFalse();
+        then(classContext).shouldHaveZeroInteractions();
+    }
+
+    @Test
+    public void reportOnlyMetricsWithThresholds() {
+        //given
+        final MetricWarnings metricWarnings =
+                new MetricWarnings(OptionalLong.of(5), OptionalLong.empty(), OptionalLong.empty(),
+                                   OptionalDouble.empty(), OptionalDouble.empty()
+                );
+        //when
+        metricWarnings.report(typeDefinition, metrics, classContext);
+        //then
+        assertThat(metricWarnings.isEnabled()).isTrue();
+        then(classContext).should()
+                          .report(eq(CohesiveDetector.HIGH_LCOM1), anyInt(), any(), any(), any());
+        then(classContext).should(never())
+                          .report(eq(CohesiveDetector.LOW_TCC), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    public void doNotReportMetricWithinItsThreshold() {
+        //given
+        final MetricWarnings metricWarnings =
+                new MetricWarnings(OptionalLong.of(6), OptionalLong.of(6), OptionalLong.of(4),
+                                   OptionalDouble.of(0), OptionalDouble.of(0)
+                );
+        //when
+        metricWarnings.report(typeDefinition, metrics, classContext);
+        //then
+        then(classContext).shouldHaveZeroInteractions();
+    }
+}
@@ -0,0 +1,71 @@
+package net.kemitix.huntbugs.report;
+
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.Component;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link JsonLinesSink}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class JsonLinesSinkTest {
+
+    private final StringWriter writer = new StringWriter();
+
+    private ResultSink sink;
+
+    private AnalysisResult result;
+
+    @Before
+    public void setUp() {
+        sink = ResultSink.jsonLines(writer);
+        result = new AnalysisResult();
+        result.addNonBeanMethods(Collections.singleton("c()V"));
+        result.addComponents(new HashSet<>(Arrays.asList(Component.from(Arrays.asList("c()V", "d")),
+                                                         Component.from(Collections.singletonList("e()V"))
+                                                        )));
+    }
+
+    @Test
+    public void writeLineForEachClass() {
+        //when
+        sink.accept("a.B", result);
+        sink.accept("a.C", new AnalysisResult());
+        //then
+        assertThat(writer.toString()
+                         .split("\n")).hasSize(2);
+    }
+
+    @Test
+    public void writeComponentsWithMethodsAndFields() {
+        //when
+        sink.accept("a.B", result);
+        //then
+        assertThat(writer.toString()).isEqualTo(
+                "{\"class\":\"a.B\",\"componentCount\":2,\"nonBeanMethods\":[\"c()V\"],\"components\":["
+                        + "{\"methods\":[\"c()V\"],\"fields\":[\"d\"]},{\"methods\":[\"e()V\"],\"fields\":[]}],"
+                        + "\"metrics\":{\"lcom1\":0,\"lcom2\":0,\"lcom3\":0,\"lcom4\":0,\"tcc\":1.0,\"lcc\":1.0}}\n");
+    }
+
+    @Test
+    public void escapeStrings() {
+        //when
+        sink.accept("a.\"B\"\\\n\u0001", new AnalysisResult());
+        //then
+        assertThat(writer.toString()).startsWith("{\"class\":\"a.\\\"B\\\"\\\\\\n\\u0001\",");
+    }
+
+    @Test
+    public void readsMetrics() {
+        assertThat(sink.readsMetrics()).isTrue();
+    }
+}
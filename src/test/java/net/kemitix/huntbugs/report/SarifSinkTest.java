@@ -0,0 +1,93 @@
+package net.kemitix.huntbugs.report;
+
+import net.kemitix.huntbugs.cohesive.AnalysisResult;
+import net.kemitix.huntbugs.cohesive.Component;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link SarifSink}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class SarifSinkTest {
+
+    private final StringWriter writer = new StringWriter();
+
+    private ResultSink sink;
+
+    private AnalysisResult twoComponents;
+
+    private AnalysisResult oneComponent;
+
+    @Before
+    public void setUp() {
+        sink = ResultSink.sarif(writer);
+        twoComponents = new AnalysisResult();
+        twoComponents.addComponents(new HashSet<>(Arrays.asList(Component.from(Arrays.asList("c()V", "d")),
+                                                                Component.from(Collections.singletonList("e()V"))
+                                                               )));
+        oneComponent = new AnalysisResult();
+        oneComponent.addComponents(Collections.singleton(Component.from(Collections.singletonList("c()V"))));
+    }
+
+    @Test
+    public void writeToolBeforeAnyResult() {
+        assertThat(writer.toString()).startsWith("{\"version\":\"2.1.0\",")
+                                     .contains("\"id\":\"" + SarifSink.RULE_ID + "\"")
+                                     .endsWith("\"results\":[\n");
+    }
+
+    @Test
+    public void writeResultForClassWithMultipleComponents() {
+        //when
+        sink.accept("a.B", twoComponents);
+        //then
+        assertThat(writer.toString()).contains("\"message\":{\"text\":\"a.B has 2 components\"}")
+                                     .contains("\"fullyQualifiedName\":\"a.B\"")
+                                     .contains("{\"methods\":[\"c()V\"],\"fields\":[\"d\"]}");
+    }
+
+    @Test
+    public void skipClassWithOneComponent() {
+        //when
+        sink.accept("a.B", oneComponent);
+        //then
+        assertThat(writer.toString()).doesNotContain("a.B");
+    }
+
+    @Test
+    public void separateResultsAndCloseLog() {
+        //when
+        sink.accept("a.B", twoComponents);
+        sink.accept("a.C", oneComponent);
+        sink.accept("a.D", twoComponents);
+        sink.close();
+        //then
+        assertThat(writer.toString()).contains("}},\n{\"ruleId\"")
+                                     .endsWith("}}\n]}]}\n");
+    }
+
+    @Test
+    public void rejectResultAfterClose() {
+        //given
+        sink.close();
+        //when
+        assertThatThrownBy(() -> sink.accept("a.B", twoComponents))
+                //then
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void doesNotReadMetrics() {
+        assertThat(sink.readsMetrics()).isFalse();
+    }
+}
@@ -0,0 +1,127 @@
+package net.kemitix.huntbugs.report;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SystemPropertySinks}.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+public class SystemPropertySinksTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+
+    private ResultSink sink;
+
+    @Before
+    public void setUp() throws IOException {
+        file = folder.getRoot()
+                     .toPath()
+                     .resolve("cohesion.sarif");
+        sink = new SystemPropertySinks(Collections.singletonMap(file, ResultSink::sarif));
+    }
+
+    @Test
+    public void sameSinkForEachClassOfRun() {
+        //given
+        final Object run = new Object();
+        //when
+        final ResultSink first = sink.forRun(run);
+        final ResultSink second = sink.forRun(run);
+        //then
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    public void keepEachOverlappingRunOpen() throws IOException {
+        //given
+        final Object first = new Object();
+        final Object second = new Object();
+        final ResultSink firstSink = sink.forRun(first);
+        //when
+        final ResultSink secondSink = sink.forRun(second);
+        //then
+        assertThat(sink.forRun(first)).isSameAs(firstSink);
+        assertThat(sink.forRun(second)).isSameAs(secondSink)
+                                       .isNotSameAs(firstSink);
+        assertThat(read(file)).doesNotEndWith("]}]}\n");
+        assertThat(read(secondFile())).doesNotEndWith("]}]}\n");
+    }
+
+    @Test
+    public void completeFileOfCollectedRunWhenNextRunStarts() throws IOException, InterruptedException {
+        //given
+        Object run = new Object();
+        sink.forRun(run);
+        final WeakReference<Object> collected = new WeakReference<>(run);
+        run = null;
+        for (int attempt = 0; attempt < 50 && collected.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(collected.get()).isNull();
+        //when
+        sink.forRun(new Object());
+        //then
+        assertThat(read(file)).endsWith("]}]}\n");
+        assertThat(read(secondFile())).doesNotEndWith("]}]}\n");
+    }
+
+    @Test
+    public void completeFilesOfOpenRunsOnClose() throws IOException {
+        //given
+        final Object first = new Object();
+        final Object second = new Object();
+        sink.forRun(first);
+        sink.forRun(second);
+        //when
+        sink.close();
+        //then
+        assertThat(read(file)).endsWith("]}]}\n");
+        assertThat(read(secondFile())).endsWith("]}]}\n");
+    }
+
+    @Test
+    public void firstRunWritesNamedFile() {
+        assertThat(SystemPropertySinks.fileForRun(Paths.get("target", "cohesion.sarif"), 1))
+                .isEqualTo(Paths.get("target", "cohesion.sarif"));
+    }
+
+    @Test
+    public void laterRunWritesNumberedFile() {
+        assertThat(SystemPropertySinks.fileForRun(Paths.get("target", "cohesion.sarif"), 3))
+                .isEqualTo(Paths.get("target", "cohesion-3.sarif"));
+    }
+
+    @Test
+    public void laterRunWritesNumberedFileWithoutExtension() {
+        assertThat(SystemPropertySinks.fileForRun(Paths.get("target", "cohesion"), 2))
+                .isEqualTo(Paths.get("target", "cohesion-2"));
+    }
+
+    private Path secondFile() {
+        return folder.getRoot()
+                     .toPath()
+                     .resolve("cohesion-2.sarif");
+    }
+
+    private static String read(final Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}
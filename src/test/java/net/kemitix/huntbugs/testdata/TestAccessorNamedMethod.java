@@ -0,0 +1,60 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.testdata;
+
+import net.kemitix.huntbugs.detect.CohesiveDetector;
+import one.util.huntbugs.registry.anno.AssertNoWarning;
+import one.util.huntbugs.registry.anno.AssertNoWarning;
+
+/**
+ * A Cohesive class whose only link between its fields is a method named like the accessor of an unrelated field.
+ *
+ * <p>{@code getName()} does not use the {@code name} field, so it is not a bean method and must be analysed.</p>
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@AssertNoWarning(CohesiveDetector.MULTIPLE_COMPONENTS)
+public class TestAccessorNamedMethod {
+
+    private String name;
+
+    private String first;
+
+    private String last;
+
+    public String getName() {
+        return first + last;
+    }
+
+    public String describe() {
+        return name + first;
+    }
+
+    public String capitaliseFirst() {
+        return first.toUpperCase();
+    }
+
+    public String trimLast() {
+        return last.trim();
+    }
+
+}
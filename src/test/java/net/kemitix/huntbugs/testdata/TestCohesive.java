@@ -30,6 +30,11 @@ import one.util.huntbugs.registry.anno.AssertNoWarning;
  * @author Paul Campbell (pcampbell@kemitix.net)
  */
 @AssertNoWarning(CohesiveDetector.MULTIPLE_COMPONENTS)
+@AssertNoWarning(CohesiveDetector.HIGH_LCOM1)
+@AssertNoWarning(CohesiveDetector.HIGH_LCOM2)
+@AssertNoWarning(CohesiveDetector.HIGH_LCOM3)
+@AssertNoWarning(CohesiveDetector.LOW_TCC)
+@AssertNoWarning(CohesiveDetector.LOW_LCC)
 public class TestCohesive {
 
     private String field;
@@ -0,0 +1,63 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 Paul Campbell
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.kemitix.huntbugs.testdata;
+
+import net.kemitix.huntbugs.detect.CohesiveDetector;
+import one.util.huntbugs.registry.anno.AssertWarning;
+
+/**
+ * A class whose methods share no fields, so that every cohesion metric is beyond the thresholds set by the DataTest.
+ *
+ * @author Paul Campbell (pcampbell@kemitix.net)
+ */
+@AssertWarning(CohesiveDetector.HIGH_LCOM1)
+@AssertWarning(CohesiveDetector.HIGH_LCOM2)
+@AssertWarning(CohesiveDetector.HIGH_LCOM3)
+@AssertWarning(CohesiveDetector.LOW_TCC)
+@AssertWarning(CohesiveDetector.LOW_LCC)
+public class TestLowCohesionMetrics {
+
+    private int apples;
+
+    private int pears;
+
+    private int plums;
+
+    private int cherries;
+
+    public void pickApple() {
+        apples += 1;
+    }
+
+    public void pickPear() {
+        pears += 1;
+    }
+
+    public void pickPlum() {
+        plums += 1;
+    }
+
+    public void pickCherry() {
+        cherries += 1;
+    }
+
+}